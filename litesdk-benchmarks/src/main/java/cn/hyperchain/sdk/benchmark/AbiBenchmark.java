@@ -0,0 +1,94 @@
+package cn.hyperchain.sdk.benchmark;
+
+import cn.hyperchain.sdk.common.solidity.Abi;
+import cn.hyperchain.sdk.common.solidity.ContractType;
+import cn.hyperchain.sdk.common.utils.FVMAbi;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * EVM Abi encode/decode and FVMAbi.encode of canned contract calls.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AbiBenchmark {
+    private ContractType.Function testString;
+    private ContractType.Function testUintArray;
+    private List<Object> stringArgs;
+    private List<Object> uintArrayArgs;
+    private byte[] stringResult;
+    private byte[] uintArrayResult;
+    private ByteBuffer callBuffer;
+    private FVMAbi fvmAbi;
+    private List<Object> fvmArgs;
+
+    @Setup
+    public void setUp() {
+        Abi abi = Abi.fromJson(Payloads.resource("evm.abi"));
+        testString = abi.getFunction("TestString(string)");
+        testUintArray = abi.getFunction("TestUintArray(uint256[3])");
+        stringArgs = Collections.singletonList("the quick brown fox jumps over the lazy dog");
+        uintArrayArgs = Collections.singletonList(new String[]{"1", "22", "333"});
+        stringResult = result(testString.encode(stringArgs));
+        uintArrayResult = result(testUintArray.encode(uintArrayArgs));
+        callBuffer = ByteBuffer.allocate(1024);
+
+        fvmAbi = FVMAbi.fromJson(Payloads.resource("fvm.json"));
+        fvmArgs = Arrays.asList("key001", "this is the value of 0001");
+    }
+
+    private static byte[] result(byte[] call) {
+        // outputs have the same types as the inputs, skip the selector
+        return Arrays.copyOfRange(call, 4, call.length);
+    }
+
+    @Benchmark
+    public byte[] evmEncodeString() {
+        return testString.encode(stringArgs);
+    }
+
+    @Benchmark
+    public byte[] evmEncodeUintArray() {
+        return testUintArray.encode(uintArrayArgs);
+    }
+
+    @Benchmark
+    public ByteBuffer evmEncodeStringInto() {
+        callBuffer.clear();
+        testString.encode(stringArgs, callBuffer);
+        return callBuffer;
+    }
+
+    @Benchmark
+    public List<?> evmDecodeString() {
+        return testString.decodeResult(stringResult);
+    }
+
+    @Benchmark
+    public List<?> evmDecodeUintArray() {
+        return testUintArray.decodeResult(uintArrayResult);
+    }
+
+    @Benchmark
+    public byte[] fvmEncode() {
+        return fvmAbi.encode("set_hash", fvmArgs);
+    }
+}
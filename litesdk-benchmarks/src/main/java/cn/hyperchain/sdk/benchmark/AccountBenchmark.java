@@ -0,0 +1,76 @@
+package cn.hyperchain.sdk.benchmark;
+
+import cn.hyperchain.sdk.account.Account;
+import cn.hyperchain.sdk.account.Algo;
+import cn.hyperchain.sdk.common.utils.ByteUtil;
+import cn.hyperchain.sdk.crypto.SignatureVerifier;
+import cn.hyperchain.sdk.provider.ProviderManager;
+import cn.hyperchain.sdk.service.ServiceManager;
+import cn.hyperchain.sdk.transaction.Transaction;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Account.sign and verify per Algo, over the needHashString of a transfer,
+ * and verification by public key through a {@link SignatureVerifier} that keeps the key decoded.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AccountBenchmark {
+    @Param({"ECRAW", "ECRAWR1", "SMRAW", "ED25519RAW"})
+    public String algo;
+
+    private Account account;
+    private byte[] data;
+    private byte[] signature;
+    private byte[] publicKey;
+    private SignatureVerifier verifier;
+
+    @Setup
+    public void setUp() {
+        account = ServiceManager.getAccountService(ProviderManager.emptyManager()).genAccount(Algo.valueOf(algo));
+        Transaction transaction = Payloads.transfer(account.getAddress(), 1);
+        transaction.sign(account);
+        data = transaction.getNeedHashString().getBytes(StandardCharsets.UTF_8);
+        signature = account.sign(data);
+        publicKey = ByteUtil.fromHex(account.getPublicKey());
+        verifier = new SignatureVerifier.Builder().parallelism(1).build();
+    }
+
+    @TearDown
+    public void tearDown() {
+        verifier.shutdown();
+    }
+
+    @Benchmark
+    public byte[] sign() {
+        return account.sign(data);
+    }
+
+    @Benchmark
+    public boolean verify() {
+        return account.verify(data, signature);
+    }
+
+    @Benchmark
+    public boolean verifyCachedKey() {
+        return verifier.verify(data, signature, publicKey);
+    }
+}
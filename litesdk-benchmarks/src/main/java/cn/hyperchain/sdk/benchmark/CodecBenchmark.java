@@ -0,0 +1,82 @@
+package cn.hyperchain.sdk.benchmark;
+
+import cn.hyperchain.sdk.common.utils.ByteUtil;
+import cn.hyperchain.sdk.common.utils.HexCodec;
+import org.bouncycastle.util.encoders.Base64;
+import org.bouncycastle.util.encoders.Hex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ByteUtil hex and base64 against the BouncyCastle encoders it used before, from an address to a large payload.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CodecBenchmark {
+    @Param({"20", "65", "4096"})
+    public int size;
+
+    private byte[] data;
+    private String hex;
+    private char[] chars;
+
+    @Setup
+    public void setUp() {
+        data = new byte[size];
+        new Random(size).nextBytes(data);
+        hex = "0x" + Hex.toHexString(data);
+        chars = new char[size * 2];
+    }
+
+    @Benchmark
+    public String bcToHex() {
+        return Hex.toHexString(data);
+    }
+
+    @Benchmark
+    public String toHex() {
+        return ByteUtil.toHex(data);
+    }
+
+    @Benchmark
+    public char[] toHexInto() {
+        HexCodec.encode(data, 0, data.length, chars, 0);
+        return chars;
+    }
+
+    @Benchmark
+    public byte[] bcFromHex() {
+        return Hex.decode(hex.substring(2));
+    }
+
+    @Benchmark
+    public byte[] fromHex() {
+        return ByteUtil.fromHex(hex);
+    }
+
+    @Benchmark
+    public String bcHex2Base64() {
+        return Base64.toBase64String(Hex.decode(hex.substring(2)));
+    }
+
+    @Benchmark
+    public String hex2Base64() {
+        return ByteUtil.hex2Base64(hex);
+    }
+}
@@ -0,0 +1,60 @@
+package cn.hyperchain.sdk.benchmark;
+
+import cn.hyperchain.sdk.common.utils.Decoder;
+import cn.hyperchain.sdk.kvsqlutil.Chunk;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decoder.decodeKVSQL of a query result, with and without reading every value, row by row or a column at a time.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DecoderBenchmark {
+    @Param({"10", "1000"})
+    public int rows;
+
+    private String ret;
+
+    @Setup
+    public void setUp() {
+        ret = Payloads.kvsqlQuery(rows);
+    }
+
+    @Benchmark
+    public Chunk decodeKVSQL() {
+        return Decoder.decodeKVSQL(ret);
+    }
+
+    @Benchmark
+    public void decodeKVSQLAndRead(Blackhole blackhole) {
+        Chunk chunk = Decoder.decodeKVSQL(ret);
+        while (chunk.next()) {
+            blackhole.consume(chunk.getLong(0));
+            blackhole.consume(chunk.getString(1));
+        }
+    }
+
+    @Benchmark
+    public void decodeKVSQLAndReadColumns(Blackhole blackhole) {
+        Chunk chunk = Decoder.decodeKVSQL(ret);
+        blackhole.consume(chunk.getLongColumn(0));
+        blackhole.consume(chunk.getStringColumn(1));
+    }
+}
@@ -0,0 +1,105 @@
+package cn.hyperchain.sdk.benchmark;
+
+import cn.hyperchain.sdk.common.utils.FVMAbi;
+import cn.hyperchain.sdk.fvm.MethodCodec;
+import cn.hyperchain.sdk.fvm.scale.ScaleCodecReader;
+import cn.hyperchain.sdk.fvm.scale.ScaleCodecWriter;
+import cn.hyperchain.sdk.fvm.types.FVMType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * FVMAbi encode/decode of a struct of every primitive, the compiled MethodCodec against walking the type list per call.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FVMAbiBenchmark {
+    private static final String METHOD = "make_types";
+
+    private FVMAbi.Method method;
+    private MethodCodec codec;
+    private List<Object> args;
+    private byte[] result;
+    private ByteBuffer callBuffer;
+
+    @Setup
+    public void setUp() {
+        FVMAbi abi = FVMAbi.fromJson(Payloads.resource("fvm-types.json"));
+        method = abi.getMethods().get(METHOD);
+        codec = method.getCodec();
+
+        List<Object> arg1 = Collections.singletonList(2);
+        List<Object> arg2 = Collections.singletonList(true);
+        List<Object> arg = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            arg.add(arg1);
+        }
+        arg.add(arg2);
+        for (int i = 0; i < 10; i++) {
+            arg.add(Collections.singletonList(arg1));
+        }
+        arg.add(Collections.singletonList(arg2));
+        args = Collections.singletonList(arg);
+
+        byte[] call = codec.encode(args);
+        // the output has the same type as the input, skip the method name
+        result = Arrays.copyOfRange(call, 1 + METHOD.length(), call.length);
+        callBuffer = ByteBuffer.allocateDirect(1024);
+    }
+
+    @Benchmark
+    public byte[] interpretedEncode() throws IOException {
+        ByteArrayOutputStream buf = new ByteArrayOutputStream();
+        ScaleCodecWriter writer = new ScaleCodecWriter(buf);
+        writer.writeAsList(METHOD.getBytes(StandardCharsets.UTF_8));
+        for (int i = 0; i < method.input.size(); i++) {
+            FVMType type = method.input.get(i);
+            type.encode(writer, args.get(i));
+        }
+        return buf.toByteArray();
+    }
+
+    @Benchmark
+    public byte[] compiledEncode() {
+        return codec.encode(args);
+    }
+
+    @Benchmark
+    public ByteBuffer compiledEncodeInto() {
+        callBuffer.clear();
+        codec.encodeInto(args, callBuffer);
+        return callBuffer;
+    }
+
+    @Benchmark
+    public Object interpretedDecode() {
+        return method.output.get(0).decode(new ScaleCodecReader(result));
+    }
+
+    @Benchmark
+    public Object[] compiledDecode() {
+        return codec.decode(ByteBuffer.wrap(result), Object[].class);
+    }
+}
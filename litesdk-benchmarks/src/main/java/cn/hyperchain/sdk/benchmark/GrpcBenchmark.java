@@ -0,0 +1,52 @@
+package cn.hyperchain.sdk.benchmark;
+
+import cn.hyperchain.sdk.account.Account;
+import cn.hyperchain.sdk.account.Algo;
+import cn.hyperchain.sdk.grpc.GrpcUtil;
+import cn.hyperchain.sdk.grpc.Transaction.CommonReq;
+import cn.hyperchain.sdk.provider.ProviderManager;
+import cn.hyperchain.sdk.request.Request;
+import cn.hyperchain.sdk.response.TxHashResponse;
+import cn.hyperchain.sdk.service.ServiceManager;
+import cn.hyperchain.sdk.transaction.Transaction;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * GrpcUtil.convertRequestToCommonReq of a signed sendTransaction request.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GrpcBenchmark {
+    private Request<TxHashResponse> request;
+
+    @Setup
+    public void setUp() {
+        ProviderManager providerManager = ProviderManager.emptyManager();
+        Account account = ServiceManager.getAccountService(providerManager).genAccount(Algo.ECRAW);
+        Transaction transaction = Payloads.transfer(account.getAddress(), 1);
+        transaction.sign(account);
+        request = ServiceManager.getTxService(providerManager).sendTx(transaction);
+        // ProviderManager sets it when sending
+        request.setNamespace(providerManager.getNamespace());
+    }
+
+    @Benchmark
+    public CommonReq convertRequestToCommonReq() {
+        return GrpcUtil.convertRequestToCommonReq(request);
+    }
+}
@@ -0,0 +1,77 @@
+package cn.hyperchain.sdk.benchmark;
+
+import cn.hyperchain.sdk.crypto.HashUtil;
+import cn.hyperchain.sdk.crypto.sm.sm3.SM3Util;
+import org.bouncycastle.crypto.digests.KeccakDigest;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.ByteBuffer;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * HashUtil.sha3 and SM3Util.hash over inputs from a hash to a large payload,
+ * with bouncy castle's KeccakDigest as the reference for sha3.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class HashBenchmark {
+    @Param({"32", "1024", "65536"})
+    public int size;
+
+    private byte[] data;
+    private ByteBuffer direct;
+    private final KeccakDigest keccak = new KeccakDigest(256);
+    private final byte[] hash = new byte[32];
+
+    @Setup
+    public void setUp() {
+        data = new byte[size];
+        new Random(size).nextBytes(data);
+        direct = ByteBuffer.allocateDirect(size);
+        direct.put(data);
+    }
+
+    @Benchmark
+    public byte[] sha3() {
+        return HashUtil.sha3(data);
+    }
+
+    @Benchmark
+    public byte[] sha3DirectBuffer() {
+        direct.clear();
+        return HashUtil.sha3(direct);
+    }
+
+    @Benchmark
+    public byte[] sha3BouncyCastle() {
+        keccak.update(data, 0, data.length);
+        keccak.doFinal(hash, 0);
+        return hash;
+    }
+
+    @Benchmark
+    public byte[] sm3() {
+        return SM3Util.hash(data);
+    }
+
+    @Benchmark
+    public byte[] sm3DirectBuffer() {
+        direct.clear();
+        return SM3Util.hash(direct);
+    }
+}
@@ -0,0 +1,120 @@
+package cn.hyperchain.sdk.benchmark;
+
+import cn.hyperchain.sdk.common.utils.ByteUtil;
+import cn.hyperchain.sdk.common.utils.FileUtil;
+import cn.hyperchain.sdk.kvsqlutil.Column;
+import cn.hyperchain.sdk.transaction.Transaction;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * canned inputs, the benchmarks never talk to a node.
+ */
+final class Payloads {
+    static final String TO = "794BF01AB3D37DF2D1EA1AA4E6F4A0E988F4DEA5";
+
+    static final String RECEIPT_JSON = "{\"jsonrpc\":\"2.0\",\"namespace\":\"global\",\"id\":1,\"code\":0,\"message\":\"SUCCESS\","
+            + "\"result\":{\"version\":\"3.4\",\"txHash\":\"0x6fd5b7e4e1a0bd5b5e4e1ed1b7a1a7f0c1c7dd9d6f5e5c7d6b8d0e0f1a2b3c4d\","
+            + "\"vmType\":\"EVM\",\"contractAddress\":\"0x0000000000000000000000000000000000000000\",\"gasUsed\":21000,"
+            + "\"ret\":\"0x0000000000000000000000000000000000000000000000000000000000000001\","
+            + "\"log\":[{\"address\":\"0x" + TO.toLowerCase() + "\",\"topics\":[\"0x2c7b8a8ccf0b6e5b3d3c7d8e1b0a9f8e7d6c5b4a392817161514131211100f0e\"],"
+            + "\"data\":\"0x00000000000000000000000000000000000000000000000000000000000000ff\",\"blockNumber\":12,"
+            + "\"blockHash\":\"0x1b2c3d4e5f60718293a4b5c6d7e8f90112233445566778899aabbccddeeff001\",\"txHash\":\"0x6fd5\",\"txIndex\":0,\"index\":0}]}}";
+
+    private Payloads() {
+    }
+
+    static String resource(String name) {
+        try (InputStream in = Payloads.class.getClassLoader().getResourceAsStream(name)) {
+            return FileUtil.readFile(in);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    static Transaction transfer(String from, long value) {
+        return new Transaction.Builder(from).transfer(TO, value).build();
+    }
+
+    /**
+     * a KVSQL query result of rows (id INT, name VARCHAR), hex encoded like a receipt ret.
+     */
+    static String kvsqlQuery(int rows) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.write(0);
+        writeInt(out, 2, 4);
+        writeField(out, "id", Column.FIELD_TYPE_LONG);
+        writeField(out, "name", Column.FIELD_TYPE_VARCHAR);
+        writeInt(out, rows, 4);
+
+        ByteArrayOutputStream ids = new ByteArrayOutputStream();
+        for (int i = 0; i < rows; i++) {
+            writeInt(ids, i, 4);
+        }
+        writeColumn(out, ids.toByteArray(), rows, new int[0]);
+
+        ByteArrayOutputStream names = new ByteArrayOutputStream();
+        int[] offsets = new int[rows + 1];
+        for (int i = 0; i < rows; i++) {
+            byte[] name = ("name-" + i).getBytes(StandardCharsets.UTF_8);
+            names.write(name, 0, name.length);
+            offsets[i + 1] = names.size();
+        }
+        writeColumn(out, names.toByteArray(), rows, offsets);
+        return ByteUtil.toHex(out.toByteArray());
+    }
+
+    private static void writeField(ByteArrayOutputStream out, String column, int type) {
+        writeLenBytes(out, "t".getBytes(StandardCharsets.UTF_8));
+        writeLenBytes(out, "t".getBytes(StandardCharsets.UTF_8));
+        writeLenBytes(out, column.getBytes(StandardCharsets.UTF_8));
+        writeLenBytes(out, column.getBytes(StandardCharsets.UTF_8));
+        writeInt(out, 33, 2);
+        writeInt(out, 64, 4);
+        writeInt(out, type, 1);
+        writeInt(out, 0, 2);
+        writeInt(out, 0, 1);
+    }
+
+    private static void writeColumn(ByteArrayOutputStream out, byte[] data, int rows, int[] offsets) {
+        writeLenBytes(out, data);
+        byte[] nullBitmap = new byte[(rows + 7) / 8];
+        for (int i = 0; i < rows; i++) {
+            nullBitmap[i / 8] |= 1 << (i & 7);
+        }
+        writeLenBytes(out, nullBitmap);
+        writeLenEnc(out, offsets.length);
+        for (int offset : offsets) {
+            writeInt(out, offset, 4);
+        }
+    }
+
+    private static void writeLenBytes(ByteArrayOutputStream out, byte[] bytes) {
+        writeLenEnc(out, bytes.length);
+        out.write(bytes, 0, bytes.length);
+    }
+
+    private static void writeLenEnc(ByteArrayOutputStream out, long value) {
+        if (value < 251) {
+            out.write((int) value);
+        } else if (value < (1 << 16)) {
+            out.write(252);
+            writeInt(out, value, 2);
+        } else if (value < (1 << 24)) {
+            out.write(253);
+            writeInt(out, value, 3);
+        } else {
+            out.write(254);
+            writeInt(out, value, 8);
+        }
+    }
+
+    private static void writeInt(ByteArrayOutputStream out, long value, int bytes) {
+        for (int i = 0; i < bytes; i++) {
+            out.write((int) (value >>> (8 * i)) & 0xff);
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package cn.hyperchain.sdk.benchmark;
+
+import cn.hyperchain.sdk.response.ReceiptResponse;
+import cn.hyperchain.sdk.response.TxHashResponse;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Gson parsing of responses the way Request does it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ResponseBenchmark {
+    private static final String TX_HASH_JSON = "{\"jsonrpc\":\"2.0\",\"namespace\":\"global\",\"id\":1,\"code\":0,\"message\":\"SUCCESS\","
+            + "\"result\":\"0x6fd5b7e4e1a0bd5b5e4e1ed1b7a1a7f0c1c7dd9d6f5e5c7d6b8d0e0f1a2b3c4d\"}";
+
+    private final Gson gson = new GsonBuilder().excludeFieldsWithoutExposeAnnotation().create();
+
+    @Benchmark
+    public ReceiptResponse receipt() {
+        return gson.fromJson(Payloads.RECEIPT_JSON, ReceiptResponse.class);
+    }
+
+    @Benchmark
+    public TxHashResponse txHash() {
+        return gson.fromJson(TX_HASH_JSON, TxHashResponse.class);
+    }
+}
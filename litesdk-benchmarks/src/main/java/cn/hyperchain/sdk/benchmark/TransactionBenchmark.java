@@ -0,0 +1,77 @@
+package cn.hyperchain.sdk.benchmark;
+
+import cn.hyperchain.sdk.account.Account;
+import cn.hyperchain.sdk.account.Algo;
+import cn.hyperchain.sdk.provider.ProviderManager;
+import cn.hyperchain.sdk.service.ServiceManager;
+import cn.hyperchain.sdk.transaction.Transaction;
+import cn.hyperchain.sdk.transaction.TxVersion;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Transaction.sign, getTransactionHash and hashAll of a batch for every TxVersion.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TransactionBenchmark {
+    private static final int BATCH = 1000;
+
+    @Param({"1.0", "2.0", "2.1", "2.2", "2.5", "2.6", "3.0", "3.4"})
+    public String txVersion;
+
+    private Account account;
+    private Transaction transaction;
+    private List<Transaction> batch;
+
+    @Setup
+    public void setUp() {
+        account = ServiceManager.getAccountService(ProviderManager.emptyManager()).genAccount(Algo.ECRAW);
+        transaction = Payloads.transfer(account.getAddress(), 1);
+        transaction.setTxVersion(TxVersion.convertTxVersion(txVersion));
+        transaction.updatePayload();
+        transaction.sign(account);
+
+        batch = new ArrayList<>(BATCH);
+        for (int i = 0; i < BATCH; i++) {
+            Transaction tx = Payloads.transfer(account.getAddress(), i);
+            tx.setTxVersion(TxVersion.convertTxVersion(txVersion));
+            tx.updatePayload();
+            tx.sign(account);
+            batch.add(tx);
+        }
+    }
+
+    @Benchmark
+    public String sign() {
+        transaction.sign(account);
+        return transaction.getSignature();
+    }
+
+    @Benchmark
+    public String transactionHash() {
+        return transaction.getTransactionHash();
+    }
+
+    @Benchmark
+    public List<String> hashAll() {
+        return Transaction.hashAll(batch);
+    }
+}
@@ -11,10 +11,22 @@ import org.bouncycastle.crypto.params.Ed25519PublicKeyParameters;
 public class ED25519Account extends Account {
 
     private AsymmetricCipherKeyPair keyPair;
+    private final byte[] publicKeyBytes;
 
+    /**
+     * create an ed25519 account.
+     *
+     * @param address    address hex
+     * @param publicKey  public key hex
+     * @param privateKey private key hex
+     * @param version    account version
+     * @param algo       account private key algorithm
+     * @param keyPair    key pair
+     */
     public ED25519Account(String address, String publicKey, String privateKey, Version version, Algo algo, AsymmetricCipherKeyPair keyPair) {
         super(address, publicKey, privateKey, version, algo);
         this.keyPair = keyPair;
+        this.publicKeyBytes = ByteUtil.fromHex(publicKey);
     }
 
     public AsymmetricCipherKeyPair getKeyPair() {
@@ -24,9 +36,8 @@ public class ED25519Account extends Account {
     @Override
     public byte[] sign(byte[] sourceData) {
         try {
-            byte[] publicKey = ByteUtil.fromHex(this.publicKey);
             byte[] signature = ED25519Util.sign(keyPair, sourceData);
-            return ByteUtil.merge(ED25519Flag, publicKey, signature);
+            return ByteUtil.merge(ED25519Flag, publicKeyBytes, signature);
         } catch (CryptoException e) {
             logger.error("sign transaction error " + e.getMessage());
             return ByteUtil.EMPTY_BYTE_ARRAY;
@@ -36,12 +47,11 @@ public class ED25519Account extends Account {
     @Override
     protected byte[] sign(byte[] sourceData, boolean isDID) {
         try {
-            byte[] publicKey = ByteUtil.fromHex(this.publicKey);
             byte[] signature = ED25519Util.sign(keyPair, sourceData);
             if (isDID) {
-                return ByteUtil.merge(publicKey, signature);
+                return ByteUtil.merge(publicKeyBytes, signature);
             }
-            return ByteUtil.merge(ED25519Flag, publicKey, signature);
+            return ByteUtil.merge(ED25519Flag, publicKeyBytes, signature);
         } catch (CryptoException e) {
             logger.error("sign transaction error " + e.getMessage());
             return ByteUtil.EMPTY_BYTE_ARRAY;
@@ -13,10 +13,22 @@ import org.bouncycastle.crypto.params.ECPublicKeyParameters;
 public class R1Account extends Account {
 
     private AsymmetricCipherKeyPair keyPair;
+    private final byte[] publicKeyBytes;
 
+    /**
+     * create an ecdsa r1 account.
+     *
+     * @param address    address hex
+     * @param publicKey  public key hex
+     * @param privateKey private key hex
+     * @param version    account version
+     * @param algo       account private key algorithm
+     * @param keyPair    key pair
+     */
     public R1Account(String address, String publicKey, String privateKey, Version version, Algo algo, AsymmetricCipherKeyPair keyPair) {
         super(address, publicKey, privateKey, version, algo);
         this.keyPair = keyPair;
+        this.publicKeyBytes = ByteUtil.fromHex(publicKey);
     }
 
     public AsymmetricCipherKeyPair getEcKey() {
@@ -25,27 +37,25 @@ public class R1Account extends Account {
 
     @Override
     public byte[] sign(byte[] sourceData) {
-        byte[] publicKey = ByteUtil.fromHex(this.publicKey);
         byte[] hash = HashUtil.sha3(sourceData);
         try {
             byte[] signature = R1Util.sign(keyPair, hash);
-            return ByteUtil.merge(R1Flag, publicKey, signature);
+            return ByteUtil.merge(R1Flag, publicKeyBytes, signature);
         } catch (Exception e) {
             e.printStackTrace();
         }
-        return ByteUtil.merge(R1Flag, publicKey);
+        return ByteUtil.merge(R1Flag, publicKeyBytes);
     }
 
     @Override
     protected byte[] sign(byte[] sourceData, boolean isDID) {
         try {
-            byte[] publicKey = ByteUtil.fromHex(this.publicKey);
             byte[] hash = HashUtil.sha3(sourceData);
             byte[] signature = R1Util.sign(keyPair, hash);
             if (isDID) {
-                return ByteUtil.merge(publicKey, signature);
+                return ByteUtil.merge(publicKeyBytes, signature);
             }
-            return ByteUtil.merge(R1Flag, publicKey, signature);
+            return ByteUtil.merge(R1Flag, publicKeyBytes, signature);
         } catch (CryptoException e) {
             logger.error("sign transaction error " + e.getMessage());
             return ByteUtil.EMPTY_BYTE_ARRAY;
@@ -6,24 +6,43 @@ import cn.hyperchain.sdk.exception.IllegalSignatureException;
 import com.google.gson.annotations.Expose;
 import org.bouncycastle.crypto.AsymmetricCipherKeyPair;
 import org.bouncycastle.crypto.CryptoException;
+import org.bouncycastle.crypto.params.ECPrivateKeyParameters;
 import org.bouncycastle.crypto.params.ECPublicKeyParameters;
+import org.bouncycastle.math.ec.ECPoint;
 
 public class SMAccount extends Account {
 
     @Expose(serialize = false, deserialize = false)
     private AsymmetricCipherKeyPair keyPair;
+    // signing state prepared once, the public key and Z would otherwise be derived for every signature
+    private final byte[] publicKeyBytes;
+    private final ECPrivateKeyParameters privateKeyParameters;
+    private final byte[] z;
 
+    /**
+     * create a sm account.
+     *
+     * @param address    address hex
+     * @param publicKey  public key hex
+     * @param privateKey private key hex
+     * @param version    account version
+     * @param algo       account private key algorithm
+     * @param keyPair    key pair, its public key may be null
+     */
     public SMAccount(String address, String publicKey, String privateKey, Version version, Algo algo, AsymmetricCipherKeyPair keyPair) {
         super(address, publicKey, privateKey, version, algo);
         this.keyPair = keyPair;
+        this.publicKeyBytes = ByteUtil.fromHex(publicKey);
+        this.privateKeyParameters = (ECPrivateKeyParameters) keyPair.getPrivate();
+        ECPoint point = keyPair.getPublic() != null ? ((ECPublicKeyParameters) keyPair.getPublic()).getQ() : SM2Util.getPublicPoint(privateKeyParameters);
+        this.z = SM2Util.getZ(point);
     }
 
     @Override
     public byte[] sign(byte[] sourceData) {
         try {
-            byte[] publicKey = ByteUtil.fromHex(this.publicKey);
-            byte[] signature = SM2Util.sign(keyPair, sourceData);
-            return ByteUtil.merge(SMFlag, publicKey, signature);
+            byte[] signature = SM2Util.sign(privateKeyParameters, z, sourceData);
+            return ByteUtil.merge(SMFlag, publicKeyBytes, signature);
         } catch (CryptoException e) {
             logger.error("sign transaction error " + e.getMessage());
             return ByteUtil.EMPTY_BYTE_ARRAY;
@@ -33,12 +52,11 @@ public class SMAccount extends Account {
     @Override
     protected byte[] sign(byte[] sourceData, boolean isDID) {
         try {
-            byte[] publicKey = ByteUtil.fromHex(this.publicKey);
-            byte[] signature = SM2Util.sign(keyPair, sourceData);
+            byte[] signature = SM2Util.sign(privateKeyParameters, z, sourceData);
             if (isDID) {
-                return ByteUtil.merge(publicKey, signature);
+                return ByteUtil.merge(publicKeyBytes, signature);
             }
-            return ByteUtil.merge(SMFlag, publicKey, signature);
+            return ByteUtil.merge(SMFlag, publicKeyBytes, signature);
         } catch (CryptoException e) {
             logger.error("sign transaction error " + e.getMessage());
             return ByteUtil.EMPTY_BYTE_ARRAY;
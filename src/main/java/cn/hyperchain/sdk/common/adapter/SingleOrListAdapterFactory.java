@@ -0,0 +1,64 @@
+package cn.hyperchain.sdk.common.adapter;
+
+import com.google.gson.Gson;
+import com.google.gson.TypeAdapter;
+import com.google.gson.TypeAdapterFactory;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * reads a List field from a json array, or from a single value as a list of one,
+ * e.g. a result that is one block or many. Use it with {@link com.google.gson.annotations.JsonAdapter}.
+ */
+public class SingleOrListAdapterFactory implements TypeAdapterFactory {
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> TypeAdapter<T> create(Gson gson, TypeToken<T> type) {
+        if (!List.class.isAssignableFrom(type.getRawType())) {
+            return null;
+        }
+        Type elementType = type.getType() instanceof ParameterizedType
+                ? ((ParameterizedType) type.getType()).getActualTypeArguments()[0] : Object.class;
+        return (TypeAdapter<T>) new Adapter<>(gson.getAdapter(TypeToken.get(elementType)));
+    }
+
+    private static class Adapter<E> extends TypeAdapter<List<E>> {
+        private final TypeAdapter<E> elementAdapter;
+
+        Adapter(TypeAdapter<E> elementAdapter) {
+            this.elementAdapter = elementAdapter;
+        }
+
+        @Override
+        public List<E> read(JsonReader reader) throws IOException {
+            List<E> list = new ArrayList<>();
+            if (reader.peek() != JsonToken.BEGIN_ARRAY) {
+                list.add(elementAdapter.read(reader));
+                return list;
+            }
+            reader.beginArray();
+            while (reader.hasNext()) {
+                list.add(elementAdapter.read(reader));
+            }
+            reader.endArray();
+            return list;
+        }
+
+        @Override
+        public void write(JsonWriter writer, List<E> list) throws IOException {
+            writer.beginArray();
+            for (E element : list) {
+                elementAdapter.write(writer, element);
+            }
+            writer.endArray();
+        }
+    }
+}
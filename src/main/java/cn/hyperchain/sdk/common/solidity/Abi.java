@@ -27,6 +27,8 @@ import com.google.gson.JsonParser;
 import com.google.gson.JsonSerializer;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -135,6 +137,11 @@ public class Abi {
     }
 
     public ContractType.Function getFunction(String name) {
+        // canonical names hit directly, aliases like int and uint are normalized first
+        ContractType.Function function = functions.get(name);
+        if (function != null) {
+            return function;
+        }
         name = MethodNameUtil.getNormalizedMethodName(name);
         return functions.get(name);
     }
@@ -142,4 +149,8 @@ public class Abi {
     public ContractType.Event getEvent(String name) {
         return events.get(name);
     }
+
+    public Collection<ContractType.Event> getEvents() {
+        return Collections.unmodifiableCollection(events.values());
+    }
 }
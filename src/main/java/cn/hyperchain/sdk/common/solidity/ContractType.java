@@ -17,15 +17,17 @@
  */
 package cn.hyperchain.sdk.common.solidity;
 
-import cn.hyperchain.sdk.common.utils.ByteUtil;
 import cn.hyperchain.sdk.common.utils.Utils;
 import cn.hyperchain.sdk.crypto.HashUtil;
 
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
-import static cn.hyperchain.sdk.common.solidity.SolidityType.IntType.decodeInt;
-import static cn.hyperchain.sdk.common.solidity.SolidityType.IntType.encodeInt;
+import static cn.hyperchain.sdk.common.solidity.SolidityType.IntType.decodeOffset;
+import static cn.hyperchain.sdk.common.solidity.SolidityType.IntType.writeInt;
 import static java.lang.String.format;
 import static org.apache.commons.lang3.ArrayUtils.subarray;
 import static org.apache.commons.lang3.StringUtils.join;
@@ -52,12 +54,19 @@ public abstract class ContractType {
         }
 
         public static List<?> decodeList(List<ContractType.Param> params, byte[] encoded) {
+            return decodeList(params, encoded, 0);
+        }
+
+        /**
+         * decode the params starting at origOffset of encoded, without copying it out first.
+         */
+        public static List<?> decodeList(List<ContractType.Param> params, byte[] encoded, int origOffset) {
             List<Object> result = new ArrayList<>(params.size());
 
-            int offset = 0;
+            int offset = origOffset;
             for (ContractType.Param param : params) {
                 Object decoded = param.type.isDynamicType()
-                        ? param.type.decode(encoded, decodeInt(encoded, offset).intValue())
+                        ? param.type.decode(encoded, origOffset + decodeOffset(encoded, offset))
                         : param.type.decode(encoded, offset);
                 result.add(decoded);
 
@@ -80,6 +89,12 @@ public abstract class ContractType {
     protected final List<ContractType.Param> outputs;
     protected final ContractType.Type type;
     protected final Boolean payable;
+    // compiled once, transient to stay out of Abi.toJson
+    private final transient String signature;
+    private final transient byte[] fingerprint;
+    // headOffsets[i] is where the head of input i starts, headOffsets[n] is the head size of n inputs
+    private final transient int[] headOffsets;
+    private final transient boolean[] dynamic;
 
     public ContractType(Boolean anonymous, Boolean constant, String name, List<ContractType.Param> inputs, List<ContractType.Param> outputs, ContractType.Type type, Boolean payable) {
         this.anonymous = anonymous;
@@ -89,19 +104,38 @@ public abstract class ContractType {
         this.outputs = outputs;
         this.type = type;
         this.payable = payable;
-    }
-
-    public String formatSignature() {
+        if (inputs == null) {
+            this.signature = null;
+            this.fingerprint = null;
+            this.headOffsets = null;
+            this.dynamic = null;
+            return;
+        }
         StringBuilder paramsTypes = new StringBuilder();
         for (ContractType.Param param : inputs) {
             paramsTypes.append(param.type.getCanonicalName()).append(",");
         }
+        this.signature = format("%s(%s)", name, stripEnd(paramsTypes.toString(), ","));
+        this.fingerprint = HashUtil.sha3(signature.getBytes(Utils.DEFAULT_CHARSET));
+        this.headOffsets = new int[inputs.size() + 1];
+        this.dynamic = new boolean[inputs.size()];
+        for (int i = 0; i < inputs.size(); i++) {
+            SolidityType paramType = inputs.get(i).type;
+            dynamic[i] = paramType.isDynamicType();
+            headOffsets[i + 1] = headOffsets[i] + paramType.getFixedSize();
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
 
-        return format("%s(%s)", name, stripEnd(paramsTypes.toString(), ","));
+    public String formatSignature() {
+        return signature;
     }
 
     public byte[] fingerprintSignature() {
-        return HashUtil.sha3(formatSignature().getBytes(Utils.DEFAULT_CHARSET));
+        return fingerprint.clone();
     }
 
     public byte[] encodeSignature() {
@@ -109,37 +143,46 @@ public abstract class ContractType {
     }
 
     byte[] encodeArguments(List<Object> args) {
+        byte[] out = new byte[argumentsSize(args)];
+        encodeArguments(args, out, 0);
+        return out;
+    }
 
+    /**
+     * @return size in bytes of the encoded arguments
+     */
+    int argumentsSize(List<Object> args) {
         if (args.size() > inputs.size()) {
             throw new RuntimeException("Too many arguments: " + args.size() + " > " + inputs.size());
         }
-
-        int staticSize = 0;
-        int dynamicCnt = 0;
-        // calculating static size and number of dynamic params
+        int size = headOffsets[args.size()];
         for (int i = 0; i < args.size(); i++) {
-            SolidityType type = inputs.get(i).type;
-            if (type.isDynamicType()) {
-                dynamicCnt++;
+            if (dynamic[i]) {
+                size += inputs.get(i).type.encodedSize(args.get(i));
             }
-            staticSize += type.getFixedSize();
         }
+        return size;
+    }
 
-        byte[][] bb = new byte[args.size() + dynamicCnt][];
-        for (int curDynamicPtr = staticSize, curDynamicCnt = 0, i = 0; i < args.size(); i++) {
+    /**
+     * encode the arguments into out at offset, heads first and then the dynamic tails.
+     * out must be zeroed there and sized by argumentsSize.
+     *
+     * @return the offset after the encoded arguments
+     */
+    int encodeArguments(List<Object> args, byte[] out, int offset) {
+        int tail = offset + headOffsets[args.size()];
+        for (int i = 0; i < args.size(); i++) {
             SolidityType type = inputs.get(i).type;
-            if (type.isDynamicType()) {
-                byte[] dynBB = type.encode(args.get(i));
-                bb[i] = encodeInt(curDynamicPtr);
-                bb[args.size() + curDynamicCnt] = dynBB;
-                curDynamicCnt++;
-                curDynamicPtr += dynBB.length;
+            int head = offset + headOffsets[i];
+            if (dynamic[i]) {
+                writeInt(tail - offset, out, head);
+                tail = type.encodeTo(args.get(i), out, tail);
             } else {
-                bb[i] = type.encode(args.get(i));
+                type.encodeTo(args.get(i), out, head);
             }
         }
-
-        return ByteUtil.merge(bb);
+        return tail;
     }
 
     public static class Constructor extends ContractType {
@@ -171,16 +214,59 @@ public abstract class ContractType {
 
         private static final int ENCODED_SIGN_LENGTH = 4;
 
+        private final transient byte[] selector;
+
         public Function(Boolean constant, String name, List<Param> inputs, List<Param> outputs, Boolean payable) {
             super(null, constant, name, inputs, outputs, Type.function, payable);
+            this.selector = inputs == null ? null : extractSignature(super.encodeSignature());
         }
 
         public byte[] encode(List<Object> args) {
-            return ByteUtil.merge(encodeSignature(), encodeArguments(args));
+            byte[] out = new byte[encodedSize(args)];
+            System.arraycopy(selector, 0, out, 0, ENCODED_SIGN_LENGTH);
+            encodeArguments(args, out, ENCODED_SIGN_LENGTH);
+            return out;
+        }
+
+        /**
+         * encode the call into buffer at its position and advance it,
+         * heap buffers are written in place.
+         *
+         * @param args arguments
+         * @param buffer buffer with at least encodedSize(args) remaining
+         */
+        public void encode(List<Object> args, ByteBuffer buffer) {
+            int size = encodedSize(args);
+            if (buffer.remaining() < size) {
+                throw new BufferOverflowException();
+            }
+            if (!buffer.hasArray()) {
+                byte[] out = new byte[size];
+                System.arraycopy(selector, 0, out, 0, ENCODED_SIGN_LENGTH);
+                encodeArguments(args, out, ENCODED_SIGN_LENGTH);
+                buffer.put(out);
+                return;
+            }
+            byte[] out = buffer.array();
+            int start = buffer.arrayOffset() + buffer.position();
+            Arrays.fill(out, start, start + size, (byte) 0);
+            System.arraycopy(selector, 0, out, start, ENCODED_SIGN_LENGTH);
+            encodeArguments(args, out, start + ENCODED_SIGN_LENGTH);
+            buffer.position(buffer.position() + size);
+        }
+
+        /**
+         * @return size in bytes of the encoded call, selector included
+         */
+        public int encodedSize(List<Object> args) {
+            return ENCODED_SIGN_LENGTH + argumentsSize(args);
         }
 
         public List<?> decode(byte[] encoded) {
-            return Param.decodeList(inputs, subarray(encoded, ENCODED_SIGN_LENGTH, encoded.length));
+            if (encoded.length < ENCODED_SIGN_LENGTH) {
+                return Param.decodeList(inputs, new byte[0]);
+            }
+            return Param.decodeList(inputs, encoded, ENCODED_SIGN_LENGTH);
         }
 
         public List<?> decodeResult(byte[] encoded) {
@@ -189,7 +275,7 @@ public abstract class ContractType {
 
         @Override
         public byte[] encodeSignature() {
-            return extractSignature(super.encodeSignature());
+            return selector.clone();
         }
 
         public static byte[] extractSignature(byte[] data) {
@@ -216,31 +302,58 @@ public abstract class ContractType {
 
     public static class Event extends ContractType {
 
+        private final transient List<Param> indexedInputs;
+        private final transient List<Param> dataInputs;
+
         public Event(boolean anonymous, String name, List<Param> inputs, List<Param> outputs) {
             super(anonymous, null, name, inputs, outputs, Type.event, false);
+            this.indexedInputs = inputs == null ? null : filteredInputs(true);
+            this.dataInputs = inputs == null ? null : filteredInputs(false);
+        }
+
+        public boolean isAnonymous() {
+            return anonymous;
+        }
+
+        /**
+         * @return the first topic of the logs of a not anonymous event
+         */
+        public byte[] getTopic() {
+            return fingerprintSignature();
+        }
+
+        /**
+         * @return the number of topics of the logs of this event, events with the same signature may index other inputs
+         */
+        public int getTopicCount() {
+            return indexedInputs.size() + (anonymous ? 0 : 1);
         }
 
         public List<?> decode(byte[] data, byte[][] topics) {
+            if (topics.length != getTopicCount()) {
+                throw new IllegalArgumentException(format("event %s has %d topics, not %d", name, getTopicCount(), topics.length));
+            }
             List<Object> result = new ArrayList<>(inputs.size());
 
-            byte[][] argTopics = anonymous ? topics : subarray(topics, 1, topics.length);
-            List<Param> indexedParams = filteredInputs(true);
-            List<Object> indexed = new ArrayList<>();
-            for (int i = 0; i < indexedParams.size(); i++) {
-                Object decodedTopic;
-                if (indexedParams.get(i).type.isDynamicType()) {
+            // arguments start after the signature topic
+            int topicOffset = anonymous ? 0 : 1;
+            Object[] indexed = new Object[indexedInputs.size()];
+            for (int i = 0; i < indexed.length; i++) {
+                byte[] topic = topics[topicOffset + i];
+                if (indexedInputs.get(i).type.isDynamicType()) {
                     // If arrays (including string and bytes) are used as indexed arguments,
                     // the Keccak-256 hash of it is stored as topic instead.
-                    decodedTopic = SolidityType.Bytes32Type.decodeBytes32(argTopics[i], 0);
+                    indexed[i] = SolidityType.Bytes32Type.decodeBytes32(topic, 0);
                 } else {
-                    decodedTopic = indexedParams.get(i).type.decode(argTopics[i]);
+                    indexed[i] = indexedInputs.get(i).type.decode(topic);
                 }
-                indexed.add(decodedTopic);
             }
-            List<?> notIndexed = Param.decodeList(filteredInputs(false), data);
+            List<?> notIndexed = Param.decodeList(dataInputs, data);
 
+            int indexedCnt = 0;
+            int notIndexedCnt = 0;
             for (Param input : inputs) {
-                result.add(input.indexed ? indexed.remove(0) : notIndexed.remove(0));
+                result.add(isIndexed(input) ? indexed[indexedCnt++] : notIndexed.get(notIndexedCnt++));
             }
 
             return result;
@@ -249,13 +362,17 @@ public abstract class ContractType {
         private List<Param> filteredInputs(final boolean indexed) {
             List<Param> result = new ArrayList<>();
             for (Param param : inputs) {
-                if (param.indexed == indexed) {
+                if (isIndexed(param) == indexed) {
                     result.add(param);
                 }
             }
             return result;
         }
 
+        private static boolean isIndexed(Param param) {
+            return Boolean.TRUE.equals(param.indexed);
+        }
+
         @Override
         public String toString() {
             return format("event %s(%s);", name, join(inputs, ", "));
@@ -0,0 +1,242 @@
+package cn.hyperchain.sdk.common.solidity;
+
+import cn.hyperchain.sdk.common.utils.ByteUtil;
+import cn.hyperchain.sdk.response.EventLog;
+import cn.hyperchain.sdk.response.ReceiptResponse;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * EventDecoderRegistry decodes the EVM logs of many contracts, the events of their {@link Abi}
+ * are indexed by contract address and topic0, the keccak hash of the event signature.
+ * Anonymous events have no signature topic and are not indexed. Events with the same signature
+ * that index other inputs, e.g. the Transfer of ERC20 and ERC721 tokens, are told apart by their topic count.
+ * Registering and decoding are thread safe and decoding does not lock,
+ * so receipts can be decoded from parallel streams.
+ */
+public class EventDecoderRegistry {
+    private static final String ANY_ADDRESS = "";
+
+    private final Map<String, Map<String, ContractType.Event[]>> contracts = new ConcurrentHashMap<>();
+
+    /**
+     * register the events of a contract.
+     * @param address contract address
+     * @param abi contract abi
+     * @return {@link EventDecoderRegistry}
+     */
+    public EventDecoderRegistry register(String address, Abi abi) {
+        if (address == null || address.isEmpty()) {
+            throw new IllegalArgumentException("address can't be empty");
+        }
+        Map<String, ContractType.Event[]> events = new ConcurrentHashMap<>();
+        put(events, abi);
+        contracts.put(normalize(address), events);
+        return this;
+    }
+
+    /**
+     * register events that decode the logs of any contract not registered by its address,
+     * e.g. the standard token events.
+     * @param abi abi of the events
+     * @return {@link EventDecoderRegistry}
+     */
+    public EventDecoderRegistry register(Abi abi) {
+        put(contracts.computeIfAbsent(ANY_ADDRESS, k -> new ConcurrentHashMap<>()), abi);
+        return this;
+    }
+
+    // an event replaces the one with the same topic and topic count
+    private static void put(Map<String, ContractType.Event[]> events, Abi abi) {
+        for (ContractType.Event event : abi.getEvents()) {
+            if (event.isAnonymous()) {
+                continue;
+            }
+            events.merge(ByteUtil.toHex(event.getTopic()), new ContractType.Event[]{event}, (old, added) -> {
+                for (int i = 0; i < old.length; i++) {
+                    if (old[i].getTopicCount() == event.getTopicCount()) {
+                        ContractType.Event[] replaced = old.clone();
+                        replaced[i] = event;
+                        return replaced;
+                    }
+                }
+                ContractType.Event[] appended = Arrays.copyOf(old, old.length + 1);
+                appended[old.length] = event;
+                return appended;
+            });
+        }
+    }
+
+    /**
+     * stop decoding the logs of a contract.
+     * @param address contract address
+     */
+    public void unregister(String address) {
+        contracts.remove(normalize(address));
+    }
+
+    /**
+     * find the event of a log.
+     * @param address contract address
+     * @param topic0 first topic of the log
+     * @return the event, the first one registered if several have the topic, null if none is registered
+     */
+    public ContractType.Event getEvent(String address, String topic0) {
+        return topic0 == null ? null : find(address, normalize(topic0), -1);
+    }
+
+    /**
+     * find the event of a log with its number of topics.
+     * @param address contract address
+     * @param topic0 first topic of the log
+     * @param topicCount number of topics of the log
+     * @return the event, null if none is registered
+     */
+    public ContractType.Event getEvent(String address, String topic0, int topicCount) {
+        return topic0 == null ? null : find(address, normalize(topic0), topicCount);
+    }
+
+    private ContractType.Event find(String address, String topic, int topicCount) {
+        ContractType.Event event = find(contracts.get(normalize(address)), topic, topicCount);
+        return event != null ? event : find(contracts.get(ANY_ADDRESS), topic, topicCount);
+    }
+
+    private static ContractType.Event find(Map<String, ContractType.Event[]> events, String topic, int topicCount) {
+        ContractType.Event[] candidates = events == null ? null : events.get(topic);
+        if (candidates != null) {
+            for (ContractType.Event event : candidates) {
+                if (topicCount < 0 || event.getTopicCount() == topicCount) {
+                    return event;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * decode a log.
+     * @param log event log
+     * @return the decoded event, null if no registered event has the topics of the log or its data fails to decode
+     */
+    public DecodedEvent decode(EventLog log) {
+        String[] topics = log.getTopics();
+        if (topics == null || topics.length == 0) {
+            return null;
+        }
+        ContractType.Event event = getEvent(log.getAddress(), topics[0], topics.length);
+        if (event == null) {
+            return null;
+        }
+        try {
+            byte[][] topicsData = new byte[topics.length][];
+            for (int i = 0; i < topics.length; i++) {
+                topicsData[i] = ByteUtil.fromHex(topics[i]);
+            }
+            return new DecodedEvent(event, log, event.decode(ByteUtil.fromHex(log.getData()), topicsData));
+        } catch (RuntimeException e) {
+            // a log of another contract with the same topics, skipped like an unknown one
+            return null;
+        }
+    }
+
+    /**
+     * decode the logs of a receipt, logs that fail to decode are skipped.
+     * @param receipt receipt
+     * @return decoded events in the order of the logs
+     */
+    public List<DecodedEvent> decode(ReceiptResponse receipt) {
+        EventLog[] logs = receipt.getLog();
+        if (logs == null || logs.length == 0) {
+            return Collections.emptyList();
+        }
+        List<DecodedEvent> decoded = new ArrayList<>(logs.length);
+        for (EventLog log : logs) {
+            DecodedEvent event = decode(log);
+            if (event != null) {
+                decoded.add(event);
+            }
+        }
+        return decoded;
+    }
+
+    /**
+     * decode the logs of a stream of receipts, a parallel stream is decoded in parallel.
+     * @param receipts receipts, e.g. of the transactions of many blocks
+     * @return decoded events
+     */
+    public Stream<DecodedEvent> decode(Stream<ReceiptResponse> receipts) {
+        return receipts.flatMap(receipt -> {
+            EventLog[] logs = receipt.getLog();
+            return logs == null ? Stream.empty() : Arrays.stream(logs);
+        }).map(this::decode).filter(Objects::nonNull);
+    }
+
+    /**
+     * decode the logs of many receipts in parallel on the common fork join pool.
+     * @param receipts receipts
+     * @return decoded events in the order of the receipts and their logs
+     */
+    public List<DecodedEvent> decodeAll(Collection<ReceiptResponse> receipts) {
+        return decode(receipts.parallelStream()).collect(Collectors.toList());
+    }
+
+    private static String normalize(String hex) {
+        if (hex == null) {
+            return ANY_ADDRESS;
+        }
+        if (hex.startsWith("0x") || hex.startsWith("0X")) {
+            hex = hex.substring(2);
+        }
+        return hex.toLowerCase();
+    }
+
+    /**
+     * a log decoded with its event.
+     */
+    public static class DecodedEvent {
+        private final ContractType.Event event;
+        private final EventLog log;
+        private final List<?> values;
+
+        DecodedEvent(ContractType.Event event, EventLog log, List<?> values) {
+            this.event = event;
+            this.log = log;
+            this.values = values;
+        }
+
+        public ContractType.Event getEvent() {
+            return event;
+        }
+
+        public String getName() {
+            return event.getName();
+        }
+
+        public EventLog getLog() {
+            return log;
+        }
+
+        /**
+         * get the decoded arguments in the order of the event inputs,
+         * dynamic indexed arguments are their keccak hash.
+         * @return decoded arguments
+         */
+        public List<?> getValues() {
+            return values;
+        }
+
+        @Override
+        public String toString() {
+            return event.formatSignature() + values;
+        }
+    }
+}
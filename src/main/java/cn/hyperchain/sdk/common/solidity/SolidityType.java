@@ -18,12 +18,10 @@
 package cn.hyperchain.sdk.common.solidity;
 
 import cn.hyperchain.sdk.common.utils.ByteUtil;
-import cn.hyperchain.sdk.common.utils.Utils;
 
 import java.lang.reflect.Array;
 import java.math.BigInteger;
 import java.nio.charset.StandardCharsets;
-import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 
@@ -70,6 +68,24 @@ public abstract class SolidityType {
      */
     public abstract byte[] encode(Object value);
 
+    /**
+     * Encodes the value into out at offset, out must be zeroed there since padding is skipped
+     *
+     * @return the offset after the encoded value
+     */
+    public int encodeTo(Object value, byte[] out, int offset) {
+        byte[] encoded = encode(value);
+        System.arraycopy(encoded, 0, out, offset, encoded.length);
+        return offset + encoded.length;
+    }
+
+    /**
+     * @return size in bytes of the encoded value, for the static types it is getFixedSize()
+     */
+    public int encodedSize(Object value) {
+        return isDynamicType() ? encode(value).length : getFixedSize();
+    }
+
     public abstract Object decode(byte[] encoded, int offset);
 
     public Object decode(byte[] encoded) {
@@ -114,37 +130,60 @@ public abstract class SolidityType {
 
         @Override
         public byte[] encode(Object value) {
-            if (value.getClass().isArray()) {
-                List<Object> elems = new ArrayList<>();
-                for (int i = 0; i < Array.getLength(value); i++) {
-                    elems.add(Array.get(value, i));
-                }
-                return encodeList(elems);
-            } else if (value instanceof List) {
-                return encodeList((List) value);
-            } else {
-                throw new RuntimeException("List value expected for type " + getName());
-            }
+            byte[] out = new byte[encodedSize(value)];
+            encodeTo(value, out, 0);
+            return out;
         }
 
         protected byte[] encodeTuple(List l) {
-            byte[][] elems;
-            if (elementType.isDynamicType()) {
-                elems = new byte[l.size() * 2][];
-                int offset = l.size() * Int32Size;
-                for (int i = 0; i < l.size(); i++) {
-                    elems[i] = IntType.encodeInt(offset);
-                    byte[] encoded = elementType.encode(l.get(i));
-                    elems[l.size() + i] = encoded;
-                    offset += Int32Size * ((encoded.length - 1) / Int32Size + 1);
-                }
+            byte[] out = new byte[tupleSize(l, l.size())];
+            encodeTupleTo(l, l.size(), out, 0);
+            return out;
+        }
+
+        /**
+         * the values are read in place, java arrays are not copied into a list first
+         */
+        static int elementCount(Object value, SolidityType type) {
+            if (value instanceof List) {
+                return ((List) value).size();
+            } else if (value.getClass().isArray()) {
+                return Array.getLength(value);
             } else {
-                elems = new byte[l.size()][];
-                for (int i = 0; i < l.size(); i++) {
-                    elems[i] = elementType.encode(l.get(i));
+                throw new RuntimeException("List value expected for type " + type.getName());
+            }
+        }
+
+        static Object elementAt(Object value, int index) {
+            return value instanceof List ? ((List) value).get(index) : Array.get(value, index);
+        }
+
+        int tupleSize(Object value, int len) {
+            if (!elementType.isDynamicType()) {
+                return len * elementType.getFixedSize();
+            }
+            int size = len * Int32Size;
+            for (int i = 0; i < len; i++) {
+                size += elementType.encodedSize(elementAt(value, i));
+            }
+            return size;
+        }
+
+        int encodeTupleTo(Object value, int len, byte[] out, int offset) {
+            if (!elementType.isDynamicType()) {
+                for (int i = 0; i < len; i++) {
+                    offset = elementType.encodeTo(elementAt(value, i), out, offset);
                 }
+                return offset;
+            }
+            int head = offset;
+            int tail = offset + len * Int32Size;
+            for (int i = 0; i < len; i++) {
+                IntType.writeInt(tail - offset, out, head);
+                head += Int32Size;
+                tail = elementType.encodeTo(elementAt(value, i), out, tail);
             }
-            return ByteUtil.merge(elems);
+            return tail;
         }
 
         public Object[] decodeTuple(byte[] encoded, int origOffset, int len) {
@@ -153,7 +192,7 @@ public abstract class SolidityType {
 
             for (int i = 0; i < len; i++) {
                 if (elementType.isDynamicType()) {
-                    ret[i] = elementType.decode(encoded, origOffset + IntType.decodeInt(encoded, offset).intValue());
+                    ret[i] = elementType.decode(encoded, origOffset + IntType.decodeOffset(encoded, offset));
                 } else {
                     ret[i] = elementType.decode(encoded, offset);
                 }
@@ -188,9 +227,24 @@ public abstract class SolidityType {
 
         @Override
         public byte[] encodeList(List l) {
-            if (l.size() != size)
-                throw new RuntimeException("List size (" + l.size() + ") != " + size + " for type " + getName());
-            return encodeTuple(l);
+            return encode(l);
+        }
+
+        @Override
+        public int encodedSize(Object value) {
+            return tupleSize(value, checkSize(value));
+        }
+
+        @Override
+        public int encodeTo(Object value, byte[] out, int offset) {
+            return encodeTupleTo(value, checkSize(value), out, offset);
+        }
+
+        private int checkSize(Object value) {
+            int len = elementCount(value, this);
+            if (len != size)
+                throw new RuntimeException("List size (" + len + ") != " + size + " for type " + getName());
+            return len;
         }
 
         @Override
@@ -225,12 +279,24 @@ public abstract class SolidityType {
 
         @Override
         public byte[] encodeList(List l) {
-            return ByteUtil.merge(IntType.encodeInt(l.size()), encodeTuple(l));
+            return encode(l);
+        }
+
+        @Override
+        public int encodedSize(Object value) {
+            return Int32Size + tupleSize(value, elementCount(value, this));
+        }
+
+        @Override
+        public int encodeTo(Object value, byte[] out, int offset) {
+            int len = elementCount(value, this);
+            IntType.writeInt(len, out, offset);
+            return encodeTupleTo(value, len, out, offset + Int32Size);
         }
 
         @Override
         public Object decode(byte[] encoded, int origOffset) {
-            int len = IntType.decodeInt(encoded, origOffset).intValue();
+            int len = IntType.decodeOffset(encoded, origOffset);
             return decodeTuple(encoded, origOffset + Int32Size, len);
         }
 
@@ -251,23 +317,95 @@ public abstract class SolidityType {
 
         @Override
         public byte[] encode(Object value) {
-            byte[] bb;
+            byte[] out = new byte[encodedSize(value)];
+            encodeTo(value, out, 0);
+            return out;
+        }
+
+        @Override
+        public int encodedSize(Object value) {
             if (value instanceof byte[]) {
-                bb = (byte[]) value;
+                return Int32Size + padded(((byte[]) value).length);
             } else if (value instanceof String) {
-                bb = ((String) value).getBytes(Utils.DEFAULT_CHARSET);
+                return Int32Size + padded(utf8Length((String) value));
             } else {
                 throw new RuntimeException("byte[] or String value is expected for type 'bytes'");
             }
-            byte[] ret = new byte[((bb.length - 1) / Int32Size + 1) * Int32Size]; // padding 32 bytes
-            System.arraycopy(bb, 0, ret, 0, bb.length);
+        }
 
-            return ByteUtil.merge(IntType.encodeInt(bb.length), ret);
+        @Override
+        public int encodeTo(Object value, byte[] out, int offset) {
+            int len;
+            if (value instanceof byte[]) {
+                byte[] bb = (byte[]) value;
+                len = bb.length;
+                System.arraycopy(bb, 0, out, offset + Int32Size, len);
+            } else if (value instanceof String) {
+                len = writeUtf8((String) value, out, offset + Int32Size) - offset - Int32Size;
+            } else {
+                throw new RuntimeException("byte[] or String value is expected for type 'bytes'");
+            }
+            IntType.writeInt(len, out, offset);
+            return offset + Int32Size + padded(len);
+        }
+
+        // padding 32 bytes, empty bytes take one word too
+        static int padded(int len) {
+            return ((len - 1) / Int32Size + 1) * Int32Size;
+        }
+
+        /**
+         * @return the size of the string in utf-8, unpaired surrogates become '?' like String.getBytes does
+         */
+        static int utf8Length(String s) {
+            int n = s.length();
+            int len = n;
+            for (int i = 0; i < n; i++) {
+                char c = s.charAt(i);
+                if (c < 0x80) {
+                    continue;
+                }
+                if (c < 0x800) {
+                    len += 1;
+                } else if (!Character.isSurrogate(c)) {
+                    len += 2;
+                } else if (Character.isHighSurrogate(c) && i + 1 < n && Character.isLowSurrogate(s.charAt(i + 1))) {
+                    len += 2;
+                    i++;
+                }
+            }
+            return len;
+        }
+
+        static int writeUtf8(String s, byte[] out, int offset) {
+            int n = s.length();
+            for (int i = 0; i < n; i++) {
+                char c = s.charAt(i);
+                if (c < 0x80) {
+                    out[offset++] = (byte) c;
+                } else if (c < 0x800) {
+                    out[offset++] = (byte) (0xC0 | (c >> 6));
+                    out[offset++] = (byte) (0x80 | (c & 0x3F));
+                } else if (!Character.isSurrogate(c)) {
+                    out[offset++] = (byte) (0xE0 | (c >> 12));
+                    out[offset++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                    out[offset++] = (byte) (0x80 | (c & 0x3F));
+                } else if (Character.isHighSurrogate(c) && i + 1 < n && Character.isLowSurrogate(s.charAt(i + 1))) {
+                    int cp = Character.toCodePoint(c, s.charAt(++i));
+                    out[offset++] = (byte) (0xF0 | (cp >> 18));
+                    out[offset++] = (byte) (0x80 | ((cp >> 12) & 0x3F));
+                    out[offset++] = (byte) (0x80 | ((cp >> 6) & 0x3F));
+                    out[offset++] = (byte) (0x80 | (cp & 0x3F));
+                } else {
+                    out[offset++] = '?';
+                }
+            }
+            return offset;
         }
 
         @Override
         public Object decode(byte[] encoded, int offset) {
-            int len = IntType.decodeInt(encoded, offset).intValue();
+            int len = IntType.decodeOffset(encoded, offset);
             if (len == 0) return new byte[0];
             offset += Int32Size;
             return Arrays.copyOfRange(encoded, offset, offset + len);
@@ -285,9 +423,15 @@ public abstract class SolidityType {
         }
 
         @Override
-        public byte[] encode(Object value) {
+        public int encodedSize(Object value) {
             if (!(value instanceof String)) throw new RuntimeException("String value expected for type 'string'");
-            return super.encode(((String) value).getBytes(StandardCharsets.UTF_8));
+            return super.encodedSize(value);
+        }
+
+        @Override
+        public int encodeTo(Object value, byte[] out, int offset) {
+            if (!(value instanceof String)) throw new RuntimeException("String value expected for type 'string'");
+            return super.encodeTo(value, out, offset);
         }
 
         @Override
@@ -305,22 +449,30 @@ public abstract class SolidityType {
 
         @Override
         public byte[] encode(Object value) {
+            byte[] out = new byte[Int32Size];
+            encodeTo(value, out, 0);
+            return out;
+        }
+
+        @Override
+        public int encodeTo(Object value, byte[] out, int offset) {
             if (value instanceof Number) {
-                BigInteger bigInt = new BigInteger(value.toString());
-                return IntType.encodeInt(bigInt);
-            } else if (value instanceof String) {
-                byte[] ret = new byte[Int32Size];
-                byte[] bytes = ((String) value).getBytes(StandardCharsets.UTF_8);
-                System.arraycopy(bytes, 0, ret, 0, bytes.length);
-                return ret;
+                IntType.writeInt(new BigInteger(value.toString()), true, out, offset);
+                return offset + Int32Size;
+            }
+            byte[] bytes;
+            if (value instanceof String) {
+                bytes = ((String) value).getBytes(StandardCharsets.UTF_8);
             } else if (value instanceof byte[]) {
-                byte[] bytes = (byte[]) value;
-                byte[] ret = new byte[Int32Size];
-                System.arraycopy(bytes, 0, ret, 0, bytes.length);
-                return ret;
+                bytes = (byte[]) value;
+            } else {
+                throw new RuntimeException("Can't encode java type " + value.getClass() + " to bytes32");
             }
-
-            throw new RuntimeException("Can't encode java type " + value.getClass() + " to bytes32");
+            if (bytes.length > Int32Size) {
+                throw new ArrayIndexOutOfBoundsException("Value is longer than " + Int32Size + " bytes for type " + getName());
+            }
+            System.arraycopy(bytes, 0, out, offset, bytes.length);
+            return offset + Int32Size;
         }
 
         @Override
@@ -359,18 +511,18 @@ public abstract class SolidityType {
         }
 
         @Override
-        public byte[] encode(Object value) {
+        public int encodeTo(Object value, byte[] out, int offset) {
             if (value instanceof String && !((String) value).startsWith("0x")) {
                 // address is supposed to be always in hex
                 value = "0x" + value;
             }
-            byte[] addr = super.encode(value);
-            for (int i = 0; i < 12; i++) {
-                if (addr[i] != 0) {
-                    throw new RuntimeException("Invalid address (should be 20 bytes length): " + ByteUtil.toHex(addr));
+            int end = super.encodeTo(value, out, offset);
+            for (int i = offset; i < offset + 12; i++) {
+                if (out[i] != 0) {
+                    throw new RuntimeException("Invalid address (should be 20 bytes length): " + ByteUtil.toHex(Arrays.copyOfRange(out, offset, end)));
                 }
             }
-            return addr;
+            return end;
         }
 
         @Override
@@ -409,6 +561,13 @@ public abstract class SolidityType {
             }
             return bigInt;
         }
+
+        /**
+         * ints and longs are written directly, they encode the same as their BigInteger
+         */
+        static boolean isSmallInteger(Object value) {
+            return value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof Byte;
+        }
     }
 
     public static class IntType extends NumericType {
@@ -426,14 +585,51 @@ public abstract class SolidityType {
             return new BigInteger(Arrays.copyOfRange(encoded, offset, offset + Int32Size));
         }
 
+        /**
+         * same as decodeInt(encoded, offset).intValue(), without the copy, for offsets and lengths
+         */
+        public static int decodeOffset(byte[] encoded, int offset) {
+            if (offset < 0 || offset + Int32Size > encoded.length) {
+                return decodeInt(encoded, offset).intValue();
+            }
+            int end = offset + Int32Size;
+            return (encoded[end - 4] & 0xFF) << 24 | (encoded[end - 3] & 0xFF) << 16
+                    | (encoded[end - 2] & 0xFF) << 8 | encoded[end - 1] & 0xFF;
+        }
+
         public static byte[] encodeInt(int i) {
-            return encodeInt(new BigInteger("" + i));
+            byte[] out = new byte[Int32Size];
+            writeInt(i, out, 0);
+            return out;
         }
 
         public static byte[] encodeInt(BigInteger bigInt) {
             return ByteUtil.bigIntegerToBytesSigned(bigInt, Int32Size);
         }
 
+        /**
+         * write a sign extended 32 bytes word.
+         */
+        static void writeInt(long value, byte[] out, int offset) {
+            int end = offset + Int32Size;
+            Arrays.fill(out, offset, end - 8, value < 0 ? (byte) 0xFF : 0);
+            for (int i = end - 1; i >= end - 8; i--) {
+                out[i] = (byte) value;
+                value >>= 8;
+            }
+        }
+
+        /**
+         * write a 32 bytes word like ByteUtil.bigIntegerToBytes and bigIntegerToBytesSigned.
+         */
+        static void writeInt(BigInteger bigInt, boolean signed, byte[] out, int offset) {
+            byte[] biBytes = bigInt.toByteArray();
+            int start = (biBytes.length == Int32Size + 1) ? 1 : 0;
+            int length = Math.min(biBytes.length, Int32Size);
+            Arrays.fill(out, offset, offset + Int32Size - length, signed && bigInt.signum() < 0 ? (byte) 0xFF : 0);
+            System.arraycopy(biBytes, start, out, offset + Int32Size - length, length);
+        }
+
         @Override
         public Object decode(byte[] encoded, int offset) {
             return decodeInt(encoded, offset);
@@ -441,8 +637,19 @@ public abstract class SolidityType {
 
         @Override
         public byte[] encode(Object value) {
-            BigInteger bigInt = encodeInternal(value);
-            return encodeInt(bigInt);
+            byte[] out = new byte[Int32Size];
+            encodeTo(value, out, 0);
+            return out;
+        }
+
+        @Override
+        public int encodeTo(Object value, byte[] out, int offset) {
+            if (isSmallInteger(value)) {
+                writeInt(((Number) value).longValue(), out, offset);
+            } else {
+                writeInt(encodeInternal(value), true, out, offset);
+            }
+            return offset + Int32Size;
         }
     }
 
@@ -474,8 +681,27 @@ public abstract class SolidityType {
 
         @Override
         public byte[] encode(Object value) {
-            BigInteger bigInt = encodeInternal(value);
-            return encodeInt(bigInt);
+            byte[] out = new byte[Int32Size];
+            encodeTo(value, out, 0);
+            return out;
+        }
+
+        @Override
+        public int encodeTo(Object value, byte[] out, int offset) {
+            if (isSmallInteger(value)) {
+                long l = ((Number) value).longValue();
+                if (l < 0) {
+                    throw new RuntimeException("Wrong value for uint type: " + l);
+                }
+                IntType.writeInt(l, out, offset);
+            } else {
+                BigInteger bigInt = encodeInternal(value);
+                if (bigInt.signum() == -1) {
+                    throw new RuntimeException("Wrong value for uint type: " + bigInt);
+                }
+                IntType.writeInt(bigInt, false, out, offset);
+            }
+            return offset + Int32Size;
         }
 
         @Override
@@ -490,10 +716,10 @@ public abstract class SolidityType {
         }
 
         @Override
-        public byte[] encode(Object value) {
+        public int encodeTo(Object value, byte[] out, int offset) {
             if (!(value instanceof Boolean)) throw new RuntimeException("Wrong value for bool type: " + value);
             int num = ((boolean) value) ? 1 : 0;
-            return super.encode(num);
+            return super.encodeTo(num, out, offset);
         }
 
         @Override
@@ -508,10 +734,10 @@ public abstract class SolidityType {
         }
 
         @Override
-        public byte[] encode(Object value) {
+        public int encodeTo(Object value, byte[] out, int offset) {
             if (!(value instanceof byte[])) throw new RuntimeException("Expected byte[] value for FunctionType");
             if (((byte[]) value).length != 24) throw new RuntimeException("Expected byte[24] for FunctionType");
-            return super.encode(ByteUtil.merge((byte[]) value, new byte[8]));
+            return super.encodeTo(value, out, offset);
         }
     }
 }
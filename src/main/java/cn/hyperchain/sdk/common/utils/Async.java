@@ -1,11 +1,17 @@
 package cn.hyperchain.sdk.common.utils;
 
 import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 
 /**
  * Async task facilitation.
@@ -13,6 +19,16 @@ import java.util.concurrent.TimeUnit;
 public class Async {
 
     private static final ExecutorService executor = Executors.newCachedThreadPool();
+    // timers only, tasks scheduled here must not block
+    private static final ScheduledThreadPoolExecutor timer = new ScheduledThreadPoolExecutor(1, runnable -> {
+        Thread thread = new Thread(runnable, "litesdk-timer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    static {
+        timer.setRemoveOnCancelPolicy(true);
+    }
 
     static {
         Runtime.getRuntime().addShutdownHook(new Thread(new Runnable() {
@@ -27,6 +43,108 @@ public class Async {
         return executor.submit(callable);
     }
 
+    /**
+     * run a blocking task on the shared executor.
+     *
+     * @param callable task
+     * @param <T> result type
+     * @return future completed with the task's result or exception
+     */
+    public static <T> CompletableFuture<T> supply(Callable<T> callable) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        executor.execute(() -> {
+            try {
+                future.complete(callable.call());
+            } catch (Throwable e) {
+                future.completeExceptionally(e);
+            }
+        });
+        return future;
+    }
+
+    /**
+     * run a short non-blocking task after a delay.
+     *
+     * @param runnable task
+     * @param delay delay in milliseconds
+     */
+    public static void schedule(Runnable runnable, long delay) {
+        timer.schedule(runnable, delay, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * run a task on the shared executor after a delay, the timer only hands it over.
+     *
+     * @param runnable task, may block
+     * @param delay delay in milliseconds
+     */
+    public static void scheduleAsync(Runnable runnable, long delay) {
+        timer.schedule(() -> executor.execute(runnable), delay, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * complete a future after a delay without holding a thread.
+     *
+     * @param delay delay in milliseconds
+     * @return future completed with null after the delay
+     */
+    public static CompletableFuture<Void> delay(long delay) {
+        CompletableFuture<Void> future = new CompletableFuture<>();
+        if (delay <= 0) {
+            future.complete(null);
+        } else {
+            schedule(() -> future.complete(null), delay);
+        }
+        return future;
+    }
+
+    /**
+     * fail a future if it is not completed in time.
+     *
+     * @param future future
+     * @param timeout timeout in milliseconds
+     * @param error supplies the exception to fail with
+     * @param <T> result type
+     * @return the given future
+     */
+    public static <T> CompletableFuture<T> timeout(CompletableFuture<T> future, long timeout, Supplier<Throwable> error) {
+        if (!future.isDone()) {
+            ScheduledFuture<?> task = timer.schedule(() -> {
+                if (!future.isDone()) {
+                    future.completeExceptionally(error.get());
+                }
+            }, timeout, TimeUnit.MILLISECONDS);
+            future.whenComplete((result, e) -> task.cancel(false));
+        }
+        return future;
+    }
+
+    /**
+     * create a future failed with the exception.
+     *
+     * @param e exception
+     * @param <T> result type
+     * @return failed future
+     */
+    public static <T> CompletableFuture<T> failed(Throwable e) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        future.completeExceptionally(e);
+        return future;
+    }
+
+    /**
+     * strip the wrappers added by {@link CompletableFuture} stages.
+     *
+     * @param e exception from a future stage
+     * @return the original exception
+     */
+    public static Throwable unwrap(Throwable e) {
+        while ((e instanceof CompletionException || e instanceof ExecutionException) && e.getCause() != null) {
+            e = e.getCause();
+        }
+        return e;
+    }
+
     private static int getCpuCount() {
         return Runtime.getRuntime().availableProcessors();
     }
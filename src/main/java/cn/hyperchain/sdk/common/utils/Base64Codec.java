@@ -0,0 +1,159 @@
+package cn.hyperchain.sdk.common.utils;
+
+/**
+ * Base64Codec encodes standard, padded base64 with a lookup table into Strings or the caller's arrays,
+ * and transcodes hex to base64 without decoding it into an intermediate array.
+ */
+public final class Base64Codec {
+    private static final char[] ALPHABET = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789+/".toCharArray();
+
+    private Base64Codec() {
+    }
+
+    /**
+     * get the encoded length of some bytes.
+     *
+     * @param length byte count
+     * @return char count, padding included
+     */
+    public static int encodedLength(int length) {
+        return (length + 2) / 3 * 4;
+    }
+
+    /**
+     * encode bytes to a base64 string.
+     *
+     * @param data bytes
+     * @return base64 string
+     */
+    public static String encode(byte[] data) {
+        return encode(data, 0, data.length);
+    }
+
+    /**
+     * encode part of an array to a base64 string.
+     *
+     * @param data   bytes
+     * @param offset first byte
+     * @param length byte count
+     * @return base64 string
+     */
+    public static String encode(byte[] data, int offset, int length) {
+        char[] out = new char[encodedLength(length)];
+        encode(data, offset, length, out, 0);
+        return new String(out);
+    }
+
+    /**
+     * encode part of an array into a char array.
+     *
+     * @param data      bytes
+     * @param offset    first byte
+     * @param length    byte count
+     * @param out       destination, needs {@link #encodedLength(int)} chars from outOffset
+     * @param outOffset first char written
+     * @return the number of chars written
+     */
+    public static int encode(byte[] data, int offset, int length, char[] out, int outOffset) {
+        int i = offset;
+        int end = offset + length;
+        int j = outOffset;
+        for (; i + 2 < end; i += 3) {
+            j = quantum((data[i] & 0xff) << 16 | (data[i + 1] & 0xff) << 8 | (data[i + 2] & 0xff), out, j);
+        }
+        if (end - i == 1) {
+            j = tail((data[i] & 0xff) << 16, 1, out, j);
+        } else if (end - i == 2) {
+            j = tail((data[i] & 0xff) << 16 | (data[i + 1] & 0xff) << 8, 2, out, j);
+        }
+        return j - outOffset;
+    }
+
+    /**
+     * encode part of an array into an array of ascii bytes.
+     *
+     * @param data      bytes
+     * @param offset    first byte
+     * @param length    byte count
+     * @param out       destination, needs {@link #encodedLength(int)} bytes from outOffset
+     * @param outOffset first byte written
+     * @return the number of bytes written
+     */
+    public static int encode(byte[] data, int offset, int length, byte[] out, int outOffset) {
+        int i = offset;
+        int end = offset + length;
+        int j = outOffset;
+        for (; i + 2 < end; i += 3) {
+            int bits = (data[i] & 0xff) << 16 | (data[i + 1] & 0xff) << 8 | (data[i + 2] & 0xff);
+            out[j++] = (byte) ALPHABET[bits >>> 18];
+            out[j++] = (byte) ALPHABET[(bits >>> 12) & 0x3f];
+            out[j++] = (byte) ALPHABET[(bits >>> 6) & 0x3f];
+            out[j++] = (byte) ALPHABET[bits & 0x3f];
+        }
+        if (end - i == 1) {
+            int bits = (data[i] & 0xff) << 16;
+            out[j++] = (byte) ALPHABET[bits >>> 18];
+            out[j++] = (byte) ALPHABET[(bits >>> 12) & 0x3f];
+            out[j++] = '=';
+            out[j++] = '=';
+        } else if (end - i == 2) {
+            int bits = (data[i] & 0xff) << 16 | (data[i + 1] & 0xff) << 8;
+            out[j++] = (byte) ALPHABET[bits >>> 18];
+            out[j++] = (byte) ALPHABET[(bits >>> 12) & 0x3f];
+            out[j++] = (byte) ALPHABET[(bits >>> 6) & 0x3f];
+            out[j++] = '=';
+        }
+        return j - outOffset;
+    }
+
+    /**
+     * transcode a hex string with an optional "0x" prefix to base64.
+     *
+     * @param hex hex string, null encodes as no bytes
+     * @return base64 string of the bytes {@link HexCodec#decode(CharSequence)} gives
+     * @throws IllegalArgumentException if a character is not a hex digit
+     */
+    public static String fromHex(CharSequence hex) {
+        if (hex == null) {
+            return "";
+        }
+        int start = HexCodec.prefixLength(hex);
+        int digits = hex.length() - start;
+        int length = HexCodec.decodedLength(digits);
+        char[] out = new char[encodedLength(length)];
+        // an odd digit count reads from one before start, where HexCodec.byteAt sees a '0'
+        int index = start - (digits & 1);
+        int j = 0;
+        int i = 0;
+        for (; i + 2 < length; i += 3) {
+            int bits = HexCodec.byteAt(hex, index, start) << 16 | HexCodec.byteAt(hex, index + 2, start) << 8
+                    | HexCodec.byteAt(hex, index + 4, start);
+            j = quantum(bits, out, j);
+            index += 6;
+        }
+        if (length - i == 1) {
+            tail(HexCodec.byteAt(hex, index, start) << 16, 1, out, j);
+        } else if (length - i == 2) {
+            int bits = HexCodec.byteAt(hex, index, start) << 16 | HexCodec.byteAt(hex, index + 2, start) << 8;
+            tail(bits, 2, out, j);
+        }
+        return new String(out);
+    }
+
+    private static int quantum(int bits, char[] out, int j) {
+        out[j] = ALPHABET[bits >>> 18];
+        out[j + 1] = ALPHABET[(bits >>> 12) & 0x3f];
+        out[j + 2] = ALPHABET[(bits >>> 6) & 0x3f];
+        out[j + 3] = ALPHABET[bits & 0x3f];
+        return j + 4;
+    }
+
+    // the last one or two bytes and their padding
+    private static int tail(int bits, int bytes, char[] out, int j) {
+        out[j] = ALPHABET[bits >>> 18];
+        out[j + 1] = ALPHABET[(bits >>> 12) & 0x3f];
+        out[j + 2] = bytes == 2 ? ALPHABET[(bits >>> 6) & 0x3f] : '=';
+        out[j + 3] = '=';
+        return j + 4;
+    }
+}
@@ -5,17 +5,98 @@ import cn.hyperchain.sdk.kvsqlutil.IntegerDataType;
 public class Buffer {
 
     static final long NULL_LENGTH = -1;
+    private static final int BLOCK_SIZE = 4096;
+    private static final int MAX_INTEGER_SIZE = 9;
 
     private final byte[] byteBuffer;
 
     private int position = 0;
 
+    // hex not decoded into byteBuffer yet, by block, null once everything is decoded
+    private volatile CharSequence hex;
+    private int hexStart;
+    private int oddDigits;
+    private boolean[] decodedBlocks;
+    private int pendingBlocks;
+
 
     public Buffer(byte[] buf) {
         this.byteBuffer = buf;
     }
 
+    /**
+     * create a buffer over a hex string with an optional "0x" prefix, decoded block by block when read,
+     * so reading can start before the whole string is converted and parts never read are never converted.
+     * Odd digits decode as {@link ByteUtil#fromHex(String)}, an invalid digit fails the read of its block
+     * with an IllegalArgumentException.
+     *
+     * @param hex hex string
+     */
+    public Buffer(CharSequence hex) {
+        int start = HexCodec.prefixLength(hex);
+        int digits = hex.length() - start;
+        this.byteBuffer = new byte[HexCodec.decodedLength(digits)];
+        this.hex = hex;
+        this.hexStart = start;
+        this.oddDigits = digits & 1;
+        this.pendingBlocks = (byteBuffer.length + BLOCK_SIZE - 1) / BLOCK_SIZE;
+        this.decodedBlocks = new boolean[pendingBlocks];
+        if (pendingBlocks == 0) {
+            this.hex = null;
+        }
+    }
+
+    /**
+     * make sure a range of the buffer is decoded, a range past the end is cut at the end.
+     * Columns viewing the buffer may load it from several threads, unlike the read position.
+     *
+     * @param offset first byte
+     * @param length byte count
+     */
+    public void load(int offset, int length) {
+        if (hex == null || length <= 0) {
+            return;
+        }
+        synchronized (this) {
+            if (hex == null) {
+                return;
+            }
+            int end = Math.min(offset + length, byteBuffer.length);
+            for (int block = offset / BLOCK_SIZE; block * BLOCK_SIZE < end; block++) {
+                if (!decodedBlocks[block]) {
+                    decodeBlock(block);
+                }
+            }
+        }
+    }
+
+    private void decodeBlock(int block) {
+        int from = block * BLOCK_SIZE;
+        int to = Math.min(from + BLOCK_SIZE, byteBuffer.length);
+        if (from == 0) {
+            // the first byte of an odd number of digits is a single digit
+            HexCodec.decode(hex, hexStart, (to - from) * 2 - oddDigits, byteBuffer, 0);
+        } else {
+            HexCodec.decode(hex, hexStart + from * 2 - oddDigits, (to - from) * 2, byteBuffer, from);
+        }
+        decodedBlocks[block] = true;
+        if (--pendingBlocks == 0) {
+            decodedBlocks = null;
+            hex = null;
+        }
+    }
+
+    /**
+     * get the backing array, only ranges passed to {@link #load(int, int)} are sure to be decoded.
+     *
+     * @return backing array
+     */
+    public byte[] getByteBuffer() {
+        return byteBuffer;
+    }
+
     protected final byte[] getBytes(int len) {
+        load(this.position, len);
         byte[] b = new byte[len];
         System.arraycopy(this.byteBuffer, this.position, b, 0, len);
         this.position += len; // update cursor
@@ -24,6 +105,7 @@ public class Buffer {
     }
 
     protected byte[] getBytes(int offset, int len) {
+        load(offset, len);
         byte[] dest = new byte[len];
         System.arraycopy(this.byteBuffer, offset, dest, 0, len);
 
@@ -46,6 +128,7 @@ public class Buffer {
      * @return return
      */
     protected final long readInteger(IntegerDataType type) {
+        load(this.position, MAX_INTEGER_SIZE);
         byte[] b = this.byteBuffer;
         switch (type) {
             case INT1:
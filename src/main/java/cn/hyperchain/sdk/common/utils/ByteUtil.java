@@ -19,7 +19,19 @@ public class ByteUtil {
      * @return hex string
      */
     public static String toHex(byte[] data) {
-        return data == null ? "" : Hex.toHexString(data);
+        return data == null ? "" : HexCodec.encode(data);
+    }
+
+    /**
+     * transfer part of bytes to hex string.
+     *
+     * @param data   bytes
+     * @param offset first byte
+     * @param length byte count
+     * @return hex string
+     */
+    public static String toHex(byte[] data, int offset, int length) {
+        return HexCodec.encode(data, offset, length);
     }
 
     /**
@@ -29,9 +41,15 @@ public class ByteUtil {
      * @return bytes
      */
     public static byte[] fromHex(String hex) {
-        if (hex == null) {
-            return EMPTY_BYTE_ARRAY;
+        try {
+            return HexCodec.decode(hex);
+        } catch (IllegalArgumentException e) {
+            return decodeLenient(hex);
         }
+    }
+
+    // whitespace is skipped and other invalid characters are rejected by Hex as they always were
+    private static byte[] decodeLenient(String hex) {
         if (hex.startsWith("0x")) {
             hex = hex.substring(2);
         }
@@ -203,7 +221,11 @@ public class ByteUtil {
      * @return base64 string
      */
     public static String hex2Base64(String hexOrigin) {
-        return base64(ByteUtil.fromHex(hexOrigin));
+        try {
+            return Base64Codec.fromHex(hexOrigin);
+        } catch (IllegalArgumentException e) {
+            return base64(decodeLenient(hexOrigin));
+        }
     }
 
     /**
@@ -212,7 +234,7 @@ public class ByteUtil {
      * @return base64 string
      */
     public static String base64(byte[] data) {
-        return Base64.toBase64String(data);
+        return Base64Codec.encode(data);
     }
 
     /**
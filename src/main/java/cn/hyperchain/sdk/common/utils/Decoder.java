@@ -182,12 +182,14 @@ public class Decoder {
 
     /**
      * decodeKVSQL receipt result to kvsql.
+     * The hex is converted as it is read, the columns of a query are views over the converted bytes,
+     * each converted when it is first read.
      *
      * @param encode receipt result
      * @return {@link Chunk}
      */
     public static Chunk decodeKVSQL(String encode) {
-        Buffer buffer = new Buffer(ByteUtil.fromHex(encode));
+        Buffer buffer = new Buffer(encode);
         int decodeVersion = (int) buffer.readInteger(IntegerDataType.INT1);
         switch (decodeVersion) {
             case KVSQL_DECODEVERSION1:
@@ -251,15 +253,24 @@ public class Decoder {
     }
 
     private static Column unPackColumn(Buffer packet) {
-        byte[] data = packet.readLenByteArray();
-        byte[] nullBitmap = packet.readLenByteArray();
+        int dataOffset = skipLenByteArray(packet);
+        int nullBitmapOffset = skipLenByteArray(packet);
 
         int len = (int) packet.readInteger(IntegerDataType.INT_LENENC);
-        int[] offsets = new int[len];
-        for (int i = 0; i < len; i++) {
-            offsets[i] = (int) packet.readInteger(IntegerDataType.INT4);
+        int offsetsOffset = packet.getPosition();
+        packet.setPosition(offsetsOffset + Math.max(len, 0) * Column.BIN_LEN_INT4);
+        return new Column(packet, dataOffset, nullBitmapOffset, offsetsOffset, Math.max(len, 0));
+    }
+
+    // position of a length encoded byte array, -1 for NULL, moving past it without reading it
+    private static int skipLenByteArray(Buffer packet) {
+        long len = packet.readInteger(IntegerDataType.INT_LENENC);
+        if (len == Buffer.NULL_LENGTH) {
+            return -1;
         }
-        return new Column(data, nullBitmap, offsets);
+        int offset = packet.getPosition();
+        packet.setPosition(offset + (int) len);
+        return offset;
     }
 
     /**
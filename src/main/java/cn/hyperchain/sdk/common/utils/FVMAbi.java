@@ -1,8 +1,6 @@
 package cn.hyperchain.sdk.common.utils;
 
-import cn.hyperchain.sdk.fvm.scale.ScaleCodecReader;
-import cn.hyperchain.sdk.fvm.scale.ScaleCodecWriter;
-import cn.hyperchain.sdk.fvm.scale.writer.StringWriter;
+import cn.hyperchain.sdk.fvm.MethodCodec;
 import cn.hyperchain.sdk.fvm.types.FVMType;
 import cn.hyperchain.sdk.fvm.types.PrimitiveType;
 import cn.hyperchain.sdk.fvm.types.CompoundType;
@@ -16,8 +14,7 @@ import com.google.gson.JsonParser;
 import org.apache.commons.codec.DecoderException;
 import org.apache.commons.codec.binary.Hex;
 
-import java.io.ByteArrayOutputStream;
-import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -29,6 +26,16 @@ public class FVMAbi {
         public String name;
         public List<FVMType> input;
         public List<FVMType> output;
+        private MethodCodec codec;
+
+        /**
+         * get the codec compiled from the abi of the method.
+         *
+         * @return {@link MethodCodec}
+         */
+        public MethodCodec getCodec() {
+            return codec;
+        }
     }
 
     private FVMAbi() {
@@ -52,6 +59,7 @@ public class FVMAbi {
             m.name = jmethod.get("name").getAsString();
             m.input = convertToList(jmethod.get("input").getAsJsonArray(), types);
             m.output = convertToList(jmethod.get("output").getAsJsonArray(), types);
+            m.codec = new MethodCodec(m.name, m.input, m.output);
             abi.methods.put(m.name, m);
         }
         return abi;
@@ -138,34 +146,38 @@ public class FVMAbi {
      * @return byte[]
      */
     public byte[] encode(String methodName, List<Object> args) {
-        ByteArrayOutputStream buf = new ByteArrayOutputStream();
-        ScaleCodecWriter codecWriter = new ScaleCodecWriter(buf);
-        StringWriter stringWriter = new StringWriter();
+        return getCodec(methodName).encode(args);
+    }
 
-        // write method name.
-        try {
-            stringWriter.write(codecWriter, methodName);
-        } catch (IOException e) {
-            // In fact, this exception will never happen.
-            throw new RuntimeException("Internal error: " + e.getMessage());
-        }
+    /**
+     * fvm abi encode into a buffer, e.g. a pooled or direct one.
+     *
+     * @param methodName String
+     * @param args       List[Object]
+     * @param out        written from its position, which is advanced, see {@link #encodedSize(String, List)}
+     * @return the number of bytes written
+     */
+    public int encode(String methodName, List<Object> args, ByteBuffer out) {
+        return getCodec(methodName).encodeInto(args, out);
+    }
 
-        if (!this.methods.containsKey(methodName)) {
-            throw new RuntimeException("ABI not contain method: " + methodName);
-        }
+    /**
+     * get the size of the fvm abi encoding of a method call.
+     *
+     * @param methodName String
+     * @param args       List[Object]
+     * @return size in bytes
+     */
+    public int encodedSize(String methodName, List<Object> args) {
+        return getCodec(methodName).encodedSize(args);
+    }
 
+    private MethodCodec getCodec(String methodName) {
         Method method = this.methods.get(methodName);
-
-        // encode and write args.
-        if (args.size() != method.input.size()) {
-            throw new RuntimeException("Arguments size wrong, expect: " + method.input.size() + ", but have: " + args.size());
-        }
-        for (int i = 0; i < method.input.size(); i++) {
-            FVMType tp = method.input.get(i);
-            tp.encode(codecWriter, args.get(i));
+        if (method == null) {
+            throw new RuntimeException("ABI not contain method: " + methodName);
         }
-
-        return buf.toByteArray();
+        return method.codec;
     }
 
     /**
@@ -176,34 +188,66 @@ public class FVMAbi {
      * @return Object
      */
     public Object decode(String payload, String methodName) {
+        return decode(payload, methodName, Object.class);
+    }
+
+    /**
+     * fvm abi decode into a type, see {@link MethodCodec#decode(ByteBuffer, Class)}.
+     *
+     * @param payload    String
+     * @param methodName String
+     * @param type       result type, e.g. Object[] or a class with the members of the returned struct
+     * @param <T>        result type
+     * @return T
+     */
+    public <T> T decode(String payload, String methodName, Class<T> type) {
         Method method = this.getMethods().get(methodName);
         if (method == null) {
             throw new RuntimeException("Method not existed.");
-        } else {
-            List<FVMType> outputs = method.output;
-            if (outputs.size() == 0) {
-                if (payload == null || payload.length() == 0 || payload.equals("0x0")) {
-                    // if it's a void return(nothing to decode)
-                    return null;
-                } else {
-                    // if the abi has 0 return but payload is not "0x0"
-                    throw new RuntimeException("Cannot parse result from a non-return method.");
-                }
-            } else if (outputs.size() == 1) {
-                byte[] bytes;
-                // remove appendix part.
-                try {
-                    bytes = Hex.decodeHex(Utils.deleteHexPre(payload));
-                } catch (DecoderException e) {
-                    throw new RuntimeException("Internal error: " + e.getMessage());
-                }
-                ScaleCodecReader codecReader = new ScaleCodecReader(bytes);
-
-                FVMType tp = outputs.get(0);
-                return tp.decode(codecReader);
-            } else {
-                throw new RuntimeException("multiple return value is not supported yet.");
+        }
+        if (method.output.size() == 0) {
+            if (payload == null || payload.length() == 0 || payload.equals("0x0")) {
+                // if it's a void return(nothing to decode)
+                return null;
             }
+            // if the abi has 0 return but payload is not "0x0"
+            throw new RuntimeException("Cannot parse result from a non-return method.");
+        }
+        byte[] bytes;
+        // remove appendix part.
+        try {
+            bytes = Hex.decodeHex(Utils.deleteHexPre(payload));
+        } catch (DecoderException e) {
+            throw new RuntimeException("Internal error: " + e.getMessage());
+        }
+        return method.codec.decode(ByteBuffer.wrap(bytes), type);
+    }
+
+    /**
+     * fvm abi decode of a binary payload, read in place.
+     *
+     * @param payload    ByteBuffer, read from its position which is left untouched
+     * @param methodName String
+     * @return Object
+     */
+    public Object decode(ByteBuffer payload, String methodName) {
+        return decode(payload, methodName, Object.class);
+    }
+
+    /**
+     * fvm abi decode of a binary payload into a type, see {@link MethodCodec#decode(ByteBuffer, Class)}.
+     *
+     * @param payload    ByteBuffer, read from its position which is left untouched
+     * @param methodName String
+     * @param type       result type, e.g. Object[] or a class with the members of the returned struct
+     * @param <T>        result type
+     * @return T
+     */
+    public <T> T decode(ByteBuffer payload, String methodName, Class<T> type) {
+        Method method = this.getMethods().get(methodName);
+        if (method == null) {
+            throw new RuntimeException("Method not existed.");
         }
+        return method.codec.decode(payload, type);
     }
 }
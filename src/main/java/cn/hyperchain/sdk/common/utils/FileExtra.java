@@ -1,5 +1,6 @@
 package cn.hyperchain.sdk.common.utils;
 
+import cn.hyperchain.sdk.crypto.sm.sm3.SM3StreamDigest;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
 import com.google.gson.annotations.Expose;
@@ -42,6 +43,51 @@ public class FileExtra {
     @SerializedName("file_size")
     private long fileSize;
 
+    /**
+     * the hash a file is identified by, SM3 for deployments restricted to national cryptography.
+     */
+    public enum HashAlgo {
+        MD5, SM3;
+
+        /**
+         * get the algorithm of a file hash by its length.
+         *
+         * @param fileHash hex file hash
+         * @return SM3 for a 32 byte hash, otherwise MD5
+         */
+        public static HashAlgo of(String fileHash) {
+            return fileHash.length() == 64 ? SM3 : MD5;
+        }
+    }
+
+    /**
+     * calculate file hash by the given algorithm.
+     *
+     * @param randomAccessFile file random read-write stream
+     * @param algo             hash algorithm
+     * @return hex string
+     * @throws NoSuchAlgorithmException -
+     * @throws IOException              -
+     */
+    public static String getFileHashString(RandomAccessFile randomAccessFile, HashAlgo algo) throws NoSuchAlgorithmException, IOException {
+        return algo == HashAlgo.SM3 ? getFileSM3String(randomAccessFile) : getFileMD5String(randomAccessFile);
+    }
+
+    /**
+     * calculate the sm3 hash of the whole file, read through memory mapping.
+     *
+     * @param randomAccessFile file random read-write stream
+     * @return hex string
+     * @throws IOException -
+     */
+    public static String getFileSM3String(RandomAccessFile randomAccessFile) throws IOException {
+        randomAccessFile.seek(0);
+        SM3StreamDigest digest = new SM3StreamDigest();
+        digest.update(randomAccessFile.getChannel());
+        randomAccessFile.seek(0);
+        return ByteUtil.toHex(digest.digest());
+    }
+
     public static String getFileMD5String(RandomAccessFile randomAccessFile) throws NoSuchAlgorithmException, IOException {
         return ByteUtil.toHex(getFileMD5Bytes(randomAccessFile));
     }
@@ -0,0 +1,164 @@
+package cn.hyperchain.sdk.common.utils;
+
+import java.util.Arrays;
+
+/**
+ * HexCodec encodes lower case hex and decodes hex of either case with lookup tables.
+ * It reads any CharSequence in place and can write into the caller's arrays, so no intermediate String is built.
+ * An odd number of digits decodes as if a leading '0' was there, like {@link ByteUtil#fromHex(String)}.
+ */
+public final class HexCodec {
+    private static final char[] DIGITS = "0123456789abcdef".toCharArray();
+    private static final byte[] VALUES = new byte[128];
+
+    static {
+        Arrays.fill(VALUES, (byte) -1);
+        for (int i = 0; i < 10; i++) {
+            VALUES['0' + i] = (byte) i;
+        }
+        for (int i = 0; i < 6; i++) {
+            VALUES['a' + i] = (byte) (10 + i);
+            VALUES['A' + i] = (byte) (10 + i);
+        }
+    }
+
+    private HexCodec() {
+    }
+
+    /**
+     * encode bytes to a hex string.
+     *
+     * @param data bytes
+     * @return lower case hex string without prefix
+     */
+    public static String encode(byte[] data) {
+        return encode(data, 0, data.length);
+    }
+
+    /**
+     * encode part of an array to a hex string.
+     *
+     * @param data   bytes
+     * @param offset first byte
+     * @param length byte count
+     * @return lower case hex string without prefix
+     */
+    public static String encode(byte[] data, int offset, int length) {
+        char[] out = new char[length * 2];
+        encode(data, offset, length, out, 0);
+        return new String(out);
+    }
+
+    /**
+     * encode part of an array into a char array.
+     *
+     * @param data      bytes
+     * @param offset    first byte
+     * @param length    byte count
+     * @param out       destination, needs length * 2 chars from outOffset
+     * @param outOffset first char written
+     * @return the number of chars written
+     */
+    public static int encode(byte[] data, int offset, int length, char[] out, int outOffset) {
+        int j = outOffset;
+        for (int i = offset; i < offset + length; i++) {
+            int b = data[i] & 0xff;
+            out[j++] = DIGITS[b >>> 4];
+            out[j++] = DIGITS[b & 0xf];
+        }
+        return length * 2;
+    }
+
+    /**
+     * encode part of an array into an array of ascii bytes.
+     *
+     * @param data      bytes
+     * @param offset    first byte
+     * @param length    byte count
+     * @param out       destination, needs length * 2 bytes from outOffset
+     * @param outOffset first byte written
+     * @return the number of bytes written
+     */
+    public static int encode(byte[] data, int offset, int length, byte[] out, int outOffset) {
+        int j = outOffset;
+        for (int i = offset; i < offset + length; i++) {
+            int b = data[i] & 0xff;
+            out[j++] = (byte) DIGITS[b >>> 4];
+            out[j++] = (byte) DIGITS[b & 0xf];
+        }
+        return length * 2;
+    }
+
+    /**
+     * decode a hex string with an optional "0x" prefix.
+     *
+     * @param hex hex string, null decodes to an empty array
+     * @return bytes
+     * @throws IllegalArgumentException if a character is not a hex digit
+     */
+    public static byte[] decode(CharSequence hex) {
+        if (hex == null) {
+            return ByteUtil.EMPTY_BYTE_ARRAY;
+        }
+        int start = prefixLength(hex);
+        int length = hex.length() - start;
+        byte[] out = new byte[decodedLength(length)];
+        decode(hex, start, length, out, 0);
+        return out;
+    }
+
+    /**
+     * decode hex digits into a byte array.
+     *
+     * @param hex       hex digits, read from offset without looking for a prefix
+     * @param offset    first digit
+     * @param length    digit count
+     * @param out       destination, needs {@link #decodedLength(int)} bytes from outOffset
+     * @param outOffset first byte written
+     * @return the number of bytes written
+     * @throws IllegalArgumentException if a character is not a hex digit
+     */
+    public static int decode(CharSequence hex, int offset, int length, byte[] out, int outOffset) {
+        int i = offset;
+        int end = offset + length;
+        int j = outOffset;
+        if ((length & 1) == 1) {
+            out[j++] = (byte) value(hex, i++);
+        }
+        while (i < end) {
+            out[j++] = (byte) (value(hex, i) << 4 | value(hex, i + 1));
+            i += 2;
+        }
+        return j - outOffset;
+    }
+
+    /**
+     * get the number of bytes some hex digits decode to.
+     *
+     * @param digits digit count
+     * @return byte count
+     */
+    public static int decodedLength(int digits) {
+        return (digits + 1) / 2;
+    }
+
+    static int prefixLength(CharSequence hex) {
+        return hex.length() >= 2 && hex.charAt(0) == '0' && hex.charAt(1) == 'x' ? 2 : 0;
+    }
+
+    /**
+     * the byte of two digits from index, the digit before start reads as a leading '0'.
+     */
+    static int byteAt(CharSequence hex, int index, int start) {
+        return (index < start ? 0 : value(hex, index) << 4) | value(hex, index + 1);
+    }
+
+    private static int value(CharSequence hex, int index) {
+        char c = hex.charAt(index);
+        int value = c < VALUES.length ? VALUES[c] : -1;
+        if (value < 0) {
+            throw new IllegalArgumentException("invalid hex character '" + c + "' at index " + index);
+        }
+        return value;
+    }
+}
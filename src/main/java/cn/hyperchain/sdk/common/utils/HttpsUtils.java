@@ -92,26 +92,29 @@ public class HttpsUtils {
         }
     }
 
+    // one instance, okhttp only pools connections of providers with equal verifiers
+    private static final HostnameVerifier HYPERCHAIN_VERIFIER = new HostnameVerifier() {
+        @Override
+        public boolean verify(String s, SSLSession sslSession) {
+            try {
+                String raw = sslSession.getPeerCertificateChain()[0].getIssuerDN().getName();
+                return raw.contains("CN=hyperchain.cn");
+//                X500Name x500Name = (X500Name) sslSession.getPeerCertificateChain()[0].getIssuerDN();
+//                String commonName = x500Name.getCommonName();
+//                return commonName.equals("hyperchain.cn");
+            } catch (Exception e) {
+                logger.error(e);
+            }
+            return false;
+        }
+    };
+
     /**
      * create hyperchain verifier.
      * @return {@link HostnameVerifier}
      */
     public static HostnameVerifier hyperchainVerifier() {
-        return new HostnameVerifier() {
-            @Override
-            public boolean verify(String s, SSLSession sslSession) {
-                try {
-                    String raw = sslSession.getPeerCertificateChain()[0].getIssuerDN().getName();
-                    return raw.contains("CN=hyperchain.cn");
-//                    X500Name x500Name = (X500Name) sslSession.getPeerCertificateChain()[0].getIssuerDN();
-//                    String commonName = x500Name.getCommonName();
-//                    return commonName.equals("hyperchain.cn");
-                } catch (Exception e) {
-                    logger.error(e);
-                }
-                return false;
-            }
-        };
+        return HYPERCHAIN_VERIFIER;
     }
 
     private static TrustManager[] prepareTrustManager(InputStream... certificates) {
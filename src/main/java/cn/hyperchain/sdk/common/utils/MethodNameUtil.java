@@ -4,6 +4,7 @@ import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 public class MethodNameUtil {
+    private static final Pattern INT_ALIAS = Pattern.compile("int[^0-9]");
 
     /**
      * get normalized method name.
@@ -15,8 +16,7 @@ public class MethodNameUtil {
     public static String getNormalizedMethodName(String methodName) {
         int firstBracketIndex = methodName.indexOf("(");
         String stringPrefix = methodName.substring(0,firstBracketIndex);
-        Pattern p = Pattern.compile("int[^0-9]");
-        Matcher m = p.matcher(methodName.substring(firstBracketIndex));
+        Matcher m = INT_ALIAS.matcher(methodName.substring(firstBracketIndex));
         StringBuffer sb = new StringBuffer();
         while (m.find()) {
             m.appendReplacement(sb, "int256" + m.group().substring(3));
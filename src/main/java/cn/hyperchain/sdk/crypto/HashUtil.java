@@ -2,12 +2,15 @@ package cn.hyperchain.sdk.crypto;
 
 import cn.hyperchain.sdk.crypto.cryptohash.Keccak256;
 
+import java.nio.ByteBuffer;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 
 import static java.util.Arrays.copyOfRange;
 
 public class HashUtil {
+    // digest() resets the engine, so one instance per thread can be reused
+    private static final ThreadLocal<Keccak256> KECCAK = ThreadLocal.withInitial(Keccak256::new);
 
     /**
      * MessageDigest use Keccak256.
@@ -15,9 +18,32 @@ public class HashUtil {
      * @return result bytes
      */
     public static byte[] sha3(byte[] data) {
-        Keccak256 digest = new Keccak256();
-        digest.update(data);
-        return digest.digest();
+        return KECCAK.get().digest(data);
+    }
+
+    /**
+     * MessageDigest use Keccak256 over the remaining bytes of a buffer, heap or direct.
+     * @param data data for hash, its position is advanced to its limit
+     * @return result bytes
+     */
+    public static byte[] sha3(ByteBuffer data) {
+        Keccak256 keccak = KECCAK.get();
+        keccak.update(data);
+        return keccak.digest();
+    }
+
+    /**
+     * MessageDigest use Keccak256 over many messages with one engine.
+     * @param data messages for hash
+     * @return result bytes of each message, in the order of data
+     */
+    public static byte[][] sha3All(byte[][] data) {
+        Keccak256 keccak = KECCAK.get();
+        byte[][] hashes = new byte[data.length][];
+        for (int i = 0; i < data.length; i++) {
+            hashes[i] = keccak.digest(data[i]);
+        }
+        return hashes;
     }
 
     /**
@@ -0,0 +1,48 @@
+package cn.hyperchain.sdk.crypto;
+
+import org.bouncycastle.crypto.digests.SHA256Digest;
+import org.bouncycastle.crypto.prng.EntropySource;
+import org.bouncycastle.crypto.prng.SP800SecureRandomBuilder;
+
+import java.security.SecureRandom;
+
+/**
+ * SecureRandomUtil hands out a SHA-256 hash DRBG (NIST SP 800-90A) per thread for signing nonces,
+ * so signing threads neither share a lock nor create a SecureRandom per signature.
+ * The generators are seeded and reseeded from one system SecureRandom with nextBytes, which does not block.
+ */
+public class SecureRandomUtil {
+    private static final SecureRandom SEED = new SecureRandom();
+    private static final ThreadLocal<SecureRandom> RANDOMS = ThreadLocal.withInitial(SecureRandomUtil::newRandom);
+
+    /**
+     * get the random of the current thread.
+     * @return SecureRandom
+     */
+    public static SecureRandom getSecureRandom() {
+        return RANDOMS.get();
+    }
+
+    private static SecureRandom newRandom() {
+        byte[] nonce = new byte[16];
+        SEED.nextBytes(nonce);
+        return new SP800SecureRandomBuilder(bits -> new EntropySource() {
+            @Override
+            public boolean isPredictionResistant() {
+                return false;
+            }
+
+            @Override
+            public byte[] getEntropy() {
+                byte[] entropy = new byte[(bits + 7) / 8];
+                SEED.nextBytes(entropy);
+                return entropy;
+            }
+
+            @Override
+            public int entropySize() {
+                return bits;
+            }
+        }).buildHash(new SHA256Digest(), nonce, false);
+    }
+}
@@ -0,0 +1,301 @@
+package cn.hyperchain.sdk.crypto;
+
+import cn.hyperchain.sdk.common.utils.ByteUtil;
+import cn.hyperchain.sdk.common.utils.Utils;
+import cn.hyperchain.sdk.crypto.ecdsa.ECKey;
+import cn.hyperchain.sdk.crypto.ecdsa.ECUtil;
+import cn.hyperchain.sdk.crypto.ecdsa.R1Util;
+import cn.hyperchain.sdk.crypto.ed25519.ED25519Util;
+import cn.hyperchain.sdk.crypto.sm.sm2.SM2Util;
+import org.bouncycastle.crypto.params.ECPublicKeyParameters;
+import org.bouncycastle.crypto.params.Ed25519PublicKeyParameters;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * verifies signatures in the format of {@link SignerUtil#verifySign(byte[], byte[], byte[])}, one at a time
+ * or many in parallel on a fork join pool.
+ * Decoded public keys are kept in a least recently used cache, so a key seen again is not decoded again
+ * and its point keeps the multiplication tables bouncy castle precomputes for it on the first verification.
+ */
+public class SignatureVerifier {
+    private static final int DEFAULT_CACHE_SIZE = 1024;
+    private static final int DEFAULT_THRESHOLD = 16;
+    // index of the key cache per signature flag, any other flag is R1 as in SignerUtil
+    private static final int EC = 0;
+    private static final int SM2 = 1;
+    private static final int ED25519 = 2;
+    private static final int R1 = 3;
+
+    private ForkJoinPool pool;
+    private int threshold = DEFAULT_THRESHOLD;
+    private KeyCache[] caches;
+
+    private SignatureVerifier() {
+    }
+
+    public static class Builder {
+        private SignatureVerifier verifier;
+        private int parallelism = Runtime.getRuntime().availableProcessors();
+        private int cacheSize = DEFAULT_CACHE_SIZE;
+
+        public Builder() {
+            verifier = new SignatureVerifier();
+        }
+
+        /**
+         * set how many public keys of each algorithm are kept decoded, 0 disables the cache.
+         * @param cacheSize keys per algorithm
+         * @return {@link Builder}
+         */
+        public Builder cacheSize(int cacheSize) {
+            if (cacheSize < 0) {
+                throw new IllegalArgumentException("cache size must not be negative");
+            }
+            this.cacheSize = cacheSize;
+            return this;
+        }
+
+        /**
+         * set the number of verifying threads, ignored if a pool is given.
+         * @param parallelism thread count
+         * @return {@link Builder}
+         */
+        public Builder parallelism(int parallelism) {
+            if (parallelism <= 0) {
+                throw new IllegalArgumentException("parallelism must be positive");
+            }
+            this.parallelism = parallelism;
+            return this;
+        }
+
+        /**
+         * verify on an existing fork join pool.
+         * @param pool fork join pool
+         * @return {@link Builder}
+         */
+        public Builder pool(ForkJoinPool pool) {
+            verifier.pool = pool;
+            return this;
+        }
+
+        /**
+         * set how many signatures one task verifies before it stops splitting.
+         * @param threshold signatures per task
+         * @return {@link Builder}
+         */
+        public Builder threshold(int threshold) {
+            if (threshold <= 0) {
+                throw new IllegalArgumentException("threshold must be positive");
+            }
+            verifier.threshold = threshold;
+            return this;
+        }
+
+        /**
+         * return signature verifier instance.
+         * @return {@link SignatureVerifier}
+         */
+        public SignatureVerifier build() {
+            if (verifier.pool == null) {
+                verifier.pool = new ForkJoinPool(parallelism);
+            }
+            verifier.caches = new KeyCache[]{new KeyCache(cacheSize), new KeyCache(cacheSize), new KeyCache(cacheSize), new KeyCache(cacheSize)};
+            return verifier;
+        }
+    }
+
+    /**
+     * a signature to verify with the data it signs and the public key of its signer.
+     */
+    public static class Item {
+        private final byte[] sourceData;
+        private final byte[] signature;
+        private final byte[] publicKey;
+
+        /**
+         * create an item from bytes.
+         * @param sourceData source data bytes
+         * @param signature signature bytes
+         * @param publicKey public key bytes
+         */
+        public Item(byte[] sourceData, byte[] signature, byte[] publicKey) {
+            this.sourceData = sourceData;
+            this.signature = signature;
+            this.publicKey = publicKey;
+        }
+
+        /**
+         * create an item as {@link SignerUtil#verifySign(String, String, String)} reads its arguments.
+         * @param sourceData source data
+         * @param signature hex signature
+         * @param publicKey hex public key
+         */
+        public Item(String sourceData, String signature, String publicKey) {
+            this(sourceData.getBytes(Utils.DEFAULT_CHARSET), ByteUtil.fromHex(signature), ByteUtil.fromHex(publicKey));
+        }
+    }
+
+    /**
+     * verify one signature.
+     * @param sourceData source data bytes
+     * @param signature signature bytes
+     * @param publicKey public key bytes
+     * @return is legal, false as well if the signature or the public key is malformed
+     */
+    public boolean verify(byte[] sourceData, byte[] signature, byte[] publicKey) {
+        try {
+            int type = signature[0] >= EC && signature[0] <= ED25519 ? signature[0] : R1;
+            Object key = key(type, publicKey);
+            switch (type) {
+                case EC:
+                    return ECUtil.verify(sourceData, Arrays.copyOfRange(signature, 1, signature.length), (ECPublicKeyParameters) key);
+                case SM2:
+                    return SM2Util.verify(sourceData, Arrays.copyOfRange(signature, 66, signature.length), (ECPublicKeyParameters) key);
+                case ED25519:
+                    return ED25519Util.verify(sourceData, Arrays.copyOfRange(signature, 33, signature.length), (Ed25519PublicKeyParameters) key);
+                default:
+                    return R1Util.verify(HashUtil.sha3(sourceData), Arrays.copyOfRange(signature, 66, signature.length), (ECPublicKeyParameters) key);
+            }
+        } catch (RuntimeException e) {
+            return false;
+        }
+    }
+
+    /**
+     * verify all items, the calling thread waits until all are verified.
+     * @param items signatures to verify
+     * @return whether each item is legal, in the order of items
+     */
+    public boolean[] verifyAll(List<Item> items) {
+        boolean[] results = new boolean[items.size()];
+        pool.invoke(new VerifyTask(items, results, 0, items.size()));
+        return results;
+    }
+
+    /**
+     * verify all items without blocking the calling thread.
+     * @param items signatures to verify
+     * @return future of whether each item is legal, in the order of items
+     */
+    public CompletableFuture<boolean[]> verifyAllAsync(List<Item> items) {
+        CompletableFuture<boolean[]> future = new CompletableFuture<>();
+        pool.execute(() -> {
+            try {
+                future.complete(verifyAll(items));
+            } catch (Throwable e) {
+                future.completeExceptionally(e);
+            }
+        });
+        return future;
+    }
+
+    /**
+     * get the number of public keys kept decoded.
+     * @return cached key count of all algorithms
+     */
+    public int cachedKeys() {
+        int count = 0;
+        for (KeyCache cache : caches) {
+            synchronized (cache) {
+                count += cache.size();
+            }
+        }
+        return count;
+    }
+
+    /**
+     * drop all decoded public keys.
+     */
+    public void clearCache() {
+        for (KeyCache cache : caches) {
+            synchronized (cache) {
+                cache.clear();
+            }
+        }
+    }
+
+    /**
+     * shut down the verifying threads.
+     */
+    public void shutdown() {
+        pool.shutdown();
+    }
+
+    private Object key(int type, byte[] publicKey) {
+        KeyCache cache = caches[type];
+        Object key;
+        synchronized (cache) {
+            key = cache.get(ByteBuffer.wrap(publicKey));
+        }
+        if (key == null) {
+            // decoded outside the lock, two threads may both decode a new key
+            key = decode(type, publicKey);
+            synchronized (cache) {
+                cache.put(ByteBuffer.wrap(publicKey.clone()), key);
+            }
+        }
+        return key;
+    }
+
+    private static Object decode(int type, byte[] publicKey) {
+        switch (type) {
+            case EC:
+                return new ECPublicKeyParameters(ECKey.CURVE.getCurve().decodePoint(publicKey), ECKey.CURVE);
+            case SM2:
+                return new ECPublicKeyParameters(SM2Util.CURVE.decodePoint(publicKey), SM2Util.DOMAIN_PARAMS);
+            case ED25519:
+                return new Ed25519PublicKeyParameters(publicKey, 0);
+            default:
+                return new ECPublicKeyParameters(R1Util.CURVE.getCurve().decodePoint(publicKey), R1Util.CURVE);
+        }
+    }
+
+    private static class KeyCache extends LinkedHashMap<ByteBuffer, Object> {
+        private final int capacity;
+
+        KeyCache(int capacity) {
+            super(16, 0.75f, true);
+            this.capacity = capacity;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<ByteBuffer, Object> eldest) {
+            return size() > capacity;
+        }
+    }
+
+    private class VerifyTask extends RecursiveAction {
+        private final List<Item> items;
+        private final boolean[] results;
+        private final int from;
+        private final int to;
+
+        VerifyTask(List<Item> items, boolean[] results, int from, int to) {
+            this.items = items;
+            this.results = results;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > threshold) {
+                int mid = (from + to) >>> 1;
+                invokeAll(new VerifyTask(items, results, from, mid), new VerifyTask(items, results, mid, to));
+                return;
+            }
+            for (int i = from; i < to; i++) {
+                Item item = items.get(i);
+                results[i] = verify(item.sourceData, item.signature, item.publicKey);
+            }
+        }
+    }
+}
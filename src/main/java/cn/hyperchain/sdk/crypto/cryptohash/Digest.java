@@ -1,5 +1,7 @@
 package cn.hyperchain.sdk.crypto.cryptohash;
 
+import java.nio.ByteBuffer;
+
 /**
  * <p>This interface documents the API for a hash function. This
  * interface somewhat mimics the standard {@code
@@ -78,6 +80,14 @@ public interface Digest {
      */
     void update(byte[] inbuf, int off, int len);
 
+    /**
+     * Insert the remaining bytes of a buffer, heap or direct. The
+     * buffer position is advanced to its limit.
+     *
+     * @param inbuf the data buffer
+     */
+    void update(ByteBuffer inbuf);
+
     /**
      * Finalize the current hash computation and return the hash value
      * in a newly-allocated array. The object is resetted.
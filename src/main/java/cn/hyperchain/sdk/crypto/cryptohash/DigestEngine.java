@@ -1,5 +1,7 @@
 package cn.hyperchain.sdk.crypto.cryptohash;
 
+import java.nio.ByteBuffer;
+
 /**
  * <p>This class is a template which can be used to implement hash
  * functions. It takes care of some of the API, and also provides an
@@ -59,6 +61,20 @@ public abstract class DigestEngine implements Digest {
      */
     protected abstract void processBlock(byte[] data);
 
+    /**
+     * Process one block of data read in place from a larger array.
+     * The default implementation copies it into the block buffer
+     * and calls {@link #processBlock(byte[])}; engines that can read
+     * the block where it is should override it.
+     *
+     * @param data the array holding the block
+     * @param off  the offset of the block in {@code data}
+     */
+    protected void processBlock(byte[] data, int off) {
+        System.arraycopy(data, off, inputBuf, 0, blockLen);
+        processBlock(inputBuf);
+    }
+
     /**
      * Perform the final padding and store the result in the
      * provided buffer. This method shall call {@link #flush}
@@ -171,6 +187,14 @@ public abstract class DigestEngine implements Digest {
      */
     public void update(byte[] input, int offset, int len) {
         while (len > 0) {
+            if (inputLen == 0 && len >= blockLen) {
+                /* whole blocks are processed without buffering them */
+                processBlock(input, offset);
+                blockCount++;
+                offset += blockLen;
+                len -= blockLen;
+                continue;
+            }
             int copyLen = blockLen - inputLen;
             if (copyLen > len)
                 copyLen = len;
@@ -187,6 +211,28 @@ public abstract class DigestEngine implements Digest {
         }
     }
 
+    /**
+     * @see cn.hyperchain.sdk.crypto.cryptohash.Digest
+     */
+    public void update(ByteBuffer input) {
+        if (input.hasArray()) {
+            int len = input.remaining();
+            update(input.array(), input.arrayOffset() + input.position(), len);
+            input.position(input.position() + len);
+            return;
+        }
+        while (input.hasRemaining()) {
+            int copyLen = Math.min(blockLen - inputLen, input.remaining());
+            input.get(inputBuf, inputLen, copyLen);
+            inputLen += copyLen;
+            if (inputLen == blockLen) {
+                processBlock(inputBuf);
+                blockCount++;
+                inputLen = 0;
+            }
+        }
+    }
+
     /**
      * Get the internal block length. This is the length (in
      * bytes) of the array which will be passed as parameter to
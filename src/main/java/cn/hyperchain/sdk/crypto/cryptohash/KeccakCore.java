@@ -108,411 +108,175 @@ abstract class KeccakCore extends DigestEngine {
      * @see cn.hyperchain.sdk.crypto.cryptohash.DigestEngine
      */
     protected void processBlock(byte[] data) {
-        /* Input block */
-        for (int i = 0; i < data.length; i += 8)
-            A[i >>> 3] ^= decodeLELong(data, i);
-
-        long t0, t1, t2, t3, t4;
-        long tt0, tt1, tt2, tt3, tt4;
-        long t, kt;
-        long c0, c1, c2, c3, c4, bnn;
-
-		/*
-         * Unrolling four rounds kills performance big time
-		 * on Intel x86 Core2, in both 32-bit and 64-bit modes
-		 * (less than 1 MB/s instead of 55 MB/s on x86-64).
-		 * Unrolling two rounds appears to be fine.
-		 */
-        for (int j = 0; j < 24; j += 2) {
-
-            tt0 = A[1] ^ A[6];
-            tt1 = A[11] ^ A[16];
-            tt0 ^= A[21] ^ tt1;
-            tt0 = (tt0 << 1) | (tt0 >>> 63);
-            tt2 = A[4] ^ A[9];
-            tt3 = A[14] ^ A[19];
-            tt0 ^= A[24];
-            tt2 ^= tt3;
-            t0 = tt0 ^ tt2;
-
-            tt0 = A[2] ^ A[7];
-            tt1 = A[12] ^ A[17];
-            tt0 ^= A[22] ^ tt1;
-            tt0 = (tt0 << 1) | (tt0 >>> 63);
-            tt2 = A[0] ^ A[5];
-            tt3 = A[10] ^ A[15];
-            tt0 ^= A[20];
-            tt2 ^= tt3;
-            t1 = tt0 ^ tt2;
-
-            tt0 = A[3] ^ A[8];
-            tt1 = A[13] ^ A[18];
-            tt0 ^= A[23] ^ tt1;
-            tt0 = (tt0 << 1) | (tt0 >>> 63);
-            tt2 = A[1] ^ A[6];
-            tt3 = A[11] ^ A[16];
-            tt0 ^= A[21];
-            tt2 ^= tt3;
-            t2 = tt0 ^ tt2;
-
-            tt0 = A[4] ^ A[9];
-            tt1 = A[14] ^ A[19];
-            tt0 ^= A[24] ^ tt1;
-            tt0 = (tt0 << 1) | (tt0 >>> 63);
-            tt2 = A[2] ^ A[7];
-            tt3 = A[12] ^ A[17];
-            tt0 ^= A[22];
-            tt2 ^= tt3;
-            t3 = tt0 ^ tt2;
-
-            tt0 = A[0] ^ A[5];
-            tt1 = A[10] ^ A[15];
-            tt0 ^= A[20] ^ tt1;
-            tt0 = (tt0 << 1) | (tt0 >>> 63);
-            tt2 = A[3] ^ A[8];
-            tt3 = A[13] ^ A[18];
-            tt0 ^= A[23];
-            tt2 ^= tt3;
-            t4 = tt0 ^ tt2;
-
-            A[0] = A[0] ^ t0;
-            A[5] = A[5] ^ t0;
-            A[10] = A[10] ^ t0;
-            A[15] = A[15] ^ t0;
-            A[20] = A[20] ^ t0;
-            A[1] = A[1] ^ t1;
-            A[6] = A[6] ^ t1;
-            A[11] = A[11] ^ t1;
-            A[16] = A[16] ^ t1;
-            A[21] = A[21] ^ t1;
-            A[2] = A[2] ^ t2;
-            A[7] = A[7] ^ t2;
-            A[12] = A[12] ^ t2;
-            A[17] = A[17] ^ t2;
-            A[22] = A[22] ^ t2;
-            A[3] = A[3] ^ t3;
-            A[8] = A[8] ^ t3;
-            A[13] = A[13] ^ t3;
-            A[18] = A[18] ^ t3;
-            A[23] = A[23] ^ t3;
-            A[4] = A[4] ^ t4;
-            A[9] = A[9] ^ t4;
-            A[14] = A[14] ^ t4;
-            A[19] = A[19] ^ t4;
-            A[24] = A[24] ^ t4;
-            A[5] = (A[5] << 36) | (A[5] >>> (64 - 36));
-            A[10] = (A[10] << 3) | (A[10] >>> (64 - 3));
-            A[15] = (A[15] << 41) | (A[15] >>> (64 - 41));
-            A[20] = (A[20] << 18) | (A[20] >>> (64 - 18));
-            A[1] = (A[1] << 1) | (A[1] >>> (64 - 1));
-            A[6] = (A[6] << 44) | (A[6] >>> (64 - 44));
-            A[11] = (A[11] << 10) | (A[11] >>> (64 - 10));
-            A[16] = (A[16] << 45) | (A[16] >>> (64 - 45));
-            A[21] = (A[21] << 2) | (A[21] >>> (64 - 2));
-            A[2] = (A[2] << 62) | (A[2] >>> (64 - 62));
-            A[7] = (A[7] << 6) | (A[7] >>> (64 - 6));
-            A[12] = (A[12] << 43) | (A[12] >>> (64 - 43));
-            A[17] = (A[17] << 15) | (A[17] >>> (64 - 15));
-            A[22] = (A[22] << 61) | (A[22] >>> (64 - 61));
-            A[3] = (A[3] << 28) | (A[3] >>> (64 - 28));
-            A[8] = (A[8] << 55) | (A[8] >>> (64 - 55));
-            A[13] = (A[13] << 25) | (A[13] >>> (64 - 25));
-            A[18] = (A[18] << 21) | (A[18] >>> (64 - 21));
-            A[23] = (A[23] << 56) | (A[23] >>> (64 - 56));
-            A[4] = (A[4] << 27) | (A[4] >>> (64 - 27));
-            A[9] = (A[9] << 20) | (A[9] >>> (64 - 20));
-            A[14] = (A[14] << 39) | (A[14] >>> (64 - 39));
-            A[19] = (A[19] << 8) | (A[19] >>> (64 - 8));
-            A[24] = (A[24] << 14) | (A[24] >>> (64 - 14));
-            bnn = ~A[12];
-            kt = A[6] | A[12];
-            c0 = A[0] ^ kt;
-            kt = bnn | A[18];
-            c1 = A[6] ^ kt;
-            kt = A[18] & A[24];
-            c2 = A[12] ^ kt;
-            kt = A[24] | A[0];
-            c3 = A[18] ^ kt;
-            kt = A[0] & A[6];
-            c4 = A[24] ^ kt;
-            A[0] = c0;
-            A[6] = c1;
-            A[12] = c2;
-            A[18] = c3;
-            A[24] = c4;
-            bnn = ~A[22];
-            kt = A[9] | A[10];
-            c0 = A[3] ^ kt;
-            kt = A[10] & A[16];
-            c1 = A[9] ^ kt;
-            kt = A[16] | bnn;
-            c2 = A[10] ^ kt;
-            kt = A[22] | A[3];
-            c3 = A[16] ^ kt;
-            kt = A[3] & A[9];
-            c4 = A[22] ^ kt;
-            A[3] = c0;
-            A[9] = c1;
-            A[10] = c2;
-            A[16] = c3;
-            A[22] = c4;
-            bnn = ~A[19];
-            kt = A[7] | A[13];
-            c0 = A[1] ^ kt;
-            kt = A[13] & A[19];
-            c1 = A[7] ^ kt;
-            kt = bnn & A[20];
-            c2 = A[13] ^ kt;
-            kt = A[20] | A[1];
-            c3 = bnn ^ kt;
-            kt = A[1] & A[7];
-            c4 = A[20] ^ kt;
-            A[1] = c0;
-            A[7] = c1;
-            A[13] = c2;
-            A[19] = c3;
-            A[20] = c4;
-            bnn = ~A[17];
-            kt = A[5] & A[11];
-            c0 = A[4] ^ kt;
-            kt = A[11] | A[17];
-            c1 = A[5] ^ kt;
-            kt = bnn | A[23];
-            c2 = A[11] ^ kt;
-            kt = A[23] & A[4];
-            c3 = bnn ^ kt;
-            kt = A[4] | A[5];
-            c4 = A[23] ^ kt;
-            A[4] = c0;
-            A[5] = c1;
-            A[11] = c2;
-            A[17] = c3;
-            A[23] = c4;
-            bnn = ~A[8];
-            kt = bnn & A[14];
-            c0 = A[2] ^ kt;
-            kt = A[14] | A[15];
-            c1 = bnn ^ kt;
-            kt = A[15] & A[21];
-            c2 = A[14] ^ kt;
-            kt = A[21] | A[2];
-            c3 = A[15] ^ kt;
-            kt = A[2] & A[8];
-            c4 = A[21] ^ kt;
-            A[2] = c0;
-            A[8] = c1;
-            A[14] = c2;
-            A[15] = c3;
-            A[21] = c4;
-            A[0] = A[0] ^ RC[j + 0];
-
-            tt0 = A[6] ^ A[9];
-            tt1 = A[7] ^ A[5];
-            tt0 ^= A[8] ^ tt1;
-            tt0 = (tt0 << 1) | (tt0 >>> 63);
-            tt2 = A[24] ^ A[22];
-            tt3 = A[20] ^ A[23];
-            tt0 ^= A[21];
-            tt2 ^= tt3;
-            t0 = tt0 ^ tt2;
-
-            tt0 = A[12] ^ A[10];
-            tt1 = A[13] ^ A[11];
-            tt0 ^= A[14] ^ tt1;
-            tt0 = (tt0 << 1) | (tt0 >>> 63);
-            tt2 = A[0] ^ A[3];
-            tt3 = A[1] ^ A[4];
-            tt0 ^= A[2];
-            tt2 ^= tt3;
-            t1 = tt0 ^ tt2;
-
-            tt0 = A[18] ^ A[16];
-            tt1 = A[19] ^ A[17];
-            tt0 ^= A[15] ^ tt1;
-            tt0 = (tt0 << 1) | (tt0 >>> 63);
-            tt2 = A[6] ^ A[9];
-            tt3 = A[7] ^ A[5];
-            tt0 ^= A[8];
-            tt2 ^= tt3;
-            t2 = tt0 ^ tt2;
-
-            tt0 = A[24] ^ A[22];
-            tt1 = A[20] ^ A[23];
-            tt0 ^= A[21] ^ tt1;
-            tt0 = (tt0 << 1) | (tt0 >>> 63);
-            tt2 = A[12] ^ A[10];
-            tt3 = A[13] ^ A[11];
-            tt0 ^= A[14];
-            tt2 ^= tt3;
-            t3 = tt0 ^ tt2;
+        processBlock(data, 0);
+    }
 
-            tt0 = A[0] ^ A[3];
-            tt1 = A[1] ^ A[4];
-            tt0 ^= A[2] ^ tt1;
-            tt0 = (tt0 << 1) | (tt0 >>> 63);
-            tt2 = A[18] ^ A[16];
-            tt3 = A[19] ^ A[17];
-            tt0 ^= A[15];
-            tt2 ^= tt3;
-            t4 = tt0 ^ tt2;
+    /**
+     * @see cn.hyperchain.sdk.crypto.cryptohash.DigestEngine
+     */
+    protected void processBlock(byte[] data, int off) {
+        /* Input block */
+        int lanes = getBlockLength() >>> 3;
+        for (int i = 0; i < lanes; i++)
+            A[i] ^= decodeLELong(data, off + (i << 3));
 
-            A[0] = A[0] ^ t0;
-            A[3] = A[3] ^ t0;
-            A[1] = A[1] ^ t0;
-            A[4] = A[4] ^ t0;
-            A[2] = A[2] ^ t0;
-            A[6] = A[6] ^ t1;
-            A[9] = A[9] ^ t1;
-            A[7] = A[7] ^ t1;
-            A[5] = A[5] ^ t1;
-            A[8] = A[8] ^ t1;
-            A[12] = A[12] ^ t2;
-            A[10] = A[10] ^ t2;
-            A[13] = A[13] ^ t2;
-            A[11] = A[11] ^ t2;
-            A[14] = A[14] ^ t2;
-            A[18] = A[18] ^ t3;
-            A[16] = A[16] ^ t3;
-            A[19] = A[19] ^ t3;
-            A[17] = A[17] ^ t3;
-            A[15] = A[15] ^ t3;
-            A[24] = A[24] ^ t4;
-            A[22] = A[22] ^ t4;
-            A[20] = A[20] ^ t4;
-            A[23] = A[23] ^ t4;
-            A[21] = A[21] ^ t4;
-            A[3] = (A[3] << 36) | (A[3] >>> (64 - 36));
-            A[1] = (A[1] << 3) | (A[1] >>> (64 - 3));
-            A[4] = (A[4] << 41) | (A[4] >>> (64 - 41));
-            A[2] = (A[2] << 18) | (A[2] >>> (64 - 18));
-            A[6] = (A[6] << 1) | (A[6] >>> (64 - 1));
-            A[9] = (A[9] << 44) | (A[9] >>> (64 - 44));
-            A[7] = (A[7] << 10) | (A[7] >>> (64 - 10));
-            A[5] = (A[5] << 45) | (A[5] >>> (64 - 45));
-            A[8] = (A[8] << 2) | (A[8] >>> (64 - 2));
-            A[12] = (A[12] << 62) | (A[12] >>> (64 - 62));
-            A[10] = (A[10] << 6) | (A[10] >>> (64 - 6));
-            A[13] = (A[13] << 43) | (A[13] >>> (64 - 43));
-            A[11] = (A[11] << 15) | (A[11] >>> (64 - 15));
-            A[14] = (A[14] << 61) | (A[14] >>> (64 - 61));
-            A[18] = (A[18] << 28) | (A[18] >>> (64 - 28));
-            A[16] = (A[16] << 55) | (A[16] >>> (64 - 55));
-            A[19] = (A[19] << 25) | (A[19] >>> (64 - 25));
-            A[17] = (A[17] << 21) | (A[17] >>> (64 - 21));
-            A[15] = (A[15] << 56) | (A[15] >>> (64 - 56));
-            A[24] = (A[24] << 27) | (A[24] >>> (64 - 27));
-            A[22] = (A[22] << 20) | (A[22] >>> (64 - 20));
-            A[20] = (A[20] << 39) | (A[20] >>> (64 - 39));
-            A[23] = (A[23] << 8) | (A[23] >>> (64 - 8));
-            A[21] = (A[21] << 14) | (A[21] >>> (64 - 14));
-            bnn = ~A[13];
-            kt = A[9] | A[13];
-            c0 = A[0] ^ kt;
-            kt = bnn | A[17];
-            c1 = A[9] ^ kt;
-            kt = A[17] & A[21];
-            c2 = A[13] ^ kt;
-            kt = A[21] | A[0];
-            c3 = A[17] ^ kt;
-            kt = A[0] & A[9];
-            c4 = A[21] ^ kt;
-            A[0] = c0;
-            A[9] = c1;
-            A[13] = c2;
-            A[17] = c3;
-            A[21] = c4;
-            bnn = ~A[14];
-            kt = A[22] | A[1];
-            c0 = A[18] ^ kt;
-            kt = A[1] & A[5];
-            c1 = A[22] ^ kt;
-            kt = A[5] | bnn;
-            c2 = A[1] ^ kt;
-            kt = A[14] | A[18];
-            c3 = A[5] ^ kt;
-            kt = A[18] & A[22];
-            c4 = A[14] ^ kt;
-            A[18] = c0;
-            A[22] = c1;
-            A[1] = c2;
-            A[5] = c3;
-            A[14] = c4;
-            bnn = ~A[23];
-            kt = A[10] | A[19];
-            c0 = A[6] ^ kt;
-            kt = A[19] & A[23];
-            c1 = A[10] ^ kt;
-            kt = bnn & A[2];
-            c2 = A[19] ^ kt;
-            kt = A[2] | A[6];
-            c3 = bnn ^ kt;
-            kt = A[6] & A[10];
-            c4 = A[2] ^ kt;
-            A[6] = c0;
-            A[10] = c1;
-            A[19] = c2;
-            A[23] = c3;
-            A[2] = c4;
-            bnn = ~A[11];
-            kt = A[3] & A[7];
-            c0 = A[24] ^ kt;
-            kt = A[7] | A[11];
-            c1 = A[3] ^ kt;
-            kt = bnn | A[15];
-            c2 = A[7] ^ kt;
-            kt = A[15] & A[24];
-            c3 = bnn ^ kt;
-            kt = A[24] | A[3];
-            c4 = A[15] ^ kt;
-            A[24] = c0;
-            A[3] = c1;
-            A[7] = c2;
-            A[11] = c3;
-            A[15] = c4;
-            bnn = ~A[16];
-            kt = bnn & A[20];
-            c0 = A[12] ^ kt;
-            kt = A[20] | A[4];
-            c1 = bnn ^ kt;
-            kt = A[4] & A[8];
-            c2 = A[20] ^ kt;
-            kt = A[8] | A[12];
-            c3 = A[4] ^ kt;
-            kt = A[12] & A[16];
-            c4 = A[8] ^ kt;
-            A[12] = c0;
-            A[16] = c1;
-            A[20] = c2;
-            A[4] = c3;
-            A[8] = c4;
-            A[0] = A[0] ^ RC[j + 1];
-            t = A[5];
-            A[5] = A[18];
-            A[18] = A[11];
-            A[11] = A[10];
-            A[10] = A[6];
-            A[6] = A[22];
-            A[22] = A[20];
-            A[20] = A[12];
-            A[12] = A[19];
-            A[19] = A[15];
-            A[15] = A[24];
-            A[24] = A[8];
-            A[8] = t;
-            t = A[1];
-            A[1] = A[9];
-            A[9] = A[14];
-            A[14] = A[2];
-            A[2] = A[13];
-            A[13] = A[23];
-            A[23] = A[4];
-            A[4] = A[21];
-            A[21] = A[16];
-            A[16] = A[3];
-            A[3] = A[17];
-            A[17] = A[7];
-            A[7] = t;
+        /*
+         * The state is kept in 25 local lanes for the whole permutation,
+         * so the rounds work on registers instead of array elements
+         * that are bounds checked at each access.
+         */
+        long a00 = A[0];
+        long a01 = A[1];
+        long a02 = A[2];
+        long a03 = A[3];
+        long a04 = A[4];
+        long a05 = A[5];
+        long a06 = A[6];
+        long a07 = A[7];
+        long a08 = A[8];
+        long a09 = A[9];
+        long a10 = A[10];
+        long a11 = A[11];
+        long a12 = A[12];
+        long a13 = A[13];
+        long a14 = A[14];
+        long a15 = A[15];
+        long a16 = A[16];
+        long a17 = A[17];
+        long a18 = A[18];
+        long a19 = A[19];
+        long a20 = A[20];
+        long a21 = A[21];
+        long a22 = A[22];
+        long a23 = A[23];
+        long a24 = A[24];
+        for (int j = 0; j < 24; j++) {
+            // theta
+            long c0 = a00 ^ a05 ^ a10 ^ a15 ^ a20;
+            long c1 = a01 ^ a06 ^ a11 ^ a16 ^ a21;
+            long c2 = a02 ^ a07 ^ a12 ^ a17 ^ a22;
+            long c3 = a03 ^ a08 ^ a13 ^ a18 ^ a23;
+            long c4 = a04 ^ a09 ^ a14 ^ a19 ^ a24;
+            long d0 = Long.rotateLeft(c1, 1) ^ c4;
+            long d1 = Long.rotateLeft(c2, 1) ^ c0;
+            long d2 = Long.rotateLeft(c3, 1) ^ c1;
+            long d3 = Long.rotateLeft(c4, 1) ^ c2;
+            long d4 = Long.rotateLeft(c0, 1) ^ c3;
+            a00 ^= d0;
+            a05 ^= d0;
+            a10 ^= d0;
+            a15 ^= d0;
+            a20 ^= d0;
+            a01 ^= d1;
+            a06 ^= d1;
+            a11 ^= d1;
+            a16 ^= d1;
+            a21 ^= d1;
+            a02 ^= d2;
+            a07 ^= d2;
+            a12 ^= d2;
+            a17 ^= d2;
+            a22 ^= d2;
+            a03 ^= d3;
+            a08 ^= d3;
+            a13 ^= d3;
+            a18 ^= d3;
+            a23 ^= d3;
+            a04 ^= d4;
+            a09 ^= d4;
+            a14 ^= d4;
+            a19 ^= d4;
+            a24 ^= d4;
+            // rho and pi, one cycle through the 24 moving lanes
+            c0 = Long.rotateLeft(a01, 1);
+            a01 = Long.rotateLeft(a06, 44);
+            a06 = Long.rotateLeft(a09, 20);
+            a09 = Long.rotateLeft(a22, 61);
+            a22 = Long.rotateLeft(a14, 39);
+            a14 = Long.rotateLeft(a20, 18);
+            a20 = Long.rotateLeft(a02, 62);
+            a02 = Long.rotateLeft(a12, 43);
+            a12 = Long.rotateLeft(a13, 25);
+            a13 = Long.rotateLeft(a19, 8);
+            a19 = Long.rotateLeft(a23, 56);
+            a23 = Long.rotateLeft(a15, 41);
+            a15 = Long.rotateLeft(a04, 27);
+            a04 = Long.rotateLeft(a24, 14);
+            a24 = Long.rotateLeft(a21, 2);
+            a21 = Long.rotateLeft(a08, 55);
+            a08 = Long.rotateLeft(a16, 45);
+            a16 = Long.rotateLeft(a05, 36);
+            a05 = Long.rotateLeft(a03, 28);
+            a03 = Long.rotateLeft(a18, 21);
+            a18 = Long.rotateLeft(a17, 15);
+            a17 = Long.rotateLeft(a11, 10);
+            a11 = Long.rotateLeft(a07, 6);
+            a07 = Long.rotateLeft(a10, 3);
+            a10 = c0;
+            // chi
+            c0 = a00 ^ (~a01 & a02);
+            c1 = a01 ^ (~a02 & a03);
+            a02 ^= ~a03 & a04;
+            a03 ^= ~a04 & a00;
+            a04 ^= ~a00 & a01;
+            a00 = c0;
+            a01 = c1;
+            c0 = a05 ^ (~a06 & a07);
+            c1 = a06 ^ (~a07 & a08);
+            a07 ^= ~a08 & a09;
+            a08 ^= ~a09 & a05;
+            a09 ^= ~a05 & a06;
+            a05 = c0;
+            a06 = c1;
+            c0 = a10 ^ (~a11 & a12);
+            c1 = a11 ^ (~a12 & a13);
+            a12 ^= ~a13 & a14;
+            a13 ^= ~a14 & a10;
+            a14 ^= ~a10 & a11;
+            a10 = c0;
+            a11 = c1;
+            c0 = a15 ^ (~a16 & a17);
+            c1 = a16 ^ (~a17 & a18);
+            a17 ^= ~a18 & a19;
+            a18 ^= ~a19 & a15;
+            a19 ^= ~a15 & a16;
+            a15 = c0;
+            a16 = c1;
+            c0 = a20 ^ (~a21 & a22);
+            c1 = a21 ^ (~a22 & a23);
+            a22 ^= ~a23 & a24;
+            a23 ^= ~a24 & a20;
+            a24 ^= ~a20 & a21;
+            a20 = c0;
+            a21 = c1;
+            // iota
+            a00 ^= RC[j];
         }
+        A[0] = a00;
+        A[1] = a01;
+        A[2] = a02;
+        A[3] = a03;
+        A[4] = a04;
+        A[5] = a05;
+        A[6] = a06;
+        A[7] = a07;
+        A[8] = a08;
+        A[9] = a09;
+        A[10] = a10;
+        A[11] = a11;
+        A[12] = a12;
+        A[13] = a13;
+        A[14] = a14;
+        A[15] = a15;
+        A[16] = a16;
+        A[17] = a17;
+        A[18] = a18;
+        A[19] = a19;
+        A[20] = a20;
+        A[21] = a21;
+        A[22] = a22;
+        A[23] = a23;
+        A[24] = a24;
     }
 
     /**
@@ -529,13 +293,7 @@ abstract class KeccakCore extends DigestEngine {
                 buf[i] = 0;
             buf[buf.length - 1] = (byte) 0x80;
         }
-        processBlock(buf);
-        A[1] = ~A[1];
-        A[2] = ~A[2];
-        A[8] = ~A[8];
-        A[12] = ~A[12];
-        A[17] = ~A[17];
-        A[20] = ~A[20];
+        processBlock(buf, 0);
         int dlen = getDigestLength();
         for (int i = 0; i < dlen; i += 8)
             encodeLELong(A[i >>> 3], tmpOut, i);
@@ -561,12 +319,6 @@ abstract class KeccakCore extends DigestEngine {
     private final void doReset() {
         for (int i = 0; i < 25; i++)
             A[i] = 0;
-        A[1] = 0xFFFFFFFFFFFFFFFFL;
-        A[2] = 0xFFFFFFFFFFFFFFFFL;
-        A[8] = 0xFFFFFFFFFFFFFFFFL;
-        A[12] = 0xFFFFFFFFFFFFFFFFL;
-        A[17] = 0xFFFFFFFFFFFFFFFFL;
-        A[20] = 0xFFFFFFFFFFFFFFFFL;
     }
 
     /**
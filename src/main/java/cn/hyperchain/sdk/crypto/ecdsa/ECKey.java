@@ -32,7 +32,6 @@ import org.bouncycastle.asn1.sec.SECNamedCurves;
 import org.bouncycastle.asn1.x9.X9ECParameters;
 import org.bouncycastle.asn1.x9.X9IntegerConverter;
 import org.bouncycastle.crypto.agreement.ECDHBasicAgreement;
-import org.bouncycastle.crypto.digests.SHA256Digest;
 import org.bouncycastle.crypto.engines.AESFastEngine;
 import org.bouncycastle.crypto.modes.SICBlockCipher;
 import org.bouncycastle.crypto.params.ECDomainParameters;
@@ -41,7 +40,6 @@ import org.bouncycastle.crypto.params.ECPublicKeyParameters;
 import org.bouncycastle.crypto.params.KeyParameter;
 import org.bouncycastle.crypto.params.ParametersWithIV;
 import org.bouncycastle.crypto.signers.ECDSASigner;
-import org.bouncycastle.crypto.signers.HMacDSAKCalculator;
 import org.bouncycastle.jcajce.provider.asymmetric.ec.BCECPrivateKey;
 import org.bouncycastle.jcajce.provider.asymmetric.ec.BCECPublicKey;
 import org.bouncycastle.jce.spec.ECParameterSpec;
@@ -139,6 +137,8 @@ public class ECKey implements Serializable {
     // Transient because it's calculated on demand.
     transient private byte[] pubKeyHash;
     transient private byte[] nodeId;
+    // verification multiplies pub by its wNAF tables, which bouncy castle keeps on this decoded point
+    transient private volatile ECPublicKeyParameters pubParams;
 
     /**
      * Generates an entirely new keypair.
@@ -747,7 +747,7 @@ public class ECKey implements Serializable {
 
     /**
      * Signs the given hash and returns the R and S components as BigIntegers
-     * and put them in ECDSASignature
+     * and put them in ECDSASignature, with v already set when the private key is a bouncy castle one
      *
      * @param input to sign
      * @return ECDSASignature signature that contains the R and S components
@@ -760,11 +760,8 @@ public class ECKey implements Serializable {
         if (privKey == null)
             throw new MissingPrivateKeyException();
         if (privKey instanceof BCECPrivateKey) {
-            ECDSASigner signer = new ECDSASigner(new HMacDSAKCalculator(new SHA256Digest()));
-            ECPrivateKeyParameters privKeyParams = new ECPrivateKeyParameters(((BCECPrivateKey) privKey).getD(), CURVE);
-            signer.init(true, privKeyParams);
-            BigInteger[] components = signer.generateSignature(input);
-            return new ECDSASignature(components[0], components[1]).toCanonicalised();
+            // the recovery id comes with the signature
+            return RecoverableSigner.get().sign(((BCECPrivateKey) privKey).getD(), input);
         } else {
             try {
                 final Signature ecSig = ECSignatureFactory.getRawInstance(provider);
@@ -790,6 +787,9 @@ public class ECKey implements Serializable {
      */
     public ECDSASignature sign(byte[] messageHash) {
         ECDSASignature sig = doSign(messageHash);
+        if (sig.v != 0) {
+            return sig;
+        }
         // Now we have to work backwards to figure out the recId needed to recover the signature.
         int recId = -1;
         byte[] thisKey = this.pub.getEncoded(/* compressed */ false);
@@ -985,8 +985,20 @@ public class ECKey implements Serializable {
      * @return -
      */
     public static boolean verify(byte[] data, ECDSASignature signature, byte[] pub) {
+        return verify(data, signature, new ECPublicKeyParameters(CURVE.getCurve().decodePoint(pub), CURVE));
+    }
+
+    /**
+     * Verifies the given ECDSA signature against a hash using an already decoded public key.
+     * Reusing the same parameters reuses the tables bouncy castle precomputes for its point.
+     *
+     * @param data      Hash of the data to verify.
+     * @param signature signature.
+     * @param params    The public key, on {@link #CURVE}.
+     * @return -
+     */
+    public static boolean verify(byte[] data, ECDSASignature signature, ECPublicKeyParameters params) {
         ECDSASigner signer = new ECDSASigner();
-        ECPublicKeyParameters params = new ECPublicKeyParameters(CURVE.getCurve().decodePoint(pub), CURVE);
         signer.init(false, params);
         try {
             return signer.verifySignature(data, signature.r, signature.s);
@@ -1030,7 +1042,12 @@ public class ECKey implements Serializable {
      * @return -
      */
     public boolean verify(byte[] sigHash, ECDSASignature signature) {
-        return ECKey.verify(sigHash, signature, getPubKey());
+        ECPublicKeyParameters params = pubParams;
+        if (params == null) {
+            params = new ECPublicKeyParameters(CURVE.getCurve().decodePoint(getPubKey()), CURVE);
+            pubParams = params;
+        }
+        return ECKey.verify(sigHash, signature, params);
     }
 
     /**
@@ -1,6 +1,7 @@
 package cn.hyperchain.sdk.crypto.ecdsa;
 
 import cn.hyperchain.sdk.crypto.HashUtil;
+import org.bouncycastle.crypto.params.ECPublicKeyParameters;
 
 public class ECUtil {
 
@@ -21,6 +22,23 @@ public class ECUtil {
         return ECKey.verify(hash, ecdsaSignature, publicKey);
     }
 
+    /**
+     * verify ECDSA signature.
+     * @param sourceData source data
+     * @param signature signature
+     * @param publicKey decoded public key
+     * @return is legal
+     */
+    public static boolean verify(byte[] sourceData, byte[] signature, ECPublicKeyParameters publicKey) {
+        byte[] hash = HashUtil.sha3(sourceData);
+        byte[] r = new byte[32];
+        byte[] s = new byte[32];
+        System.arraycopy(signature, 0, r, 0, 32);
+        System.arraycopy(signature, 32, s, 0, 32);
+        ECKey.ECDSASignature ecdsaSignature = ECKey.ECDSASignature.fromComponents(r, s, signature[signature.length - 1]);
+        return ECKey.verify(hash, ecdsaSignature, publicKey);
+    }
+
     /**
      * verify ECDSA signature.
      * @param sourceData source data
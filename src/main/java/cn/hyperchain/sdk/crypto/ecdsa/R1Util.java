@@ -39,6 +39,7 @@ public class R1Util {
     public static final ECParameterSpec CURVE_SPEC;
     public static final BigInteger HALF_CURVE_ORDER;
     private static final SecureRandom secureRandom;
+    private static final ThreadLocal<ECDSASigner> SIGNER = ThreadLocal.withInitial(() -> new ECDSASigner(new HMacDSAKCalculator(new SHA256Digest())));
 
     static {
         // All clients must agree on the curve to use by agreement. Ethereum uses secp256k1.
@@ -100,7 +101,7 @@ public class R1Util {
      * @throws CryptoException -
      */
     public static byte[] sign(AsymmetricCipherKeyPair keyPair, byte[] srcData) throws CryptoException {
-        ECDSASigner signer = new ECDSASigner(new HMacDSAKCalculator(new SHA256Digest()));
+        ECDSASigner signer = SIGNER.get();
         CipherParameters param = new ParametersWithRandom(keyPair.getPrivate(), secureRandom);
         signer.init(true, param);
         BigInteger[] components = signer.generateSignature(srcData);
@@ -0,0 +1,76 @@
+package cn.hyperchain.sdk.crypto.ecdsa;
+
+import org.bouncycastle.crypto.digests.SHA256Digest;
+import org.bouncycastle.crypto.params.ECDomainParameters;
+import org.bouncycastle.crypto.signers.HMacDSAKCalculator;
+import org.bouncycastle.math.ec.ECMultiplier;
+import org.bouncycastle.math.ec.ECPoint;
+import org.bouncycastle.math.ec.FixedPointCombMultiplier;
+import org.bouncycastle.math.ec.FixedPointUtil;
+import org.bouncycastle.util.BigIntegers;
+
+import java.math.BigInteger;
+
+/**
+ * RecoverableSigner makes the deterministic (RFC 6979, HMAC-SHA256) signatures of
+ * {@link org.bouncycastle.crypto.signers.ECDSASigner} and takes the recovery id from the ephemeral point R
+ * it multiplies out anyway, instead of recovering public keys from the signature until one matches.
+ * One signer per thread is reused.
+ */
+final class RecoverableSigner {
+    private static final ThreadLocal<RecoverableSigner> SIGNERS = ThreadLocal.withInitial(RecoverableSigner::new);
+    private static final ECMultiplier MULTIPLIER = new FixedPointCombMultiplier();
+
+    static {
+        // the comb table of G is otherwise built by the first signature
+        FixedPointUtil.precompute(ECKey.CURVE.getG());
+    }
+
+    private final HMacDSAKCalculator kCalculator = new HMacDSAKCalculator(new SHA256Digest());
+
+    private RecoverableSigner() {
+    }
+
+    static RecoverableSigner get() {
+        return SIGNERS.get();
+    }
+
+    /**
+     * sign a 32 byte hash.
+     *
+     * @param d    private key
+     * @param hash message hash
+     * @return canonical signature with v set to 27 + recovery id
+     */
+    ECKey.ECDSASignature sign(BigInteger d, byte[] hash) {
+        ECDomainParameters curve = ECKey.CURVE;
+        BigInteger n = curve.getN();
+        // the hash is as long as n, so e needs no truncation
+        BigInteger e = new BigInteger(1, hash);
+        kCalculator.init(n, d, hash);
+        BigInteger r;
+        BigInteger s;
+        int recId;
+        do {
+            BigInteger k;
+            ECPoint p;
+            do {
+                k = kCalculator.nextK();
+                p = MULTIPLIER.multiply(curve.getG(), k).normalize();
+                BigInteger x = p.getAffineXCoord().toBigInteger();
+                r = x.mod(n);
+                // bit 0 is the parity of R.y, bit 1 is set when R.x overflowed n
+                recId = (p.getAffineYCoord().testBitZero() ? 1 : 0) | (x.compareTo(n) >= 0 ? 2 : 0);
+            } while (r.signum() == 0);
+            s = BigIntegers.modOddInverse(n, k).multiply(e.add(d.multiply(r))).mod(n);
+        } while (s.signum() == 0);
+        if (s.compareTo(ECKey.HALF_CURVE_ORDER) > 0) {
+            // n - s signs with -R, whose y has the other parity
+            s = n.subtract(s);
+            recId ^= 1;
+        }
+        ECKey.ECDSASignature signature = new ECKey.ECDSASignature(r, s);
+        signature.v = (byte) (recId + 27);
+        return signature;
+    }
+}
@@ -5,12 +5,11 @@ import org.bouncycastle.crypto.CipherParameters;
 import org.bouncycastle.crypto.CryptoException;
 import org.bouncycastle.crypto.params.Ed25519PrivateKeyParameters;
 import org.bouncycastle.crypto.params.Ed25519PublicKeyParameters;
-import org.bouncycastle.crypto.params.ParametersWithRandom;
 import org.bouncycastle.crypto.signers.Ed25519Signer;
 
-import java.security.SecureRandom;
-
 public class ED25519Util {
+    private static final ThreadLocal<Ed25519Signer> SIGNER = ThreadLocal.withInitial(Ed25519Signer::new);
+
     /**
      * get signature by ed25519 key pair, use default userID.
      *
@@ -20,8 +19,8 @@ public class ED25519Util {
      * @throws CryptoException -
      */
     public static byte[] sign(AsymmetricCipherKeyPair keyPair, byte[] srcData) throws CryptoException {
-        Ed25519Signer signer = new Ed25519Signer();
-        CipherParameters param = new ParametersWithRandom(keyPair.getPrivate(), new SecureRandom());
+        Ed25519Signer signer = SIGNER.get();
+        // ed25519 is deterministic, and the private key parameters keep the public key they derive
         Ed25519PrivateKeyParameters ed25519PrivateKeyParameters = (Ed25519PrivateKeyParameters)(keyPair.getPrivate());
         signer.init(true, ed25519PrivateKeyParameters);
         signer.update(srcData, 0, srcData.length);
@@ -1,17 +1,26 @@
 package cn.hyperchain.sdk.crypto.sm.sm2;
 
+import cn.hyperchain.sdk.crypto.SecureRandomUtil;
 import org.bouncycastle.crypto.AsymmetricCipherKeyPair;
 import org.bouncycastle.crypto.CipherParameters;
 import org.bouncycastle.crypto.CryptoException;
+import org.bouncycastle.crypto.digests.SM3Digest;
 import org.bouncycastle.crypto.generators.ECKeyPairGenerator;
 import org.bouncycastle.crypto.params.ECDomainParameters;
 import org.bouncycastle.crypto.params.ECKeyGenerationParameters;
 import org.bouncycastle.crypto.params.ECPrivateKeyParameters;
 import org.bouncycastle.crypto.params.ParametersWithRandom;
 import org.bouncycastle.crypto.params.ECPublicKeyParameters;
+import org.bouncycastle.crypto.signers.RandomDSAKCalculator;
 import org.bouncycastle.crypto.signers.SM2Signer;
+import org.bouncycastle.crypto.signers.StandardDSAEncoding;
+import org.bouncycastle.math.ec.ECFieldElement;
+import org.bouncycastle.math.ec.ECMultiplier;
 import org.bouncycastle.math.ec.ECPoint;
+import org.bouncycastle.math.ec.FixedPointCombMultiplier;
 import org.bouncycastle.math.ec.custom.gm.SM2P256V1Curve;
+import org.bouncycastle.util.BigIntegers;
+import org.bouncycastle.util.Strings;
 
 import java.math.BigInteger;
 import java.security.PublicKey;
@@ -23,6 +32,7 @@ import java.security.Signature;
 public class SM2Util {
 
     public static final SM2P256V1Curve CURVE = new SM2P256V1Curve();
+    private static final ThreadLocal<SM2Signer> SIGNER = ThreadLocal.withInitial(SM2Signer::new);
     public static final BigInteger SM2_ECC_P = CURVE.getQ();
     public static final BigInteger SM2_ECC_A = CURVE.getA().toBigInteger();
     public static final BigInteger SM2_ECC_B = CURVE.getB().toBigInteger();
@@ -32,6 +42,10 @@ public class SM2Util {
     public static final BigInteger SM2_ECC_GY = new BigInteger("BC3736A2F4F6779C59BDCEE36B692153D0A9877CC62A474002DF32E52139F0A0", 16);
     public static final ECPoint G_POINT = CURVE.createPoint(SM2_ECC_GX, SM2_ECC_GY);
     public static final ECDomainParameters DOMAIN_PARAMS = new ECDomainParameters(CURVE, G_POINT, SM2_ECC_N, SM2_ECC_H);
+    // the user id SM2Signer signs with when none is given
+    private static final byte[] DEFAULT_USER_ID = Strings.toByteArray("1234567812345678");
+    private static final ThreadLocal<SM3Digest> DIGEST = ThreadLocal.withInitial(SM3Digest::new);
+    private static final ECMultiplier MULTIPLIER = new FixedPointCombMultiplier();
 
     /**
      * create a random key pair of sm.
@@ -69,13 +83,89 @@ public class SM2Util {
      * @throws CryptoException -
      */
     public static byte[] sign(AsymmetricCipherKeyPair keyPair, byte[] srcData) throws CryptoException {
-        SM2Signer signer = new SM2Signer();
-        CipherParameters param = new ParametersWithRandom(keyPair.getPrivate(), new SecureRandom());
+        SM2Signer signer = SIGNER.get();
+        CipherParameters param = new ParametersWithRandom(keyPair.getPrivate(), SecureRandomUtil.getSecureRandom());
         signer.init(true, param);
         signer.update(srcData, 0, srcData.length);
         return signer.generateSignature();
     }
 
+    /**
+     * get signature by a private key and its Z value, the signature {@link SM2Signer} makes with the default userID
+     * without deriving the public key and Z again.
+     *
+     * @param privateKey private key
+     * @param z          Z value of the key, see {@link #getZ(ECPoint)}
+     * @param srcData    source data
+     * @return signature bytes
+     * @throws CryptoException -
+     */
+    public static byte[] sign(ECPrivateKeyParameters privateKey, byte[] z, byte[] srcData) throws CryptoException {
+        ECDomainParameters params = privateKey.getParameters();
+        BigInteger n = params.getN();
+        BigInteger d = privateKey.getD();
+        SM3Digest digest = DIGEST.get();
+        digest.update(z, 0, z.length);
+        digest.update(srcData, 0, srcData.length);
+        byte[] hash = new byte[digest.getDigestSize()];
+        digest.doFinal(hash, 0);
+        BigInteger e = new BigInteger(1, hash);
+
+        RandomDSAKCalculator kCalculator = new RandomDSAKCalculator();
+        kCalculator.init(n, SecureRandomUtil.getSecureRandom());
+        BigInteger r;
+        BigInteger s;
+        do {
+            BigInteger k;
+            do {
+                k = kCalculator.nextK();
+                ECPoint p = MULTIPLIER.multiply(params.getG(), k).normalize();
+                r = e.add(p.getAffineXCoord().toBigInteger()).mod(n);
+            } while (r.signum() == 0 || r.add(k).equals(n));
+            // s = (1 + d)^-1 * (k - r * d) mod n
+            s = BigIntegers.modOddInverse(n, d.add(BigInteger.ONE)).multiply(k.subtract(r.multiply(d)).mod(n)).mod(n);
+        } while (s.signum() == 0);
+        try {
+            return StandardDSAEncoding.INSTANCE.encode(n, r, s);
+        } catch (Exception ex) {
+            throw new CryptoException("unable to encode signature: " + ex.getMessage(), ex);
+        }
+    }
+
+    /**
+     * get the Z value of a public key, the SM3 digest of the default userID, the curve and the key
+     * that prefixes the data it signs.
+     *
+     * @param publicKey public key point
+     * @return Z value
+     */
+    public static byte[] getZ(ECPoint publicKey) {
+        SM3Digest digest = DIGEST.get();
+        int bits = DEFAULT_USER_ID.length * 8;
+        digest.update((byte) (bits >> 8));
+        digest.update((byte) bits);
+        digest.update(DEFAULT_USER_ID, 0, DEFAULT_USER_ID.length);
+        ECPoint point = publicKey.normalize();
+        for (ECFieldElement element : new ECFieldElement[]{CURVE.getA(), CURVE.getB(), G_POINT.getAffineXCoord(),
+                G_POINT.getAffineYCoord(), point.getAffineXCoord(), point.getAffineYCoord()}) {
+            byte[] bytes = element.getEncoded();
+            digest.update(bytes, 0, bytes.length);
+        }
+        byte[] z = new byte[digest.getDigestSize()];
+        digest.doFinal(z, 0);
+        return z;
+    }
+
+    /**
+     * get the public key point of a private key.
+     *
+     * @param privateKey private key
+     * @return public key point
+     */
+    public static ECPoint getPublicPoint(ECPrivateKeyParameters privateKey) {
+        return MULTIPLIER.multiply(privateKey.getParameters().getG(), privateKey.getD()).normalize();
+    }
+
     public static AsymmetricCipherKeyPair genFromPrivKey(byte[] privKey) {
         ECPrivateKeyParameters privateKeyParameters = new ECPrivateKeyParameters(new BigInteger(1, privKey), SM2Util.DOMAIN_PARAMS);
         return new AsymmetricCipherKeyPair(null, privateKeyParameters);
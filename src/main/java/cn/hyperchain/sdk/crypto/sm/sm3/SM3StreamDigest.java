@@ -0,0 +1,147 @@
+package cn.hyperchain.sdk.crypto.sm.sm3;
+
+import cn.hyperchain.sdk.crypto.cryptohash.Digest;
+import org.bouncycastle.crypto.digests.SM3Digest;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * SM3StreamDigest hashes data fed piece by piece, from arrays, byte buffers, input streams
+ * and memory-mapped files, so large inputs never have to be held in memory as a whole.
+ * Like every {@link Digest} it is not thread-safe and is reset after a digest.
+ */
+public class SM3StreamDigest implements Digest {
+    private static final int DIGEST_LENGTH = 32;
+    private static final int BLOCK_LENGTH = 64;
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final long MAP_SIZE = 64L * 1024 * 1024;
+
+    private final SM3Digest digest;
+    private byte[] buffer;
+
+    public SM3StreamDigest() {
+        this.digest = new SM3Digest();
+    }
+
+    private SM3StreamDigest(SM3Digest digest) {
+        this.digest = digest;
+    }
+
+    @Override
+    public void update(byte in) {
+        digest.update(in);
+    }
+
+    @Override
+    public void update(byte[] inbuf) {
+        digest.update(inbuf, 0, inbuf.length);
+    }
+
+    @Override
+    public void update(byte[] inbuf, int off, int len) {
+        digest.update(inbuf, off, len);
+    }
+
+    @Override
+    public void update(ByteBuffer inbuf) {
+        int len = inbuf.remaining();
+        if (inbuf.hasArray()) {
+            digest.update(inbuf.array(), inbuf.arrayOffset() + inbuf.position(), len);
+            inbuf.position(inbuf.limit());
+            return;
+        }
+        byte[] buf = buffer();
+        while (len > 0) {
+            int n = Math.min(len, buf.length);
+            inbuf.get(buf, 0, n);
+            digest.update(buf, 0, n);
+            len -= n;
+        }
+    }
+
+    /**
+     * insert the bytes of a stream until its end, the stream is not closed.
+     * @param in input stream
+     * @throws IOException if the stream fails to read
+     */
+    public void update(InputStream in) throws IOException {
+        byte[] buf = buffer();
+        int n;
+        while ((n = in.read(buf)) != -1) {
+            digest.update(buf, 0, n);
+        }
+    }
+
+    /**
+     * insert a file from the channel position to its end, mapped into memory a window at a time.
+     * The channel position is advanced to the end of the file.
+     * @param channel file channel open for reading
+     * @throws IOException if the file fails to map
+     */
+    public void update(FileChannel channel) throws IOException {
+        long size = channel.size();
+        for (long pos = channel.position(); pos < size; pos += MAP_SIZE) {
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, pos, Math.min(MAP_SIZE, size - pos));
+            update(mapped);
+        }
+        channel.position(size);
+    }
+
+    @Override
+    public byte[] digest() {
+        byte[] out = new byte[DIGEST_LENGTH];
+        digest.doFinal(out, 0);
+        return out;
+    }
+
+    @Override
+    public byte[] digest(byte[] inbuf) {
+        update(inbuf);
+        return digest();
+    }
+
+    @Override
+    public int digest(byte[] outbuf, int off, int len) {
+        if (len >= DIGEST_LENGTH) {
+            return digest.doFinal(outbuf, off);
+        }
+        System.arraycopy(digest(), 0, outbuf, off, len);
+        return len;
+    }
+
+    @Override
+    public int getDigestLength() {
+        return DIGEST_LENGTH;
+    }
+
+    @Override
+    public void reset() {
+        digest.reset();
+    }
+
+    @Override
+    public Digest copy() {
+        return new SM3StreamDigest(new SM3Digest(digest));
+    }
+
+    @Override
+    public int getBlockLength() {
+        return BLOCK_LENGTH;
+    }
+
+    @Override
+    public String toString() {
+        return "SM3";
+    }
+
+    private byte[] buffer() {
+        if (buffer == null) {
+            buffer = new byte[BUFFER_SIZE];
+        }
+        return buffer;
+    }
+}
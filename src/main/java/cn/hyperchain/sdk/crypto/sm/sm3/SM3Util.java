@@ -1,8 +1,14 @@
 package cn.hyperchain.sdk.crypto.sm.sm3;
 
-import org.bouncycastle.crypto.digests.SM3Digest;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 
 public class SM3Util {
+    private static final ThreadLocal<SM3StreamDigest> DIGESTS = ThreadLocal.withInitial(SM3StreamDigest::new);
 
     /**
      * sm3 hash.
@@ -10,10 +16,53 @@ public class SM3Util {
      * @return digest of sm3
      */
     public static byte[] hash(byte[] sourceData) {
-        SM3Digest sm3Digest = new SM3Digest();
-        sm3Digest.update(sourceData, 0, sourceData.length);
-        byte[] md = new byte[sm3Digest.getDigestSize()];
-        sm3Digest.doFinal(md, 0);
-        return md;
+        return digest().digest(sourceData);
+    }
+
+    /**
+     * sm3 hash of the remaining bytes of a buffer, its position is advanced to its limit.
+     * @param sourceData source data buffer, heap or direct
+     * @return digest of sm3
+     */
+    public static byte[] hash(ByteBuffer sourceData) {
+        SM3StreamDigest digest = digest();
+        digest.update(sourceData);
+        return digest.digest();
+    }
+
+    /**
+     * sm3 hash of a stream read to its end, the stream is not closed.
+     * @param in input stream
+     * @return digest of sm3
+     * @throws IOException if the stream fails to read
+     */
+    public static byte[] hash(InputStream in) throws IOException {
+        SM3StreamDigest digest = digest();
+        try {
+            digest.update(in);
+            return digest.digest();
+        } finally {
+            digest.reset();
+        }
+    }
+
+    /**
+     * sm3 hash of a file, read through memory mapping.
+     * @param file file path
+     * @return digest of sm3
+     * @throws IOException if the file fails to open or map
+     */
+    public static byte[] hash(Path file) throws IOException {
+        SM3StreamDigest digest = digest();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            digest.update(channel);
+            return digest.digest();
+        } finally {
+            digest.reset();
+        }
+    }
+
+    private static SM3StreamDigest digest() {
+        return DIGESTS.get();
     }
 }
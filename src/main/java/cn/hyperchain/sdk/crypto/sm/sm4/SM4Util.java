@@ -2,21 +2,33 @@ package cn.hyperchain.sdk.crypto.sm.sm4;
 
 import cn.hyperchain.sdk.common.utils.ByteUtil;
 import cn.hyperchain.sdk.common.utils.Utils;
+import cn.hyperchain.sdk.crypto.SecureRandomUtil;
+import org.bouncycastle.crypto.BlockCipher;
+import org.bouncycastle.crypto.engines.SM4Engine;
+import org.bouncycastle.crypto.modes.CBCBlockCipher;
+import org.bouncycastle.crypto.modes.SICBlockCipher;
+import org.bouncycastle.crypto.modes.gcm.GCMMultiplier;
+import org.bouncycastle.crypto.modes.gcm.Tables4kGCMMultiplier;
+import org.bouncycastle.crypto.paddings.PaddedBufferedBlockCipher;
+import org.bouncycastle.crypto.params.KeyParameter;
+import org.bouncycastle.crypto.params.ParametersWithIV;
 import org.bouncycastle.jce.provider.BouncyCastleProvider;
+import org.bouncycastle.util.Pack;
 
-import javax.crypto.Cipher;
-import javax.crypto.NoSuchPaddingException;
-import javax.crypto.spec.IvParameterSpec;
-import javax.crypto.spec.SecretKeySpec;
-import java.security.InvalidAlgorithmParameterException;
-import java.security.InvalidKeyException;
-import java.security.Key;
-import java.security.NoSuchAlgorithmException;
-import java.security.NoSuchProviderException;
-import java.security.SecureRandom;
+import java.nio.ByteBuffer;
 import java.security.Security;
-import java.util.Random;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 
+/**
+ * SM4Util encrypts with SM4 in CBC, CTR and GCM mode. The keyed ciphers of the last few keys
+ * are kept per thread, so a key used again is not scheduled again.
+ * CTR and GCM payloads larger than one chunk are enciphered chunk by chunk on the common fork join pool;
+ * the GCM tag is computed over the whole ciphertext in one pass.
+ */
 public class SM4Util {
 
     static {
@@ -26,19 +38,29 @@ public class SM4Util {
     public static final String ALGORITHM_NAME = "SM4";
     public static final String ALGORITHM_NAME_CBC_PADDING = "SM4/CBC/PKCS5Padding";
 
+    private static final int BLOCK_SIZE = 16;
+    private static final int GCM_NONCE_SIZE = 12;
+    private static final int GCM_TAG_SIZE = 16;
+    private static final int CACHE_SIZE = 16;
+    private static final int CHUNK_SIZE = 256 * 1024;
+    private static final ThreadLocal<ContextCache> CONTEXTS = ThreadLocal.withInitial(ContextCache::new);
+
     /**
      * encrypt sm4 context.
      *
      * @param data private key bytes
      * @param key  password
      * @return encrypted private key bytes
-     * @throws Exception many exceptions
      */
     public static byte[] encryptCbcPadding(byte[] data, String key) {
         try {
             byte[] iv = randomIV();
-            Cipher cipher = generateCbcCipher(ALGORITHM_NAME_CBC_PADDING, Cipher.ENCRYPT_MODE, getSM4Password(key), iv);
-            return ByteUtil.merge(iv, cipher.doFinal(data));
+            PaddedBufferedBlockCipher cipher = context(getSM4Password(key)).cbc(true, iv);
+            byte[] result = new byte[BLOCK_SIZE + cipher.getOutputSize(data.length)];
+            System.arraycopy(iv, 0, result, 0, BLOCK_SIZE);
+            int len = cipher.processBytes(data, 0, data.length, result, BLOCK_SIZE);
+            cipher.doFinal(result, BLOCK_SIZE + len);
+            return result;
         } catch (Exception e) {
             return null;
         }
@@ -50,39 +72,163 @@ public class SM4Util {
      * @param cipherText encrypted private key bytes
      * @param key        password
      * @return decrypted private key bytes
-     * @throws Exception many exceptions
      */
     public static byte[] decryptCbcPadding(byte[] cipherText, String key) {
         int dataLen = cipherText.length;
-        if (dataLen < 16) {
+        if (dataLen < BLOCK_SIZE) {
             throw new RuntimeException("crypto length is lower than 16");
         }
         try {
-            byte[] deIV = new byte[16];
-            System.arraycopy(cipherText, 0, deIV, 0, 16);
-            byte[] enData = new byte[dataLen - 16];
-            System.arraycopy(cipherText, 16, enData, 0, dataLen - 16);
-            Cipher cipher = generateCbcCipher(ALGORITHM_NAME_CBC_PADDING, Cipher.DECRYPT_MODE, getSM4Password(key), deIV);
-            return cipher.doFinal(enData);
+            byte[] deIV = Arrays.copyOf(cipherText, BLOCK_SIZE);
+            PaddedBufferedBlockCipher cipher = context(getSM4Password(key)).cbc(false, deIV);
+            byte[] result = new byte[cipher.getOutputSize(dataLen - BLOCK_SIZE)];
+            int len = cipher.processBytes(cipherText, BLOCK_SIZE, dataLen - BLOCK_SIZE, result, 0);
+            len += cipher.doFinal(result, len);
+            return len == result.length ? result : Arrays.copyOf(result, len);
         } catch (Exception e) {
             return ByteUtil.EMPTY_BYTE_ARRAY;
         }
     }
 
-    private static Cipher generateCbcCipher(String algorithmName, int mode, byte[] key, byte[] iv)
-            throws InvalidKeyException, InvalidAlgorithmParameterException, NoSuchAlgorithmException,
-            NoSuchProviderException, NoSuchPaddingException {
-        Cipher cipher = Cipher.getInstance(algorithmName, BouncyCastleProvider.PROVIDER_NAME);
-        Key sm4Key = new SecretKeySpec(key, ALGORITHM_NAME);
-        IvParameterSpec ivParameterSpec = new IvParameterSpec(iv);
-        cipher.init(mode, sm4Key, ivParameterSpec);
-        return cipher;
+    /**
+     * encrypt in CTR mode, the 16 byte initial counter is random.
+     *
+     * @param data plain bytes
+     * @param key  16 byte key
+     * @return initial counter followed by the cipher bytes
+     */
+    public static byte[] encryptCtr(byte[] data, byte[] key) {
+        checkKey(key);
+        byte[] iv = randomIV();
+        byte[] result = new byte[BLOCK_SIZE + data.length];
+        System.arraycopy(iv, 0, result, 0, BLOCK_SIZE);
+        ctr(key, iv, data, 0, result, BLOCK_SIZE, data.length);
+        return result;
+    }
+
+    /**
+     * decrypt the output of {@link #encryptCtr(byte[], byte[])}.
+     *
+     * @param cipherText initial counter followed by the cipher bytes
+     * @param key        16 byte key
+     * @return plain bytes
+     */
+    public static byte[] decryptCtr(byte[] cipherText, byte[] key) {
+        checkKey(key);
+        if (cipherText.length < BLOCK_SIZE) {
+            throw new RuntimeException("crypto length is lower than 16");
+        }
+        byte[] result = new byte[cipherText.length - BLOCK_SIZE];
+        ctr(key, Arrays.copyOf(cipherText, BLOCK_SIZE), cipherText, BLOCK_SIZE, result, 0, result.length);
+        return result;
+    }
+
+    /**
+     * encrypt in GCM mode with a random 12 byte nonce and a 16 byte tag.
+     *
+     * @param data plain bytes
+     * @param key  16 byte key
+     * @param aad  additional authenticated data, may be null
+     * @return nonce, cipher bytes and tag
+     */
+    public static byte[] encryptGcm(byte[] data, byte[] key, byte[] aad) {
+        checkKey(key);
+        byte[] nonce = new byte[GCM_NONCE_SIZE];
+        SecureRandomUtil.getSecureRandom().nextBytes(nonce);
+        byte[] result = new byte[GCM_NONCE_SIZE + data.length + GCM_TAG_SIZE];
+        System.arraycopy(nonce, 0, result, 0, GCM_NONCE_SIZE);
+        ctr(key, gcmCounter(nonce, 2), data, 0, result, GCM_NONCE_SIZE, data.length);
+        byte[] tag = gcmTag(key, nonce, aad, result, GCM_NONCE_SIZE, data.length);
+        System.arraycopy(tag, 0, result, GCM_NONCE_SIZE + data.length, GCM_TAG_SIZE);
+        return result;
     }
 
-    private static byte[] randomIV() throws NoSuchAlgorithmException {
-        Random random = SecureRandom.getInstance("SHA1PRNG");
-        byte[] result = new byte[16];
-        random.nextBytes(result);
+    /**
+     * decrypt the output of {@link #encryptGcm(byte[], byte[], byte[])}, the tag is checked before decrypting.
+     *
+     * @param cipherText nonce, cipher bytes and tag
+     * @param key        16 byte key
+     * @param aad        additional authenticated data, may be null
+     * @return plain bytes
+     */
+    public static byte[] decryptGcm(byte[] cipherText, byte[] key, byte[] aad) {
+        checkKey(key);
+        int len = cipherText.length - GCM_NONCE_SIZE - GCM_TAG_SIZE;
+        if (len < 0) {
+            throw new RuntimeException("crypto length is lower than 28");
+        }
+        byte[] nonce = Arrays.copyOf(cipherText, GCM_NONCE_SIZE);
+        byte[] tag = gcmTag(key, nonce, aad, cipherText, GCM_NONCE_SIZE, len);
+        if (!org.bouncycastle.util.Arrays.constantTimeAreEqual(GCM_TAG_SIZE, tag, 0, cipherText, GCM_NONCE_SIZE + len)) {
+            throw new RuntimeException("sm4 gcm tag mismatch");
+        }
+        byte[] result = new byte[len];
+        ctr(key, gcmCounter(nonce, 2), cipherText, GCM_NONCE_SIZE, result, 0, len);
+        return result;
+    }
+
+    private static void ctr(byte[] key, byte[] iv, byte[] in, int inOff, byte[] out, int outOff, int len) {
+        if (len <= CHUNK_SIZE) {
+            context(key).ctr(iv).processBytes(in, inOff, len, out, outOff);
+            return;
+        }
+        ForkJoinPool.commonPool().invoke(new CtrTask(key, iv, in, inOff, out, outOff, len, 0, (len + CHUNK_SIZE - 1) / CHUNK_SIZE));
+    }
+
+    // J0 is the nonce followed by a 32 bit counter 1, the data is enciphered from counter 2
+    private static byte[] gcmCounter(byte[] nonce, int counter) {
+        byte[] block = Arrays.copyOf(nonce, BLOCK_SIZE);
+        Pack.intToBigEndian(counter, block, GCM_NONCE_SIZE);
+        return block;
+    }
+
+    private static byte[] gcmTag(byte[] key, byte[] nonce, byte[] aad, byte[] cipherText, int off, int len) {
+        Context context = context(key);
+        GCMMultiplier multiplier = context.multiplier();
+        byte[] x = new byte[BLOCK_SIZE];
+        int aadLen = aad == null ? 0 : aad.length;
+        ghash(multiplier, x, aad, 0, aadLen);
+        ghash(multiplier, x, cipherText, off, len);
+        byte[] lengths = new byte[BLOCK_SIZE];
+        Pack.longToBigEndian((long) aadLen * 8, lengths, 0);
+        Pack.longToBigEndian((long) len * 8, lengths, 8);
+        ghash(multiplier, x, lengths, 0, BLOCK_SIZE);
+        byte[] tag = context.encryptBlock(gcmCounter(nonce, 1));
+        for (int i = 0; i < BLOCK_SIZE; i++) {
+            tag[i] ^= x[i];
+        }
+        return tag;
+    }
+
+    private static void ghash(GCMMultiplier multiplier, byte[] x, byte[] in, int off, int len) {
+        for (int end = off + len; off < end; off += BLOCK_SIZE) {
+            int n = Math.min(BLOCK_SIZE, end - off);
+            for (int i = 0; i < n; i++) {
+                x[i] ^= in[off + i];
+            }
+            multiplier.multiplyH(x);
+        }
+    }
+
+    private static void checkKey(byte[] key) {
+        if (key == null || key.length != BLOCK_SIZE) {
+            throw new IllegalArgumentException("sm4 key must be 16 bytes");
+        }
+    }
+
+    private static Context context(byte[] key) {
+        ContextCache cache = CONTEXTS.get();
+        Context context = cache.get(ByteBuffer.wrap(key));
+        if (context == null) {
+            context = new Context(key.clone());
+            cache.put(ByteBuffer.wrap(context.key.getKey()), context);
+        }
+        return context;
+    }
+
+    private static byte[] randomIV() {
+        byte[] result = new byte[BLOCK_SIZE];
+        SecureRandomUtil.getSecureRandom().nextBytes(result);
         return result;
     }
 
@@ -98,4 +244,120 @@ public class SM4Util {
         }
         return password.getBytes(Utils.DEFAULT_CHARSET);
     }
+
+    /**
+     * the ciphers of one key, created on first use and re-initialised with a new iv only.
+     */
+    private static class Context {
+        private final KeyParameter key;
+        private BlockCipher engine;
+        private PaddedBufferedBlockCipher cbcEncrypt;
+        private PaddedBufferedBlockCipher cbcDecrypt;
+        private SICBlockCipher ctr;
+        private GCMMultiplier multiplier;
+
+        Context(byte[] key) {
+            this.key = new KeyParameter(key);
+        }
+
+        PaddedBufferedBlockCipher cbc(boolean forEncryption, byte[] iv) {
+            PaddedBufferedBlockCipher cipher = forEncryption ? cbcEncrypt : cbcDecrypt;
+            if (cipher != null) {
+                cipher.init(forEncryption, new ParametersWithIV(null, iv));
+                return cipher;
+            }
+            cipher = new PaddedBufferedBlockCipher(new CBCBlockCipher(new SM4Engine()));
+            cipher.init(forEncryption, new ParametersWithIV(key, iv));
+            if (forEncryption) {
+                cbcEncrypt = cipher;
+            } else {
+                cbcDecrypt = cipher;
+            }
+            return cipher;
+        }
+
+        SICBlockCipher ctr(byte[] iv) {
+            if (ctr == null) {
+                ctr = new SICBlockCipher(new SM4Engine());
+                ctr.init(true, new ParametersWithIV(key, iv));
+            } else {
+                ctr.init(true, new ParametersWithIV(null, iv));
+            }
+            return ctr;
+        }
+
+        byte[] encryptBlock(byte[] block) {
+            if (engine == null) {
+                engine = new SM4Engine();
+                engine.init(true, key);
+            }
+            byte[] out = new byte[BLOCK_SIZE];
+            engine.processBlock(block, 0, out, 0);
+            return out;
+        }
+
+        GCMMultiplier multiplier() {
+            if (multiplier == null) {
+                // the hash key H is the zero block enciphered
+                multiplier = new Tables4kGCMMultiplier();
+                multiplier.init(encryptBlock(new byte[BLOCK_SIZE]));
+            }
+            return multiplier;
+        }
+    }
+
+    private static class ContextCache extends LinkedHashMap<ByteBuffer, Context> {
+
+        ContextCache() {
+            super(CACHE_SIZE, 0.75f, true);
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<ByteBuffer, Context> eldest) {
+            return size() > CACHE_SIZE;
+        }
+    }
+
+    /**
+     * enciphers chunks [from, to) of a payload, each leaf with its own counter seeked to the chunk.
+     */
+    private static class CtrTask extends RecursiveAction {
+        private final byte[] key;
+        private final byte[] iv;
+        private final byte[] in;
+        private final int inOff;
+        private final byte[] out;
+        private final int outOff;
+        private final int len;
+        private final int from;
+        private final int to;
+
+        CtrTask(byte[] key, byte[] iv, byte[] in, int inOff, byte[] out, int outOff, int len, int from, int to) {
+            this.key = key;
+            this.iv = iv;
+            this.in = in;
+            this.inOff = inOff;
+            this.out = out;
+            this.outOff = outOff;
+            this.len = len;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > 1) {
+                int mid = (from + to) >>> 1;
+                invokeAll(new CtrTask(key, iv, in, inOff, out, outOff, len, from, mid),
+                        new CtrTask(key, iv, in, inOff, out, outOff, len, mid, to));
+                return;
+            }
+            // a fresh cipher, so pool threads keep no key
+            SICBlockCipher cipher = new SICBlockCipher(new SM4Engine());
+            cipher.init(true, new ParametersWithIV(new KeyParameter(key), iv));
+            int start = from * CHUNK_SIZE;
+            cipher.seekTo(start);
+            cipher.processBytes(in, inOff + start, Math.min(CHUNK_SIZE, len - start), out, outOff + start);
+        }
+    }
 }
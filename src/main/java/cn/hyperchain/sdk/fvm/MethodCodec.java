@@ -0,0 +1,275 @@
+package cn.hyperchain.sdk.fvm;
+
+import cn.hyperchain.sdk.fvm.scale.ScaleCodecReader;
+import cn.hyperchain.sdk.fvm.scale.ScaleCodecWriter;
+import cn.hyperchain.sdk.fvm.types.FVMType;
+
+import java.io.IOException;
+import java.lang.reflect.Array;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * MethodCodec is the encoder and decoder of one FVM method, compiled once from its abi.
+ * The method name prefix is encoded up front, and fixed width arguments, including structs
+ * and arrays of fixed width members, are sized by checking their shape without encoding their values.
+ * Results decode into the Object[] trees of {@link FVMType#decode(ScaleCodecReader)},
+ * or into user classes whose fields are mapped to struct members by {@link StructMember}.
+ */
+public final class MethodCodec {
+    private static final Map<Class<?>, Field[]> FIELDS = new ConcurrentHashMap<>();
+
+    private final String name;
+    private final byte[] prefix;
+    private final FVMType[] inputs;
+    private final FVMType[] outputs;
+
+    /**
+     * compile a method.
+     *
+     * @param name    method name
+     * @param inputs  input types
+     * @param outputs output types
+     */
+    public MethodCodec(String name, List<FVMType> inputs, List<FVMType> outputs) {
+        this.name = name;
+        this.inputs = inputs.toArray(new FVMType[0]);
+        this.outputs = outputs.toArray(new FVMType[0]);
+        byte[] nameBytes = name.getBytes(StandardCharsets.UTF_8);
+        ByteBuffer buffer = ByteBuffer.allocate(ScaleCodecWriter.compactSize(nameBytes.length) + nameBytes.length);
+        try {
+            new ScaleCodecWriter(buffer).writeAsList(nameBytes);
+        } catch (IOException e) {
+            // In fact, this exception will never happen.
+            throw new RuntimeException("Internal error: " + e.getMessage());
+        }
+        this.prefix = buffer.array();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * get the size of the encoding of a call.
+     *
+     * @param args List[Object]
+     * @return size in bytes
+     */
+    public int encodedSize(List<?> args) {
+        checkArgs(args);
+        int size = prefix.length;
+        for (int i = 0; i < inputs.length; i++) {
+            size += inputs[i].encodedSize(args.get(i));
+        }
+        return size;
+    }
+
+    /**
+     * encode a call into an exactly sized array.
+     *
+     * @param args List[Object]
+     * @return byte[]
+     */
+    public byte[] encode(List<?> args) {
+        byte[] encoded = new byte[encodedSize(args)];
+        write(args, ByteBuffer.wrap(encoded));
+        return encoded;
+    }
+
+    /**
+     * encode a call into a buffer, e.g. a pooled or direct one.
+     *
+     * @param args List[Object]
+     * @param out  written from its position, which is advanced, see {@link #encodedSize(List)}
+     * @return the number of bytes written
+     */
+    public int encodeInto(List<?> args, ByteBuffer out) {
+        checkArgs(args);
+        int start = out.position();
+        write(args, out);
+        return out.position() - start;
+    }
+
+    private void write(List<?> args, ByteBuffer out) {
+        out.put(prefix);
+        ScaleCodecWriter writer = new ScaleCodecWriter(out);
+        for (int i = 0; i < inputs.length; i++) {
+            inputs[i].encode(writer, args.get(i));
+        }
+    }
+
+    private void checkArgs(List<?> args) {
+        if (args.size() != inputs.length) {
+            throw new RuntimeException("Arguments size wrong, expect: " + inputs.length + ", but have: " + args.size());
+        }
+    }
+
+    /**
+     * decode the result of a call, read in place.
+     *
+     * @param payload ByteBuffer, read from its position which is left untouched
+     * @return null if the method returns nothing, else the decoded value
+     */
+    public Object decode(ByteBuffer payload) {
+        if (outputs.length == 0) {
+            if (!payload.hasRemaining()) {
+                return null;
+            }
+            throw new RuntimeException("Cannot parse result from a non-return method.");
+        } else if (outputs.length > 1) {
+            throw new RuntimeException("multiple return value is not supported yet.");
+        }
+        return outputs[0].decode(new ScaleCodecReader(payload));
+    }
+
+    /**
+     * decode the result of a call into a type.
+     * Structs, arrays and vecs decode into Object[], arrays, Lists or classes with a no-arg constructor
+     * whose fields, including inherited ones, are mapped to the struct members by {@link StructMember}.
+     * Integers convert to any wider or equal Java integer type, an out of range value fails.
+     *
+     * @param payload ByteBuffer, read from its position which is left untouched
+     * @param type    result type
+     * @param <T>     result type
+     * @return null if the method returns nothing, else the decoded value
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T decode(ByteBuffer payload, Class<T> type) {
+        Object value = decode(payload);
+        return value == null ? null : (T) convert(value, type);
+    }
+
+    private static Object convert(Object value, Type type) {
+        Class<?> raw = rawType(type);
+        if (raw.isPrimitive()) {
+            raw = boxed(raw);
+        }
+        if (value instanceof Number && Number.class.isAssignableFrom(raw) && !raw.isInstance(value)) {
+            return convertNumber((Number) value, raw);
+        } else if (!(value instanceof Object[]) || raw == Object[].class || raw == Object.class) {
+            if (!raw.isInstance(value)) {
+                throw new RuntimeException("can't convert " + value.getClass().getSimpleName() + " to " + raw.getName());
+            }
+            return value;
+        }
+
+        Object[] values = (Object[]) value;
+        if (raw.isArray()) {
+            Object array = Array.newInstance(raw.getComponentType(), values.length);
+            for (int i = 0; i < values.length; i++) {
+                Array.set(array, i, convert(values[i], raw.getComponentType()));
+            }
+            return array;
+        } else if (Collection.class.isAssignableFrom(raw)) {
+            Type element = type instanceof ParameterizedType ? ((ParameterizedType) type).getActualTypeArguments()[0] : Object.class;
+            List<Object> list = new ArrayList<>(values.length);
+            for (Object v : values) {
+                list.add(convert(v, element));
+            }
+            if (!raw.isInstance(list)) {
+                throw new RuntimeException("can't convert Object[] to " + raw.getName());
+            }
+            return list;
+        }
+        return toObject(values, raw);
+    }
+
+    private static Object toObject(Object[] values, Class<?> type) {
+        Field[] fields = FIELDS.computeIfAbsent(type, MethodCodec::fields);
+        if (fields.length != values.length) {
+            throw new RuntimeException("struct has " + values.length + " members but " + type.getName() + " has " + fields.length + " fields");
+        }
+        try {
+            Constructor<?> constructor = type.getDeclaredConstructor();
+            constructor.setAccessible(true);
+            Object object = constructor.newInstance();
+            for (int i = 0; i < fields.length; i++) {
+                fields[i].set(object, convert(values[i], fields[i].getGenericType()));
+            }
+            return object;
+        } catch (ReflectiveOperationException e) {
+            throw new RuntimeException("can't create " + type.getName() + ": " + e.getMessage());
+        }
+    }
+
+    private static Field[] fields(Class<?> type) {
+        List<Field> annotated = new ArrayList<>();
+        for (Class<?> c = type; c != null && c != Object.class; c = c.getSuperclass()) {
+            for (Field field : c.getDeclaredFields()) {
+                if (field.isAnnotationPresent(StructMember.class) && !Modifier.isStatic(field.getModifiers())) {
+                    annotated.add(field);
+                }
+            }
+        }
+        if (annotated.isEmpty()) {
+            throw new RuntimeException(type.getName() + " has no field annotated with @StructMember");
+        }
+        // getDeclaredFields has no defined order, members are placed by their index only
+        Field[] fields = new Field[annotated.size()];
+        for (Field field : annotated) {
+            int index = field.getAnnotation(StructMember.class).value();
+            if (index < 0 || index >= fields.length || fields[index] != null) {
+                throw new RuntimeException("struct member indexes of " + type.getName() + " must be 0 to " + (fields.length - 1) + " without gaps or duplicates");
+            }
+            field.setAccessible(true);
+            fields[index] = field;
+        }
+        return fields;
+    }
+
+    private static Object convertNumber(Number value, Class<?> type) {
+        BigInteger integer = value instanceof BigInteger ? (BigInteger) value : BigInteger.valueOf(value.longValue());
+        try {
+            if (type == BigInteger.class || type == Number.class) {
+                return integer;
+            } else if (type == Long.class) {
+                return integer.longValueExact();
+            } else if (type == Integer.class) {
+                return integer.intValueExact();
+            } else if (type == Short.class) {
+                return integer.shortValueExact();
+            } else if (type == Byte.class) {
+                return integer.byteValueExact();
+            }
+        } catch (ArithmeticException e) {
+            throw new RuntimeException("value " + value + " is out of range of " + type.getSimpleName());
+        }
+        throw new RuntimeException("can't convert " + value.getClass().getSimpleName() + " to " + type.getName());
+    }
+
+    private static Class<?> rawType(Type type) {
+        if (type instanceof Class) {
+            return (Class<?>) type;
+        } else if (type instanceof ParameterizedType) {
+            return (Class<?>) ((ParameterizedType) type).getRawType();
+        }
+        return Object.class;
+    }
+
+    private static Class<?> boxed(Class<?> type) {
+        if (type == int.class) {
+            return Integer.class;
+        } else if (type == long.class) {
+            return Long.class;
+        } else if (type == boolean.class) {
+            return Boolean.class;
+        } else if (type == short.class) {
+            return Short.class;
+        } else if (type == byte.class) {
+            return Byte.class;
+        }
+        return type;
+    }
+}
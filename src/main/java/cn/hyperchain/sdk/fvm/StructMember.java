@@ -0,0 +1,22 @@
+package cn.hyperchain.sdk.fvm;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * maps a field to a struct member when a result is decoded into a class, see {@link MethodCodec#decode(java.nio.ByteBuffer, Class)}.
+ * FVM abis do not name struct members, so the field gives the member's position in the struct.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.FIELD)
+public @interface StructMember {
+
+    /**
+     * the position of the member in the struct, starting from 0.
+     *
+     * @return member index
+     */
+    int value();
+}
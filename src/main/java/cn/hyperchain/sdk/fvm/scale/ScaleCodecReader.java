@@ -14,10 +14,13 @@ import cn.hyperchain.sdk.fvm.scale.reader.StringReader;
 
 
 import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
 import java.util.Optional;
 
 /**
- * SCALE codec reader.
+ * SCALE codec reader, reads a heap or direct ByteBuffer in place.
  */
 public class ScaleCodecReader {
 
@@ -33,18 +36,35 @@ public class ScaleCodecReader {
     public static final BoolOptionalReader BOOL_OPTIONAL = new BoolOptionalReader();
     public static final StringReader STRING = new StringReader();
 
-    private byte[] source;
-    private int pos = 0;
+    private final ByteBuffer source;
 
     public ScaleCodecReader(byte[] source) {
-        this.source = source;
+        this(ByteBuffer.wrap(source));
+    }
+
+    /**
+     * read the remaining bytes of source, its position and limit are left untouched.
+     *
+     * @param source encoded data
+     */
+    public ScaleCodecReader(ByteBuffer source) {
+        this.source = source.slice().order(ByteOrder.LITTLE_ENDIAN);
     }
 
     /**
      * @return true if has more elements.
      */
     public boolean hasNext() {
-        return pos < source.length;
+        return source.hasRemaining();
+    }
+
+    /**
+     * get current position.
+     *
+     * @return position
+     */
+    public int position() {
+        return source.position();
     }
 
     /**
@@ -53,10 +73,11 @@ public class ScaleCodecReader {
      * @param len amount to bytes to skip
      */
     public void skip(int len) {
+        int pos = source.position();
         if (len < 0 && Math.abs(len) > pos) {
             throw new IllegalArgumentException("Position cannot be negative: " + pos + " " + len);
         }
-        pos += len;
+        source.position(pos + len);
     }
 
     /**
@@ -67,21 +88,42 @@ public class ScaleCodecReader {
     public void seek(int pos) {
         if (pos < 0) {
             throw new IllegalArgumentException("Position cannot be negative: " + pos);
-        } else if (pos >= source.length) {
-            throw new IllegalArgumentException("Position " + pos + " must be strictly smaller than source length: " + source.length);
+        } else if (pos >= source.limit()) {
+            throw new IllegalArgumentException("Position " + pos + " must be strictly smaller than source length: " + source.limit());
         }
 
-        this.pos = pos;
+        source.position(pos);
     }
 
     /**
      * @return a next single byte from reader.
      */
     public byte readByte() {
-        if (!hasNext()) {
-            throw new IndexOutOfBoundsException("Cannot read " + pos + " of " + source.length);
+        require(1);
+        return source.get();
+    }
+
+    // long, so that the byte count of a large array can't overflow into a small one
+    private void require(long len) {
+        if (len < 0 || len > source.remaining()) {
+            throw new IndexOutOfBoundsException("Cannot read " + source.position() + " of " + source.limit());
         }
-        return source[pos++];
+    }
+
+    /**
+     * @return a next little endian int from reader.
+     */
+    public int readInt() {
+        require(4);
+        return source.getInt();
+    }
+
+    /**
+     * @return a next little endian long from reader.
+     */
+    public long readLong() {
+        require(8);
+        return source.getLong();
     }
 
     /**
@@ -162,9 +204,61 @@ public class ScaleCodecReader {
      * @return byte[]
      */
     public byte[] readByteArray(int len) {
+        require(len);
         byte[] result = new byte[len];
-        System.arraycopy(source, pos, result, 0, result.length);
-        pos += len;
+        source.get(result);
+        return result;
+    }
+
+    /**
+     * read the next len bytes without copying them.
+     *
+     * @param len int
+     * @return a read only view of the bytes
+     */
+    public ByteBuffer readSlice(int len) {
+        require(len);
+        ByteBuffer slice = source.slice();
+        slice.limit(len);
+        source.position(source.position() + len);
+        return slice.asReadOnlyBuffer();
+    }
+
+    /**
+     * read the next len bytes as a reader without copying them.
+     *
+     * @param len int
+     * @return {@link ScaleCodecReader}
+     */
+    public ScaleCodecReader slice(int len) {
+        return new ScaleCodecReader(readSlice(len));
+    }
+
+    /**
+     * read len little endian ints in bulk.
+     *
+     * @param len int
+     * @return int[]
+     */
+    public int[] readIntArray(int len) {
+        require((long) len * 4);
+        int[] result = new int[len];
+        source.asIntBuffer().get(result);
+        source.position(source.position() + len * 4);
+        return result;
+    }
+
+    /**
+     * read len little endian longs in bulk.
+     *
+     * @param len int
+     * @return long[]
+     */
+    public long[] readLongArray(int len) {
+        require((long) len * 8);
+        long[] result = new long[len];
+        source.asLongBuffer().get(result);
+        source.position(source.position() + len * 8);
         return result;
     }
 
@@ -174,6 +268,13 @@ public class ScaleCodecReader {
      * @return string value
      */
     public String readString() {
-        return new String(readByteArray());
+        int len = readCompactInt();
+        require(len);
+        if (source.hasArray()) {
+            String value = new String(source.array(), source.arrayOffset() + source.position(), len, StandardCharsets.UTF_8);
+            source.position(source.position() + len);
+            return value;
+        }
+        return new String(readByteArray(len), StandardCharsets.UTF_8);
     }
 }
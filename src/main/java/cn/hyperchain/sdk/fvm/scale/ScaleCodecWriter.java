@@ -12,8 +12,13 @@ import java.io.Closeable;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import java.util.Optional;
 
+/**
+ * SCALE codec writer, writes to an OutputStream or straight into a heap or direct ByteBuffer.
+ */
 public class ScaleCodecWriter implements Closeable {
 
     public static final CompactUIntWriter COMPACT_UINT = new CompactUIntWriter();
@@ -25,9 +30,47 @@ public class ScaleCodecWriter implements Closeable {
     public static final BoolOptionalWriter BOOL_OPT = new BoolOptionalWriter();
 
     private final OutputStream out;
+    private final ByteBuffer buffer;
+    private final boolean bigEndian;
 
+    /**
+     * write to an OutputStream.
+     *
+     * @param out destination
+     */
     public ScaleCodecWriter(OutputStream out) {
         this.out = out;
+        this.buffer = null;
+        this.bigEndian = false;
+    }
+
+    /**
+     * write at the position of buffer and advance it, the byte order of buffer is left untouched.
+     *
+     * @param buffer destination, a {@link java.nio.BufferOverflowException} is thrown when it is too small
+     */
+    public ScaleCodecWriter(ByteBuffer buffer) {
+        this.out = null;
+        this.buffer = buffer;
+        this.bigEndian = buffer.order() == ByteOrder.BIG_ENDIAN;
+    }
+
+    /**
+     * get the size of the compact encoding of value.
+     *
+     * @param value non negative int
+     * @return 1, 2, 4 or 5
+     */
+    public static int compactSize(int value) {
+        CompactMode mode = CompactMode.forNumber(value);
+        if (mode == CompactMode.SINGLE) {
+            return 1;
+        } else if (mode == CompactMode.TWO) {
+            return 2;
+        } else if (mode == CompactMode.FOUR) {
+            return 4;
+        }
+        return 5;
     }
 
     /**
@@ -50,7 +93,7 @@ public class ScaleCodecWriter implements Closeable {
      * @throws IOException os write
      */
     public void writeByteArray(byte[] value) throws IOException {
-        out.write(value, 0, value.length);
+        directWrite(value, 0, value.length);
     }
 
     /**
@@ -61,7 +104,7 @@ public class ScaleCodecWriter implements Closeable {
      */
     public void writeAsList(byte[] value) throws IOException {
         writeCompact(value.length);
-        out.write(value, 0, value.length);
+        directWrite(value, 0, value.length);
     }
 
     /**
@@ -71,7 +114,11 @@ public class ScaleCodecWriter implements Closeable {
      * @throws IOException if failed to write
      */
     public void directWrite(int b) throws IOException {
-        out.write(b);
+        if (buffer != null) {
+            buffer.put((byte) b);
+        } else {
+            out.write(b);
+        }
     }
 
     /**
@@ -83,7 +130,77 @@ public class ScaleCodecWriter implements Closeable {
      * @throws IOException if failed to write
      */
     public void directWrite(byte[] b, int off, int len) throws IOException {
-        out.write(b, off, len);
+        if (buffer != null) {
+            buffer.put(b, off, len);
+        } else {
+            out.write(b, off, len);
+        }
+    }
+
+    /**
+     * Write the int as 4 little endian bytes.
+     *
+     * @param value int
+     * @throws IOException if failed to write
+     */
+    public void directWriteInt(int value) throws IOException {
+        if (buffer != null) {
+            buffer.putInt(bigEndian ? Integer.reverseBytes(value) : value);
+        } else {
+            out.write(value);
+            out.write(value >>> 8);
+            out.write(value >>> 16);
+            out.write(value >>> 24);
+        }
+    }
+
+    /**
+     * Write the long as 8 little endian bytes.
+     *
+     * @param value long
+     * @throws IOException if failed to write
+     */
+    public void directWriteLong(long value) throws IOException {
+        if (buffer != null) {
+            buffer.putLong(bigEndian ? Long.reverseBytes(value) : value);
+        } else {
+            directWriteInt((int) value);
+            directWriteInt((int) (value >>> 32));
+        }
+    }
+
+    /**
+     * Write the ints as 4 little endian bytes each, in bulk.
+     *
+     * @param values int[]
+     * @throws IOException if failed to write
+     */
+    public void directWriteInts(int[] values) throws IOException {
+        if (buffer != null) {
+            buffer.duplicate().order(ByteOrder.LITTLE_ENDIAN).asIntBuffer().put(values);
+            buffer.position(buffer.position() + values.length * 4);
+        } else {
+            for (int value : values) {
+                directWriteInt(value);
+            }
+        }
+    }
+
+    /**
+     * Write the longs as 8 little endian bytes each, in bulk.
+     *
+     * @param values long[]
+     * @throws IOException if failed to write
+     */
+    public void directWriteLongs(long[] values) throws IOException {
+        if (buffer != null) {
+            buffer.duplicate().order(ByteOrder.LITTLE_ENDIAN).asLongBuffer().put(values);
+            buffer.position(buffer.position() + values.length * 8);
+        } else {
+            for (long value : values) {
+                directWriteLong(value);
+            }
+        }
     }
 
     /**
@@ -92,12 +209,16 @@ public class ScaleCodecWriter implements Closeable {
      * @throws IOException flush
      */
     public void flush() throws IOException {
-        out.flush();
+        if (out != null) {
+            out.flush();
+        }
     }
 
     @Override
     public void close() throws IOException {
-        out.close();
+        if (out != null) {
+            out.close();
+        }
     }
 
     /**
@@ -13,18 +13,7 @@ import cn.hyperchain.sdk.fvm.scale.ScaleReader;
 public class Int32Reader implements ScaleReader<Integer> {
     @Override
     public Integer read(ScaleCodecReader rdr) {
-//        ByteBuffer buf = ByteBuffer.allocate(4).order(ByteOrder.LITTLE_ENDIAN);
-//        buf.put(rdr.readByte());
-//        buf.put(rdr.readByte());
-//        buf.put(rdr.readByte());
-//        buf.put(rdr.readByte());
-//        return buf.flip().getInt();
-        byte[] bs = new byte[4];
-        bs[0] = rdr.readByte();
-        bs[1] = rdr.readByte();
-        bs[2] = rdr.readByte();
-        bs[3] = rdr.readByte();
-        return byteArrayToInt(bs);
+        return rdr.readInt();
     }
 
     // note: convert to jdk8 from jdk11
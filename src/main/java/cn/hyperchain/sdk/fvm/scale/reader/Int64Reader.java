@@ -11,11 +11,6 @@ public class Int64Reader implements ScaleReader<Long> {
 
     @Override
     public Long read(ScaleCodecReader rdr) {
-        long ret = 0;
-        for (int i = 0; i < 8; i++) {
-            byte bt = rdr.readByte();
-            ret |= ((long) (bt & 0xFF) << 8 * i);
-        }
-        return ret;
+        return rdr.readLong();
     }
 }
@@ -7,17 +7,21 @@ import java.math.BigInteger;
 
 public class UInt64Reader implements ScaleReader<BigInteger> {
 
+    private static final BigInteger TWO_64 = BigInteger.ONE.shiftLeft(64);
+
     @Override
     public BigInteger read(ScaleCodecReader rdr) {
-        BigInteger result = BigInteger.ZERO;
-        result = result.add(BigInteger.valueOf(rdr.readUByte()));
-        result = result.add(BigInteger.valueOf(rdr.readUByte()).shiftLeft(8));
-        result = result.add(BigInteger.valueOf(rdr.readUByte()).shiftLeft(16));
-        result = result.add(BigInteger.valueOf(rdr.readUByte()).shiftLeft(24));
-        result = result.add(BigInteger.valueOf(rdr.readUByte()).shiftLeft(32));
-        result = result.add(BigInteger.valueOf(rdr.readUByte()).shiftLeft(40));
-        result = result.add(BigInteger.valueOf(rdr.readUByte()).shiftLeft(48));
-        result = result.add(BigInteger.valueOf(rdr.readUByte()).shiftLeft(56));
-        return result;
+        return toUnsigned(rdr.readLong());
+    }
+
+    /**
+     * get the unsigned value of a long.
+     *
+     * @param value long
+     * @return BigInteger in range 0..2^64-1
+     */
+    public static BigInteger toUnsigned(long value) {
+        BigInteger result = BigInteger.valueOf(value);
+        return value >= 0 ? result : result.add(TWO_64);
     }
 }
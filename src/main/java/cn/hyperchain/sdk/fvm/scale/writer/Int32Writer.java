@@ -13,9 +13,7 @@ public class Int32Writer implements ScaleWriter<Integer> {
 
     @Override
     public void write(ScaleCodecWriter wrt, Integer value) throws IOException {
-        for (int i = 0; i < 4; i++) {
-            wrt.writeByte((value >> (8 * i)) & 0xff);
-        }
+        wrt.directWriteInt(value);
     }
 
 }
@@ -13,8 +13,6 @@ public class Int64Writer implements ScaleWriter<Long> {
 
     @Override
     public void write(ScaleCodecWriter wrt, Long value) throws IOException {
-        for (int i = 0; i < 8; i++) {
-            wrt.writeByte(Math.toIntExact((value >> (8 * i)) & 0xff));
-        }
+        wrt.directWriteLong(value);
     }
 }
@@ -4,14 +4,44 @@ import cn.hyperchain.sdk.fvm.scale.ScaleCodecWriter;
 import cn.hyperchain.sdk.fvm.scale.ScaleWriter;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 
 public class StringWriter implements ScaleWriter<String> {
 
     @Override
     public void write(ScaleCodecWriter wrt, String value) throws IOException {
-        byte[] bs = value.getBytes();
+        byte[] bs = value.getBytes(StandardCharsets.UTF_8);
         int len = bs.length;
         wrt.writeCompact(len);
         wrt.writeByteArray(bs);
     }
+
+    /**
+     * get the length of the UTF-8 encoding of value without encoding it.
+     *
+     * @param value String
+     * @return the length of value.getBytes(StandardCharsets.UTF_8)
+     */
+    public static int utf8Length(String value) {
+        int len = value.length();
+        int size = len;
+        for (int i = 0; i < len; i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                continue;
+            } else if (c < 0x800) {
+                size++;
+            } else if (Character.isHighSurrogate(c) && i + 1 < len && Character.isLowSurrogate(value.charAt(i + 1))) {
+                // a surrogate pair is 4 bytes for 2 chars
+                size += 2;
+                i++;
+            } else if (Character.isSurrogate(c)) {
+                // an unpaired surrogate is replaced by '?'
+                continue;
+            } else {
+                size += 2;
+            }
+        }
+        return size;
+    }
 }
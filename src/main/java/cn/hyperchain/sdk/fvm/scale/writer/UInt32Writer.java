@@ -14,8 +14,6 @@ public class UInt32Writer implements ScaleWriter<Long> {
         if (value < 0 || value > MAX_UINT32) {
             throw new IllegalArgumentException("Only values in range 0.." + MAX_UINT32 + " are supported: " + value);
         }
-        for (int i = 0; i < 4; i++) {
-            wrt.directWrite(Math.toIntExact((value >> (i * 8)) & 0xff));
-        }
+        wrt.directWriteInt((int) value.longValue());
     }
 }
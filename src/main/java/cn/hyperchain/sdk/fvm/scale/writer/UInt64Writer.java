@@ -15,13 +15,7 @@ public class UInt64Writer implements ScaleWriter<BigInteger> {
         if (value.compareTo(BigInteger.ZERO) < 0 || value.compareTo(MAX_UINT64) > 0) {
             throw new IllegalArgumentException("Only values in range 0.." + MAX_UINT64 + " are supported: " + value);
         }
-        wrt.directWrite(value.and(BigInteger.valueOf(255)).intValue());
-        wrt.directWrite(value.shiftRight(8).and(BigInteger.valueOf(255)).intValue());
-        wrt.directWrite(value.shiftRight(16).and(BigInteger.valueOf(255)).intValue());
-        wrt.directWrite(value.shiftRight(24).and(BigInteger.valueOf(255)).intValue());
-        wrt.directWrite(value.shiftRight(32).and(BigInteger.valueOf(255)).intValue());
-        wrt.directWrite(value.shiftRight(40).and(BigInteger.valueOf(255)).intValue());
-        wrt.directWrite(value.shiftRight(48).and(BigInteger.valueOf(255)).intValue());
-        wrt.directWrite(value.shiftRight(56).and(BigInteger.valueOf(255)).intValue());
+        // longValue keeps the low 64 bits, which is the unsigned value
+        wrt.directWriteLong(value.longValue());
     }
 }
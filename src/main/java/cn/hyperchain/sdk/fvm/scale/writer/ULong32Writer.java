@@ -14,9 +14,6 @@ public class ULong32Writer implements ScaleWriter<Long> {
         if (value > 0xff_ff_ff_ffL) {
             throw new IllegalArgumentException("Value is too high: " + value);
         }
-        wrt.directWrite((int)(value & 0xff));
-        wrt.directWrite((int)((value >> 8) & 0xff));
-        wrt.directWrite((int)((value >> 16) & 0xff));
-        wrt.directWrite((int)((value >> 24) & 0xff));
+        wrt.directWriteInt((int) value.longValue());
     }
 }
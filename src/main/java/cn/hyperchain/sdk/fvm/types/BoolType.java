@@ -12,14 +12,15 @@ import java.io.IOException;
  */
 public class BoolType extends PrimitiveType implements FVMType {
 
+    private static final BoolWriter WRITER = new BoolWriter();
+
     @Override
     public void encode(ScaleCodecWriter writer, Object arg) {
         try {
             if (!(arg instanceof Boolean)) {
                 throw new RuntimeException("Boolean value expected.");
             }
-            BoolWriter boolWriter = new BoolWriter();
-            boolWriter.write(writer, (Boolean) arg);
+            WRITER.write(writer, (Boolean) arg);
         } catch (IOException e) {
             throw new RuntimeException("others error: " + e.getMessage());
         }
@@ -29,4 +30,9 @@ public class BoolType extends PrimitiveType implements FVMType {
     public Object decode(ScaleCodecReader reader) {
         return reader.readBoolean();
     }
+
+    @Override
+    public int fixedSize() {
+        return 1;
+    }
 }
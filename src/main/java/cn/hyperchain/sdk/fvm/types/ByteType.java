@@ -15,14 +15,15 @@ import static cn.hyperchain.sdk.fvm.scale.writer.ByteWriter.MIN_INT8;
  */
 public class ByteType extends PrimitiveType implements FVMType {
 
+    private static final ByteWriter WRITER = new ByteWriter();
+
     @Override
     public void encode(ScaleCodecWriter writer, Object arg) {
         try {
             if (!(arg instanceof Number)) {
                 throw new RuntimeException("Number value expected.");
             }
-            ByteWriter int8Writer = new ByteWriter();
-            int8Writer.write(writer, Integer.parseInt(String.valueOf(arg)));
+            WRITER.write(writer, intValue(arg));
         } catch (NumberFormatException e) {
             throw new IllegalArgumentException("Only values in range + " + MIN_INT8 + ".." + MAX_INT8 + " are supported: " + arg);
         } catch (IOException e) {
@@ -34,4 +35,9 @@ public class ByteType extends PrimitiveType implements FVMType {
     public Object decode(ScaleCodecReader reader) {
         return reader.readByte();
     }
+
+    @Override
+    public int fixedSize() {
+        return 1;
+    }
 }
@@ -1,5 +1,11 @@
 package cn.hyperchain.sdk.fvm.types;
 
+import cn.hyperchain.sdk.fvm.scale.ScaleCodecWriter;
+
+import java.io.IOException;
+import java.lang.reflect.Array;
+import java.util.List;
+
 /**
  * @author: Hins Liu
  * @description: compound type in FVM.
@@ -32,6 +38,70 @@ public abstract class CompoundType implements FVMType {
 
     }
 
+    // list arguments are a List, an Object[] or a primitive array
+
+    static int elementCount(Object arg) {
+        if (arg != null && arg.getClass().isArray()) {
+            return Array.getLength(arg);
+        }
+        return ((List<?>) arg).size();
+    }
+
+    static Object elementAt(Object arg, int i) {
+        if (arg instanceof List) {
+            return ((List<?>) arg).get(i);
+        } else if (arg instanceof Object[]) {
+            return ((Object[]) arg)[i];
+        }
+        return Array.get(arg, i);
+    }
+
+    /**
+     * write all elements of arg, primitive arrays of a matching type are written in bulk
+     * (byte[] as i8 or u8, int[] as i32, long[] as i64 and boolean[] as bool).
+     */
+    static void encodeElements(FVMType type, ScaleCodecWriter writer, Object arg) throws IOException {
+        if (arg instanceof byte[] && (type instanceof ByteType || type instanceof UByteType)) {
+            byte[] values = (byte[]) arg;
+            writer.directWrite(values, 0, values.length);
+        } else if (arg instanceof int[] && type instanceof Int32Type) {
+            writer.directWriteInts((int[]) arg);
+        } else if (arg instanceof long[] && type instanceof Int64Type) {
+            writer.directWriteLongs((long[]) arg);
+        } else if (arg instanceof boolean[] && type instanceof BoolType) {
+            for (boolean value : (boolean[]) arg) {
+                writer.directWrite(value ? 1 : 0);
+            }
+        } else if (arg instanceof List) {
+            for (Object val : (List<?>) arg) {
+                type.encode(writer, val);
+            }
+        } else {
+            int count = elementCount(arg);
+            for (int i = 0; i < count; i++) {
+                type.encode(writer, elementAt(arg, i));
+            }
+        }
+    }
+
+    static int elementsSize(FVMType type, Object arg, int count) {
+        // compound elements are sized one by one to check their shape
+        if (type instanceof PrimitiveType && type.fixedSize() >= 0) {
+            return count * type.fixedSize();
+        }
+        int size = 0;
+        if (arg instanceof List) {
+            for (Object val : (List<?>) arg) {
+                size += type.encodedSize(val);
+            }
+        } else {
+            for (int i = 0; i < count; i++) {
+                size += type.encodedSize(elementAt(arg, i));
+            }
+        }
+        return size;
+    }
+
     /**
      * getCompoundType.
      *
@@ -3,6 +3,8 @@ package cn.hyperchain.sdk.fvm.types;
 import cn.hyperchain.sdk.fvm.scale.ScaleCodecReader;
 import cn.hyperchain.sdk.fvm.scale.ScaleCodecWriter;
 
+import java.io.ByteArrayOutputStream;
+
 /**
  * @author: Hins Liu.
  * @description: Types in FVM should implement this interface.
@@ -13,4 +15,25 @@ public interface FVMType {
 
     Object decode(ScaleCodecReader reader);
 
+    /**
+     * get the size of every encoding of this type.
+     *
+     * @return size in bytes, or -1 if it depends on the value
+     */
+    default int fixedSize() {
+        return -1;
+    }
+
+    /**
+     * get the size of the encoding of arg, so that it can be written into an exactly sized buffer.
+     *
+     * @param arg Object
+     * @return size in bytes
+     */
+    default int encodedSize(Object arg) {
+        ByteArrayOutputStream buf = new ByteArrayOutputStream();
+        encode(new ScaleCodecWriter(buf), arg);
+        return buf.size();
+    }
+
 }
@@ -5,8 +5,7 @@ import cn.hyperchain.sdk.fvm.scale.ScaleCodecReader;
 import cn.hyperchain.sdk.fvm.scale.ScaleCodecWriter;
 import com.google.gson.JsonArray;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.io.IOException;
 
 /**
  * @author: Hins Liu
@@ -18,6 +17,8 @@ public class FixedLengthListType extends CompoundType {
 
     int length;
 
+    private final int fixedSize;
+
     /**
      * fix length list type.
      *
@@ -32,26 +33,45 @@ public class FixedLengthListType extends CompoundType {
 
         this.length = len;
         this.innerType = FVMAbi.convertToList(fields, refTypes).get(0);
+        this.fixedSize = innerType.fixedSize() < 0 ? -1 : innerType.fixedSize() * len;
     }
 
     @Override
     public void encode(ScaleCodecWriter writer, Object arg) {
-        if (((List<?>) arg).size() != length) {
-            throw new RuntimeException("input args length: " + ((List<?>) arg).size() + " not equal to the required length of fixed length list: " + length);
+        checkLength(arg);
+        try {
+            encodeElements(innerType, writer, arg);
+        } catch (IOException e) {
+            throw new RuntimeException(e.getMessage());
         }
+    }
+
+    @Override
+    public int encodedSize(Object arg) {
+        int count = checkLength(arg);
+        return elementsSize(innerType, arg, count);
+    }
+
+    @Override
+    public int fixedSize() {
+        return fixedSize;
+    }
 
-        for (Object val : (List<?>) arg) {
-            innerType.encode(writer, val);
+    private int checkLength(Object arg) {
+        int count = elementCount(arg);
+        if (count != length) {
+            throw new RuntimeException("input args length: " + count + " not equal to the required length of fixed length list: " + length);
         }
+        return count;
     }
 
     @Override
     public Object decode(ScaleCodecReader reader) {
-        List<Object> result = new ArrayList<>();
+        Object[] result = new Object[this.length];
         for (int i = 0; i < this.length; i++) {
-            result.add(innerType.decode(reader));
+            result[i] = innerType.decode(reader);
         }
-        return result.toArray();
+        return result;
     }
 
 }
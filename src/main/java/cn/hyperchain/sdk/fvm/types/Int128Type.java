@@ -6,7 +6,6 @@ import cn.hyperchain.sdk.fvm.scale.reader.Int128Reader;
 import cn.hyperchain.sdk.fvm.scale.writer.Int128Writer;
 
 import java.io.IOException;
-import java.math.BigInteger;
 
 /**
  * @author: Hins Liu.
@@ -14,14 +13,16 @@ import java.math.BigInteger;
  */
 public class Int128Type extends PrimitiveType implements FVMType {
 
+    private static final Int128Writer WRITER = new Int128Writer();
+    private static final Int128Reader READER = new Int128Reader();
+
     @Override
     public void encode(ScaleCodecWriter writer, Object arg) {
         try {
             if (!(arg instanceof Number)) {
                 throw new RuntimeException("Number value expected.");
             }
-            Int128Writer int128Writer = new Int128Writer();
-            int128Writer.write(writer, new BigInteger(String.valueOf(arg)));
+            WRITER.write(writer, bigIntegerValue(arg));
         } catch (IOException e) {
             throw new RuntimeException("others error: " + e.getMessage());
         }
@@ -29,6 +30,11 @@ public class Int128Type extends PrimitiveType implements FVMType {
 
     @Override
     public Object decode(ScaleCodecReader reader) {
-        return new Int128Reader().read(reader);
+        return READER.read(reader);
+    }
+
+    @Override
+    public int fixedSize() {
+        return 16;
     }
 }
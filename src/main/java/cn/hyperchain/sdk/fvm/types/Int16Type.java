@@ -15,14 +15,17 @@ import static cn.hyperchain.sdk.fvm.scale.writer.Int16Writer.MIN_INT16;
  * @description: Integer 32bit type.
  */
 public class Int16Type extends PrimitiveType implements FVMType {
+
+    private static final Int16Writer WRITER = new Int16Writer();
+    private static final Int16Reader READER = new Int16Reader();
+
     @Override
     public void encode(ScaleCodecWriter writer, Object arg) {
         try {
             if (!(arg instanceof Number)) {
                 throw new RuntimeException("Number value expected.");
             }
-            Int16Writer int16Writer = new Int16Writer();
-            int16Writer.write(writer, Integer.parseInt(String.valueOf(arg)));
+            WRITER.write(writer, intValue(arg));
         } catch (NumberFormatException e) {
             throw new IllegalArgumentException("Only values in range + " + MIN_INT16 + ".." + MAX_INT16 + " are supported: " + arg);
         } catch (IOException e) {
@@ -32,6 +35,11 @@ public class Int16Type extends PrimitiveType implements FVMType {
 
     @Override
     public Object decode(ScaleCodecReader reader) {
-        return new Int16Reader().read(reader);
+        return READER.read(reader);
+    }
+
+    @Override
+    public int fixedSize() {
+        return 2;
     }
 }
@@ -12,14 +12,17 @@ import java.io.IOException;
  * @description: Integer 32bit type.
  */
 public class Int32Type extends PrimitiveType implements FVMType {
+
+    private static final Int32Writer WRITER = new Int32Writer();
+    private static final Int32Reader READER = new Int32Reader();
+
     @Override
     public void encode(ScaleCodecWriter writer, Object arg) {
         try {
             if (!(arg instanceof Number)) {
                 throw new RuntimeException("Number value expected.");
             }
-            Int32Writer int32Writer = new Int32Writer();
-            int32Writer.write(writer, Integer.parseInt(String.valueOf(arg)));
+            WRITER.write(writer, intValue(arg));
         } catch (NumberFormatException e) {
             throw new IllegalArgumentException("Only values in range + " + Integer.MIN_VALUE + ".." + Integer.MAX_VALUE + " are supported: " + arg);
         } catch (IOException e) {
@@ -29,6 +32,11 @@ public class Int32Type extends PrimitiveType implements FVMType {
 
     @Override
     public Object decode(ScaleCodecReader reader) {
-        return new Int32Reader().read(reader);
+        return READER.read(reader);
+    }
+
+    @Override
+    public int fixedSize() {
+        return 4;
     }
 }
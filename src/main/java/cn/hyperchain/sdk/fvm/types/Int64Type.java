@@ -12,14 +12,17 @@ import java.io.IOException;
  * @description: Integer 32bit type.
  */
 public class Int64Type extends PrimitiveType implements FVMType {
+
+    private static final Int64Writer WRITER = new Int64Writer();
+    private static final Int64Reader READER = new Int64Reader();
+
     @Override
     public void encode(ScaleCodecWriter writer, Object arg) {
         try {
             if (!(arg instanceof Number)) {
                 throw new RuntimeException("Number value expected.");
             }
-            Int64Writer int64Writer = new Int64Writer();
-            int64Writer.write(writer, Long.parseLong(String.valueOf(arg)));
+            WRITER.write(writer, longValue(arg));
         } catch (NumberFormatException e) {
             throw new IllegalArgumentException("Only values in range + " + Long.MIN_VALUE + ".." + Long.MAX_VALUE + " are supported: " + arg);
         } catch (IOException e) {
@@ -29,6 +32,11 @@ public class Int64Type extends PrimitiveType implements FVMType {
 
     @Override
     public Object decode(ScaleCodecReader reader) {
-        return new Int64Reader().read(reader);
+        return READER.read(reader);
+    }
+
+    @Override
+    public int fixedSize() {
+        return 8;
     }
 }
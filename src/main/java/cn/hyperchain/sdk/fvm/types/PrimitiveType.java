@@ -1,5 +1,7 @@
 package cn.hyperchain.sdk.fvm.types;
 
+import java.math.BigInteger;
+
 /**
  * @author: Hins Liu
  * @description: Scalar types of FVM.
@@ -50,6 +52,36 @@ public abstract class PrimitiveType implements FVMType {
         }
     }
 
+    @Override
+    public int encodedSize(Object arg) {
+        return fixedSize();
+    }
+
+    // the parsers below accept the same values as parsing String.valueOf(arg), without the string for boxed integers
+
+    static int intValue(Object arg) {
+        if (arg instanceof Integer || arg instanceof Short || arg instanceof Byte) {
+            return ((Number) arg).intValue();
+        }
+        return Integer.parseInt(String.valueOf(arg));
+    }
+
+    static long longValue(Object arg) {
+        if (arg instanceof Long || arg instanceof Integer || arg instanceof Short || arg instanceof Byte) {
+            return ((Number) arg).longValue();
+        }
+        return Long.parseLong(String.valueOf(arg));
+    }
+
+    static BigInteger bigIntegerValue(Object arg) {
+        if (arg instanceof BigInteger) {
+            return (BigInteger) arg;
+        } else if (arg instanceof Long || arg instanceof Integer || arg instanceof Short || arg instanceof Byte) {
+            return BigInteger.valueOf(((Number) arg).longValue());
+        }
+        return new BigInteger(String.valueOf(arg));
+    }
+
     /**
      * get primitive type.
      *
@@ -12,19 +12,29 @@ import java.io.IOException;
  */
 public class StringType extends PrimitiveType implements FVMType {
 
+    private static final StringWriter WRITER = new StringWriter();
+
     @Override
     public void encode(ScaleCodecWriter writer, Object arg) {
         try {
             if (!(arg instanceof String)) {
                 throw new RuntimeException("String value expected for type 'string'");
             }
-            StringWriter stringWriter = new StringWriter();
-            stringWriter.write(writer, (String) arg);
+            WRITER.write(writer, (String) arg);
         } catch (IOException e) {
             throw new RuntimeException("others error: " + e.getMessage());
         }
     }
 
+    @Override
+    public int encodedSize(Object arg) {
+        if (!(arg instanceof String)) {
+            throw new RuntimeException("String value expected for type 'string'");
+        }
+        int len = StringWriter.utf8Length((String) arg);
+        return ScaleCodecWriter.compactSize(len) + len;
+    }
+
     @Override
     public Object decode(ScaleCodecReader reader) {
         return reader.readString();
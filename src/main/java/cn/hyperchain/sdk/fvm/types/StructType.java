@@ -5,7 +5,6 @@ import cn.hyperchain.sdk.fvm.scale.ScaleCodecReader;
 import cn.hyperchain.sdk.fvm.scale.ScaleCodecWriter;
 import com.google.gson.JsonArray;
 
-import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -16,6 +15,8 @@ public class StructType extends CompoundType {
 
     List<FVMType> members;
 
+    private final int fixedSize;
+
     /**
      * structType.
      * @param fields JsonArray
@@ -26,25 +27,53 @@ public class StructType extends CompoundType {
             throw new RuntimeException("fields length for struct is null.");
         }
         this.members = FVMAbi.convertToList(fields, refTypes);
+        int size = 0;
+        for (FVMType member : members) {
+            if (member.fixedSize() < 0) {
+                size = -1;
+                break;
+            }
+            size += member.fixedSize();
+        }
+        this.fixedSize = size;
     }
 
     @Override
     public void encode(ScaleCodecWriter writer, Object arg) {
-        if (((List<?>) arg).size() != members.size()) {
-            throw new RuntimeException("args length not equal to the required member number in struct.");
+        checkLength(arg);
+        for (int i = 0; i < members.size(); i++) {
+            members.get(i).encode(writer, elementAt(arg, i));
+        }
+    }
+
+    @Override
+    public int encodedSize(Object arg) {
+        checkLength(arg);
+        // members are sized one by one even if the struct is fixed width, so that nested arguments are checked too
+        int size = 0;
+        for (int i = 0; i < members.size(); i++) {
+            size += members.get(i).encodedSize(elementAt(arg, i));
         }
+        return size;
+    }
 
-        for (int i = 0; i < ((List<?>) arg).size(); i++) {
-            members.get(i).encode(writer, ((List<?>) arg).get(i));
+    @Override
+    public int fixedSize() {
+        return fixedSize;
+    }
+
+    private void checkLength(Object arg) {
+        if (elementCount(arg) != members.size()) {
+            throw new RuntimeException("args length not equal to the required member number in struct.");
         }
     }
 
     @Override
     public Object decode(ScaleCodecReader reader) {
-        List<Object> result = new ArrayList<>();
-        for (FVMType member : members) {
-            result.add(member.decode(reader));
+        Object[] result = new Object[members.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = members.get(i).decode(reader);
         }
-        return result.toArray();
+        return result;
     }
 }
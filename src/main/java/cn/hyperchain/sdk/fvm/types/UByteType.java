@@ -14,14 +14,15 @@ import static cn.hyperchain.sdk.fvm.scale.writer.UByteWriter.MAX_UINT8;
  */
 public class UByteType extends PrimitiveType implements FVMType {
 
+    private static final UByteWriter WRITER = new UByteWriter();
+
     @Override
     public void encode(ScaleCodecWriter writer, Object arg) {
         try {
             if (!(arg instanceof Number)) {
                 throw new RuntimeException("Number value expected.");
             }
-            UByteWriter uByteWriter = new UByteWriter();
-            uByteWriter.write(writer, Integer.parseInt(String.valueOf(arg)));
+            WRITER.write(writer, intValue(arg));
         } catch (NumberFormatException e) {
             throw new IllegalArgumentException("Only values in range 0.." + MAX_UINT8 + " are supported: " + arg);
         } catch (IOException e) {
@@ -33,4 +34,9 @@ public class UByteType extends PrimitiveType implements FVMType {
     public Object decode(ScaleCodecReader reader) {
         return reader.readUByte();
     }
+
+    @Override
+    public int fixedSize() {
+        return 1;
+    }
 }
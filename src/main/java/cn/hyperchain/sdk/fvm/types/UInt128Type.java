@@ -5,7 +5,6 @@ import cn.hyperchain.sdk.fvm.scale.ScaleCodecWriter;
 import cn.hyperchain.sdk.fvm.scale.writer.UInt128Writer;
 
 import java.io.IOException;
-import java.math.BigInteger;
 
 /**
  * @author: Hins Liu
@@ -13,14 +12,15 @@ import java.math.BigInteger;
  */
 public class UInt128Type extends PrimitiveType implements FVMType {
 
+    private static final UInt128Writer WRITER = new UInt128Writer();
+
     @Override
     public void encode(ScaleCodecWriter writer, Object arg) {
         try {
             if (!(arg instanceof Number)) {
                 throw new RuntimeException("Number value expected.");
             }
-            UInt128Writer uInt128Writer = new UInt128Writer();
-            uInt128Writer.write(writer, new BigInteger(String.valueOf(arg)));
+            WRITER.write(writer, bigIntegerValue(arg));
         } catch (IOException e) {
             throw new RuntimeException("others error: " + e.getMessage());
         }
@@ -30,4 +30,9 @@ public class UInt128Type extends PrimitiveType implements FVMType {
     public Object decode(ScaleCodecReader reader) {
         return reader.readUint128();
     }
+
+    @Override
+    public int fixedSize() {
+        return 16;
+    }
 }
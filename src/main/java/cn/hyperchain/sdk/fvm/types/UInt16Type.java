@@ -14,14 +14,15 @@ import static cn.hyperchain.sdk.fvm.scale.writer.UInt16Writer.MAX_UINT16;
  */
 public class UInt16Type extends PrimitiveType implements FVMType {
 
+    private static final UInt16Writer WRITER = new UInt16Writer();
+
     @Override
     public void encode(ScaleCodecWriter writer, Object arg) {
         try {
             if (!(arg instanceof Number)) {
                 throw new RuntimeException("Number value expected.");
             }
-            UInt16Writer uInt16Type = new UInt16Writer();
-            uInt16Type.write(writer, Integer.parseInt(String.valueOf(arg)));
+            WRITER.write(writer, intValue(arg));
         } catch (NumberFormatException e) {
             throw new IllegalArgumentException("Only values in range 0.." + MAX_UINT16 + " are supported: " + arg);
         } catch (IOException e) {
@@ -33,4 +34,9 @@ public class UInt16Type extends PrimitiveType implements FVMType {
     public Object decode(ScaleCodecReader reader) {
         return reader.readUint16();
     }
+
+    @Override
+    public int fixedSize() {
+        return 2;
+    }
 }
@@ -14,14 +14,15 @@ import static cn.hyperchain.sdk.fvm.scale.writer.UInt32Writer.MAX_UINT32;
  */
 public class UInt32Type extends PrimitiveType implements FVMType {
 
+    private static final UInt32Writer WRITER = new UInt32Writer();
+
     @Override
     public void encode(ScaleCodecWriter writer, Object arg) {
         try {
             if (!(arg instanceof Number)) {
                 throw new RuntimeException("Number value expected.");
             }
-            UInt32Writer uInt32Writer = new UInt32Writer();
-            uInt32Writer.write(writer, Long.parseLong(String.valueOf(arg)));
+            WRITER.write(writer, longValue(arg));
         } catch (NumberFormatException e) {
             throw new IllegalArgumentException("Only values in range 0.." + MAX_UINT32 + " are supported: " + arg);
         } catch (IOException e) {
@@ -33,4 +34,9 @@ public class UInt32Type extends PrimitiveType implements FVMType {
     public Object decode(ScaleCodecReader reader) {
         return reader.readUint32();
     }
+
+    @Override
+    public int fixedSize() {
+        return 4;
+    }
 }
@@ -5,7 +5,6 @@ import cn.hyperchain.sdk.fvm.scale.ScaleCodecWriter;
 import cn.hyperchain.sdk.fvm.scale.writer.UInt64Writer;
 
 import java.io.IOException;
-import java.math.BigInteger;
 
 import static cn.hyperchain.sdk.fvm.scale.writer.UInt64Writer.MAX_UINT64;
 
@@ -15,14 +14,15 @@ import static cn.hyperchain.sdk.fvm.scale.writer.UInt64Writer.MAX_UINT64;
  */
 public class UInt64Type extends PrimitiveType implements FVMType {
 
+    private static final UInt64Writer WRITER = new UInt64Writer();
+
     @Override
     public void encode(ScaleCodecWriter writer, Object arg) {
         try {
             if (!(arg instanceof Number)) {
                 throw new RuntimeException("Number value expected.");
             }
-            UInt64Writer uInt64Writer = new UInt64Writer();
-            uInt64Writer.write(writer, new BigInteger(String.valueOf(arg)));
+            WRITER.write(writer, bigIntegerValue(arg));
         } catch (NumberFormatException e) {
             throw new IllegalArgumentException("Only values in range 0.." + MAX_UINT64 + " are supported: " + arg);
         } catch (IOException e) {
@@ -34,4 +34,9 @@ public class UInt64Type extends PrimitiveType implements FVMType {
     public Object decode(ScaleCodecReader reader) {
         return reader.readUint64();
     }
+
+    @Override
+    public int fixedSize() {
+        return 8;
+    }
 }
@@ -6,8 +6,8 @@ import cn.hyperchain.sdk.fvm.scale.ScaleCodecWriter;
 import com.google.gson.JsonArray;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Vector;
 
 /**
  * @author: Hins Liu
@@ -35,21 +35,25 @@ public class UnfixedLengthListType extends CompoundType {
     public void encode(ScaleCodecWriter writer, Object arg) {
         try {
             // write size
-            writer.writeCompact(((List<?>) arg).size());
-            for (Object val : (List<?>) arg) {
-                innerType.encode(writer, val);
-            }
+            writer.writeCompact(elementCount(arg));
+            encodeElements(innerType, writer, arg);
         } catch (IOException e) {
             throw new RuntimeException(e.getMessage());
         }
     }
 
+    @Override
+    public int encodedSize(Object arg) {
+        int count = elementCount(arg);
+        return ScaleCodecWriter.compactSize(count) + elementsSize(innerType, arg, count);
+    }
+
     @Override
     public Object decode(ScaleCodecReader reader) {
         // read length
         int len = reader.readCompactInt();
 
-        Vector<Object> result = new Vector<>();
+        List<Object> result = new ArrayList<>();
         for (int i = 0; i < len; i++) {
             result.add(innerType.decode(reader));
         }
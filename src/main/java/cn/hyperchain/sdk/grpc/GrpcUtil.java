@@ -1,8 +1,13 @@
 package cn.hyperchain.sdk.grpc;
 
+import cn.hyperchain.sdk.common.utils.Utils;
 import cn.hyperchain.sdk.exception.RequestException;
 import cn.hyperchain.sdk.exception.RequestExceptionCode;
 import cn.hyperchain.sdk.request.Request;
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.MoreExecutors;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
 import com.google.protobuf.ByteString;
@@ -13,6 +18,7 @@ import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 
 public class GrpcUtil {
@@ -228,6 +234,47 @@ public class GrpcUtil {
         }
     }
 
+    /**
+     * hand method which return commonRes, without blocking the calling thread.
+     * @param method method name
+     * @param channel -
+     * @param commonReq -
+     * @return future of commonRes, failed with {@link RequestException} if the call fails
+     * @throws RequestException -
+     */
+    public static CompletableFuture<Transaction.CommonRes> getCommonResFutureByMethod(String method, Channel channel, Transaction.CommonReq commonReq) throws RequestException {
+        ListenableFuture<Transaction.CommonRes> listenableFuture;
+        switch (method) {
+            case GRPC_MQ_Register:
+                listenableFuture = GrpcApiMQGrpc.newFutureStub(channel).register(commonReq);
+                break;
+            case GRPC_MQ_UnRegister:
+                listenableFuture = GrpcApiMQGrpc.newFutureStub(channel).unRegister(commonReq);
+                break;
+            case GRPC_MQ_GetAllQueueNames:
+                listenableFuture = GrpcApiMQGrpc.newFutureStub(channel).getAllQueueNames(commonReq);
+                break;
+            case GRPC_MQ_StopConsume:
+                listenableFuture = GrpcApiMQGrpc.newFutureStub(channel).stopConsume(commonReq);
+                break;
+            default:
+                throw new RequestException(RequestExceptionCode.GRPC_SERVICE_NOT_FOUND);
+        }
+        CompletableFuture<Transaction.CommonRes> future = new CompletableFuture<>();
+        Futures.addCallback(listenableFuture, new FutureCallback<Transaction.CommonRes>() {
+            @Override
+            public void onSuccess(Transaction.CommonRes commonRes) {
+                future.complete(commonRes);
+            }
+
+            @Override
+            public void onFailure(Throwable throwable) {
+                future.completeExceptionally(new RequestException(RequestExceptionCode.GRPC_REQUEST_FAILED, throwable.getMessage()));
+            }
+        }, MoreExecutors.directExecutor());
+        return future;
+    }
+
     /**
      * hand method for server-side stream.
      * @param method method name
@@ -280,6 +327,10 @@ public class GrpcUtil {
             case GRPC_CONTRACT_ManageContractByVoteReturnReceipt:
             case GRPC_DID_SendDIDTransaction:
             case GRPC_DID_SendDIDTransactionReturnReceipt:
+                if (request.getTransaction() != null) {
+                    boolean deploy = GRPC_CONTRACT_deployContract.equals(method) || GRPC_CONTRACT_deployContractReturnReceipt.equals(method);
+                    return convertTransactionToSendTxArgs(request.getTransaction(), !deploy).toByteString();
+                }
                 return convertRequestParamsToSendTxArgs(params);
             case GRPC_MQ_Register:
             case GRPC_MQ_UnRegister:
@@ -328,6 +379,41 @@ public class GrpcUtil {
         return sendTxArgs.toByteString();
     }
 
+    /**
+     * convert a transaction to grpc SendTxArgs, the same message its {@code commonParamMap} params convert to.
+     * @param transaction transaction
+     * @param withTo      false for deploy, whose params have no "to"
+     * @return {@link Transaction.SendTxArgs}
+     */
+    public static Transaction.SendTxArgs convertTransactionToSendTxArgs(cn.hyperchain.sdk.transaction.Transaction transaction, boolean withTo) {
+        String payload = transaction.getPayload();
+        boolean hasPayload = !Utils.isBlank(payload);
+        Transaction.SendTxArgs.Builder builder = Transaction.SendTxArgs.newBuilder()
+                .setFrom(nullToEmpty(transaction.getFrom()))
+                .setTo(withTo ? nullToEmpty(transaction.getTo()) : "")
+                .setValue(hasPayload ? 0 : transaction.getValue())
+                .setPayload(hasPayload ? payload : "")
+                .setSignature(nullToEmpty(transaction.getSignature()))
+                .setTimestamp(transaction.getTimestamp())
+                .setSimulate(transaction.isSimulate())
+                .setNonce(transaction.getNonce())
+                .setExtra(nullToEmpty(transaction.getExtra()))
+                .setVmType(transaction.getVmType().toString())
+                .setOpcode(transaction.getOpCode())
+                .setCName(nullToEmpty(transaction.getContractName()));
+        if (transaction.getExtraIdLong() != null) {
+            builder.addAllExtraIDInt64Array(transaction.getExtraIdLong());
+        }
+        if (transaction.getExtraIdString() != null) {
+            builder.addAllExtraIDStringArray(transaction.getExtraIdString());
+        }
+        return builder.build();
+    }
+
+    private static String nullToEmpty(String s) {
+        return s == null ? "" : s;
+    }
+
     private static ByteString convertRequestParamToJson(List<Object> params) {
         return ByteString.copyFromUtf8(gson.toJson(params.get(0)));
     }
@@ -293,6 +293,54 @@ public class Chunk {
         return columns[columnIndex].getBytes(cursor);
     }
 
+    /**
+     * get the integers of a whole column at once, independent of the cursor.
+     * The column Type must be TinyInt, Short, Int24, Long, LongLong or Year.
+     *
+     * @param columnIndex columnIndex begin from 0
+     * @return return a value per row, 0 for null, unsigned LongLong as the bits of a signed long
+     */
+    public long[] getLongColumn(int columnIndex) {
+        checkColumnBounds(columnIndex);
+        return columns[columnIndex].getLongs(length, fields[columnIndex]);
+    }
+
+    /**
+     * get the floating point values of a whole column at once, independent of the cursor.
+     * The column Type must be Float, Double or Decimal.
+     *
+     * @param columnIndex columnIndex begin from 0
+     * @return return a value per row, 0 for null
+     */
+    public double[] getDoubleColumn(int columnIndex) {
+        checkColumnBounds(columnIndex);
+        return columns[columnIndex].getDoubles(length, valueDecoder, fields[columnIndex]);
+    }
+
+    /**
+     * get the strings of a whole column at once, independent of the cursor.
+     * Repeated values share one String, the column Type must be a String, Char, Text, Blob, Enum, Set or Json type.
+     *
+     * @param columnIndex columnIndex begin from 0
+     * @return return {@link DictionaryColumn}
+     */
+    public DictionaryColumn getStringColumn(int columnIndex) {
+        checkColumnBounds(columnIndex);
+        return columns[columnIndex].getDictionary(length, fields[columnIndex]);
+    }
+
+    /**
+     * find the next row with a value in a column, reading the null bitmap a byte at a time.
+     *
+     * @param columnIndex columnIndex begin from 0
+     * @param fromRow     first row to look at
+     * @return return the row, -1 if there is none
+     */
+    public int nextNonNullRow(int columnIndex, int fromRow) {
+        checkColumnBounds(columnIndex);
+        return columns[columnIndex].nextNonNull(Math.max(fromRow, 0), length);
+    }
+
     public boolean wasNull() {
         return wasNullFlag;
     }
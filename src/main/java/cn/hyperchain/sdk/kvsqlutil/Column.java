@@ -1,12 +1,21 @@
 package cn.hyperchain.sdk.kvsqlutil;
 
+import cn.hyperchain.sdk.common.utils.Buffer;
+
 import java.math.BigDecimal;
 import java.math.BigInteger;
+import java.util.Arrays;
 
 public class Column {
-    private final byte[] nullBitmap;
-    private final int[] offsets;
     private final byte[] data;
+    private final int dataOffset;
+    private final byte[] nullBitmap;
+    private final int nullBitmapOffset;
+    private int[] offsets;
+    private final int offsetsOffset;
+    private final int offsetsCount;
+    // the buffer a view still has to load its bytes from, cleared once offsets is set
+    private volatile Buffer source;
 
     // Protocol field type numbers
     public static final int FIELD_TYPE_DECIMAL = 0;
@@ -54,15 +63,106 @@ public class Column {
      */
     public Column(byte[] data, byte[] nullBitmap, int[] offsets) {
         this.data = data;
+        this.dataOffset = 0;
         this.nullBitmap = nullBitmap;
+        this.nullBitmapOffset = 0;
         this.offsets = offsets;
+        this.offsetsOffset = 0;
+        this.offsetsCount = 0;
+    }
+
+    /**
+     * create a KVSQLColumn viewing its data and nullBitmap in a buffer without copying them.
+     * The column is loaded from the buffer when it is first read, its little endian INT4 offsets are decoded then.
+     *
+     * @param buffer           buffer of the whole result
+     * @param dataOffset       position of the data
+     * @param nullBitmapOffset position of the nullBitmap, -1 if the column has none
+     * @param offsetsOffset    position of the offsets
+     * @param offsetsCount     number of offsets
+     */
+    public Column(Buffer buffer, int dataOffset, int nullBitmapOffset, int offsetsOffset, int offsetsCount) {
+        this.data = buffer.getByteBuffer();
+        this.dataOffset = dataOffset;
+        this.nullBitmap = nullBitmapOffset < 0 ? null : data;
+        this.nullBitmapOffset = nullBitmapOffset;
+        this.offsetsOffset = offsetsOffset;
+        this.offsetsCount = offsetsCount;
+        this.source = buffer;
+    }
+
+    // columns of a chunk may be read from several threads, the first read loads them once
+    private void load() {
+        if (source == null) {
+            return;
+        }
+        synchronized (this) {
+            if (source != null) {
+                source.load(dataOffset, offsetsOffset + offsetsCount * BIN_LEN_INT4 - dataOffset);
+                // only the small offsets are copied out of the buffer
+                int[] decoded = new int[offsetsCount];
+                for (int i = 0, pos = offsetsOffset; i < offsetsCount; i++, pos += BIN_LEN_INT4) {
+                    decoded[i] = (data[pos] & 0xff) | ((data[pos + 1] & 0xff) << 8) | ((data[pos + 2] & 0xff) << 16) | ((data[pos + 3] & 0xff) << 24);
+                }
+                offsets = decoded;
+                source = null;
+            }
+        }
+    }
+
+    // position of a fixed size value
+    private int at(int rowID, int size) {
+        load();
+        return dataOffset + rowID * size;
+    }
+
+    // position of a variable size value
+    private int start(int rowID) {
+        load();
+        return dataOffset + offsets[rowID];
+    }
+
+    private int length(int rowID) {
+        load();
+        return offsets[rowID + 1] - offsets[rowID];
     }
 
     protected boolean isNull(int rowID) {
-        byte nullByte = nullBitmap[rowID / 8];
+        load();
+        if (nullBitmap == null) {
+            return false;
+        }
+        byte nullByte = nullBitmap[nullBitmapOffset + rowID / 8];
         return (nullByte & (1 << ((rowID) & 7))) == 0;
     }
 
+    /**
+     * find the first row from fromRow that is not null, skipping whole bytes of nulls in the nullBitmap.
+     *
+     * @param fromRow first row to look at
+     * @param rows    row count
+     * @return the row, -1 if there is none
+     */
+    protected int nextNonNull(int fromRow, int rows) {
+        load();
+        if (fromRow >= rows) {
+            return -1;
+        }
+        if (nullBitmap == null) {
+            return fromRow;
+        }
+        int index = fromRow / 8;
+        int bits = (nullBitmap[nullBitmapOffset + index] & 0xff) & (0xff << (fromRow & 7));
+        while (bits == 0) {
+            if (++index * 8 >= rows) {
+                return -1;
+            }
+            bits = nullBitmap[nullBitmapOffset + index] & 0xff;
+        }
+        int row = index * 8 + Integer.numberOfTrailingZeros(bits);
+        return row < rows ? row : -1;
+    }
+
     /**
      * getValue by field type.
      *
@@ -80,41 +180,41 @@ public class Column {
         switch (field.getMysqlTypeId()) {
             case FIELD_TYPE_DATETIME:
             case FIELD_TYPE_TIMESTAMP:
-                return valueDecoder.decodeTimestamp(data, rowID * BIN_LEN_TIMETYPE, BIN_LEN_TIMETYPE, field.colDecimals);
+                return valueDecoder.decodeTimestamp(data, at(rowID, BIN_LEN_TIMETYPE), BIN_LEN_TIMETYPE, field.colDecimals);
 
             case FIELD_TYPE_DATE:
-                return valueDecoder.decodeDate(data, rowID * BIN_LEN_TIMETYPE, BIN_LEN_TIMETYPE);
+                return valueDecoder.decodeDate(data, at(rowID, BIN_LEN_TIMETYPE), BIN_LEN_TIMETYPE);
 
             case FIELD_TYPE_TIME:
-                return valueDecoder.decodeTime(data, rowID * BIN_LEN_TIMETYPE, BIN_LEN_TIMETYPE, field.colDecimals);
+                return valueDecoder.decodeTime(data, at(rowID, BIN_LEN_TIMETYPE), BIN_LEN_TIMETYPE, field.colDecimals);
 
             case FIELD_TYPE_TINY:
-                return field.isUnsigned() ? valueDecoder.decodeUInt1(data, rowID * BIN_LEN_INT1, BIN_LEN_INT1) : valueDecoder.decodeInt1(data, rowID * BIN_LEN_INT1, BIN_LEN_INT1);
+                return field.isUnsigned() ? valueDecoder.decodeUInt1(data, at(rowID, BIN_LEN_INT1), BIN_LEN_INT1) : valueDecoder.decodeInt1(data, at(rowID, BIN_LEN_INT1), BIN_LEN_INT1);
 
             case FIELD_TYPE_YEAR:
-                return valueDecoder.decodeYear(data, rowID * BIN_LEN_INT2, BIN_LEN_INT2);
+                return valueDecoder.decodeYear(data, at(rowID, BIN_LEN_INT2), BIN_LEN_INT2);
 
             case FIELD_TYPE_SHORT:
-                return field.isUnsigned() ? valueDecoder.decodeUInt2(data, rowID * BIN_LEN_INT2, BIN_LEN_INT2) : valueDecoder.decodeInt2(data, rowID * BIN_LEN_INT2, BIN_LEN_INT2);
+                return field.isUnsigned() ? valueDecoder.decodeUInt2(data, at(rowID, BIN_LEN_INT2), BIN_LEN_INT2) : valueDecoder.decodeInt2(data, at(rowID, BIN_LEN_INT2), BIN_LEN_INT2);
 
             case FIELD_TYPE_LONG:
-                return field.isUnsigned() ? valueDecoder.decodeUInt4(data, rowID * BIN_LEN_INT4, BIN_LEN_INT4) : valueDecoder.decodeInt4(data, rowID * BIN_LEN_INT4, BIN_LEN_INT4);
+                return field.isUnsigned() ? valueDecoder.decodeUInt4(data, at(rowID, BIN_LEN_INT4), BIN_LEN_INT4) : valueDecoder.decodeInt4(data, at(rowID, BIN_LEN_INT4), BIN_LEN_INT4);
 
             case FIELD_TYPE_INT24:
-                return valueDecoder.decodeInt4(data, rowID * BIN_LEN_INT4, BIN_LEN_INT4);
+                return valueDecoder.decodeInt4(data, at(rowID, BIN_LEN_INT4), BIN_LEN_INT4);
 
             case FIELD_TYPE_LONGLONG:
-                return field.isUnsigned() ? valueDecoder.decodeUInt8(data, rowID * BIN_LEN_INT8, BIN_LEN_INT8) : valueDecoder.decodeInt8(data, rowID * BIN_LEN_INT8, BIN_LEN_INT8);
+                return field.isUnsigned() ? valueDecoder.decodeUInt8(data, at(rowID, BIN_LEN_INT8), BIN_LEN_INT8) : valueDecoder.decodeInt8(data, at(rowID, BIN_LEN_INT8), BIN_LEN_INT8);
 
             case FIELD_TYPE_FLOAT:
-                return valueDecoder.decodeFloat(data, rowID * BIN_LEN_FLOAT, BIN_LEN_FLOAT);
+                return valueDecoder.decodeFloat(data, at(rowID, BIN_LEN_FLOAT), BIN_LEN_FLOAT);
 
             case FIELD_TYPE_DOUBLE:
-                return valueDecoder.decodeDouble(data, rowID * BIN_LEN_DOUBLE, BIN_LEN_DOUBLE);
+                return valueDecoder.decodeDouble(data, at(rowID, BIN_LEN_DOUBLE), BIN_LEN_DOUBLE);
 
             case FIELD_TYPE_NEWDECIMAL:
             case FIELD_TYPE_DECIMAL:
-                return valueDecoder.decodeDecimal(data, offsets[rowID], offsets[rowID + 1] - offsets[rowID]);
+                return valueDecoder.decodeDecimal(data, start(rowID), length(rowID));
 
             case FIELD_TYPE_VAR_STRING:
             case FIELD_TYPE_VARCHAR:
@@ -128,7 +228,7 @@ public class Column {
             case FIELD_TYPE_BLOB:
             case FIELD_TYPE_GEOMETRY:
             case FIELD_TYPE_BIT:
-                return valueDecoder.decodeByteArray(data, offsets[rowID], offsets[rowID + 1] - offsets[rowID]);
+                return valueDecoder.decodeByteArray(data, start(rowID), length(rowID));
 
             case FIELD_TYPE_NULL:
                 return null;
@@ -138,55 +238,55 @@ public class Column {
     }
 
     protected InternalTime getTime(int rowID, ValueDecoder valueDecoder, KVSQLField field) {
-        return valueDecoder.decodeTime(data, rowID * BIN_LEN_TIMETYPE, BIN_LEN_TIMETYPE, field.colDecimals);
+        return valueDecoder.decodeTime(data, at(rowID, BIN_LEN_TIMETYPE), BIN_LEN_TIMETYPE, field.colDecimals);
     }
 
     protected InternalDate getDate(int rowID, ValueDecoder valueDecoder) {
-        return valueDecoder.decodeDate(data, rowID * BIN_LEN_TIMETYPE, BIN_LEN_TIMETYPE);
+        return valueDecoder.decodeDate(data, at(rowID, BIN_LEN_TIMETYPE), BIN_LEN_TIMETYPE);
     }
 
     protected InternalTimestamp getTimestamp(int rowID, ValueDecoder valueDecoder, KVSQLField field) {
-        return valueDecoder.decodeTimestamp(data, rowID * BIN_LEN_TIMETYPE, BIN_LEN_TIMETYPE, field.colDecimals);
+        return valueDecoder.decodeTimestamp(data, at(rowID, BIN_LEN_TIMETYPE), BIN_LEN_TIMETYPE, field.colDecimals);
     }
 
     protected short getTinyInt(int rowID, ValueDecoder valueDecoder, KVSQLField field) {
-        return field.isUnsigned() ? valueDecoder.decodeUInt1(data, rowID * BIN_LEN_INT1, BIN_LEN_INT1) : valueDecoder.decodeInt1(data, rowID * BIN_LEN_INT1, BIN_LEN_INT1);
+        return field.isUnsigned() ? valueDecoder.decodeUInt1(data, at(rowID, BIN_LEN_INT1), BIN_LEN_INT1) : valueDecoder.decodeInt1(data, at(rowID, BIN_LEN_INT1), BIN_LEN_INT1);
     }
 
     protected short getYear(int rowID, ValueDecoder valueDecoder) {
-        return valueDecoder.decodeYear(data, rowID * BIN_LEN_INT2, BIN_LEN_INT2);
+        return valueDecoder.decodeYear(data, at(rowID, BIN_LEN_INT2), BIN_LEN_INT2);
     }
 
     protected int getShort(int rowID, ValueDecoder valueDecoder, KVSQLField field) {
-        return field.isUnsigned() ? valueDecoder.decodeUInt2(data, rowID * BIN_LEN_INT2, BIN_LEN_INT2) : valueDecoder.decodeInt2(data, rowID * BIN_LEN_INT2, BIN_LEN_INT2);
+        return field.isUnsigned() ? valueDecoder.decodeUInt2(data, at(rowID, BIN_LEN_INT2), BIN_LEN_INT2) : valueDecoder.decodeInt2(data, at(rowID, BIN_LEN_INT2), BIN_LEN_INT2);
     }
 
     protected int getInt24(int rowID, ValueDecoder valueDecoder) {
-        return valueDecoder.decodeInt4(data, rowID * BIN_LEN_INT4, BIN_LEN_INT4);
+        return valueDecoder.decodeInt4(data, at(rowID, BIN_LEN_INT4), BIN_LEN_INT4);
     }
 
     protected long getLong(int rowID, ValueDecoder valueDecoder, KVSQLField field) {
-        return field.isUnsigned() ? valueDecoder.decodeUInt4(data, rowID * BIN_LEN_INT4, BIN_LEN_INT4) : valueDecoder.decodeInt4(data, rowID * BIN_LEN_INT4, BIN_LEN_INT4);
+        return field.isUnsigned() ? valueDecoder.decodeUInt4(data, at(rowID, BIN_LEN_INT4), BIN_LEN_INT4) : valueDecoder.decodeInt4(data, at(rowID, BIN_LEN_INT4), BIN_LEN_INT4);
     }
 
     protected BigInteger getLongLong(int rowID, ValueDecoder valueDecoder, KVSQLField field) {
-        return field.isUnsigned() ? valueDecoder.decodeUInt8(data, rowID * BIN_LEN_INT8, BIN_LEN_INT8) : BigInteger.valueOf(valueDecoder.decodeInt8(data, rowID * BIN_LEN_INT8, BIN_LEN_INT8));
+        return field.isUnsigned() ? valueDecoder.decodeUInt8(data, at(rowID, BIN_LEN_INT8), BIN_LEN_INT8) : BigInteger.valueOf(valueDecoder.decodeInt8(data, at(rowID, BIN_LEN_INT8), BIN_LEN_INT8));
     }
 
     protected float getFloat(int rowID, ValueDecoder valueDecoder) {
-        return valueDecoder.decodeFloat(data, rowID * BIN_LEN_FLOAT, BIN_LEN_FLOAT);
+        return valueDecoder.decodeFloat(data, at(rowID, BIN_LEN_FLOAT), BIN_LEN_FLOAT);
     }
 
     protected double getDouble(int rowID, ValueDecoder valueDecoder) {
-        return valueDecoder.decodeDouble(data, rowID * BIN_LEN_DOUBLE, BIN_LEN_DOUBLE);
+        return valueDecoder.decodeDouble(data, at(rowID, BIN_LEN_DOUBLE), BIN_LEN_DOUBLE);
     }
 
     protected BigDecimal getDecimal(int rowID, ValueDecoder valueDecoder) {
-        return valueDecoder.decodeDecimal(data, offsets[rowID], offsets[rowID + 1] - offsets[rowID]);
+        return valueDecoder.decodeDecimal(data, start(rowID), length(rowID));
     }
 
     protected String getString(int rowID, ValueDecoder valueDecoder) {
-        return new String(valueDecoder.decodeByteArray(data, offsets[rowID], offsets[rowID + 1] - offsets[rowID]));
+        return new String(valueDecoder.decodeByteArray(data, start(rowID), length(rowID)));
     }
 
 
@@ -197,9 +297,166 @@ public class Column {
      * @return return
      */
     protected byte[] getBytes(int rowID) {
-        int len = offsets[rowID + 1] - offsets[rowID];
-        byte[] res = new byte[offsets[rowID + 1] - offsets[rowID]];
-        System.arraycopy(data, offsets[rowID], res, 0, len);
+        int len = length(rowID);
+        byte[] res = new byte[len];
+        System.arraycopy(data, start(rowID), res, 0, len);
         return res;
     }
+
+    /**
+     * decode the integers of all rows, null rows as 0.
+     *
+     * @param rows  row count
+     * @param field field
+     * @return values, unsigned ints widened and unsigned bigint as its two's complement bits
+     */
+    protected long[] getLongs(int rows, KVSQLField field) {
+        int size;
+        boolean signed = !field.isUnsigned();
+        switch (field.getMysqlTypeId()) {
+            case FIELD_TYPE_TINY:
+                size = BIN_LEN_INT1;
+                break;
+            case FIELD_TYPE_YEAR:
+                size = BIN_LEN_INT2;
+                signed = true;
+                break;
+            case FIELD_TYPE_SHORT:
+                size = BIN_LEN_INT2;
+                break;
+            case FIELD_TYPE_INT24:
+                size = BIN_LEN_INT4;
+                signed = true;
+                break;
+            case FIELD_TYPE_LONG:
+                size = BIN_LEN_INT4;
+                break;
+            case FIELD_TYPE_LONGLONG:
+                size = BIN_LEN_INT8;
+                break;
+            default:
+                throw new RuntimeException("Column type " + field.getMysqlTypeId() + " is not an integer type");
+        }
+        int shift = Long.SIZE - size * 8;
+        long[] values = new long[rows];
+        for (int rowID = 0; rowID < rows; rowID++) {
+            if (isNull(rowID)) {
+                continue;
+            }
+            int pos = at(rowID, size);
+            long value = 0;
+            for (int i = size - 1; i >= 0; i--) {
+                value = value << 8 | (data[pos + i] & 0xff);
+            }
+            values[rowID] = signed ? value << shift >> shift : value;
+        }
+        return values;
+    }
+
+    /**
+     * decode the float, double or decimal values of all rows, null rows as 0.
+     *
+     * @param rows         row count
+     * @param valueDecoder valueDecoder
+     * @param field        field
+     * @return values
+     */
+    protected double[] getDoubles(int rows, ValueDecoder valueDecoder, KVSQLField field) {
+        int type = field.getMysqlTypeId();
+        if (type != FIELD_TYPE_FLOAT && type != FIELD_TYPE_DOUBLE && type != FIELD_TYPE_DECIMAL && type != FIELD_TYPE_NEWDECIMAL) {
+            throw new RuntimeException("Column type " + type + " is not a floating point type");
+        }
+        double[] values = new double[rows];
+        for (int rowID = 0; rowID < rows; rowID++) {
+            if (isNull(rowID)) {
+                continue;
+            }
+            if (type == FIELD_TYPE_FLOAT) {
+                values[rowID] = getFloat(rowID, valueDecoder);
+            } else if (type == FIELD_TYPE_DOUBLE) {
+                values[rowID] = getDouble(rowID, valueDecoder);
+            } else {
+                values[rowID] = getDecimal(rowID, valueDecoder).doubleValue();
+            }
+        }
+        return values;
+    }
+
+    /**
+     * decode the strings of all rows into a dictionary, one String per distinct value.
+     *
+     * @param rows  row count
+     * @param field field
+     * @return {@link DictionaryColumn}
+     */
+    protected DictionaryColumn getDictionary(int rows, KVSQLField field) {
+        switch (field.getMysqlTypeId()) {
+            case FIELD_TYPE_VAR_STRING:
+            case FIELD_TYPE_VARCHAR:
+            case FIELD_TYPE_STRING:
+            case FIELD_TYPE_ENUM:
+            case FIELD_TYPE_SET:
+            case FIELD_TYPE_JSON:
+            case FIELD_TYPE_TINY_BLOB:
+            case FIELD_TYPE_MEDIUM_BLOB:
+            case FIELD_TYPE_LONG_BLOB:
+            case FIELD_TYPE_BLOB:
+                break;
+            default:
+                throw new RuntimeException("Column type " + field.getMysqlTypeId() + " is not a string type");
+        }
+        int tableBits = 4;
+        while (1 << tableBits < rows * 2) {
+            tableBits++;
+        }
+        int tableSize = 1 << tableBits;
+        // open addressing over the bytes of each value, a slot holds the id of the value + 1
+        int[] table = new int[tableSize];
+        int[] firstRows = new int[16];
+        int count = 0;
+        int[] ids = new int[rows];
+        for (int rowID = 0; rowID < rows; rowID++) {
+            if (isNull(rowID)) {
+                ids[rowID] = -1;
+                continue;
+            }
+            int start = start(rowID);
+            int length = length(rowID);
+            int hash = 1;
+            for (int i = start; i < start + length; i++) {
+                hash = 31 * hash + data[i];
+            }
+            // fibonacci hashing spreads values that differ in their last bytes only
+            int slot = (hash * 0x9E3779B9) >>> (Integer.SIZE - tableBits);
+            while (table[slot] != 0 && !sameValue(firstRows[table[slot] - 1], start, length)) {
+                slot = (slot + 1) & (tableSize - 1);
+            }
+            if (table[slot] == 0) {
+                if (count == firstRows.length) {
+                    firstRows = Arrays.copyOf(firstRows, count * 2);
+                }
+                firstRows[count] = rowID;
+                table[slot] = ++count;
+            }
+            ids[rowID] = table[slot] - 1;
+        }
+        String[] values = new String[count];
+        for (int id = 0; id < count; id++) {
+            values[id] = new String(data, start(firstRows[id]), length(firstRows[id]));
+        }
+        return new DictionaryColumn(ids, values);
+    }
+
+    private boolean sameValue(int rowID, int start, int length) {
+        if (length(rowID) != length) {
+            return false;
+        }
+        int other = start(rowID);
+        for (int i = 0; i < length; i++) {
+            if (data[other + i] != data[start + i]) {
+                return false;
+            }
+        }
+        return true;
+    }
 }
@@ -0,0 +1,48 @@
+package cn.hyperchain.sdk.kvsqlutil;
+
+/**
+ * DictionaryColumn holds the strings of a column dictionary encoded:
+ * every distinct value once, and for every row the id of its value, -1 for null.
+ */
+public final class DictionaryColumn {
+    private final int[] ids;
+    private final String[] values;
+
+    DictionaryColumn(int[] ids, String[] values) {
+        this.ids = ids;
+        this.values = values;
+    }
+
+    /**
+     * get the value of a row.
+     *
+     * @param rowID rowID
+     * @return return String value, null for null
+     */
+    public String get(int rowID) {
+        int id = ids[rowID];
+        return id < 0 ? null : values[id];
+    }
+
+    /**
+     * get the id of the value of every row.
+     *
+     * @return ids into {@link #getValues()}, -1 for null
+     */
+    public int[] getIds() {
+        return ids;
+    }
+
+    /**
+     * get the distinct values, in the order of their first row.
+     *
+     * @return values
+     */
+    public String[] getValues() {
+        return values;
+    }
+
+    public int size() {
+        return ids.length;
+    }
+}
@@ -0,0 +1,112 @@
+package cn.hyperchain.sdk.metrics;
+
+import cn.hyperchain.sdk.provider.PStatus;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * maps sdk events to counters, timers and gauges with dotted names and key value tags,
+ * the shape Micrometer and OpenTelemetry meters take, e.g. for Micrometer:
+ * <pre>
+ * new MeterSdkMetrics() {
+ *     protected void count(String name, long amount, String... tags) {
+ *         registry.counter(name, tags).increment(amount);
+ *     }
+ *     protected void time(String name, long nanos, String... tags) {
+ *         registry.timer(name, tags).record(nanos, TimeUnit.NANOSECONDS);
+ *     }
+ *     protected void gauge(String name, long value, String... tags) {
+ *         gauges.computeIfAbsent(name + Arrays.toString(tags), k -&gt; registry.gauge(name, Tags.of(tags), new AtomicLong())).set(value);
+ *     }
+ * };
+ * </pre>
+ */
+public abstract class MeterSdkMetrics implements SdkMetrics {
+    public static final String REQUEST_DURATION = "litesdk.request.duration";
+    public static final String REQUEST_IN_FLIGHT = "litesdk.request.inflight";
+    public static final String REQUEST_FAILOVER = "litesdk.request.failover";
+    public static final String REQUEST_RETRY = "litesdk.request.retry";
+    public static final String PROVIDER_STATUS = "litesdk.provider.status";
+    public static final String GRPC_STREAMS = "litesdk.grpc.streams";
+    public static final String GRPC_STREAM_IN_FLIGHT = "litesdk.grpc.stream.inflight";
+    public static final String GRPC_STREAM_WAITING = "litesdk.grpc.stream.waiting";
+    public static final String POLLING_ATTEMPT = "litesdk.polling.attempt";
+    public static final String BYTES_SENT = "litesdk.bytes.sent";
+    public static final String BYTES_RECEIVED = "litesdk.bytes.received";
+
+    private final Map<String, AtomicLong> inFlight = new ConcurrentHashMap<>();
+
+    /**
+     * add to a monotonic counter.
+     * @param name meter name
+     * @param amount increment
+     * @param tags tag keys and values, alternating
+     */
+    protected abstract void count(String name, long amount, String... tags);
+
+    /**
+     * record a latency into a timer or histogram.
+     * @param name meter name
+     * @param nanos latency
+     * @param tags tag keys and values, alternating
+     */
+    protected abstract void time(String name, long nanos, String... tags);
+
+    /**
+     * set the current value of a gauge.
+     * @param name meter name
+     * @param value current value
+     * @param tags tag keys and values, alternating
+     */
+    protected abstract void gauge(String name, long value, String... tags);
+
+    @Override
+    public void onRequestStart(String provider, String method) {
+        gauge(REQUEST_IN_FLIGHT, inFlight.computeIfAbsent(provider, k -> new AtomicLong()).incrementAndGet(), "provider", provider);
+    }
+
+    @Override
+    public void onRequestEnd(String provider, String method, long nanos, boolean success) {
+        gauge(REQUEST_IN_FLIGHT, inFlight.computeIfAbsent(provider, k -> new AtomicLong()).decrementAndGet(), "provider", provider);
+        time(REQUEST_DURATION, nanos, "provider", provider, "method", method, "outcome", success ? "success" : "failure");
+    }
+
+    @Override
+    public void onFailover(String provider, String method) {
+        count(REQUEST_FAILOVER, 1, "provider", provider, "method", method);
+    }
+
+    @Override
+    public void onRetry(String method, int code) {
+        count(REQUEST_RETRY, 1, "method", method, "code", String.valueOf(code));
+    }
+
+    @Override
+    public void onStatusChange(String provider, PStatus from, PStatus to) {
+        count(PROVIDER_STATUS, 1, "provider", provider, "from", from.name(), "to", to.name());
+    }
+
+    @Override
+    public void onStreamPool(String provider, String method, int streams, int inFlight, int waiting) {
+        gauge(GRPC_STREAMS, streams, "provider", provider, "method", method);
+        gauge(GRPC_STREAM_IN_FLIGHT, inFlight, "provider", provider, "method", method);
+        gauge(GRPC_STREAM_WAITING, waiting, "provider", provider, "method", method);
+    }
+
+    @Override
+    public void onPollingAttempt(String method) {
+        count(POLLING_ATTEMPT, 1, "method", method);
+    }
+
+    @Override
+    public void onBytesSent(String provider, long bytes) {
+        count(BYTES_SENT, bytes, "provider", provider);
+    }
+
+    @Override
+    public void onBytesReceived(String provider, long bytes) {
+        count(BYTES_RECEIVED, bytes, "provider", provider);
+    }
+}
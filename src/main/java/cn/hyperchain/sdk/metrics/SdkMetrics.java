@@ -0,0 +1,92 @@
+package cn.hyperchain.sdk.metrics;
+
+import cn.hyperchain.sdk.provider.PStatus;
+
+/**
+ * SdkMetrics receives what the sdk does on the wire, set it with
+ * {@link cn.hyperchain.sdk.provider.ProviderManager.Builder#metrics(SdkMetrics)}.
+ * Every method does nothing by default, so an implementation only overrides what it records.
+ * Methods are called on request and transport threads, they must be cheap and must not block.
+ * Nodes are identified by their url.
+ */
+public interface SdkMetrics {
+    SdkMetrics NOOP = new SdkMetrics() {
+    };
+
+    /**
+     * a request is sent to a node.
+     * @param provider node url
+     * @param method json rpc method
+     */
+    default void onRequestStart(String provider, String method) {
+    }
+
+    /**
+     * the node answered a request or the request failed.
+     * @param provider node url
+     * @param method json rpc method
+     * @param nanos latency
+     * @param success whether the node answered
+     */
+    default void onRequestEnd(String provider, String method, long nanos, boolean success) {
+    }
+
+    /**
+     * a request is sent to the next node after the network to this one failed.
+     * @param provider the failed node url
+     * @param method json rpc method
+     */
+    default void onFailover(String provider, String method) {
+    }
+
+    /**
+     * a request is sent again after the node rejected it.
+     * @param method json rpc method
+     * @param code the error code of the rejection
+     */
+    default void onRetry(String method, int code) {
+    }
+
+    /**
+     * a node changed its {@link PStatus}.
+     * @param provider node url
+     * @param from old status
+     * @param to new status
+     */
+    default void onStatusChange(String provider, PStatus from, PStatus to) {
+    }
+
+    /**
+     * the grpc stream pool of a method changed.
+     * @param provider node url
+     * @param method grpc method
+     * @param streams open streams
+     * @param inFlight requests holding a stream
+     * @param waiting requests waiting for a stream
+     */
+    default void onStreamPool(String provider, String method, int streams, int inFlight, int waiting) {
+    }
+
+    /**
+     * one more attempt to get receipts.
+     * @param method json rpc method
+     */
+    default void onPollingAttempt(String method) {
+    }
+
+    /**
+     * a request body was written.
+     * @param provider node url
+     * @param bytes body size
+     */
+    default void onBytesSent(String provider, long bytes) {
+    }
+
+    /**
+     * a response body was read.
+     * @param provider node url
+     * @param bytes body size
+     */
+    default void onBytesReceived(String provider, long bytes) {
+    }
+}
@@ -0,0 +1,99 @@
+package cn.hyperchain.sdk.provider;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * per-node circuit breaker of {@link ProviderManager}.
+ * A closed breaker lets requests through and counts consecutive network failures,
+ * at failureThreshold it opens and the node leaves the rotation.
+ * An open breaker is probed by a single scheduled health check, half-open while the probe runs,
+ * and closes as soon as the node answers. Probes back off exponentially with jitter up to maxBackoff.
+ */
+public class CircuitBreaker {
+    public enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+
+    private final int failureThreshold;
+    private final long minBackoff;
+    private final long maxBackoff;
+    private final AtomicInteger failures = new AtomicInteger();
+    // guarded by this
+    private volatile State state = State.CLOSED;
+    private long backoff;
+
+    /**
+     * create a closed circuit breaker.
+     * @param failureThreshold consecutive network failures that open the breaker
+     * @param minBackoff unit ms, delay before the first probe
+     * @param maxBackoff unit ms, max delay between two probes
+     */
+    public CircuitBreaker(int failureThreshold, long minBackoff, long maxBackoff) {
+        if (failureThreshold <= 0 || minBackoff <= 0 || maxBackoff < minBackoff) {
+            throw new IllegalArgumentException("failureThreshold and minBackoff must be positive, maxBackoff can't be less than minBackoff");
+        }
+        this.failureThreshold = failureThreshold;
+        this.minBackoff = minBackoff;
+        this.maxBackoff = maxBackoff;
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    /**
+     * a request to the node succeeded.
+     */
+    public void onSuccess() {
+        if (failures.get() != 0) {
+            failures.set(0);
+        }
+    }
+
+    /**
+     * a request to the node failed with a network problem.
+     * @return true if the breaker opened now, the caller then schedules the first probe
+     */
+    public synchronized boolean onFailure() {
+        if (state != State.CLOSED || failures.incrementAndGet() < failureThreshold) {
+            return false;
+        }
+        state = State.OPEN;
+        backoff = 0;
+        return true;
+    }
+
+    /**
+     * a probe starts.
+     */
+    public synchronized void onProbe() {
+        state = State.HALF_OPEN;
+    }
+
+    /**
+     * the probe finished.
+     * @param success whether the node answered
+     */
+    public synchronized void onProbeResult(boolean success) {
+        if (success) {
+            state = State.CLOSED;
+            failures.set(0);
+            backoff = 0;
+        } else {
+            state = State.OPEN;
+        }
+    }
+
+    /**
+     * get the delay before the next probe, doubled after every failed probe.
+     * @return unit ms, between half and all of the current backoff
+     */
+    public synchronized long nextProbeDelay() {
+        backoff = backoff == 0 ? minBackoff : Math.min(backoff * 2, maxBackoff);
+        long half = backoff / 2;
+        return half + ThreadLocalRandom.current().nextLong(backoff - half + 1);
+    }
+}
@@ -4,6 +4,10 @@ import cn.hyperchain.sdk.account.Account;
 import cn.hyperchain.sdk.common.utils.HttpsUtils;
 import cn.hyperchain.sdk.exception.RequestException;
 import cn.hyperchain.sdk.exception.RequestExceptionCode;
+import cn.hyperchain.sdk.metrics.SdkMetrics;
+import com.google.gson.JsonParseException;
+import okhttp3.Call;
+import okhttp3.Callback;
 import okhttp3.CipherSuite;
 import okhttp3.ConnectionSpec;
 import okhttp3.MediaType;
@@ -18,12 +22,18 @@ import okhttp3.Response;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import java.io.ByteArrayOutputStream;
+import java.io.FilterInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InputStreamReader;
 import java.lang.reflect.Constructor;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
 
 public class DefaultHttpProvider implements HttpProvider {
@@ -36,7 +46,9 @@ public class DefaultHttpProvider implements HttpProvider {
     protected volatile PStatus status;
     protected String httpPrefix;
     protected Account account;
-    
+    protected final ProviderStats stats = new ProviderStats();
+    protected SdkMetrics metrics = SdkMetrics.NOOP;
+
     protected DefaultHttpProvider() {
     }
 
@@ -53,16 +65,13 @@ public class DefaultHttpProvider implements HttpProvider {
     public static class Builder {
         protected DefaultHttpProvider defaultHttpProvider;
         protected OkHttpClient.Builder builder = new OkHttpClient.Builder();
+        private HttpTransport transport;
 
         /**
          * create http provider builder.
          */
         public Builder() {
-            builder.readTimeout(20, TimeUnit.SECONDS)
-                    .writeTimeout(20, TimeUnit.SECONDS)
-                    .connectTimeout(20, TimeUnit.SECONDS);
-            defaultHttpProvider = new DefaultHttpProvider();
-            defaultHttpProvider.httpPrefix = HTTP;
+            this(20, 20, 20);
         }
 
         /**
@@ -73,11 +82,7 @@ public class DefaultHttpProvider implements HttpProvider {
          * @param connectTimeout connectTimeout
          */
         public Builder(int readTimeout, int writeTimeout, int connectTimeout) {
-            builder.readTimeout(readTimeout, TimeUnit.SECONDS)
-                    .writeTimeout(writeTimeout, TimeUnit.SECONDS)
-                    .connectTimeout(connectTimeout, TimeUnit.SECONDS);
-            defaultHttpProvider = new DefaultHttpProvider();
-            defaultHttpProvider.httpPrefix = HTTP;
+            this(readTimeout, writeTimeout, connectTimeout, new DefaultHttpProvider());
         }
 
         /**
@@ -114,13 +119,34 @@ public class DefaultHttpProvider implements HttpProvider {
          * @return @return {@link Builder}
          */
         public Builder https(InputStream tlsCa, InputStream tlsPeerCert, InputStream tlsPeerPriv) {
-            HttpsUtils.SSLParams sslSocketFactory = HttpsUtils.getSslSocketFactory(tlsCa, tlsPeerCert, tlsPeerPriv, HttpsUtils.DEFAULT_PASSWORD);
-            builder.sslSocketFactory(sslSocketFactory.getsSLSocketFactory(), sslSocketFactory.getTrustManager())
+            return https(HttpsUtils.getSslSocketFactory(tlsCa, tlsPeerCert, tlsPeerPriv, HttpsUtils.DEFAULT_PASSWORD));
+        }
+
+        /**
+         * use https protocol with loaded certificates, so they are not loaded again for every provider.
+         * @param sslParams result of {@link HttpsUtils#getSslSocketFactory(InputStream, InputStream, InputStream, String)}
+         * @return {@link Builder}
+         */
+        public Builder https(HttpsUtils.SSLParams sslParams) {
+            builder.sslSocketFactory(sslParams.getsSLSocketFactory(), sslParams.getTrustManager())
                     .hostnameVerifier(HttpsUtils.hyperchainVerifier());
             defaultHttpProvider.httpPrefix = HTTPS;
             return this;
         }
 
+        /**
+         * share the dispatcher of a transport, {@link HttpTransport#getDefault()} if not set.
+         * @param transport http transport
+         * @return {@link Builder}
+         */
+        public Builder transport(HttpTransport transport) {
+            if (transport == null) {
+                throw new IllegalArgumentException("transport can't be null");
+            }
+            this.transport = transport;
+            return this;
+        }
+
         /**
          * use inspector.
          * @param defaultAccount the account to send request.
@@ -140,6 +166,8 @@ public class DefaultHttpProvider implements HttpProvider {
          * @return {@link DefaultHttpProvider}
          */
         public DefaultHttpProvider build() {
+            HttpTransport httpTransport = transport == null ? HttpTransport.getDefault() : transport;
+            httpTransport.apply(builder, HTTPS.equals(defaultHttpProvider.httpPrefix));
             defaultHttpProvider.httpClient = builder.build();
             defaultHttpProvider.status = PStatus.NORMAL;
             return defaultHttpProvider;
@@ -148,47 +176,165 @@ public class DefaultHttpProvider implements HttpProvider {
 
     @Override
     public String post(cn.hyperchain.sdk.request.Request rawRequest) throws RequestException {
+        return (String) execute(rawRequest, false);
+    }
+
+    @Override
+    public Object postStreaming(cn.hyperchain.sdk.request.Request rawRequest) throws RequestException {
+        return execute(rawRequest, rawRequest.isStreamingResponse());
+    }
+
+    @Override
+    public CompletableFuture<Object> postAsync(cn.hyperchain.sdk.request.Request rawRequest) {
+        CompletableFuture<Object> future = new CompletableFuture<>();
+        boolean streaming = rawRequest.isStreamingResponse();
+        this.httpClient.newCall(newRequest(rawRequest)).enqueue(new Callback() {
+            @Override
+            public void onFailure(Call call, IOException exception) {
+                future.completeExceptionally(DefaultHttpProvider.this.onFailure(exception));
+            }
+
+            @Override
+            public void onResponse(Call call, Response response) {
+                try {
+                    future.complete(DefaultHttpProvider.this.onResponse(rawRequest, response, streaming));
+                } catch (RequestException | RuntimeException e) {
+                    future.completeExceptionally(e);
+                }
+            }
+        });
+        return future;
+    }
+
+    private Object execute(cn.hyperchain.sdk.request.Request rawRequest, boolean streaming) throws RequestException {
+        Request request = newRequest(rawRequest);
+        Response response;
+        try {
+            response = this.httpClient.newCall(request).execute();
+        } catch (IOException exception) {
+            throw onFailure(exception);
+        }
+        return onResponse(rawRequest, response, streaming);
+    }
+
+    private Request newRequest(cn.hyperchain.sdk.request.Request rawRequest) {
         Map<String, String> headers = rawRequest.getHeaders();
         String body = rawRequest.requestBody();
-        RequestBody requestBody = RequestBody.create(JSON, body);
+        byte[] bodyBytes = body.getBytes(StandardCharsets.UTF_8);
+        RequestBody requestBody = RequestBody.create(JSON, bodyBytes);
         Headers.Builder headerBuilder = new Headers.Builder();
         for (Map.Entry<String, String> entry : headers.entrySet()) {
             headerBuilder.add(entry.getKey(), entry.getValue());
         }
-        Response response;
-        Request request = getBuilderHead()
+
+        if (logger.isDebugEnabled()) {
+            logger.debug("[REQUEST] url: " + httpPrefix + url);
+            logger.debug("[REQUEST] " + body);
+        }
+        metrics.onBytesSent(url, bodyBytes.length);
+
+        return getBuilderHead()
                 .url(httpPrefix + url)
                 .headers(headerBuilder.build())
                 .post(requestBody)
                 .build();
+    }
 
-        logger.debug("[REQUEST] url: " + httpPrefix + url);
-        logger.debug("[REQUEST] " + body);
+    /**
+     * mark the node abnormal after a connection failure.
+     *
+     * @param exception cause
+     * @return exception to report
+     */
+    protected RequestException onFailure(IOException exception) {
+        setStatus(PStatus.ABNORMAL);
+        logger.error("Connect the node " + url + " failed. The reason is " + exception.getMessage() + ". Please check. Now try send other node...");
+        return new RequestException(RequestExceptionCode.NETWORK_PROBLEM);
+    }
 
+    // the body String, or the response decoded by the request while the body is read when streaming
+    private Object onResponse(cn.hyperchain.sdk.request.Request rawRequest, Response response, boolean streaming) throws RequestException {
         try {
-            response = this.httpClient.newCall(request).execute();
-        } catch (IOException exception) {
-            this.status = PStatus.ABNORMAL;
-            logger.error("Connect the node " + url + " failed. The reason is " + exception.getMessage() + ". Please check. Now try send other node...");
-            throw new RequestException(RequestExceptionCode.NETWORK_PROBLEM);
-        }
-        if (response.isSuccessful()) {
-            try {
-                String result = response.body().string();
-                logger.debug("[RESPONSE] " + result);
-                return result;
-            } catch (IOException exception) {
-                this.status = PStatus.ABNORMAL;
-                logger.error("get response from " + url + " failed. The reason is " + exception.getMessage() + ". Please check. Now try send other node...");
-                throw new RequestException(RequestExceptionCode.NETWORK_GETBODY_FAILED);
+            if (response.isSuccessful()) {
+                MediaType contentType = response.body().contentType();
+                Charset charset = contentType != null ? contentType.charset(StandardCharsets.UTF_8) : StandardCharsets.UTF_8;
+                // a copy of the body is only kept when it is logged
+                CountingInputStream in = new CountingInputStream(response.body().byteStream(), logger.isDebugEnabled());
+                try {
+                    Object result = streaming ? rawRequest.readResponse(new InputStreamReader(in, charset)) : in.readString(charset);
+                    long length = response.body().contentLength();
+                    // chunked responses have no length, count the bytes read instead
+                    metrics.onBytesReceived(url, length >= 0 ? length : in.count);
+                    return result;
+                } catch (IOException | JsonParseException exception) {
+                    setStatus(PStatus.ABNORMAL);
+                    logger.error("get response from " + url + " failed. The reason is " + exception.getMessage() + ". Please check. Now try send other node...");
+                    throw new RequestException(RequestExceptionCode.NETWORK_GETBODY_FAILED);
+                } finally {
+                    if (in.copy != null) {
+                        logger.debug("[RESPONSE] " + new String(in.copy.toByteArray(), charset));
+                    }
+                }
+            } else {
+                String errMsg = response.message();
+                logger.error("Request failed, the reason is : " + errMsg);
+                if (errMsg.matches("^(Request Entity Too Large).*")) {
+                    throw new RequestException(-9995, errMsg.trim());
+                }
+                throw new RequestException(-9996, errMsg.trim());
             }
-        } else {
-            String errMsg = response.message();
-            logger.error("Request failed, the reason is : " + errMsg);
-            if (errMsg.matches("^(Request Entity Too Large).*")) {
-                throw new RequestException(-9995, errMsg.trim());
+        } finally {
+            response.close();
+        }
+    }
+
+    private static class CountingInputStream extends FilterInputStream {
+        private long count;
+        private final ByteArrayOutputStream copy;
+
+        CountingInputStream(InputStream in, boolean keepCopy) {
+            super(in);
+            this.copy = keepCopy ? new ByteArrayOutputStream() : null;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                count++;
+                if (copy != null) {
+                    copy.write(b);
+                }
             }
-            throw new RequestException(-9996, errMsg.trim());
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buf, int off, int len) throws IOException {
+            int n = super.read(buf, off, len);
+            if (n > 0) {
+                count += n;
+                if (copy != null) {
+                    copy.write(buf, off, n);
+                }
+            }
+            return n;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            byte[] buf = new byte[(int) Math.min(n, 8192)];
+            int read = n > 0 ? read(buf, 0, buf.length) : 0;
+            return Math.max(read, 0);
+        }
+
+        String readString(Charset charset) throws IOException {
+            ByteArrayOutputStream body = new ByteArrayOutputStream();
+            byte[] buf = new byte[8192];
+            for (int n; (n = read(buf, 0, buf.length)) != -1; ) {
+                body.write(buf, 0, n);
+            }
+            return new String(body.toByteArray(), charset);
         }
     }
 
@@ -199,7 +345,14 @@ public class DefaultHttpProvider implements HttpProvider {
 
     @Override
     public void setStatus(PStatus status) {
-        this.status = status;
+        PStatus old;
+        synchronized (this) {
+            old = this.status;
+            this.status = status;
+        }
+        if (old != null && old != status) {
+            metrics.onStatusChange(url, old, status);
+        }
     }
 
     @Override
@@ -212,6 +365,11 @@ public class DefaultHttpProvider implements HttpProvider {
         return account;
     }
 
+    @Override
+    public ProviderStats getStats() {
+        return stats;
+    }
+
     public void setUrl(String url) {
         this.url = url;
     }
@@ -219,4 +377,8 @@ public class DefaultHttpProvider implements HttpProvider {
     public void setAccount(Account account) {
         this.account = account;
     }
+
+    public void setMetrics(SdkMetrics metrics) {
+        this.metrics = metrics;
+    }
 }
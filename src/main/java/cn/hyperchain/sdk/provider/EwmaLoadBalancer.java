@@ -0,0 +1,29 @@
+package cn.hyperchain.sdk.provider;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * power of two choices over the latency average: pick two random candidate nodes
+ * and send to the one with the lower {@link ProviderStats#getLoad()}.
+ * Slow nodes get less traffic without every client herding onto the same fastest node.
+ */
+public class EwmaLoadBalancer implements LoadBalancer {
+
+    @Override
+    public HttpProvider select(List<HttpProvider> providers) {
+        int size = providers.size();
+        if (size == 1) {
+            return providers.get(0);
+        }
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int a = random.nextInt(size);
+        int b = random.nextInt(size - 1);
+        if (b >= a) {
+            b++;
+        }
+        HttpProvider first = providers.get(a);
+        HttpProvider second = providers.get(b);
+        return first.getStats().getLoad() <= second.getStats().getLoad() ? first : second;
+    }
+}
@@ -1,10 +1,13 @@
 package cn.hyperchain.sdk.provider;
 
 import cn.hyperchain.sdk.common.utils.FileExtra;
+import cn.hyperchain.sdk.common.utils.HttpsUtils;
 import cn.hyperchain.sdk.exception.RequestException;
 import cn.hyperchain.sdk.exception.RequestExceptionCode;
 import cn.hyperchain.sdk.request.FileTransferRequest;
 import cn.hyperchain.sdk.response.filemgr.FileDownloadResponse;
+import okhttp3.Call;
+import okhttp3.Callback;
 import okhttp3.Headers;
 import okhttp3.MediaType;
 import okhttp3.RequestBody;
@@ -17,6 +20,7 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.RandomAccessFile;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 public class FileMgrHttpProvider extends DefaultHttpProvider {
     private FileMgrHttpProvider() {
@@ -69,6 +73,28 @@ public class FileMgrHttpProvider extends DefaultHttpProvider {
             return this;
         }
 
+        /**
+         * use https protocol with loaded certificates.
+         *
+         * @param sslParams loaded certificates
+         * @return {@link FileMgrHttpProvider.Builder}
+         */
+        public Builder https(HttpsUtils.SSLParams sslParams) {
+            super.https(sslParams);
+            return this;
+        }
+
+        /**
+         * share the dispatcher of a transport.
+         *
+         * @param transport http transport
+         * @return {@link FileMgrHttpProvider.Builder}
+         */
+        public Builder transport(HttpTransport transport) {
+            super.transport(transport);
+            return this;
+        }
+
         /**
          * get default http provider instance.
          *
@@ -81,65 +107,103 @@ public class FileMgrHttpProvider extends DefaultHttpProvider {
 
     @Override
     public String post(cn.hyperchain.sdk.request.Request rawRequest) throws RequestException {
-        if (rawRequest instanceof FileTransferRequest) {
-            FileTransferRequest fileTransferRequest = (FileTransferRequest) rawRequest;
-            fileTransferRequest.build();
-            Map<String, String> headers = fileTransferRequest.getHeaders();
-            String body = fileTransferRequest.requestBody();
-            okhttp3.Request request = null;
-            Response response;
-            Headers.Builder headerBuilder = new Headers.Builder();
-            for (Map.Entry<String, String> entry : headers.entrySet()) {
-                headerBuilder.add(entry.getKey(), entry.getValue());
-            }
+        FileTransferRequest fileTransferRequest = checkRequest(rawRequest);
+        Response response;
+        try {
+            response = this.httpClient.newCall(newRequest(fileTransferRequest)).execute();
+        } catch (IOException exception) {
+            throw onFailure(exception);
+        }
+        return onResponse(fileTransferRequest, response);
+    }
 
-            logger.debug("[REQUEST] url: " + httpPrefix + url);
-            logger.debug("[REQUEST] " + body);
-
-            if (fileTransferRequest.getType() == FileTransferRequest.FileRequestType.DOWNLOAD) {
-                request = getBuilderHead()
-                        .url(httpPrefix + url)
-                        .headers(headerBuilder.build())
-                        .build();
-            } else if (fileTransferRequest.getType() == FileTransferRequest.FileRequestType.UPLOAD) {
-                request = getBuilderHead()
-                        .url(httpPrefix + url)
-                        .headers(headerBuilder.build())
-                        .post(createFileUploadRequestBody(STREAM, fileTransferRequest.getRandomAccessFile()))
-                        .build();
-            }
-            try {
-                response = this.httpClient.newCall(request).execute();
-            } catch (IOException exception) {
-                this.status = PStatus.ABNORMAL;
-                logger.error("Connect the node " + url + " failed. The reason is " + exception.getMessage() + ". Please check. Now try send other node...");
-                throw new RequestException(RequestExceptionCode.NETWORK_PROBLEM);
+    @Override
+    public Object postStreaming(cn.hyperchain.sdk.request.Request rawRequest) throws RequestException {
+        return post(rawRequest);
+    }
+
+    @Override
+    public CompletableFuture<Object> postAsync(cn.hyperchain.sdk.request.Request rawRequest) {
+        CompletableFuture<Object> future = new CompletableFuture<>();
+        FileTransferRequest fileTransferRequest = checkRequest(rawRequest);
+        this.httpClient.newCall(newRequest(fileTransferRequest)).enqueue(new Callback() {
+            @Override
+            public void onFailure(Call call, IOException exception) {
+                future.completeExceptionally(FileMgrHttpProvider.this.onFailure(exception));
             }
-            if (response.isSuccessful()) {
-                if (fileTransferRequest.getType() == FileTransferRequest.FileRequestType.DOWNLOAD
-                        && response.body().contentType().subtype().equals("octet-stream")) {
-                    return streamFileStorage(fileTransferRequest.getRandomAccessFile(), response, fileTransferRequest.getFileHash(), fileTransferRequest.getPos()).toJson();
-                } else {
-                    try {
-                        String result = response.body().string();
-                        logger.debug("[RESPONSE] " + result);
-                        return result;
-                    } catch (IOException exception) {
-                        this.status = PStatus.ABNORMAL;
-                        logger.error("get response from " + url + " failed. The reason is " + exception.getMessage() + ". Please check. Now try send other node...");
-                        throw new RequestException(RequestExceptionCode.NETWORK_GETBODY_FAILED);
-                    }
+
+            @Override
+            public void onResponse(Call call, Response response) {
+                try {
+                    future.complete(FileMgrHttpProvider.this.onResponse(fileTransferRequest, response));
+                } catch (RequestException e) {
+                    future.completeExceptionally(e);
                 }
+            }
+        });
+        return future;
+    }
+
+    private FileTransferRequest checkRequest(cn.hyperchain.sdk.request.Request rawRequest) {
+        if (rawRequest instanceof FileTransferRequest) {
+            return (FileTransferRequest) rawRequest;
+        } else {
+            throw new IllegalArgumentException("FileMgrHttpProvider only post FileMgrRequest.");
+        }
+    }
+
+    private okhttp3.Request newRequest(FileTransferRequest fileTransferRequest) {
+        fileTransferRequest.build();
+        Map<String, String> headers = fileTransferRequest.getHeaders();
+        String body = fileTransferRequest.requestBody();
+        okhttp3.Request request = null;
+        Headers.Builder headerBuilder = new Headers.Builder();
+        for (Map.Entry<String, String> entry : headers.entrySet()) {
+            headerBuilder.add(entry.getKey(), entry.getValue());
+        }
+
+        logger.debug("[REQUEST] url: " + httpPrefix + url);
+        logger.debug("[REQUEST] " + body);
+
+        if (fileTransferRequest.getType() == FileTransferRequest.FileRequestType.DOWNLOAD) {
+            request = getBuilderHead()
+                    .url(httpPrefix + url)
+                    .headers(headerBuilder.build())
+                    .build();
+        } else if (fileTransferRequest.getType() == FileTransferRequest.FileRequestType.UPLOAD) {
+            request = getBuilderHead()
+                    .url(httpPrefix + url)
+                    .headers(headerBuilder.build())
+                    .post(createFileUploadRequestBody(STREAM, fileTransferRequest.getRandomAccessFile()))
+                    .build();
+        }
+        return request;
+    }
+
+    private String onResponse(FileTransferRequest fileTransferRequest, Response response) throws RequestException {
+        if (response.isSuccessful()) {
+            if (fileTransferRequest.getType() == FileTransferRequest.FileRequestType.DOWNLOAD
+                    && response.body().contentType().subtype().equals("octet-stream")) {
+                return streamFileStorage(fileTransferRequest.getRandomAccessFile(), response, fileTransferRequest.getFileHash(), fileTransferRequest.getPos()).toJson();
             } else {
-                String errMsg = response.message();
-                logger.error("FileMgr request failed, the reason is : " + errMsg);
-                if (errMsg.matches("^(Request Entity Too Large).*")) {
-                    throw new RequestException(-9995, errMsg.trim());
+                try {
+                    String result = response.body().string();
+                    logger.debug("[RESPONSE] " + result);
+                    return result;
+                } catch (IOException exception) {
+                    setStatus(PStatus.ABNORMAL);
+                    logger.error("get response from " + url + " failed. The reason is " + exception.getMessage() + ". Please check. Now try send other node...");
+                    throw new RequestException(RequestExceptionCode.NETWORK_GETBODY_FAILED);
                 }
-                throw new RequestException(-9996, errMsg.trim());
             }
         } else {
-            throw new IllegalArgumentException("FileMgrHttpProvider only post FileMgrRequest.");
+            String errMsg = response.message();
+            response.close();
+            logger.error("FileMgr request failed, the reason is : " + errMsg);
+            if (errMsg.matches("^(Request Entity Too Large).*")) {
+                throw new RequestException(-9995, errMsg.trim());
+            }
+            throw new RequestException(-9996, errMsg.trim());
         }
     }
 
@@ -179,9 +243,9 @@ public class FileMgrHttpProvider extends DefaultHttpProvider {
         // check file hash
         String hash;
         try {
-            hash = FileExtra.getFileMD5String(randomAccessFile);
+            hash = FileExtra.getFileHashString(randomAccessFile, FileExtra.HashAlgo.of(fileHash));
         } catch (Exception e) {
-            return new FileDownloadResponse(-9993, "download failed, getFileMD5String failed");
+            return new FileDownloadResponse(-9993, "download failed, getFileHashString failed");
         }
         if (!fileHash.equals(hash)) {
             logger.debug(fileHash);
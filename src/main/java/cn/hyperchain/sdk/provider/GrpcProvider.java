@@ -1,21 +1,30 @@
 package cn.hyperchain.sdk.provider;
 
 import cn.hyperchain.sdk.account.Account;
+import cn.hyperchain.sdk.common.utils.Async;
 import cn.hyperchain.sdk.exception.RequestException;
 import cn.hyperchain.sdk.exception.RequestExceptionCode;
 import cn.hyperchain.sdk.grpc.Transaction.CommonReq;
 import cn.hyperchain.sdk.grpc.Transaction.CommonRes;
 import cn.hyperchain.sdk.grpc.GrpcUtil;
+import cn.hyperchain.sdk.metrics.SdkMetrics;
 import cn.hyperchain.sdk.request.Request;
+import cn.hyperchain.sdk.transaction.Transaction;
 import io.grpc.Channel;
 import io.grpc.ManagedChannelBuilder;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
-import org.bouncycastle.util.encoders.Hex;
 
+import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
 
 
 public class GrpcProvider implements HttpProvider {
@@ -23,13 +32,18 @@ public class GrpcProvider implements HttpProvider {
     protected String url;
     protected volatile PStatus status;
     protected Account account;
+    protected final ProviderStats stats = new ProviderStats();
+    protected SdkMetrics metrics = SdkMetrics.NOOP;
 
     private long connectTimeout;
 
     private Map<String, CopyOnWriteArrayList<StreamManager>> streamPool;
+    private Map<String, Queue<CompletableFuture<StreamManager>>> streamWaiters;
     private int streamNum;
+    private int maxPendingPerStream;
     protected Channel channel;
     private static Logger logger = LogManager.getLogger(GrpcProvider.class);
+    private static final int DEFAULT_MAX_PENDING_PER_STREAM = 1;
 
     private GrpcProvider() {
     }
@@ -43,6 +57,7 @@ public class GrpcProvider implements HttpProvider {
         public Builder() {
             grpcProvider = new GrpcProvider();
             grpcProvider.setStreamNum(1);
+            grpcProvider.setMaxPendingPerStream(DEFAULT_MAX_PENDING_PER_STREAM);
             grpcProvider.setConnectTimeout(3000);
         }
 
@@ -53,6 +68,7 @@ public class GrpcProvider implements HttpProvider {
         public Builder(long time) {
             grpcProvider = new GrpcProvider();
             grpcProvider.setStreamNum(1);
+            grpcProvider.setMaxPendingPerStream(DEFAULT_MAX_PENDING_PER_STREAM);
             grpcProvider.setConnectTimeout(time);
         }
 
@@ -66,6 +82,22 @@ public class GrpcProvider implements HttpProvider {
             return this;
         }
 
+        /**
+         * set how many requests may wait for their response on one stream at the same time, 1 by default.
+         * Responses are matched to requests by transaction hash, but an error response carries none,
+         * so with several outstanding one such error fails every request on the stream.
+         * Raise it only for nodes that answer each stream strictly in order with a hash in every response.
+         * @param maxPendingPerStream max outstanding requests per stream, 1 sends one request at a time
+         * @return {@link Builder}
+         */
+        public Builder setMaxPendingPerStream(int maxPendingPerStream) {
+            if (maxPendingPerStream < 1) {
+                throw new IllegalArgumentException("maxPendingPerStream must be positive");
+            }
+            grpcProvider.setMaxPendingPerStream(maxPendingPerStream);
+            return this;
+        }
+
         public Builder setConnectTimeout(long connectTimeout) {
             this.setConnectTimeout(connectTimeout);
             return this;
@@ -79,7 +111,8 @@ public class GrpcProvider implements HttpProvider {
             Channel channel = ManagedChannelBuilder.forTarget(grpcProvider.getUrl()).usePlaintext().build();
             grpcProvider.setChannel(channel);
             grpcProvider.setStatus(PStatus.NORMAL);
-            grpcProvider.streamPool = new HashMap<>();
+            grpcProvider.streamPool = new ConcurrentHashMap<>();
+            grpcProvider.streamWaiters = new HashMap<>();
             return grpcProvider;
         }
     }
@@ -92,6 +125,10 @@ public class GrpcProvider implements HttpProvider {
         this.streamNum = streamNum;
     }
 
+    public void setMaxPendingPerStream(int maxPendingPerStream) {
+        this.maxPendingPerStream = maxPendingPerStream;
+    }
+
     public void setConnectTimeout(long connectTimeout) {
         this.connectTimeout = connectTimeout;
     }
@@ -105,92 +142,212 @@ public class GrpcProvider implements HttpProvider {
         this.channel = channel;
     }
 
-    private StreamManager getStreamManager(String method) throws RequestException {
-        CopyOnWriteArrayList<StreamManager> streamManagers = streamPool.get(method);
-        if (streamManagers == null) {
-            streamManagers = new CopyOnWriteArrayList<>();
-            streamPool.put(method, streamManagers);
+    public void setMetrics(SdkMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    /**
+     * take a stream of the method for one request, open a new one if the pool is not full,
+     * or queue up for the next slot released by {@link #releaseStream(StreamManager)}.
+     */
+    private synchronized CompletableFuture<StreamManager> acquireStream(String method) {
+        try {
+            StreamManager streamManager = reserveStream(method);
+            if (streamManager != null) {
+                setStatus(PStatus.NORMAL);
+                reportStreamPool(method);
+                return CompletableFuture.completedFuture(streamManager);
+            }
+        } catch (RequestException e) {
+            return Async.failed(e);
+        }
+        setStatus(PStatus.BUSY);
+        CompletableFuture<StreamManager> waiter = new CompletableFuture<>();
+        streamWaiters.computeIfAbsent(method, k -> new ArrayDeque<>()).add(waiter);
+        reportStreamPool(method);
+        return waiter;
+    }
+
+    private void reportStreamPool(String method) {
+        if (metrics == SdkMetrics.NOOP) {
+            return;
         }
-        while (true) {
+        List<StreamManager> streamManagers = streamPool.get(method);
+        Queue<CompletableFuture<StreamManager>> waiters = streamWaiters.get(method);
+        int streams = 0;
+        int inFlight = 0;
+        if (streamManagers != null) {
             for (StreamManager streamManager : streamManagers) {
-                if (streamManager != null && streamManager.isNormal() && !streamManager.isUsed()) {
-                    synchronized (this) {
-                        if (!streamManager.isUsed()) {
-                            streamManager.setUsed(true);
-                            status = PStatus.NORMAL;
-                            return streamManager;
-                        }
-                    }
-                }
-                if (streamManager == null || !streamManager.isNormal()) {
+                streams++;
+                inFlight += streamManager.getUsed();
+            }
+        }
+        metrics.onStreamPool(url, method, streams, inFlight, waiters == null ? 0 : waiters.size());
+    }
+
+    /**
+     * reserve a slot on an idle stream, a new stream, or the least loaded stream below maxPendingPerStream.
+     * @return the stream, null if every stream is full
+     */
+    private StreamManager reserveStream(String method) throws RequestException {
+        CopyOnWriteArrayList<StreamManager> streamManagers = streamPool.computeIfAbsent(method, k -> new CopyOnWriteArrayList<>());
+        streamManagers.removeIf(streamManager -> !streamManager.isNormal());
+        StreamManager least = null;
+        for (StreamManager streamManager : streamManagers) {
+            if (!streamManager.isUsed()) {
+                streamManager.setUsed(1);
+                return streamManager;
+            }
+            if (least == null || streamManager.getUsed() < least.getUsed()) {
+                least = streamManager;
+            }
+        }
+        if (streamManagers.size() < streamNum) {
+            return newStream(method);
+        }
+        if (least != null && least.getUsed() < maxPendingPerStream) {
+            least.setUsed(least.getUsed() + 1);
+            return least;
+        }
+        return null;
+    }
+
+    private StreamManager newStream(String method) throws RequestException {
+        StreamManager streamManager = new StreamManager(method, this);
+        if (!streamManager.isNormal()) {
+            streamPool.clear();
+            setStatus(PStatus.ABNORMAL);
+            throw new RequestException(RequestExceptionCode.GRPC_STREAM_FAILED, "the node " + url + " is bad.");
+        }
+        streamManager.setUsed(1);
+        streamPool.computeIfAbsent(method, k -> new CopyOnWriteArrayList<>()).add(streamManager);
+        setStatus(PStatus.NORMAL);
+        return streamManager;
+    }
+
+    private void releaseStream(StreamManager streamManager) {
+        List<CompletableFuture<StreamManager>> failed = new ArrayList<>();
+        CompletableFuture<StreamManager> waiter;
+        StreamManager next = null;
+        RequestException error = null;
+        synchronized (this) {
+            streamManager.setUsed(streamManager.getUsed() - 1);
+            if (!streamManager.isNormal()) {
+                CopyOnWriteArrayList<StreamManager> streamManagers = streamPool.get(streamManager.method);
+                if (streamManagers != null) {
                     streamManagers.remove(streamManager);
                 }
             }
-            synchronized (this) {
-                if (streamManagers.size() < streamNum) {
-                    StreamManager streamManager = new StreamManager(method, this);
-                    if (!streamManager.isNormal()) {
-                        streamPool.clear();
-                        status = PStatus.ABNORMAL;
-                        throw new RequestException(RequestExceptionCode.GRPC_STREAM_FAILED, "the node " + url + " is bad.");
-                    }
-                    streamManager.setUsed(true);
-                    streamManagers.add(streamManager);
-                    status = PStatus.NORMAL;
-                    return streamManager;
-                }
+            Queue<CompletableFuture<StreamManager>> waiters = streamWaiters.get(streamManager.method);
+            if (waiters == null || waiters.isEmpty()) {
+                reportStreamPool(streamManager.method);
+                return;
             }
             try {
-                status = PStatus.BUSY;
-                Thread.sleep(50);
-            } catch (Exception e) {
-                logger.error(e);
+                next = reserveStream(streamManager.method);
+            } catch (RequestException e) {
+                error = e;
             }
+            if (next == null && error == null) {
+                reportStreamPool(streamManager.method);
+                return;
+            }
+            waiter = waiters.poll();
+            if (error != null) {
+                failed.addAll(waiters);
+                waiters.clear();
+            }
+            if (waiters.isEmpty() && status == PStatus.BUSY) {
+                setStatus(PStatus.NORMAL);
+            }
+            reportStreamPool(streamManager.method);
         }
-    }
-
-    private Manager getManager(Request request) throws RequestException {
-        if (GrpcUtil.isSimpleGrpc(request.getMethod())) {
-            request.setJson(true);
-            return new Manager(request.getMethod(), this);
-        } else if (GrpcUtil.isServerStreamGrpc(request.getMethod())) {
-            request.setJson(true);
-            return new ServerStreamManager(request.getMethod(), this);
+        if (error != null) {
+            waiter.completeExceptionally(error);
+            for (CompletableFuture<StreamManager> future : failed) {
+                future.completeExceptionally(error);
+            }
         } else {
-            return getStreamManager(request.getMethod());
+            waiter.complete(next);
         }
     }
 
-    @Override
-    public Object post(Request request) throws RequestException {
+    private CommonReq newCommonReq(Request request) {
         Map<String, String> headers = request.getHeaders();
         CommonReq commonReq = GrpcUtil.convertRequestToCommonReq(request);
         String tcert = headers.get("tcert") == null ? "" : headers.get("tcert");
         String signature = headers.get("signature") == null ? "" : headers.get("signature");
         commonReq = commonReq.toBuilder().setTCert(tcert).setSignature(signature).build();
 
-        logger.debug("[REQUEST] grpc url: " + url);
-        logger.debug("[REQUEST] " + request.requestBody());
+        if (logger.isDebugEnabled()) {
+            logger.debug("[REQUEST] grpc url: " + url);
+            logger.debug("[REQUEST] " + request.requestBody());
+        }
+        metrics.onBytesSent(url, commonReq.getSerializedSize());
+        return commonReq;
+    }
 
-        CommonRes commonRes = null;
+    @Override
+    public Object post(Request request) throws RequestException {
         try {
-            Manager manager = getManager(request);
-            Object object = manager.onNext(commonReq);
-            if (object instanceof CommonRes) {
-                commonRes = (CommonRes) object;
-                if (manager instanceof StreamManager) {
-                    ((StreamManager) manager).setUsed(false);
-                }
+            return postAsync(request).get();
+        } catch (ExecutionException e) {
+            Throwable cause = Async.unwrap(e);
+            if (cause instanceof RequestException) {
+                throw (RequestException) cause;
+            }
+            throw new RequestException(RequestExceptionCode.GRPC_REQUEST_FAILED, cause.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RequestException(RequestExceptionCode.GRPC_REQUEST_FAILED, e.getMessage());
+        }
+    }
+
+    @Override
+    public CompletableFuture<Object> postAsync(Request request) {
+        CompletableFuture<Object> future;
+        try {
+            CommonReq commonReq = newCommonReq(request);
+            String method = request.getMethod();
+            if (GrpcUtil.isSimpleGrpc(method)) {
+                request.setJson(true);
+                future = GrpcUtil.getCommonResFutureByMethod(method, channel, commonReq).thenApply(this::received);
+            } else if (GrpcUtil.isServerStreamGrpc(method)) {
+                request.setJson(true);
+                future = CompletableFuture.completedFuture(new ServerStreamManager(method, this).onNext(commonReq));
             } else {
-                return object;
+                String txHash = txHash(request);
+                future = acquireStream(method).thenCompose(streamManager -> streamManager.onNextAsync(commonReq, txHash)
+                        .whenComplete((commonRes, e) -> releaseStream(streamManager)))
+                        .thenApply(this::received);
             }
         } catch (RequestException e) {
-            if (e.getCode().equals(RequestExceptionCode.GRPC_STREAM_FAILED.getCode())) {
+            future = Async.failed(e);
+        }
+        return future.whenComplete((result, e) -> {
+            Throwable cause = e == null ? null : Async.unwrap(e);
+            if (cause instanceof RequestException && ((RequestException) cause).getCode().equals(RequestExceptionCode.GRPC_STREAM_FAILED.getCode())) {
                 this.setStatus(PStatus.ABNORMAL);
             }
-            throw e;
+        });
+    }
+
+    private static String txHash(Request request) {
+        Transaction transaction = request.getTransaction();
+        if (transaction == null) {
+            return null;
+        }
+        try {
+            return transaction.getTransactionHash();
+        } catch (RuntimeException e) {
+            return null;
         }
-        return Hex.toHexString(commonRes.toByteArray());
+    }
+
+    // the CommonRes itself goes back to the request, it is decoded there without another serialization
+    private Object received(CommonRes commonRes) {
+        metrics.onBytesReceived(url, commonRes.getSerializedSize());
+        return commonRes;
     }
 
 
@@ -201,7 +358,14 @@ public class GrpcProvider implements HttpProvider {
 
     @Override
     public void setStatus(PStatus status) {
-        this.status = status;
+        PStatus old;
+        synchronized (this) {
+            old = this.status;
+            this.status = status;
+        }
+        if (old != null && old != status) {
+            metrics.onStatusChange(url, old, status);
+        }
     }
 
     @Override
@@ -214,6 +378,11 @@ public class GrpcProvider implements HttpProvider {
         return account;
     }
 
+    @Override
+    public ProviderStats getStats() {
+        return stats;
+    }
+
     public Channel getChannel() {
         return channel;
     }
@@ -1,10 +1,11 @@
 package cn.hyperchain.sdk.provider;
 
 import cn.hyperchain.sdk.account.Account;
+import cn.hyperchain.sdk.common.utils.Async;
 import cn.hyperchain.sdk.exception.RequestException;
 import cn.hyperchain.sdk.request.Request;
 
-import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * HttpProvider interface.
@@ -14,6 +15,27 @@ import java.util.Map;
 public interface HttpProvider {
     Object post(Request request) throws RequestException;
 
+    /**
+     * post the request and let it decode its response while the body is read, if the provider can.
+     * The default returns the result of {@link #post(Request)}, which the request decodes afterwards.
+     * @param request request
+     * @return the decoded {@link cn.hyperchain.sdk.response.Response}, or what {@link #post(Request)} returns
+     * @throws RequestException -
+     */
+    default Object postStreaming(Request request) throws RequestException {
+        return post(request);
+    }
+
+    /**
+     * post the request without blocking the calling thread.
+     * The default runs the blocking {@link #postStreaming(Request)} on the shared executor of {@link Async}.
+     * @param request request
+     * @return future completed with the same result as {@link #postStreaming(Request)}, or failed with its {@link RequestException}
+     */
+    default CompletableFuture<Object> postAsync(Request request) {
+        return Async.supply(() -> postStreaming(request));
+    }
+
     PStatus getStatus();
 
     void setStatus(PStatus status);
@@ -21,4 +43,13 @@ public interface HttpProvider {
     String getUrl();
 
     Account getAccount();
+
+    /**
+     * get the routing statistics of this provider.
+     * The default keeps one instance per provider object, providers with their own bookkeeping override it.
+     * @return {@link ProviderStats}
+     */
+    default ProviderStats getStats() {
+        return ProviderStats.of(this);
+    }
 }
@@ -0,0 +1,179 @@
+package cn.hyperchain.sdk.provider;
+
+import okhttp3.ConnectionPool;
+import okhttp3.Dispatcher;
+import okhttp3.Interceptor;
+import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okio.Buffer;
+import okio.BufferedSink;
+import okio.GzipSink;
+import okio.Okio;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * HttpTransport is the dispatcher that http providers share, and the settings of their connection pools.
+ * Every provider built with the same transport runs its async requests on the same dispatcher threads,
+ * while keeping its own connection pool, timeouts and tls settings. Providers built without one use {@link #getDefault()}.
+ * Responses are always gzip decoded when the node compresses them, and okio pools the buffers they are read into.
+ */
+public class HttpTransport {
+    private static final List<Protocol> TLS_PROTOCOLS = Collections.unmodifiableList(Arrays.asList(Protocol.HTTP_2, Protocol.HTTP_1_1));
+    private static volatile HttpTransport defaultTransport;
+
+    private Dispatcher dispatcher;
+    private int maxIdleConnections;
+    private long keepAlive;
+    private boolean http2PriorKnowledge;
+    private boolean gzipRequests;
+
+    private HttpTransport() {
+    }
+
+    /**
+     * get the transport shared by providers built without one.
+     * @return {@link HttpTransport}
+     */
+    public static HttpTransport getDefault() {
+        if (defaultTransport == null) {
+            synchronized (HttpTransport.class) {
+                if (defaultTransport == null) {
+                    defaultTransport = new Builder().build();
+                }
+            }
+        }
+        return defaultTransport;
+    }
+
+    public static class Builder {
+        private int maxIdleConnections = 5;
+        private long keepAlive = TimeUnit.MINUTES.toMillis(5);
+        private int maxRequests = 256;
+        private int maxRequestsPerHost = 64;
+        private boolean http2PriorKnowledge;
+        private boolean gzipRequests;
+
+        /**
+         * set how many idle connections each provider keeps and for how long.
+         * @param maxIdleConnections max idle connections of one provider
+         * @param keepAlive unit ms, idle time before a connection is closed
+         * @return {@link Builder}
+         */
+        public Builder connectionPool(int maxIdleConnections, long keepAlive) {
+            if (maxIdleConnections < 0 || keepAlive <= 0) {
+                throw new IllegalArgumentException("maxIdleConnections can't be negative and keepAlive must be positive");
+            }
+            this.maxIdleConnections = maxIdleConnections;
+            this.keepAlive = keepAlive;
+            return this;
+        }
+
+        /**
+         * set how many async requests run at the same time, more are queued.
+         * @param maxRequests max requests of all providers
+         * @param maxRequestsPerHost max requests to one host
+         * @return {@link Builder}
+         */
+        public Builder maxRequests(int maxRequests, int maxRequestsPerHost) {
+            if (maxRequests <= 0 || maxRequestsPerHost <= 0) {
+                throw new IllegalArgumentException("maxRequests and maxRequestsPerHost must be positive");
+            }
+            this.maxRequests = maxRequests;
+            this.maxRequestsPerHost = maxRequestsPerHost;
+            return this;
+        }
+
+        /**
+         * talk HTTP/2 to plain http nodes without upgrading, only for nodes that support it.
+         * https nodes negotiate HTTP/2 during the handshake anyway.
+         * @return {@link Builder}
+         */
+        public Builder http2PriorKnowledge() {
+            this.http2PriorKnowledge = true;
+            return this;
+        }
+
+        /**
+         * gzip json request bodies, only for nodes that accept Content-Encoding: gzip.
+         * @return {@link Builder}
+         */
+        public Builder gzipRequests() {
+            this.gzipRequests = true;
+            return this;
+        }
+
+        /**
+         * return http transport instance.
+         * @return {@link HttpTransport}
+         */
+        public HttpTransport build() {
+            HttpTransport transport = new HttpTransport();
+            transport.dispatcher = new Dispatcher();
+            transport.dispatcher.setMaxRequests(maxRequests);
+            transport.dispatcher.setMaxRequestsPerHost(maxRequestsPerHost);
+            transport.maxIdleConnections = maxIdleConnections;
+            transport.keepAlive = keepAlive;
+            transport.http2PriorKnowledge = http2PriorKnowledge;
+            transport.gzipRequests = gzipRequests;
+            return transport;
+        }
+    }
+
+    /**
+     * let a provider client share the dispatcher, it gets a connection pool of its own.
+     * @param builder client builder of the provider
+     * @param tls whether the provider uses https
+     * @return {@link OkHttpClient.Builder}
+     */
+    OkHttpClient.Builder apply(OkHttpClient.Builder builder, boolean tls) {
+        builder.dispatcher(dispatcher)
+                .connectionPool(new ConnectionPool(maxIdleConnections, keepAlive, TimeUnit.MILLISECONDS));
+        if (http2PriorKnowledge) {
+            builder.protocols(tls ? TLS_PROTOCOLS : Collections.singletonList(Protocol.H2_PRIOR_KNOWLEDGE));
+        }
+        if (gzipRequests) {
+            builder.addInterceptor(new GzipRequestInterceptor());
+        }
+        return builder;
+    }
+
+    /**
+     * get the dispatcher the providers share.
+     * @return {@link Dispatcher}
+     */
+    public Dispatcher getDispatcher() {
+        return dispatcher;
+    }
+
+    private static class GzipRequestInterceptor implements Interceptor {
+        private static final String JSON_SUBTYPE = "json";
+
+        @Override
+        public okhttp3.Response intercept(Chain chain) throws IOException {
+            Request request = chain.request();
+            RequestBody body = request.body();
+            if (body == null || request.header("Content-Encoding") != null
+                    || body.contentType() == null || !JSON_SUBTYPE.equals(body.contentType().subtype())) {
+                return chain.proceed(request);
+            }
+            Buffer buffer = new Buffer();
+            try (BufferedSink gzip = Okio.buffer(new GzipSink(buffer))) {
+                body.writeTo(gzip);
+            }
+            MediaType contentType = body.contentType();
+            RequestBody gzipped = RequestBody.create(contentType, buffer.readByteString());
+            return chain.proceed(request.newBuilder()
+                    .header("Content-Encoding", "gzip")
+                    .method(request.method(), gzipped)
+                    .build());
+        }
+    }
+}
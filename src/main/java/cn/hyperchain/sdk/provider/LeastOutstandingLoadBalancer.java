@@ -0,0 +1,28 @@
+package cn.hyperchain.sdk.provider;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * send requests to the candidate node with the fewest in-flight requests,
+ * ties are broken from a random start so idle nodes share the traffic.
+ */
+public class LeastOutstandingLoadBalancer implements LoadBalancer {
+
+    @Override
+    public HttpProvider select(List<HttpProvider> providers) {
+        int size = providers.size();
+        int start = ThreadLocalRandom.current().nextInt(size);
+        HttpProvider best = null;
+        int bestInFlight = Integer.MAX_VALUE;
+        for (int i = 0; i < size; i++) {
+            HttpProvider provider = providers.get((start + i) % size);
+            int inFlight = provider.getStats().getInFlight();
+            if (inFlight < bestInFlight) {
+                best = provider;
+                bestInFlight = inFlight;
+            }
+        }
+        return best;
+    }
+}
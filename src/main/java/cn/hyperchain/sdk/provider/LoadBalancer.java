@@ -0,0 +1,18 @@
+package cn.hyperchain.sdk.provider;
+
+import java.util.List;
+
+/**
+ * LoadBalancer chooses the node a request is sent to.
+ * {@link ProviderManager} calls it with the healthy nodes that have not been tried yet for the request,
+ * so an implementation only has to rank them, e.g. by {@link HttpProvider#getStats()}.
+ */
+public interface LoadBalancer {
+    /**
+     * choose a node.
+     *
+     * @param providers candidate nodes, never empty
+     * @return one of the candidates
+     */
+    HttpProvider select(List<HttpProvider> providers);
+}
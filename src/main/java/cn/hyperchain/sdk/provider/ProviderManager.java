@@ -9,6 +9,7 @@ import cn.hyperchain.sdk.exception.RequestException;
 import cn.hyperchain.sdk.exception.RequestExceptionCode;
 import cn.hyperchain.sdk.grpc.Transaction.CommonReq;
 import cn.hyperchain.sdk.grpc.GrpcUtil;
+import cn.hyperchain.sdk.metrics.SdkMetrics;
 import cn.hyperchain.sdk.request.FileTransferRequest;
 import cn.hyperchain.sdk.request.NodeRequest;
 import cn.hyperchain.sdk.request.Request;
@@ -33,6 +34,10 @@ import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
 
 /**
  * ProviderManager responsible for load balancing, encapsulating headers, etc.
@@ -46,6 +51,13 @@ public class ProviderManager {
     private List<HttpProvider> fileMgrHttpProviders;
     private boolean isCFCA;
     private boolean enableGRPC;
+    private LoadBalancer loadBalancer = new EwmaLoadBalancer();
+    private ReceiptWaiter receiptWaiter = new ReceiptWaiter(this, 50, 100);
+    private SdkMetrics metrics = SdkMetrics.NOOP;
+    private int failureThreshold = 1;
+    private long minProbeBackoff = 100;
+    private long maxProbeBackoff = 20000;
+    private final Map<HttpProvider, CircuitBreaker> circuitBreakers = new ConcurrentHashMap<>();
     private static Gson gson = new GsonBuilder().excludeFieldsWithoutExposeAnnotation().create();
 
     private ProviderManager() {
@@ -150,6 +162,60 @@ public class ProviderManager {
             return this;
         }
 
+        /**
+         * set the strategy used to choose a node for each request, {@link EwmaLoadBalancer} by default.
+         * @param loadBalancer load balancer, e.g. {@link RoundRobinLoadBalancer} or {@link LeastOutstandingLoadBalancer}
+         * @return {@link Builder}
+         */
+        public Builder loadBalancer(LoadBalancer loadBalancer) {
+            if (loadBalancer == null) {
+                throw new IllegalArgumentException("load balancer can't be null");
+            }
+            providerManager.loadBalancer = loadBalancer;
+            return this;
+        }
+
+        /**
+         * set how receipts are waited for, see {@link ReceiptWaiter}.
+         * @param interval unit ms, the time between two batch receipt requests
+         * @param maxBatch max tx hashes in one batch receipt request
+         * @return {@link Builder}
+         */
+        public Builder receiptWaiter(long interval, int maxBatch) {
+            providerManager.receiptWaiter = new ReceiptWaiter(providerManager, interval, maxBatch);
+            return this;
+        }
+
+        /**
+         * set when a node leaves the rotation and how it is probed until it answers again, see {@link CircuitBreaker}.
+         * @param failureThreshold consecutive network failures before the node leaves the rotation, 1 by default
+         * @param minBackoff unit ms, delay before the first probe, 100 by default
+         * @param maxBackoff unit ms, max delay between two probes, 20000 by default
+         * @return {@link Builder}
+         */
+        public Builder circuitBreaker(int failureThreshold, long minBackoff, long maxBackoff) {
+            if (failureThreshold <= 0 || minBackoff <= 0 || maxBackoff < minBackoff) {
+                throw new IllegalArgumentException("failureThreshold and minBackoff must be positive, maxBackoff can't be less than minBackoff");
+            }
+            providerManager.failureThreshold = failureThreshold;
+            providerManager.minProbeBackoff = minBackoff;
+            providerManager.maxProbeBackoff = maxBackoff;
+            return this;
+        }
+
+        /**
+         * record latency, failover, retries and traffic of every node, see {@link SdkMetrics}.
+         * @param metrics metrics, {@link SdkMetrics#NOOP} by default
+         * @return {@link Builder}
+         */
+        public Builder metrics(SdkMetrics metrics) {
+            if (metrics == null) {
+                throw new IllegalArgumentException("metrics can't be null");
+            }
+            providerManager.metrics = metrics;
+            return this;
+        }
+
         /**
          * set provider manager's namespace.
          * @param namespace namespace
@@ -165,6 +231,9 @@ public class ProviderManager {
          * @return {@link ProviderManager}
          */
         public ProviderManager build() {
+            providerManager.bindMetrics(providerManager.httpProviders);
+            providerManager.bindMetrics(providerManager.grpcProviders);
+            providerManager.bindMetrics(providerManager.fileMgrHttpProviders);
             setTxVersion(providerManager);
             providerManager.setLocalChainID();
             return providerManager;
@@ -192,6 +261,19 @@ public class ProviderManager {
         return providerManager;
     }
 
+    private void bindMetrics(List<HttpProvider> providers) {
+        if (providers == null) {
+            return;
+        }
+        for (HttpProvider provider : providers) {
+            if (provider instanceof DefaultHttpProvider) {
+                ((DefaultHttpProvider) provider).setMetrics(metrics);
+            } else if (provider instanceof GrpcProvider) {
+                ((GrpcProvider) provider).setMetrics(metrics);
+            }
+        }
+    }
+
     private List<HttpProvider> checkIds(List<HttpProvider> httpProviders, int... ids) throws RequestException {
         // use all with null
         if (ids == null || ids.length == 0) {
@@ -217,64 +299,172 @@ public class ProviderManager {
      * @throws RequestException -
      */
     public Object send(Request request, int... ids) throws RequestException {
+        List<HttpProvider> hProviders = route(request, ids);
+        int providerSize = hProviders.size();
+        for (int i = 0; i < providerSize; i++) {
+            HttpProvider hProvider = selectProvider(hProviders, request);
+            if (hProvider == null) {
+                break;
+            }
+            prepare(request, hProvider, hProviders);
+            try {
+                return sendTo(request, hProvider);
+            } catch (RequestException e) {
+                //todo grpc在某些情况下也需要重连（等其他接口服务恢复之后添加）
+                if (e.getCode().equals(RequestExceptionCode.NETWORK_GETBODY_FAILED.getCode())) {
+                    logger.debug("send to provider: " + hProvider.getUrl() + " failed");
+                    metrics.onFailover(hProvider.getUrl(), request.getMethod());
+                    onNetworkFailure(hProvider);
+                    continue;
+                }
+                // throw other exception
+                throw e;
+            }
+        }
+        logger.error("All nodes are bad, please check it or wait for reconnecting successfully!");
+        throw new AllNodesBadException("No node to connect!");
+    }
+
+    /**
+     * send request to node without blocking the calling thread.
+     * Failover to the next node happens in the returned future's stages, the same way as {@link #send(Request, int...)}.
+     * @param request request
+     * @param ids specific ids
+     * @return future of the response, failed with {@link RequestException} or {@link AllNodesBadException}
+     */
+    public CompletableFuture<Object> sendAsync(Request request, int... ids) {
         List<HttpProvider> hProviders;
+        try {
+            hProviders = route(request, ids);
+        } catch (RequestException e) {
+            return Async.failed(e);
+        }
+        return sendAsync(request, hProviders, 0);
+    }
+
+    private CompletableFuture<Object> sendAsync(Request request, List<HttpProvider> hProviders, int attempt) {
+        HttpProvider hProvider = attempt < hProviders.size() ? selectProvider(hProviders, request) : null;
+        if (hProvider == null) {
+            logger.error("All nodes are bad, please check it or wait for reconnecting successfully!");
+            return Async.failed(new AllNodesBadException("No node to connect!"));
+        }
+        CompletableFuture<Object> future;
+        prepare(request, hProvider, hProviders);
+        try {
+            future = sendToAsync(request, hProvider);
+        } catch (RequestException e) {
+            future = Async.failed(e);
+        }
+        return future.handle((result, e) -> {
+            if (e == null) {
+                return CompletableFuture.completedFuture(result);
+            }
+            Throwable cause = Async.unwrap(e);
+            if (cause instanceof RequestException && ((RequestException) cause).getCode().equals(RequestExceptionCode.NETWORK_GETBODY_FAILED.getCode())) {
+                logger.debug("send to provider: " + hProvider.getUrl() + " failed");
+                metrics.onFailover(hProvider.getUrl(), request.getMethod());
+                onNetworkFailure(hProvider);
+                // the failure may complete on the timer thread, sign and send to the next node on the executor
+                return Async.supply(() -> sendAsync(request, hProviders, attempt + 1)).thenCompose(Function.identity());
+            }
+            return Async.<Object>failed(cause);
+        }).thenCompose(Function.identity());
+    }
+
+    private List<HttpProvider> route(Request request, int... ids) throws RequestException {
         if (request instanceof FileTransferRequest) {
-            hProviders = checkIds(fileMgrHttpProviders, ids);
+            return checkIds(fileMgrHttpProviders, ids);
         } else if (enableGRPC && GrpcUtil.isGRPCMethod(request.getMethod()) && !(request instanceof SendBatchTxsRequest)) {
             GrpcUtil.handMethodPrefix(request);
             request.setGRPC(true);
-            hProviders = checkIds(grpcProviders, ids);
+            return checkIds(grpcProviders, ids);
         } else {
             if (GrpcUtil.isOnlyGRPCMethod(request.getMethod())) {
                 throw new RequestException(RequestExceptionCode.GRPC_SERVICE_WRONG);
             }
             request.setGRPC(false);
-            hProviders = checkIds(httpProviders, ids);
+            return checkIds(httpProviders, ids);
         }
-        int providerSize = hProviders.size();
-        int startIndex = Utils.randInt(1, providerSize);
-        boolean flag = true;
-        for (int i = 0; i < providerSize; i++) {
-            HttpProvider hProvider = hProviders.get((startIndex + i) % providerSize);
-            if (i == providerSize - 1 && hProvider instanceof GrpcProvider && hProvider.getStatus() != PStatus.NORMAL && flag) {
-                i = -1;
-                flag = false;
-                continue;
-            }
-            if ((flag ? hProvider.getStatus() == PStatus.NORMAL : hProvider.getStatus() != PStatus.ABNORMAL) && (request instanceof PollingRequest || !request.isUsedProvider(hProvider))) {
-                logger.debug("[REQUEST] request node id: " + ((startIndex + i) % providerSize + 1));
+    }
+
+    private void prepare(Request request, HttpProvider hProvider, List<HttpProvider> hProviders) {
+        if (logger.isDebugEnabled()) {
+            logger.debug("[REQUEST] request node id: " + (hProviders.indexOf(hProvider) + 1));
+        }
+        request.setNamespace(this.namespace);
+        if (hProvider.getAccount() != null) {
+            // use dProvider sign
+            Request.Authentication auth = new Request.Authentication(Utils.genTimestamp(), hProvider.getAccount().getAddress());
+            String needHashString = auth.getNeedHashString();
+            byte[] sourceData = needHashString.getBytes(Utils.DEFAULT_CHARSET);
+            auth.setSignature(ByteUtil.toHex(hProvider.getAccount().sign(sourceData)));
+            request.setAuth(auth);
+        }
+        request.addProvider(hProvider);
+        request.setUsedAllProviders(hProviders.size());
+    }
+
+    private Object sendTo(Request request, HttpProvider provider) throws RequestException {
+        requestCheck(request, provider);
+        if (needTCert(provider)) {
+            String tCert = this.getTCert(this.tCertPool.getUniquePubKey(), this.tCertPool.getSdkCertKeyPair(), provider);
+            this.tCertPool.setTCert(provider.getUrl(), tCert);
+        }
+        sign(request, provider);
+        ProviderStats stats = provider.getStats();
+        metrics.onRequestStart(provider.getUrl(), request.getMethod());
+        long start = stats.onRequestStart();
+        boolean success = false;
+        try {
+            Object result = provider.postStreaming(request);
+            success = true;
+            getCircuitBreaker(provider).onSuccess();
+            return result;
+        } finally {
+            stats.onRequestEnd(start, success);
+            metrics.onRequestEnd(provider.getUrl(), request.getMethod(), System.nanoTime() - start, success);
+        }
+    }
+
+    private CompletableFuture<Object> sendToAsync(Request request, HttpProvider provider) throws RequestException {
+        requestCheck(request, provider);
+        if (needTCert(provider)) {
+            return getTCertAsync(this.tCertPool.getUniquePubKey(), this.tCertPool.getSdkCertKeyPair(), provider).thenCompose(tCert -> {
+                this.tCertPool.setTCert(provider.getUrl(), tCert);
                 try {
-                    request.setNamespace(this.namespace);
-//                    DefaultHttpProvider dProvider = (DefaultHttpProvider) hProvider;
-                    if (hProvider.getAccount() != null) {
-                        // use dProvider sign
-                        Request.Authentication auth = new Request.Authentication(Utils.genTimestamp(), hProvider.getAccount().getAddress());
-                        String needHashString = auth.getNeedHashString();
-                        byte[] sourceData = needHashString.getBytes(Utils.DEFAULT_CHARSET);
-                        auth.setSignature(ByteUtil.toHex(hProvider.getAccount().sign(sourceData)));
-                        request.setAuth(auth);
-                    }
-                    request.addProvider(hProvider);
-                    request.setUsedAllProviders(providerSize);
-                    return sendTo(request, hProvider);
+                    return sendToAsync(request, provider);
                 } catch (RequestException e) {
-                    //todo grpc在某些情况下也需要重连（等其他接口服务恢复之后添加）
-                    if (e.getCode().equals(RequestExceptionCode.NETWORK_GETBODY_FAILED.getCode())) {
-                        logger.debug("send to provider: " + hProvider.getUrl() + " failed");
-                        reconnect(hProvider);
-                        continue;
-                    }
-                    // throw other exception
-                    throw e;
+                    return Async.failed(e);
                 }
-            }
+            });
         }
-        logger.error("All nodes are bad, please check it or wait for reconnecting successfully!");
-        throw new AllNodesBadException("No node to connect!");
+        sign(request, provider);
+        ProviderStats stats = provider.getStats();
+        metrics.onRequestStart(provider.getUrl(), request.getMethod());
+        long start = stats.onRequestStart();
+        return provider.postAsync(request).whenComplete((result, e) -> {
+            if (e == null) {
+                getCircuitBreaker(provider).onSuccess();
+            }
+            stats.onRequestEnd(start, e == null);
+            metrics.onRequestEnd(provider.getUrl(), request.getMethod(), System.nanoTime() - start, e == null);
+        });
     }
 
-    private Object sendTo(Request request, HttpProvider provider) throws RequestException {
-        requestCheck(request, provider);
+    private boolean isTCertShared() {
+        // todo may different txs have different version
+        // flato always uses the sdk cert
+        return this.isCFCA || TxVersion.GLOBAL_TX_VERSION.isGreaterOrEqual(TxVersion.TxVersion20);
+    }
+
+    private boolean needTCert(HttpProvider provider) {
+        return this.tCertPool != null && !isTCertShared() && this.tCertPool.getTCert(provider.getUrl()) == null;
+    }
+
+    private void sign(Request request, HttpProvider provider) {
+        if (this.tCertPool == null) {
+            return;
+        }
         byte[] bodyBytes;
         if (request.isGRPC()) {
             CommonReq commonReq = GrpcUtil.convertRequestToCommonReq(request);
@@ -283,30 +473,61 @@ public class ProviderManager {
             String body = request.requestBody();
             bodyBytes = body.getBytes(Utils.DEFAULT_CHARSET);
         }
-        if (this.tCertPool != null) {
-            boolean f = this.isCFCA;
-            // todo may different txs have different version
-            if (TxVersion.GLOBAL_TX_VERSION.isGreaterOrEqual(TxVersion.TxVersion20)) {
-                // is flato
-                f = true;
+        if (isTCertShared()) {
+            request.addHeader("tcert", this.tCertPool.getSdkCert());
+            request.addHeader("signature", this.tCertPool.getSdkCertKeyPair().signData(bodyBytes));
+        } else {
+            request.addHeader("tcert", this.tCertPool.getTCert(provider.getUrl()));
+            request.addHeader("signature", this.tCertPool.getUniqueKeyPair().signData(bodyBytes));
+        }
+    }
+
+    /**
+     * pick the node for the next attempt of a request.
+     * Nodes in {@link PStatus#NORMAL} are preferred, busy grpc nodes are only used when no normal node is left,
+     * and nodes the request has already been sent to are skipped except when polling.
+     *
+     * @param hProviders all nodes of the request's type
+     * @param request    request
+     * @return chosen node, or null if there is none
+     */
+    private HttpProvider selectProvider(List<HttpProvider> hProviders, Request request) {
+        boolean reuse = request instanceof PollingRequest;
+        List<HttpProvider> candidates = new ArrayList<>(hProviders.size());
+        for (HttpProvider hProvider : hProviders) {
+            if (hProvider.getStatus() == PStatus.NORMAL && (reuse || !request.isUsedProvider(hProvider))) {
+                candidates.add(hProvider);
             }
-            if (f) {
-                request.addHeader("tcert", this.tCertPool.getSdkCert());
-                request.addHeader("signature", this.tCertPool.getSdkCertKeyPair().signData(bodyBytes));
-            } else {
-                String tCert = this.tCertPool.getTCert(provider.getUrl());
-                if (tCert == null) {
-                    tCert = this.getTCert(this.tCertPool.getUniquePubKey(), this.tCertPool.getSdkCertKeyPair(), provider);
-                    this.tCertPool.setTCert(provider.getUrl(), tCert);
+        }
+        if (candidates.isEmpty()) {
+            for (HttpProvider hProvider : hProviders) {
+                if (hProvider instanceof GrpcProvider && hProvider.getStatus() == PStatus.BUSY && (reuse || !request.isUsedProvider(hProvider))) {
+                    candidates.add(hProvider);
                 }
-                request.addHeader("tcert", tCert);
-                request.addHeader("signature", this.tCertPool.getUniqueKeyPair().signData(bodyBytes));
             }
         }
-        return provider.post(request);
+        if (candidates.isEmpty()) {
+            return null;
+        }
+        return loadBalancer.select(candidates);
     }
 
     private String getTCert(String uniquePubKey, CertKeyPair sdkCertKeyPair, HttpProvider provider) throws RequestException {
+        String response = (String) provider.post(newTCertRequest(uniquePubKey, sdkCertKeyPair));
+        return parseTCert(response);
+    }
+
+    private CompletableFuture<String> getTCertAsync(String uniquePubKey, CertKeyPair sdkCertKeyPair, HttpProvider provider) {
+        return provider.postAsync(newTCertRequest(uniquePubKey, sdkCertKeyPair)).thenApply(response -> {
+            try {
+                return parseTCert((String) response);
+            } catch (RequestException e) {
+                throw new CompletionException(e);
+            }
+        });
+    }
+
+    private TCertRequest newTCertRequest(String uniquePubKey, CertKeyPair sdkCertKeyPair) {
         TCertRequest tCertRequest = new TCertRequest("cert_getTCert", null, null);
         tCertRequest.setNamespace(this.namespace);
         Map<String, String> param = new HashMap<>();
@@ -316,7 +537,10 @@ public class ProviderManager {
         byte[] bodyBytes = body.getBytes(Utils.DEFAULT_CHARSET);
         tCertRequest.addHeader("tcert", sdkCertKeyPair.getPublicKey());
         tCertRequest.addHeader("signature", sdkCertKeyPair.signData(bodyBytes));
-        String response = (String) provider.post(tCertRequest);
+        return tCertRequest;
+    }
+
+    private String parseTCert(String response) throws RequestException {
         TCertResponse tCertResponse = gson.fromJson(response, TCertResponse.class);
         if (tCertResponse.getCode() != 0) {
             throw new RequestException(tCertResponse.getCode(), tCertResponse.getMessage());
@@ -332,24 +556,55 @@ public class ProviderManager {
         }
     }
 
-    private void reconnect(final HttpProvider provider) {
+    /**
+     * get the circuit breaker of a node.
+     * @param provider node
+     * @return {@link CircuitBreaker}
+     */
+    public CircuitBreaker getCircuitBreaker(HttpProvider provider) {
+        return circuitBreakers.computeIfAbsent(provider, p -> new CircuitBreaker(failureThreshold, minProbeBackoff, maxProbeBackoff));
+    }
+
+    private void onNetworkFailure(HttpProvider provider) {
+        CircuitBreaker circuitBreaker = getCircuitBreaker(provider);
+        if (circuitBreaker.onFailure()) {
+            provider.setStatus(PStatus.ABNORMAL);
+            scheduleProbe(provider, circuitBreaker);
+        } else if (circuitBreaker.getState() == CircuitBreaker.State.CLOSED) {
+            // below the failure threshold the node stays in the rotation
+            provider.setStatus(PStatus.NORMAL);
+        }
+    }
+
+    private void scheduleProbe(HttpProvider provider, CircuitBreaker circuitBreaker) {
+        long delay = circuitBreaker.nextProbeDelay();
+        Async.scheduleAsync(() -> probe(provider, circuitBreaker), delay);
+    }
+
+    private void probe(HttpProvider provider, CircuitBreaker circuitBreaker) {
+        circuitBreaker.onProbe();
         Request request = new NodeRequest("node_getNodes", null, null);
-        Async.run(() -> {
-            while (provider.getStatus() == PStatus.ABNORMAL) {
-                try {
-                    sendTo(request, provider);
-                } catch (RequestException e) {
-                    if (e.getCode().equals(RequestExceptionCode.NETWORK_PROBLEM.getCode())) {
-                        logger.error("reconnect to node " + provider.getUrl() + " failed, will try again...");
-                        Thread.sleep(20000L);
-                        continue;
-                    }
-                }
+        request.setNamespace(this.namespace);
+        CompletableFuture<Object> future;
+        try {
+            future = sendToAsync(request, provider);
+        } catch (RequestException | RuntimeException e) {
+            future = Async.failed(e);
+        }
+        future.whenComplete((result, e) -> {
+            Throwable cause = e == null ? null : Async.unwrap(e);
+            // any answer, even an error, means the node is reachable again
+            boolean success = cause == null || (cause instanceof RequestException
+                    && !((RequestException) cause).getCode().equals(RequestExceptionCode.NETWORK_PROBLEM.getCode()));
+            circuitBreaker.onProbeResult(success);
+            if (success) {
                 logger.info("reconnect to node " + provider.getUrl() + " success.");
                 provider.setStatus(PStatus.NORMAL);
-                return null;
+            } else {
+                logger.error("reconnect to node " + provider.getUrl() + " failed, will try again...");
+                provider.setStatus(PStatus.ABNORMAL);
+                scheduleProbe(provider, circuitBreaker);
             }
-            return null;
         });
     }
 
@@ -373,6 +628,18 @@ public class ProviderManager {
         return isCFCA;
     }
 
+    public LoadBalancer getLoadBalancer() {
+        return loadBalancer;
+    }
+
+    public ReceiptWaiter getReceiptWaiter() {
+        return receiptWaiter;
+    }
+
+    public SdkMetrics getMetrics() {
+        return metrics;
+    }
+
     /**
      * set the global TxVersion.
      *
@@ -0,0 +1,117 @@
+package cn.hyperchain.sdk.provider;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * per-node routing statistics: in-flight request count and exponentially
+ * weighted moving average of the request latency.
+ * The average is peak sensitive, a slower sample replaces it at once, and it decays towards zero
+ * while no sample arrives, so a node that was slow once is tried again after a while.
+ */
+public class ProviderStats {
+    // decay window of the latency average, older samples lose weight after about this long
+    private static final long DECAY_NANOS = TimeUnit.SECONDS.toNanos(10);
+    // stats of providers that do not keep their own, dropped with the provider
+    private static final Map<HttpProvider, ProviderStats> DEFAULT_STATS = Collections.synchronizedMap(new WeakHashMap<>());
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicLong total = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+    private final LongSupplier clock;
+    private double ewmaNanos;
+    private long lastUpdate;
+
+    public ProviderStats() {
+        this(System::nanoTime);
+    }
+
+    ProviderStats(LongSupplier clock) {
+        this.clock = clock;
+    }
+
+    /**
+     * get the stats kept for a provider that does not keep its own.
+     *
+     * @param provider provider
+     * @return {@link ProviderStats} of the provider, the same instance on every call
+     */
+    static ProviderStats of(HttpProvider provider) {
+        return DEFAULT_STATS.computeIfAbsent(provider, p -> new ProviderStats());
+    }
+
+    /**
+     * mark the start of a request to this node.
+     *
+     * @return start timestamp in nanoseconds, pass it to {@link #onRequestEnd(long, boolean)}
+     */
+    public long onRequestStart() {
+        inFlight.incrementAndGet();
+        return clock.getAsLong();
+    }
+
+    /**
+     * mark the end of a request to this node and fold its latency into the average.
+     *
+     * @param start   timestamp returned by {@link #onRequestStart()}
+     * @param success whether the node answered
+     */
+    public void onRequestEnd(long start, boolean success) {
+        long now = clock.getAsLong();
+        inFlight.decrementAndGet();
+        total.incrementAndGet();
+        if (!success) {
+            failures.incrementAndGet();
+        }
+        update(now, now - start);
+    }
+
+    private synchronized void update(long now, long rtt) {
+        double weight = weight(now);
+        if (lastUpdate == 0 || rtt > ewmaNanos * weight) {
+            ewmaNanos = rtt;
+        } else {
+            ewmaNanos = ewmaNanos * weight + rtt * (1 - weight);
+        }
+        lastUpdate = now;
+    }
+
+    private double weight(long now) {
+        return Math.exp(-(double) Math.max(now - lastUpdate, 0) / DECAY_NANOS);
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    /**
+     * get the latency average decayed by the time passed since the last sample.
+     *
+     * @return latency average in nanoseconds
+     */
+    public synchronized double getEwmaLatencyNanos() {
+        return lastUpdate == 0 ? ewmaNanos : ewmaNanos * weight(clock.getAsLong());
+    }
+
+    public long getTotal() {
+        return total.get();
+    }
+
+    public long getFailures() {
+        return failures.get();
+    }
+
+    /**
+     * the expected cost of sending one more request to this node.
+     *
+     * @return average latency scaled by the number of requests queued in front of it
+     */
+    public double getLoad() {
+        return getEwmaLatencyNanos() * (getInFlight() + 1);
+    }
+}
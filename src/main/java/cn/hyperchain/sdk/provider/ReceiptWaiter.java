@@ -0,0 +1,253 @@
+package cn.hyperchain.sdk.provider;
+
+import cn.hyperchain.sdk.common.utils.Async;
+import cn.hyperchain.sdk.exception.RequestException;
+import cn.hyperchain.sdk.exception.RequestExceptionCode;
+import cn.hyperchain.sdk.request.ReceiptRequest;
+import cn.hyperchain.sdk.response.ReceiptListResponse;
+import cn.hyperchain.sdk.response.ReceiptResponse;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * waits for the receipts of many transactions with one tx_getBatchReceipt per node group and tick,
+ * instead of every caller polling tx_getTransactionReceipt on its own thread.
+ * A batch answered with "receipt not found" has a receipt still pending, it is asked again on the next tick
+ * in batches half as large, so a transaction that stays pending holds back fewer others each tick
+ * and a tick never sends more requests than there are pending transactions.
+ * A batch failing for hashes the error names fails those and asks again for the rest right away,
+ * at most {@value #MAX_SPLIT_DEPTH} times per tick. A batch failing with an error naming no hash is split in halves
+ * asked again right away, down to tx_getTransactionReceipt for a single hash, so only the hash that fails is failed.
+ */
+public class ReceiptWaiter {
+    private static Logger logger = LogManager.getLogger(ReceiptWaiter.class);
+    private static final String BATCH_RECEIPT_METHOD = "tx_getBatchReceipt";
+    private static final String RECEIPT_METHOD = "tx_getTransactionReceipt";
+    private static final int MAX_SPLIT_DEPTH = 4;
+
+    private final ProviderManager providerManager;
+    private final long interval;
+    private final int maxBatch;
+    private final Map<String, Waiting> waiting = new ConcurrentHashMap<>();
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+
+    private static class Waiting {
+        private final CompletableFuture<ReceiptResponse> future = new CompletableFuture<>();
+        private final int[] nodeIds;
+        private volatile long deadline;
+        // the size of the batches this transaction is asked in, halved each time one answers "receipt not found"
+        private volatile int batchSize;
+
+        Waiting(int[] nodeIds, long deadline, int batchSize) {
+            this.nodeIds = nodeIds;
+            this.deadline = deadline;
+            this.batchSize = batchSize;
+        }
+    }
+
+    /**
+     * create a receipt waiter.
+     * @param providerManager provider manager the batch requests are sent with
+     * @param interval unit ms, the time between two batch requests
+     * @param maxBatch max tx hashes in one batch request
+     */
+    public ReceiptWaiter(ProviderManager providerManager, long interval, int maxBatch) {
+        if (interval <= 0 || maxBatch <= 0) {
+            throw new IllegalArgumentException("interval and maxBatch must be positive");
+        }
+        this.providerManager = providerManager;
+        this.interval = interval;
+        this.maxBatch = maxBatch;
+    }
+
+    /**
+     * wait for the receipt of a transaction.
+     * @param txHash transaction hash
+     * @param timeout unit ms, fail with {@link RequestExceptionCode#POLLING_TIME_OUT} if no receipt by then
+     * @param nodeIds specific ids
+     * @return future of {@link ReceiptResponse}, failed with {@link RequestException}
+     */
+    public CompletableFuture<ReceiptResponse> waitFor(String txHash, long timeout, int... nodeIds) {
+        long deadline = System.currentTimeMillis() + timeout;
+        Waiting w = waiting.compute(txHash, (hash, old) -> {
+            if (old == null) {
+                return new Waiting(nodeIds, deadline, maxBatch);
+            }
+            old.deadline = Math.max(old.deadline, deadline);
+            return old;
+        });
+        schedule();
+        return w.future;
+    }
+
+    /**
+     * get the number of transactions still waiting for their receipt.
+     * @return pending count
+     */
+    public int getPendingCount() {
+        return waiting.size();
+    }
+
+    private void schedule() {
+        if (!waiting.isEmpty() && scheduled.compareAndSet(false, true)) {
+            Async.schedule(this::tick, interval);
+        }
+    }
+
+    private void tick() {
+        long now = System.currentTimeMillis();
+        Map<String, List<String>> groups = new HashMap<>();
+        Map<String, int[]> groupIds = new HashMap<>();
+        Map<String, Integer> groupSizes = new HashMap<>();
+        Iterator<Map.Entry<String, Waiting>> it = waiting.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<String, Waiting> entry = it.next();
+            Waiting w = entry.getValue();
+            if (w.deadline <= now) {
+                it.remove();
+                w.future.completeExceptionally(new RequestException(RequestExceptionCode.POLLING_TIME_OUT, "can't get receipt of " + entry.getKey() + " from server in time"));
+                continue;
+            }
+            String key = Arrays.toString(w.nodeIds) + "/" + w.batchSize;
+            groups.computeIfAbsent(key, k -> new ArrayList<>()).add(entry.getKey());
+            groupIds.putIfAbsent(key, w.nodeIds);
+            groupSizes.putIfAbsent(key, w.batchSize);
+        }
+        List<CompletableFuture<Void>> batches = new ArrayList<>();
+        try {
+            for (Map.Entry<String, List<String>> group : groups.entrySet()) {
+                List<String> hashes = group.getValue();
+                int size = groupSizes.get(group.getKey());
+                for (int i = 0; i < hashes.size(); i += size) {
+                    batches.add(resolve(new ArrayList<>(hashes.subList(i, Math.min(i + size, hashes.size()))), groupIds.get(group.getKey()), 0));
+                }
+            }
+        } catch (RuntimeException e) {
+            logger.warn("batch receipt request failed, will try again: " + e.getMessage());
+        }
+        // the next tick starts after this one's batches, slow nodes are not asked again meanwhile
+        CompletableFuture.allOf(batches.toArray(new CompletableFuture[0])).whenComplete((v, e) -> {
+            scheduled.set(false);
+            schedule();
+        });
+    }
+
+    private CompletableFuture<Void> resolve(ArrayList<String> hashes, int[] nodeIds, int depth) {
+        HashMap<String, Object> params = new HashMap<>();
+        params.put("hashes", hashes);
+        ReceiptRequest receiptRequest = new ReceiptRequest(BATCH_RECEIPT_METHOD, providerManager, ReceiptListResponse.class, nodeIds);
+        receiptRequest.addParams(params);
+        providerManager.getMetrics().onPollingAttempt(BATCH_RECEIPT_METHOD);
+        CompletableFuture<ReceiptListResponse> future = receiptRequest.sendAsync();
+        return future.handle((response, e) -> {
+            if (e == null) {
+                if (response.getResult() != null) {
+                    for (ReceiptResponse.Receipt receipt : response.getResult()) {
+                        Waiting w = waiting.remove(receipt.getTxHash());
+                        if (w != null) {
+                            w.future.complete(new ReceiptResponse(response, receipt));
+                        }
+                    }
+                }
+                return CompletableFuture.<Void>completedFuture(null);
+            }
+            Throwable cause = Async.unwrap(e);
+            if (!(cause instanceof RequestException) || isTransient((RequestException) cause)) {
+                logger.debug("batch receipt request failed, will try again: " + cause.getMessage());
+                return CompletableFuture.<Void>completedFuture(null);
+            }
+            if (((RequestException) cause).getCode().equals(RequestExceptionCode.RECEIPT_NOT_FOUND.getCode())) {
+                for (String hash : hashes) {
+                    Waiting w = waiting.get(hash);
+                    if (w != null) {
+                        w.batchSize = Math.max(hashes.size() / 2, 1);
+                    }
+                }
+                return CompletableFuture.<Void>completedFuture(null);
+            }
+            ArrayList<String> rest = new ArrayList<>();
+            List<String> failed = new ArrayList<>();
+            for (String hash : hashes) {
+                (names(cause.getMessage(), hash) ? failed : rest).add(hash);
+            }
+            if (failed.isEmpty()) {
+                // the error may be the answer for any hash of the batch, find it by asking in halves
+                if (hashes.size() == 1) {
+                    return resolve(hashes.get(0), nodeIds);
+                }
+                int half = hashes.size() / 2;
+                return CompletableFuture.allOf(
+                        resolve(new ArrayList<>(hashes.subList(0, half)), nodeIds, depth),
+                        resolve(new ArrayList<>(hashes.subList(half, hashes.size())), nodeIds, depth));
+            }
+            for (String hash : failed) {
+                Waiting w = waiting.remove(hash);
+                if (w != null) {
+                    w.future.completeExceptionally(cause);
+                }
+            }
+            if (rest.isEmpty() || depth >= MAX_SPLIT_DEPTH) {
+                return CompletableFuture.<Void>completedFuture(null);
+            }
+            return resolve(rest, nodeIds, depth + 1);
+        }).thenCompose(f -> f);
+    }
+
+    private CompletableFuture<Void> resolve(String hash, int[] nodeIds) {
+        ReceiptRequest receiptRequest = new ReceiptRequest(RECEIPT_METHOD, providerManager, ReceiptResponse.class, nodeIds);
+        receiptRequest.addParams(hash);
+        providerManager.getMetrics().onPollingAttempt(RECEIPT_METHOD);
+        CompletableFuture<ReceiptResponse> future = receiptRequest.sendAsync();
+        return future.handle((response, e) -> {
+            if (e == null) {
+                Waiting w = waiting.remove(hash);
+                if (w != null) {
+                    w.future.complete(response);
+                }
+                return null;
+            }
+            Throwable cause = Async.unwrap(e);
+            if (!(cause instanceof RequestException) || isTransient((RequestException) cause)
+                    || ((RequestException) cause).getCode().equals(RequestExceptionCode.RECEIPT_NOT_FOUND.getCode())) {
+                logger.debug("receipt request failed, will try again: " + cause.getMessage());
+                return null;
+            }
+            Waiting w = waiting.remove(hash);
+            if (w != null) {
+                w.future.completeExceptionally(cause);
+            }
+            return null;
+        });
+    }
+
+    // whether the error message names the hash, and not a longer one starting with it
+    private static boolean names(String message, String hash) {
+        if (message == null) {
+            return false;
+        }
+        for (int i = message.indexOf(hash); i >= 0; i = message.indexOf(hash, i + 1)) {
+            int end = i + hash.length();
+            if (end == message.length() || !Character.isLetterOrDigit(message.charAt(end))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isTransient(RequestException e) {
+        return e.getCode().equals(RequestExceptionCode.SYSTEM_BUSY.getCode()) ||
+                e.getCode().equals(RequestExceptionCode.HTTP_TIME_OUT.getCode()) ||
+                e.getCode().equals(RequestExceptionCode.NETWORK_GETBODY_FAILED.getCode()) ||
+                e.getCode().equals(RequestExceptionCode.REQUEST_ERROR.getCode());
+    }
+}
@@ -0,0 +1,17 @@
+package cn.hyperchain.sdk.provider;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * send requests to the candidate nodes in turn.
+ */
+public class RoundRobinLoadBalancer implements LoadBalancer {
+    private final AtomicInteger next = new AtomicInteger();
+
+    @Override
+    public HttpProvider select(List<HttpProvider> providers) {
+        int index = next.getAndIncrement() & Integer.MAX_VALUE;
+        return providers.get(index % providers.size());
+    }
+}
@@ -1,34 +1,79 @@
 package cn.hyperchain.sdk.provider;
 
+import cn.hyperchain.sdk.common.utils.Async;
 import cn.hyperchain.sdk.exception.RequestException;
 import cn.hyperchain.sdk.exception.RequestExceptionCode;
 import cn.hyperchain.sdk.grpc.Transaction.CommonReq;
 import cn.hyperchain.sdk.grpc.Transaction.CommonRes;
+import cn.hyperchain.sdk.grpc.Transaction.ReceiptResult;
 import cn.hyperchain.sdk.grpc.GrpcUtil;
+import com.google.protobuf.ByteString;
+import com.google.protobuf.InvalidProtocolBufferException;
 import io.grpc.stub.StreamObserver;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.bouncycastle.util.encoders.Hex;
 
-import java.util.concurrent.CountDownLatch;
-import java.util.concurrent.TimeUnit;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 
+/**
+ * a bidirectional grpc stream carrying many outstanding requests.
+ * CommonReq and CommonRes have no request id, so a request is matched to its response by the hash of
+ * the transaction it sends, which the response carries as its result or in its receipt.
+ * A response without a hash, such as an error, can only be matched while a single request is outstanding;
+ * with several outstanding it fails them all and breaks the stream rather than guess.
+ * A request that times out only fails itself, its late response is dropped when it comes.
+ */
 public class StreamManager extends Manager {
     private static Logger logger = LogManager.getLogger(StreamManager.class);
 
     private StreamObserver<CommonReq> reqStreamObserver;
     private StreamObserver<CommonRes> resStreamObserver;
-    private CountDownLatch finishLatch;
-    private CommonRes response;
-    private Throwable error;
-    private boolean isNormal;
-    private boolean isUsed;
+    // guarded by this, sending and queueing happen together so the queue order is the wire order
+    private final Deque<Pending> pending = new ArrayDeque<>();
+    // requests that timed out, their responses may still come
+    private int timedOut;
+    private long nextSeq;
+    private volatile boolean isNormal;
+    // slots handed out by GrpcProvider, guarded by the provider
+    private int used;
 
-    public void setUsed(boolean used) {
-        isUsed = used;
+    private static class Pending {
+        private final long seq;
+        private final String txHash;
+        private final CompletableFuture<CommonRes> future = new CompletableFuture<>();
+
+        Pending(long seq, String txHash) {
+            this.seq = seq;
+            this.txHash = txHash;
+        }
     }
 
     public boolean isUsed() {
-        return isUsed;
+        return used > 0;
+    }
+
+    int getUsed() {
+        return used;
+    }
+
+    void setUsed(int used) {
+        this.used = used;
+    }
+
+    /**
+     * get the number of requests sent on this stream and waiting for their response.
+     * @return pending request count
+     */
+    public synchronized int getPendingCount() {
+        return pending.size();
     }
 
     public StreamManager(String method, GrpcProvider provider) throws RequestException {
@@ -61,33 +106,51 @@ public class StreamManager extends Manager {
     }
 
     private void generateFromMethod() throws RequestException {
-        finishLatch = new CountDownLatch(1);
         StreamObserver<CommonRes> resStreamObserver = new StreamObserver<CommonRes>() {
             @Override
             public void onNext(CommonRes commonRes) {
-                response = commonRes;
-                error = null;
-                finishLatch.countDown();
+                String txHash = responseTxHash(commonRes);
+                Pending matched;
+                int outstanding;
+                boolean late = false;
+                synchronized (StreamManager.this) {
+                    matched = match(txHash);
+                    outstanding = pending.size();
+                    if (matched == null && timedOut > 0) {
+                        // sent before the requests still outstanding, so most likely answered first
+                        timedOut--;
+                        late = true;
+                    }
+                }
+                if (matched != null) {
+                    matched.future.complete(commonRes);
+                } else if (late) {
+                    logger.warn("GRPC Stream with the node " + grpcProvider.getUrl() + " got the response of a request that timed out");
+                } else if (outstanding == 0 || txHash != null) {
+                    logger.warn("GRPC Stream with the node " + grpcProvider.getUrl() + " got a response without request");
+                } else {
+                    String reason = "a response of code " + commonRes.getCode() + " (" + commonRes.getCodeDesc() + ") matches none of the "
+                            + outstanding + " requests outstanding on the stream";
+                    logger.error("GRPC Stream with the node " + grpcProvider.getUrl() + " failed. The reason is " + reason);
+                    breakStream("unmatched response");
+                    failAll(new RequestException(RequestExceptionCode.GRPC_STREAM_FAILED, reason));
+                }
             }
 
             @Override
             public void onError(Throwable throwable) {
-                if (throwable.getMessage().equals("ABORTED: stream idle timeout")) {
+                if ("ABORTED: stream idle timeout".equals(throwable.getMessage())) {
                     logger.warn("GRPC Stream with the node " + grpcProvider.getUrl() + " failed. The reason is " + throwable.getMessage());
                 } else {
                     logger.error("GRPC Stream with the node " + grpcProvider.getUrl() + " failed. The reason is " + throwable.getMessage());
                 }
-                finishLatch.countDown();
-                setNormal(false);
-                error = throwable;
+                failAll(new RequestException(RequestExceptionCode.GRPC_STREAM_FAILED, throwable.getMessage()));
             }
 
             @Override
             public void onCompleted() {
                 logger.debug("GRPC Stream with the node " + grpcProvider.getUrl() + " closed.");
-                finishLatch.countDown();
-                error = null;
-                setNormal(false);
+                failAll(new RequestException(RequestExceptionCode.GRPC_STREAM_FAILED, "the stream is closed by the node"));
             }
         };
         StreamObserver<CommonReq> reqStreamObserver = GrpcUtil.getReqByMethod(method, grpcProvider.getChannel(), resStreamObserver);
@@ -97,11 +160,120 @@ public class StreamManager extends Manager {
         this.setGrpcProvider(grpcProvider);
     }
 
+    /**
+     * take the request a response answers by transaction hash,
+     * or the only outstanding request if the response has no hash and no response of a timed out request is due.
+     */
+    private Pending match(String txHash) {
+        if (txHash == null) {
+            return pending.size() == 1 && timedOut == 0 ? pending.poll() : null;
+        }
+        for (Iterator<Pending> it = pending.iterator(); it.hasNext(); ) {
+            Pending p = it.next();
+            if (txHash.equals(p.txHash)) {
+                it.remove();
+                return p;
+            }
+        }
+        return null;
+    }
+
+    private String responseTxHash(CommonRes commonRes) {
+        ByteString result = commonRes.getResult();
+        if (result.isEmpty()) {
+            return null;
+        }
+        if (method.endsWith("ReturnReceipt")) {
+            try {
+                return normalize(ReceiptResult.parseFrom(result).getTxHash());
+            } catch (InvalidProtocolBufferException e) {
+                return null;
+            }
+        }
+        // the result of a send is the bare 32 byte hash
+        return result.size() == 32 ? "0x" + Hex.toHexString(result.toByteArray()) : null;
+    }
+
+    private static String normalize(String txHash) {
+        if (txHash == null || txHash.isEmpty()) {
+            return null;
+        }
+        txHash = txHash.toLowerCase(Locale.ROOT);
+        return txHash.startsWith("0x") ? txHash : "0x" + txHash;
+    }
+
+    private synchronized void breakStream(String reason) {
+        if (isNormal) {
+            reqStreamObserver.onError(new IllegalStateException(reason));
+        }
+    }
+
+    /**
+     * mark the stream broken and fail every request still waiting on it.
+     */
+    private void failAll(RequestException e) {
+        List<Pending> failed;
+        synchronized (this) {
+            setNormal(false);
+            failed = new ArrayList<>(pending);
+            pending.clear();
+        }
+        for (Pending p : failed) {
+            p.future.completeExceptionally(e);
+        }
+    }
 
     public boolean isNormal() {
         return isNormal;
     }
 
+    /**
+     * grpc stream send request, the response completes the returned future.
+     * Without a transaction hash the request can only be matched while it is alone on the stream.
+     * @param commonReq request
+     * @return future of CommonRes, failed with {@link RequestException}
+     */
+    public CompletableFuture<CommonRes> onNextAsync(CommonReq commonReq) {
+        return onNextAsync(commonReq, null);
+    }
+
+    /**
+     * grpc stream send request, the response carrying the hash of the sent transaction completes the returned future.
+     * A request that times out fails alone, the other requests on the stream keep waiting for their responses.
+     * @param commonReq request
+     * @param txHash hash of the transaction the request sends, null if unknown
+     * @return future of CommonRes, failed with {@link RequestException}
+     */
+    public CompletableFuture<CommonRes> onNextAsync(CommonReq commonReq, String txHash) {
+        Pending p;
+        synchronized (this) {
+            p = new Pending(nextSeq++, normalize(txHash));
+            if (!isNormal) {
+                p.future.completeExceptionally(new RequestException(RequestExceptionCode.GRPC_STREAM_FAILED, "the stream with the node " + grpcProvider.getUrl() + " is closed"));
+                return p.future;
+            }
+            pending.add(p);
+            try {
+                reqStreamObserver.onNext(commonReq);
+            } catch (RuntimeException e) {
+                pending.remove(p);
+                setNormal(false);
+                p.future.completeExceptionally(new RequestException(RequestExceptionCode.GRPC_STREAM_FAILED, e.getMessage()));
+                return p.future;
+            }
+        }
+        long timeout = grpcProvider.getConnectTimeout();
+        Async.timeout(p.future, timeout, () -> {
+            synchronized (this) {
+                if (pending.remove(p)) {
+                    timedOut++;
+                }
+            }
+            return new RequestException(RequestExceptionCode.GRPC_STREAM_FAILED, "grpc request " + p.seq + " time out, more than " + timeout + " milliseconds");
+        });
+        return p.future;
+    }
+
     /**
      * grpc stream send request and get response.
      * @param commonReq request
@@ -110,21 +282,16 @@ public class StreamManager extends Manager {
      */
     @Override
     public CommonRes onNext(CommonReq commonReq) throws RequestException {
-        if (reqStreamObserver != null) {
-            reqStreamObserver.onNext(commonReq);
-        }
         try {
-            boolean isok = finishLatch.await(grpcProvider.getConnectTimeout(), TimeUnit.MILLISECONDS);
-            finishLatch = new CountDownLatch(1);
-            if (error != null) {
-                throw new RequestException(RequestExceptionCode.GRPC_STREAM_FAILED, error.getMessage());
-            }
-            if (!isok) {
-                throw new RequestException(RequestExceptionCode.GRPC_STREAM_FAILED, "grpc request time out, more than " + grpcProvider.getConnectTimeout() + " milliseconds");
+            return onNextAsync(commonReq).get();
+        } catch (ExecutionException e) {
+            Throwable cause = Async.unwrap(e);
+            if (cause instanceof RequestException) {
+                throw (RequestException) cause;
             }
-            return response;
+            throw new RequestException(RequestExceptionCode.GRPC_STREAM_FAILED, cause.getMessage());
         } catch (InterruptedException e) {
-            setNormal(false);
+            Thread.currentThread().interrupt();
             throw new RequestException(RequestExceptionCode.GRPC_STREAM_FAILED, e.getMessage());
         }
     }
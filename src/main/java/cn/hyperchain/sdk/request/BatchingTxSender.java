@@ -0,0 +1,368 @@
+package cn.hyperchain.sdk.request;
+
+import cn.hyperchain.sdk.common.utils.Async;
+import cn.hyperchain.sdk.common.utils.MethodType;
+import cn.hyperchain.sdk.exception.RequestException;
+import cn.hyperchain.sdk.exception.RequestExceptionCode;
+import cn.hyperchain.sdk.provider.ProviderManager;
+import cn.hyperchain.sdk.response.TxHashResponse;
+import cn.hyperchain.sdk.response.TxHashesResponse;
+import cn.hyperchain.sdk.service.ServiceManager;
+import cn.hyperchain.sdk.service.TxService;
+import cn.hyperchain.sdk.transaction.Transaction;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Semaphore;
+
+/**
+ * collects transactions submitted from many threads and sends them as {@link SendBatchTxsRequest}.
+ * A batch is sent once it reaches maxBatchSize transactions or maxBatchBytes, or after linger ms.
+ * Transactions rejected with {@link RequestExceptionCode#DISPATCHER_FULL} or {@link RequestExceptionCode#QPS_LIMIT}
+ * are queued again and sending pauses with an exponential backoff.
+ * At most maxPending transactions are queued or in flight, {@link #submit(Transaction)} blocks beyond that.
+ */
+public class BatchingTxSender {
+    private static Logger logger = LogManager.getLogger(BatchingTxSender.class);
+    private static final int TX_OVERHEAD_BYTES = 256;
+
+    private ProviderManager providerManager;
+    private TxService txService;
+    private int maxBatchSize = 100;
+    private int maxBatchBytes = 1 << 20;
+    private long linger = 5;
+    private int maxPending = 10000;
+    private int maxAttempts = 10;
+    private long maxBackoff = 1000;
+    private int[] nodeIds;
+    private Semaphore permits;
+
+    // guarded by this
+    private final Deque<Item> queue = new ArrayDeque<>();
+    private long queuedBytes;
+    private boolean flushScheduled;
+    private long pausedUntil;
+    private long backoff;
+
+    private static class Item {
+        private final Transaction transaction;
+        private final String method;
+        private final int bytes;
+        private final CompletableFuture<TxHashResponse> future = new CompletableFuture<>();
+        private int attempts;
+
+        Item(Transaction transaction, String method) {
+            this.transaction = transaction;
+            this.method = method;
+            this.bytes = length(transaction.getPayload()) + length(transaction.getSignature()) + length(transaction.getExtra()) + TX_OVERHEAD_BYTES;
+        }
+
+        private static int length(String s) {
+            return s == null ? 0 : s.length();
+        }
+    }
+
+    private class PermitBlocker implements ForkJoinPool.ManagedBlocker {
+        private boolean acquired;
+
+        @Override
+        public boolean block() throws InterruptedException {
+            if (!acquired) {
+                permits.acquire();
+                acquired = true;
+            }
+            return true;
+        }
+
+        @Override
+        public boolean isReleasable() {
+            if (!acquired) {
+                acquired = permits.tryAcquire();
+            }
+            return acquired;
+        }
+    }
+
+    private BatchingTxSender() {
+    }
+
+    public static class Builder {
+        private BatchingTxSender sender;
+
+        /**
+         * create batching tx sender builder.
+         * @param providerManager provider manager the batches are sent with
+         */
+        public Builder(ProviderManager providerManager) {
+            sender = new BatchingTxSender();
+            sender.providerManager = providerManager;
+        }
+
+        /**
+         * set max transactions in one batch.
+         * @param maxBatchSize max transactions
+         * @return {@link Builder}
+         */
+        public Builder maxBatchSize(int maxBatchSize) {
+            if (maxBatchSize <= 0) {
+                throw new IllegalArgumentException("maxBatchSize must be positive");
+            }
+            sender.maxBatchSize = maxBatchSize;
+            return this;
+        }
+
+        /**
+         * set the approximate max request body of one batch.
+         * @param maxBatchBytes max bytes
+         * @return {@link Builder}
+         */
+        public Builder maxBatchBytes(int maxBatchBytes) {
+            if (maxBatchBytes <= 0) {
+                throw new IllegalArgumentException("maxBatchBytes must be positive");
+            }
+            sender.maxBatchBytes = maxBatchBytes;
+            return this;
+        }
+
+        /**
+         * set how long a transaction may wait for others before a smaller batch is sent.
+         * @param linger unit ms
+         * @return {@link Builder}
+         */
+        public Builder linger(long linger) {
+            if (linger < 0) {
+                throw new IllegalArgumentException("linger can't be negative");
+            }
+            sender.linger = linger;
+            return this;
+        }
+
+        /**
+         * set max transactions queued or in flight before submit blocks.
+         * @param maxPending max transactions
+         * @return {@link Builder}
+         */
+        public Builder maxPending(int maxPending) {
+            if (maxPending <= 0) {
+                throw new IllegalArgumentException("maxPending must be positive");
+            }
+            sender.maxPending = maxPending;
+            return this;
+        }
+
+        /**
+         * set how often a transaction is sent again after the node was busy.
+         * @param maxAttempts max attempts
+         * @param maxBackoff unit ms, max pause after the node was busy
+         * @return {@link Builder}
+         */
+        public Builder retry(int maxAttempts, long maxBackoff) {
+            if (maxAttempts <= 0 || maxBackoff <= 0) {
+                throw new IllegalArgumentException("maxAttempts and maxBackoff must be positive");
+            }
+            sender.maxAttempts = maxAttempts;
+            sender.maxBackoff = maxBackoff;
+            return this;
+        }
+
+        /**
+         * set the nodes the batches are sent to.
+         * @param nodeIds specific ids
+         * @return {@link Builder}
+         */
+        public Builder nodeIds(int... nodeIds) {
+            sender.nodeIds = nodeIds;
+            return this;
+        }
+
+        /**
+         * return batching tx sender instance.
+         * @return {@link BatchingTxSender}
+         */
+        public BatchingTxSender build() {
+            sender.txService = ServiceManager.getTxService(sender.providerManager);
+            sender.permits = new Semaphore(sender.maxPending);
+            return sender;
+        }
+    }
+
+    /**
+     * submit a transaction to be sent with tx_sendTransaction.
+     * @param transaction signed transaction
+     * @return future of {@link TxHashResponse}, failed with {@link RequestException}
+     */
+    public CompletableFuture<TxHashResponse> submit(Transaction transaction) {
+        return submit(transaction, MethodType.SEND_TRANSACTION.getMethod());
+    }
+
+    /**
+     * submit a transaction to be sent in the next batch, blocks while maxPending transactions are pending.
+     * @param transaction signed transaction
+     * @param method one of {@link MethodType}
+     * @return future of {@link TxHashResponse}, failed with {@link RequestException}
+     */
+    public CompletableFuture<TxHashResponse> submit(Transaction transaction, String method) {
+        if (MethodType.methodType(method) == null) {
+            return Async.failed(new RequestException(RequestExceptionCode.PARAM_ERROR, "method " + method + " is not supported!"));
+        }
+        try {
+            // a fork join worker, e.g. one of TransactionSigner's, lets the pool start a spare thread while it waits
+            ForkJoinPool.managedBlock(new PermitBlocker());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return Async.failed(new RequestException(RequestExceptionCode.PARAM_ERROR, "interrupted while waiting to submit"));
+        }
+        Item item = new Item(transaction, method);
+        synchronized (this) {
+            queue.add(item);
+            queuedBytes += item.bytes;
+        }
+        dispatch(false);
+        return item.future;
+    }
+
+    /**
+     * send all queued transactions now, unless the node asked to back off.
+     */
+    public void flush() {
+        dispatch(true);
+    }
+
+    /**
+     * get the number of transactions queued or in flight.
+     * @return pending count
+     */
+    public int getPendingCount() {
+        return maxPending - permits.availablePermits();
+    }
+
+    private void dispatch(boolean force) {
+        List<Item> batch;
+        while ((batch = takeBatch(force)) != null) {
+            send(batch);
+        }
+    }
+
+    private synchronized List<Item> takeBatch(boolean force) {
+        if (queue.isEmpty()) {
+            return null;
+        }
+        long now = System.currentTimeMillis();
+        if (now < pausedUntil) {
+            scheduleFlush(pausedUntil - now);
+            return null;
+        }
+        if (!force && queue.size() < maxBatchSize && queuedBytes < maxBatchBytes) {
+            scheduleFlush(linger);
+            return null;
+        }
+        List<Item> batch = new ArrayList<>();
+        long bytes = 0;
+        while (!queue.isEmpty() && batch.size() < maxBatchSize
+                && (batch.isEmpty() || bytes + queue.peek().bytes <= maxBatchBytes)) {
+            Item item = queue.poll();
+            bytes += item.bytes;
+            batch.add(item);
+        }
+        queuedBytes -= bytes;
+        return batch;
+    }
+
+    private void scheduleFlush(long delay) {
+        if (flushScheduled) {
+            return;
+        }
+        flushScheduled = true;
+        Async.schedule(() -> {
+            synchronized (this) {
+                flushScheduled = false;
+            }
+            dispatch(true);
+        }, delay);
+    }
+
+    private void send(List<Item> batch) {
+        ArrayList<Transaction> transactions = new ArrayList<>(batch.size());
+        ArrayList<String> methods = new ArrayList<>(batch.size());
+        for (Item item : batch) {
+            transactions.add(item.transaction);
+            methods.add(item.method);
+        }
+        CompletableFuture<TxHashesResponse> future;
+        try {
+            future = txService.sendBatchTxs(transactions, methods, nodeIds).sendAsync();
+        } catch (RuntimeException e) {
+            future = Async.failed(e);
+        }
+        future.whenComplete((response, e) -> {
+            try {
+                complete(batch, response, e);
+            } finally {
+                dispatch(false);
+            }
+        });
+    }
+
+    private void complete(List<Item> batch, TxHashesResponse response, Throwable e) {
+        List<TxHashResponse> responses = response == null ? null : response.getResponses();
+        if (e == null && (responses == null || responses.isEmpty())) {
+            e = new RequestException(RequestExceptionCode.NETWORK_GETBODY_FAILED, "empty batch response");
+        }
+        // a node rejecting the whole batch answers with a single error, any other count can not be matched to the batch
+        boolean rejected = e == null && responses.size() == 1 && responses.get(0).getCode() != 0;
+        if (e == null && responses.size() != batch.size() && !rejected) {
+            e = new RequestException(RequestExceptionCode.NETWORK_GETBODY_FAILED,
+                    "batch response size mismatch, " + responses.size() + " responses for " + batch.size() + " transactions");
+        }
+        List<Item> busy = new ArrayList<>();
+        for (int i = 0; i < batch.size(); i++) {
+            Item item = batch.get(i);
+            if (e != null) {
+                done(item, null, Async.unwrap(e));
+                continue;
+            }
+            TxHashResponse txHashResponse = rejected ? responses.get(0) : responses.get(i);
+            int code = txHashResponse.getCode();
+            if (code == 0) {
+                done(item, txHashResponse, null);
+            } else if (code == RequestExceptionCode.DISPATCHER_FULL.getCode() || code == RequestExceptionCode.QPS_LIMIT.getCode()) {
+                if (++item.attempts < maxAttempts) {
+                    providerManager.getMetrics().onRetry(item.method, code);
+                    busy.add(item);
+                } else {
+                    done(item, null, new RequestException(code, txHashResponse.getMessage()));
+                }
+            } else {
+                done(item, null, new RequestException(code, txHashResponse.getMessage()));
+            }
+        }
+        synchronized (this) {
+            if (busy.isEmpty()) {
+                backoff = 0;
+                return;
+            }
+            backoff = backoff == 0 ? Math.max(linger, 10) : Math.min(backoff * 2, maxBackoff);
+            pausedUntil = System.currentTimeMillis() + backoff;
+            for (int i = busy.size() - 1; i >= 0; i--) {
+                queue.addFirst(busy.get(i));
+                queuedBytes += busy.get(i).bytes;
+            }
+            logger.debug("node is busy, send " + busy.size() + " transactions again after " + backoff + " ms");
+        }
+    }
+
+    private void done(Item item, TxHashResponse response, Throwable e) {
+        permits.release();
+        if (e != null) {
+            item.future.completeExceptionally(e);
+        } else {
+            item.future.complete(response);
+        }
+    }
+}
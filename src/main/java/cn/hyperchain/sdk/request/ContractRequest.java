@@ -6,6 +6,8 @@ import cn.hyperchain.sdk.response.Response;
 import cn.hyperchain.sdk.response.TxHashResponse;
 import cn.hyperchain.sdk.transaction.Transaction;
 
+import java.util.concurrent.CompletableFuture;
+
 /**
  * contract result.
  *
@@ -28,4 +30,16 @@ public class ContractRequest extends Request {
 
         return response;
     }
+
+    @Override
+    public CompletableFuture<Response> sendAsync() {
+        CompletableFuture<Response> future = super.sendAsync();
+        return future.thenApply(result -> {
+            TxHashResponse response = (TxHashResponse) result;
+            response.setTranRequest(this);
+            response.setNodeIds(this.nodeIds);
+            response.setProviderManager(this.providerManager);
+            return response;
+        });
+    }
 }
@@ -6,6 +6,8 @@ import cn.hyperchain.sdk.response.Response;
 import cn.hyperchain.sdk.response.filemgr.FileUpdateResponse;
 import cn.hyperchain.sdk.transaction.Transaction;
 
+import java.util.concurrent.CompletableFuture;
+
 public class FileInfoRequest extends Request {
     public FileInfoRequest(String method, ProviderManager providerManager, Class clazz, String jsonRpc, int... nodeIds) {
         super(method, providerManager, clazz, nodeIds);
@@ -29,4 +31,18 @@ public class FileInfoRequest extends Request {
         }
         return response;
     }
+
+    @Override
+    public CompletableFuture<Response> sendAsync() {
+        CompletableFuture<Response> future = super.sendAsync();
+        return future.thenApply(response -> {
+            if (response instanceof FileUpdateResponse) {
+                FileUpdateResponse fileUpdateResponse = (FileUpdateResponse) response;
+                fileUpdateResponse.setTranRequest(this);
+                fileUpdateResponse.setNodeIds(this.nodeIds);
+                fileUpdateResponse.setProviderManager(this.providerManager);
+            }
+            return response;
+        });
+    }
 }
@@ -1,10 +1,13 @@
 package cn.hyperchain.sdk.request;
 
+import cn.hyperchain.sdk.common.utils.Async;
 import cn.hyperchain.sdk.exception.RequestException;
 import cn.hyperchain.sdk.exception.RequestExceptionCode;
 import cn.hyperchain.sdk.provider.ProviderManager;
 import cn.hyperchain.sdk.response.Response;
 
+import java.util.concurrent.CompletableFuture;
+
 public class MQRequest extends Request {
     public MQRequest(String method, ProviderManager providerManager, Class clazz, int... nodeIds) {
         super(method, providerManager, clazz, nodeIds);
@@ -17,4 +20,12 @@ public class MQRequest extends Request {
         }
         return super.send();
     }
+
+    @Override
+    public CompletableFuture<Response> sendAsync() {
+        if (this.nodeIds.length != 1) {
+            return Async.failed(new RequestException(RequestExceptionCode.PARAM_ERROR, "the number of NodeIds is must to be one"));
+        }
+        return super.sendAsync();
+    }
 }
@@ -1,16 +1,15 @@
 package cn.hyperchain.sdk.request;
 
-import cn.hyperchain.sdk.common.utils.Utils;
+import cn.hyperchain.sdk.common.utils.Async;
 import cn.hyperchain.sdk.exception.RequestException;
 import cn.hyperchain.sdk.exception.RequestExceptionCode;
 import cn.hyperchain.sdk.provider.ProviderManager;
 import cn.hyperchain.sdk.response.PollingResponse;
 import cn.hyperchain.sdk.response.Response;
 import cn.hyperchain.sdk.transaction.Transaction;
-import cn.hyperchain.sdk.transaction.TxVersion;
 
-import java.util.List;
-import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
 
 /**
  * request need to get receipt by polling.
@@ -60,24 +59,14 @@ public class PollingRequest extends Request {
             e.printStackTrace();
         }
         for (int i = 0; i < attempt; i++) {
+            providerManager.getMetrics().onPollingAttempt(getMethod());
             try {
                 return super.send();
             } catch (RequestException e) {
-                if (e.getCode().equals(-32003)) {
-                    ProviderManager.setTxVersion(providerManager);
-                    if (transaction != null && !transaction.getTxVersion().equal(TxVersion.GLOBAL_TX_VERSION)) {
-                        transaction.setTxVersion(TxVersion.GLOBAL_TX_VERSION);
-                        transaction.updatePayload();
-                        transaction.sign(transaction.getAccount());
-                        return reSendTransaction(tranRequest, transaction, true);
-                    }
+                if (e.getCode().equals(-32003) && resignWithGlobalTxVersion(false)) {
+                    return reSendTransaction(tranRequest, transaction, true);
                 }
-                if (e.getCode().equals(RequestExceptionCode.RECEIPT_NOT_FOUND.getCode()) ||
-                        e.getCode().equals(RequestExceptionCode.SYSTEM_BUSY.getCode()) ||
-                        e.getCode().equals(RequestExceptionCode.HTTP_TIME_OUT.getCode()) ||
-                        e.getCode().equals(RequestExceptionCode.NETWORK_GETBODY_FAILED.getCode()) ||
-                        e.getCode().equals(RequestExceptionCode.REQUEST_ERROR.getCode())
-                ) {
+                if (isPollingRetryable(e)) {
                     try {
                         sleepTime += stepSize;
                         Thread.sleep(sleepTime);
@@ -91,4 +80,45 @@ public class PollingRequest extends Request {
         }
         throw new RequestException(RequestExceptionCode.POLLING_TIME_OUT, "can't get receipt from server after " + attempt + " times attempt");
     }
+
+    @Override
+    public CompletableFuture<Response> sendAsync() {
+        return Async.delay(sleepTime).thenCompose(v -> pollAsync(0, sleepTime));
+    }
+
+    private CompletableFuture<Response> pollAsync(int times, long sleep) {
+        if (times >= attempt) {
+            return Async.failed(new RequestException(RequestExceptionCode.POLLING_TIME_OUT, "can't get receipt from server after " + attempt + " times attempt"));
+        }
+        providerManager.getMetrics().onPollingAttempt(getMethod());
+        CompletableFuture<Response> future = super.sendAsync();
+        return future.handle((response, e) -> {
+            if (e == null) {
+                return CompletableFuture.completedFuture(response);
+            }
+            Throwable cause = Async.unwrap(e);
+            if (!(cause instanceof RequestException)) {
+                return Async.<Response>failed(cause);
+            }
+            RequestException requestException = (RequestException) cause;
+            if (requestException.getCode().equals(-32003)) {
+                return Async.supply(() -> resignWithGlobalTxVersion(false)).thenCompose(resigned -> resigned
+                        ? reSendTransactionAsync(tranRequest, transaction, true)
+                        : Async.<Response>failed(requestException));
+            }
+            if (isPollingRetryable(requestException)) {
+                long next = sleep + stepSize;
+                return Async.delay(next).thenCompose(v -> pollAsync(times + 1, next));
+            }
+            return Async.<Response>failed(requestException);
+        }).thenCompose(Function.identity());
+    }
+
+    private static boolean isPollingRetryable(RequestException e) {
+        return e.getCode().equals(RequestExceptionCode.RECEIPT_NOT_FOUND.getCode()) ||
+                e.getCode().equals(RequestExceptionCode.SYSTEM_BUSY.getCode()) ||
+                e.getCode().equals(RequestExceptionCode.HTTP_TIME_OUT.getCode()) ||
+                e.getCode().equals(RequestExceptionCode.NETWORK_GETBODY_FAILED.getCode()) ||
+                e.getCode().equals(RequestExceptionCode.REQUEST_ERROR.getCode());
+    }
 }
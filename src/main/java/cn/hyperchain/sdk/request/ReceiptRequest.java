@@ -4,6 +4,7 @@ import cn.hyperchain.sdk.exception.RequestException;
 import cn.hyperchain.sdk.exception.RequestExceptionCode;
 import cn.hyperchain.sdk.provider.ProviderManager;
 import cn.hyperchain.sdk.response.Response;
+import cn.hyperchain.sdk.transaction.Transaction;
 
 public class ReceiptRequest extends Request {
 
@@ -11,6 +12,10 @@ public class ReceiptRequest extends Request {
         super(method, providerManager, clazz, nodeIds);
     }
 
+    public ReceiptRequest(String method, ProviderManager providerManager, Class clazz, Transaction transaction, int... nodeIds) {
+        super(method, providerManager, clazz, transaction, nodeIds);
+    }
+
 //    @Override
 //    public Response send() throws RequestException {
 //        Response response = null;
@@ -19,12 +19,14 @@ import com.google.gson.GsonBuilder;
 import com.google.gson.annotations.Expose;
 import org.bouncycastle.util.encoders.Hex;
 
+import java.io.IOException;
+import java.io.Reader;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.Callable;
-import java.util.concurrent.Future;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
 
 /**
  * <p>call param, will return a {@link Response}</p>.
@@ -121,56 +123,25 @@ public abstract class Request<K extends Response> {
      * @throws RequestException -
      */
     public K send() throws RequestException {
-        String res = null;
+        Object object;
         try {
-            Object object = providerManager.send(this, nodeIds);
-            if (object instanceof String) {
-                res = (String)object;
-            } else {
-                if (object instanceof ServerStreamManager && clazz.equals(MQGrpcConsumeResponse.class)) {
-                    return (K) new MQGrpcConsumeResponse((ServerStreamManager)object);
-                }
-                throw new RequestException(RequestExceptionCode.GRPC_RESPONSE_FAILED);
-            }
+            object = providerManager.send(this, nodeIds);
         } catch (RequestException e) {
             if (e.getCode().equals(RequestExceptionCode.GRPC_STREAM_FAILED.getCode())) {
+                providerManager.getMetrics().onRetry(method, e.getCode());
                 return (K)reSendTransaction(this, transaction, false);
             }
             throw e;
         }
-        K response;
-        if (isGRPC) {
-            try {
-                CommonRes commonRes = CommonRes.parseFrom(Hex.decode(res));
-                if (isJson) {
-                    String json = GrpcUtil.generateResponseJson(commonRes);
-                    response = gson.fromJson(json, clazz);
-                } else {
-                    response = clazz.newInstance();
-                    response.fromGRPCCommonRes(commonRes);
-                }
-            } catch (Exception e) {
-                throw new RequestException(RequestExceptionCode.GRPC_RESPONSE_FAILED);
-            }
-
-        } else {
-            response = gson.fromJson(res, clazz);
-        }
+        K response = decode(object);
         if (response.getCode() != 0) {
             RequestException requestException = new RequestException(response.getCode(), response.getMessage());
-            if (requestException.getCode().equals(-32003)) {
-                ProviderManager.setTxVersion(providerManager);
-                if (TxVersion.GLOBAL_TX_VERSION.isGreaterOrEqual(TxVersion.TxVersion34) && transaction != null && !transaction.getTxVersion().equal(TxVersion.GLOBAL_TX_VERSION)) {
-                    transaction.setTxVersion(TxVersion.GLOBAL_TX_VERSION);
-                    transaction.updatePayload();
-                    transaction.sign(transaction.getAccount());
-                    return (K) reSendTransaction(this, transaction, false);
-                }
+            if (requestException.getCode().equals(-32003) && resignWithGlobalTxVersion(true)) {
+                providerManager.getMetrics().onRetry(method, requestException.getCode());
+                return (K) reSendTransaction(this, transaction, false);
             }
-            if (!usedAllProviders && (requestException.getCode().equals(RequestExceptionCode.CONSENSUS_STATUS_ABNORMAL.getCode()) ||
-                    requestException.getCode().equals(RequestExceptionCode.DISPATCHER_FULL.getCode()) ||
-                    requestException.getCode().equals(RequestExceptionCode.QPS_LIMIT.getCode()) ||
-                    requestException.getCode().equals(RequestExceptionCode.SIMULATE_LIMIT.getCode()))) {
+            if (isRetryable(requestException)) {
+                providerManager.getMetrics().onRetry(method, requestException.getCode());
                 return send();
             }
             throw requestException;
@@ -180,23 +151,145 @@ public abstract class Request<K extends Response> {
     }
 
     /**
-     * default async send.
+     * default async send. Failover, retries and response decoding run as stages of the returned future,
+     * the calling thread never waits for the node.
      *
-     * @return future of {@link Response}
+     * @return future of {@link Response}, failed with the {@link RequestException} {@link #send()} would throw
      */
-    public final Future<K> sendAsync() {
-        return Async.run(new Callable<K>() {
-            @Override
-            public K call() throws Exception {
-                return Request.this.send();
+    public CompletableFuture<K> sendAsync() {
+        return providerManager.sendAsync(this, nodeIds).handle((object, e) -> {
+            if (e != null) {
+                Throwable cause = Async.unwrap(e);
+                if (cause instanceof RequestException && ((RequestException) cause).getCode().equals(RequestExceptionCode.GRPC_STREAM_FAILED.getCode())) {
+                    providerManager.getMetrics().onRetry(method, RequestExceptionCode.GRPC_STREAM_FAILED.getCode());
+                    return (CompletableFuture<K>) reSendTransactionAsync(this, transaction, false);
+                }
+                return Async.<K>failed(cause);
+            }
+            K response;
+            try {
+                response = decode(object);
+            } catch (RequestException requestException) {
+                return Async.<K>failed(requestException);
+            }
+            if (response.getCode() == 0) {
+                return CompletableFuture.completedFuture(response);
+            }
+            RequestException requestException = new RequestException(response.getCode(), response.getMessage());
+            if (requestException.getCode().equals(-32003)) {
+                // refreshing the TxVersion asks every node synchronously, keep it off the transport threads
+                return Async.supply(() -> resignWithGlobalTxVersion(true)).thenCompose(resigned -> {
+                    if (!resigned) {
+                        return Async.<K>failed(requestException);
+                    }
+                    providerManager.getMetrics().onRetry(method, requestException.getCode());
+                    return (CompletableFuture<K>) reSendTransactionAsync(this, transaction, false);
+                });
+            }
+            if (isRetryable(requestException)) {
+                providerManager.getMetrics().onRetry(method, requestException.getCode());
+                return Request.this.sendAsync();
+            }
+            return Async.<K>failed(requestException);
+        }).thenCompose(Function.identity());
+    }
+
+    private K decode(Object object) throws RequestException {
+        if (clazz != null && clazz.isInstance(object)) {
+            // already read from the http body by readResponse
+            return (K) object;
+        }
+        if (object instanceof CommonRes) {
+            return decode((CommonRes) object);
+        }
+        String res;
+        if (object instanceof String) {
+            res = (String) object;
+        } else {
+            if (object instanceof ServerStreamManager && clazz.equals(MQGrpcConsumeResponse.class)) {
+                return (K) new MQGrpcConsumeResponse((ServerStreamManager) object);
+            }
+            throw new RequestException(RequestExceptionCode.GRPC_RESPONSE_FAILED);
+        }
+        if (isGRPC) {
+            // a provider that still hands over the hex of the CommonRes
+            CommonRes commonRes;
+            try {
+                commonRes = CommonRes.parseFrom(Hex.decode(res));
+            } catch (Exception e) {
+                throw new RequestException(RequestExceptionCode.GRPC_RESPONSE_FAILED);
+            }
+            return decode(commonRes);
+        }
+        return gson.fromJson(res, clazz);
+    }
+
+    private K decode(CommonRes commonRes) throws RequestException {
+        K response;
+        try {
+            if (isJson) {
+                String json = GrpcUtil.generateResponseJson(commonRes);
+                response = gson.fromJson(json, clazz);
+            } else {
+                response = clazz.newInstance();
+                response.fromGRPCCommonRes(commonRes);
             }
-        });
+        } catch (Exception e) {
+            throw new RequestException(RequestExceptionCode.GRPC_RESPONSE_FAILED);
+        }
+        return response;
+    }
+
+    private boolean isRetryable(RequestException requestException) {
+        return !usedAllProviders && (requestException.getCode().equals(RequestExceptionCode.CONSENSUS_STATUS_ABNORMAL.getCode()) ||
+                requestException.getCode().equals(RequestExceptionCode.DISPATCHER_FULL.getCode()) ||
+                requestException.getCode().equals(RequestExceptionCode.QPS_LIMIT.getCode()) ||
+                requestException.getCode().equals(RequestExceptionCode.SIMULATE_LIMIT.getCode()));
+    }
+
+    /**
+     * refresh the global TxVersion after the node rejected it, and re-sign the transaction if its version is outdated.
+     *
+     * @param sinceTxVersion34 only re-sign when the platform TxVersion is at least {@link TxVersion#TxVersion34}
+     * @return true if the transaction was re-signed and should be sent again
+     */
+    protected boolean resignWithGlobalTxVersion(boolean sinceTxVersion34) {
+        ProviderManager.setTxVersion(providerManager);
+        if ((!sinceTxVersion34 || TxVersion.GLOBAL_TX_VERSION.isGreaterOrEqual(TxVersion.TxVersion34)) && transaction != null && !transaction.getTxVersion().equal(TxVersion.GLOBAL_TX_VERSION)) {
+            transaction.setTxVersion(TxVersion.GLOBAL_TX_VERSION);
+            transaction.updatePayload();
+            transaction.sign(transaction.getAccount());
+            return true;
+        }
+        return false;
     }
 
     public String requestBody() {
         return gson.toJson(this);
     }
 
+    /**
+     * whether {@link cn.hyperchain.sdk.provider.HttpProvider#postStreaming} decodes the response body with
+     * {@link #readResponse(Reader)} while reading it, instead of returning the body as a String.
+     * Requests without a response class get the String.
+     *
+     * @return true to read the response as a stream
+     */
+    public boolean isStreamingResponse() {
+        return clazz != null;
+    }
+
+    /**
+     * decode the json body of an http response into the response of this request, in one pass over the stream.
+     *
+     * @param body response body
+     * @return {@link Response}
+     * @throws IOException if the body can't be read
+     */
+    public K readResponse(Reader body) throws IOException {
+        return gson.fromJson(body, clazz);
+    }
+
     public final String getJsonrpc() {
         return jsonrpc;
     }
@@ -326,6 +419,24 @@ public abstract class Request<K extends Response> {
     }
 
     protected Response reSendTransaction(Request request, Transaction transaction, boolean needPolling) throws RequestException {
+        prepareResend(request, transaction);
+        if (needPolling) {
+            PollingResponse pollingResponse = (PollingResponse) request.send();
+            return pollingResponse.polling();
+        }
+        return request.send();
+    }
+
+    protected CompletableFuture<Response> reSendTransactionAsync(Request request, Transaction transaction, boolean needPolling) {
+        prepareResend(request, transaction);
+        CompletableFuture<Response> future = request.sendAsync();
+        if (needPolling) {
+            return future.thenCompose(response -> ((PollingResponse) response).pollingAsync().thenApply(receipt -> (Response) receipt));
+        }
+        return future;
+    }
+
+    private static void prepareResend(Request request, Transaction transaction) {
         request.clearUsedProviders();
         Map<String, Object> txParamMap = transaction.commonParamMap();
         if (request.getMethod().contains("contract_deployContract")) {
@@ -338,10 +449,5 @@ public abstract class Request<K extends Response> {
         }
         request.clearParams();
         request.addParams(txParamMap);
-        if (needPolling) {
-            PollingResponse pollingResponse = (PollingResponse) request.send();
-            return pollingResponse.polling();
-        }
-        return request.send();
     }
 }
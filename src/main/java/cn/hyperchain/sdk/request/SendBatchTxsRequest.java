@@ -1,6 +1,8 @@
 package cn.hyperchain.sdk.request;
 
+import cn.hyperchain.sdk.common.utils.Async;
 import cn.hyperchain.sdk.exception.RequestException;
+import cn.hyperchain.sdk.exception.RequestExceptionCode;
 import cn.hyperchain.sdk.provider.ProviderManager;
 import cn.hyperchain.sdk.response.Response;
 import cn.hyperchain.sdk.response.TxHashResponse;
@@ -8,9 +10,15 @@ import cn.hyperchain.sdk.response.TxHashesResponse;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
 import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
 
+import java.io.IOException;
+import java.io.Reader;
 import java.lang.reflect.Type;
 import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * this class represents sending batch transactions request.
@@ -23,6 +31,8 @@ public class SendBatchTxsRequest extends Request {
     private ArrayList<Request> requests;
     private TxHashesResponse responses;
     private static final Gson gson = new GsonBuilder().excludeFieldsWithoutExposeAnnotation().create();
+    private static final Type RESPONSES_TYPE = new TypeToken<ArrayList<TxHashResponse>>() {
+    }.getType();
 
     /**
      * constructor.
@@ -41,17 +51,55 @@ public class SendBatchTxsRequest extends Request {
 
     @Override
     public Response send() throws RequestException {
-        String result = (String) this.providerManager.send(this, this.nodeIds);
+        return collect(toResponses(this.providerManager.send(this, this.nodeIds)));
+    }
 
-        Type responsesType = new TypeToken<ArrayList<TxHashResponse>>() {
-        }.getType();
+    @Override
+    public CompletableFuture<Response> sendAsync() {
+        return this.providerManager.sendAsync(this, this.nodeIds).thenCompose(result -> {
+            try {
+                return CompletableFuture.completedFuture(collect(toResponses(result)));
+            } catch (RequestException e) {
+                return Async.failed(e);
+            }
+        });
+    }
 
-        if (!result.startsWith("[")) {
-            result = "[" + result + "]";
+    private List<TxHashResponse> toResponses(Object result) {
+        if (!(result instanceof String)) {
+            return ((TxHashesResponse) result).getResponses();
         }
+        String body = (String) result;
+        if (!body.startsWith("[")) {
+            body = "[" + body + "]";
+        }
+        return gson.fromJson(body, RESPONSES_TYPE);
+    }
 
-        ArrayList<TxHashResponse> txHashResponses = gson.fromJson(result, responsesType);
+    /**
+     * reads the responses only, they are matched to the transactions by {@link #collect(List)} once the size is checked.
+     */
+    @Override
+    public Response readResponse(Reader body) throws IOException {
+        JsonReader reader = gson.newJsonReader(body);
+        TxHashesResponse read = new TxHashesResponse();
+        if (reader.peek() == JsonToken.BEGIN_ARRAY) {
+            ArrayList<TxHashResponse> txHashResponses = gson.fromJson(reader, RESPONSES_TYPE);
+            for (TxHashResponse txHashResponse : txHashResponses) {
+                read.addResponse(txHashResponse);
+            }
+        } else {
+            read.addResponse(gson.fromJson(reader, TxHashResponse.class));
+        }
+        return read;
+    }
 
+    private Response collect(List<TxHashResponse> txHashResponses) throws RequestException {
+        // fewer responses are left to the caller, a single one may reject the whole batch
+        if (txHashResponses.size() > this.requests.size()) {
+            throw new RequestException(RequestExceptionCode.NETWORK_GETBODY_FAILED,
+                    "batch response size mismatch, " + txHashResponses.size() + " responses for " + this.requests.size() + " transactions");
+        }
         for (int i = 0; i < txHashResponses.size(); i++) {
             TxHashResponse txHashResponse = txHashResponses.get(i);
             txHashResponse.setTranRequest(this.requests.get(i));
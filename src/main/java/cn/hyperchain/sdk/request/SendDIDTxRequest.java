@@ -6,6 +6,8 @@ import cn.hyperchain.sdk.response.Response;
 import cn.hyperchain.sdk.response.TxHashResponse;
 import cn.hyperchain.sdk.transaction.Transaction;
 
+import java.util.concurrent.CompletableFuture;
+
 
 public class SendDIDTxRequest extends Request {
 
@@ -22,4 +24,16 @@ public class SendDIDTxRequest extends Request {
         response.setProviderManager(this.providerManager);
         return response;
     }
+
+    @Override
+    public CompletableFuture<Response> sendAsync() {
+        CompletableFuture<Response> future = super.sendAsync();
+        return future.thenApply(result -> {
+            TxHashResponse response = (TxHashResponse) result;
+            response.setTranRequest(this);
+            response.setNodeIds(this.nodeIds);
+            response.setProviderManager(this.providerManager);
+            return response;
+        });
+    }
 }
@@ -1,7 +1,10 @@
 package cn.hyperchain.sdk.response;
 
+import cn.hyperchain.sdk.common.utils.Async;
 import cn.hyperchain.sdk.exception.RequestException;
+import cn.hyperchain.sdk.exception.RequestExceptionCode;
 import cn.hyperchain.sdk.provider.ProviderManager;
+import cn.hyperchain.sdk.provider.ReceiptWaiter;
 import cn.hyperchain.sdk.request.PollingRequest;
 import cn.hyperchain.sdk.request.Request;
 import com.google.gson.Gson;
@@ -9,6 +12,10 @@ import com.google.gson.GsonBuilder;
 import com.google.gson.JsonElement;
 import com.google.gson.annotations.Expose;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Function;
+
 public abstract class PollingResponse extends Response {
     protected Request tranRequest;
     @Expose
@@ -50,19 +57,68 @@ public abstract class PollingResponse extends Response {
      * @throws RequestException -
      */
     public ReceiptResponse polling(int attempt, long sleepTime, long stepSize) throws RequestException {
+        try {
+            return pollingAsync(attempt, sleepTime, stepSize).get();
+        } catch (ExecutionException e) {
+            Throwable cause = Async.unwrap(e);
+            if (cause instanceof RequestException) {
+                throw (RequestException) cause;
+            }
+            throw new RequestException(RequestExceptionCode.POLLING_TIME_OUT, cause.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RequestException(RequestExceptionCode.POLLING_TIME_OUT, e.getMessage());
+        }
+    }
+
+    /**
+     * polling to get receipt by txHash without blocking the calling thread.
+     *
+     * @return future of {@link ReceiptResponse}
+     */
+    public CompletableFuture<ReceiptResponse> pollingAsync() {
+        return pollingAsync(10, 50, 50);
+    }
+
+    /**
+     * polling to get receipt by txHash with self-defined parameter, without blocking the calling thread.
+     * The receipt is fetched together with other pending ones by the {@link ReceiptWaiter} of the provider manager,
+     * the parameters only bound the total waiting time.
+     *
+     * @param attempt   request times
+     * @param sleepTime unit ms, the time interval between two adjacent requests
+     * @param stepSize  unit ms, the value of an increase in sleepTime after get receipt failed
+     * @return future of {@link ReceiptResponse}, failed with {@link RequestException}
+     */
+    public CompletableFuture<ReceiptResponse> pollingAsync(int attempt, long sleepTime, long stepSize) {
         // simulate
         if (!result.isJsonPrimitive()) {
             ReceiptResponse.Receipt receipt = gson.fromJson(result, ReceiptResponse.Receipt.class);
-            return new ReceiptResponse(this, receipt);
+            return CompletableFuture.completedFuture(new ReceiptResponse(this, receipt));
         }
 
+        long timeout = sleepTime * (attempt + 1) + stepSize * attempt * (attempt + 1) / 2;
+        return providerManager.getReceiptWaiter().waitFor(getTxHash(), timeout, nodeIds).handle((receipt, e) -> {
+            if (e == null) {
+                return CompletableFuture.completedFuture(receipt);
+            }
+            Throwable cause = Async.unwrap(e);
+            if (cause instanceof RequestException && ((RequestException) cause).getCode().equals(-32003)) {
+                // the transaction has to be signed again, let PollingRequest resend it
+                return pollAsync(attempt, sleepTime, stepSize);
+            }
+            return Async.<ReceiptResponse>failed(cause);
+        }).thenCompose(Function.identity());
+    }
+
+    private CompletableFuture<ReceiptResponse> pollAsync(int attempt, long sleepTime, long stepSize) {
         PollingRequest pollingRequest = new PollingRequest("tx_getTransactionReceipt", providerManager, ReceiptResponse.class, tranRequest.getTransaction(), nodeIds);
         pollingRequest.setTranRequest(tranRequest);
         pollingRequest.setAttempt(attempt);
         pollingRequest.setSleepTime(sleepTime);
         pollingRequest.setStepSize(stepSize);
         pollingRequest.addParams(getTxHash());
-        return (ReceiptResponse) pollingRequest.send();
+        return pollingRequest.sendAsync().thenApply(response -> (ReceiptResponse) response);
     }
 
     /**
@@ -28,6 +28,10 @@ public class TxHashesResponse extends Response {
         responses.add(response);
     }
 
+    public ArrayList<TxHashResponse> getResponses() {
+        return responses;
+    }
+
     /**
      * polling to get receipt.
      * @param attempt request times
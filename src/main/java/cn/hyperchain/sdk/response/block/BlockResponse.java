@@ -1,20 +1,17 @@
 package cn.hyperchain.sdk.response.block;
 
+import cn.hyperchain.sdk.common.adapter.SingleOrListAdapterFactory;
 import cn.hyperchain.sdk.response.Response;
 import cn.hyperchain.sdk.response.tx.TxResponse;
-import com.google.gson.Gson;
-import com.google.gson.GsonBuilder;
-import com.google.gson.JsonArray;
-import com.google.gson.JsonElement;
 import com.google.gson.annotations.Expose;
+import com.google.gson.annotations.JsonAdapter;
 
-import java.util.ArrayList;
 import java.util.List;
 
 public class BlockResponse extends Response {
     @Expose
-    private JsonElement result;
-    static Gson gson = new GsonBuilder().excludeFieldsWithoutExposeAnnotation().create();
+    @JsonAdapter(SingleOrListAdapterFactory.class)
+    private List<Block> result;
 
     public class Block {
         @Expose
@@ -101,17 +98,7 @@ public class BlockResponse extends Response {
      * @return block list
      */
     public List<Block> getResult() {
-        ArrayList<Block> blocks = new ArrayList<>();
-        if (result.isJsonArray()) {
-            JsonArray jsonArray = result.getAsJsonArray();
-            for (JsonElement jsonElement : jsonArray) {
-                blocks.add(gson.fromJson(jsonElement, Block.class));
-            }
-        } else {
-            Block block = gson.fromJson(result, Block.class);
-            blocks.add(block);
-        }
-        return blocks;
+        return result;
     }
 
     @Override
@@ -1,18 +1,14 @@
 package cn.hyperchain.sdk.response.tx;
 
+import cn.hyperchain.sdk.common.adapter.SingleOrListAdapterFactory;
 import cn.hyperchain.sdk.response.Response;
-import com.google.gson.Gson;
-import com.google.gson.GsonBuilder;
-import com.google.gson.JsonArray;
-import com.google.gson.JsonElement;
 import com.google.gson.annotations.Expose;
+import com.google.gson.annotations.JsonAdapter;
 
 import java.util.ArrayList;
 import java.util.List;
 
 public class TxResponse extends Response {
-    static Gson gson = new GsonBuilder().excludeFieldsWithoutExposeAnnotation().create();
-
     public class Transaction {
 
         @Expose
@@ -164,7 +160,8 @@ public class TxResponse extends Response {
     }
 
     @Expose
-    private JsonElement result;
+    @JsonAdapter(SingleOrListAdapterFactory.class)
+    private List<Transaction> result;
 
     /**
      * get transaction list.
@@ -172,18 +169,7 @@ public class TxResponse extends Response {
      * @return list of transactions
      */
     public List<Transaction> getResult() {
-        List<Transaction> transactions = new ArrayList<>();
-
-        if (result.isJsonArray()) {
-            JsonArray jsonArray = result.getAsJsonArray();
-            for (JsonElement jsonElement : jsonArray) {
-                transactions.add(gson.fromJson(jsonElement, Transaction.class));
-            }
-        } else {
-            transactions.add(gson.fromJson(result, Transaction.class));
-        }
-
-        return transactions;
+        return result;
     }
 
     @Override
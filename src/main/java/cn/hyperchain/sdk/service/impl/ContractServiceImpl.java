@@ -51,7 +51,7 @@ public class ContractServiceImpl implements ContractService {
 
     @Override
     public Request<ReceiptResponse> grpcDeployReturnReceipt(Transaction transaction, int... nodeIds) {
-        ReceiptRequest receiptRequest = new ReceiptRequest(methodName("deployContractReturnReceipt", transaction), providerManager, ReceiptResponse.class, nodeIds);
+        ReceiptRequest receiptRequest = new ReceiptRequest(methodName("deployContractReturnReceipt", transaction), providerManager, ReceiptResponse.class, transaction, nodeIds);
 
         Map<String, Object> txParamMap = transaction.commonParamMap();
         txParamMap.remove("to");
@@ -81,7 +81,7 @@ public class ContractServiceImpl implements ContractService {
 
     @Override
     public Request<ReceiptResponse> grpcInvokeReturnReceipt(Transaction transaction, int... nodeIds) {
-        ReceiptRequest receiptRequest = new ReceiptRequest(methodName("invokeContractReturnReceipt", transaction), providerManager, ReceiptResponse.class, nodeIds);
+        ReceiptRequest receiptRequest = new ReceiptRequest(methodName("invokeContractReturnReceipt", transaction), providerManager, ReceiptResponse.class, transaction, nodeIds);
 
         Map<String, Object> txParamMap = transaction.commonParamMap();
 
@@ -118,7 +118,7 @@ public class ContractServiceImpl implements ContractService {
 
     @Override
     public Request<ReceiptResponse> grpcMaintainReturnReceipt(Transaction transaction, int... nodeIds) {
-        ReceiptRequest receiptRequest = new ReceiptRequest(methodName("maintainContractReturnReceipt", transaction), providerManager, ReceiptResponse.class, nodeIds);
+        ReceiptRequest receiptRequest = new ReceiptRequest(methodName("maintainContractReturnReceipt", transaction), providerManager, ReceiptResponse.class, transaction, nodeIds);
         Map<String, Object> params = transaction.commonParamMap();
 
         receiptRequest.addParams(params);
@@ -139,7 +139,7 @@ public class ContractServiceImpl implements ContractService {
 
     @Override
     public Request<ReceiptResponse> grpcManageContractByVoteReturnReceipt(Transaction transaction, int... nodeIds) {
-        ReceiptRequest receiptRequest = new ReceiptRequest(methodName("manageContractByVoteReturnReceipt", transaction), providerManager, ReceiptResponse.class, nodeIds);
+        ReceiptRequest receiptRequest = new ReceiptRequest(methodName("manageContractByVoteReturnReceipt", transaction), providerManager, ReceiptResponse.class, transaction, nodeIds);
         Map<String, Object> params = transaction.commonParamMap();
 
         receiptRequest.addParams(params);
@@ -32,7 +32,7 @@ public class DIDServiceImpl implements DIDService {
     }
 
     private Request<ReceiptResponse> grpcSendDIDTransactionReturnReceipt(Transaction transaction, int...nodeIds) {
-        ReceiptRequest receiptRequest = new ReceiptRequest(DID_PREFIX + "sendDIDTransactionReturnReceipt", providerManager, ReceiptResponse.class, nodeIds);
+        ReceiptRequest receiptRequest = new ReceiptRequest(DID_PREFIX + "sendDIDTransactionReturnReceipt", providerManager, ReceiptResponse.class, transaction, nodeIds);
         receiptRequest.addParams(transaction.commonParamMap());
         return receiptRequest;
     }
@@ -147,9 +147,9 @@ public class FileMgrServiceImpl implements FileMgrService {
         String fileHash;
         try {
             randomAccessFile = new RandomAccessFile(file, "rw");
-            fileHash = FileExtra.getFileMD5String(randomAccessFile);
+            fileHash = FileExtra.getFileHashString(randomAccessFile, fileParams.getHashAlgo());
         } catch (Exception e) {
-            throw new FileMgrException("get file md5 failed," + e.getMessage());
+            throw new FileMgrException("get file hash failed," + e.getMessage());
         }
 
         FileExtra fileExtra = new FileExtra.FileExtraBuilder()
@@ -31,7 +31,7 @@ public class SqlServiceImpl implements SqlService {
 
     @Override
     public Request<ReceiptResponse> grpcInvokeReturnReceipt(Transaction transaction, int... nodeIds) {
-        ReceiptRequest receiptRequest = new ReceiptRequest(methodName("invokeContractReturnReceipt", transaction), providerManager, ReceiptResponse.class, nodeIds);
+        ReceiptRequest receiptRequest = new ReceiptRequest(methodName("invokeContractReturnReceipt", transaction), providerManager, ReceiptResponse.class, transaction, nodeIds);
         receiptRequest.addParams(transaction.commonParamMap());
         return receiptRequest;
     }
@@ -46,7 +46,7 @@ public class SqlServiceImpl implements SqlService {
 
     @Override
     public Request<ReceiptResponse> grpcMaintainReturnReceipt(Transaction transaction, int... nodeIds) {
-        ReceiptRequest receiptRequest = new ReceiptRequest(methodName("maintainContractReturnReceipt", transaction), providerManager, ReceiptResponse.class, nodeIds);
+        ReceiptRequest receiptRequest = new ReceiptRequest(methodName("maintainContractReturnReceipt", transaction), providerManager, ReceiptResponse.class, transaction, nodeIds);
         receiptRequest.addParams(transaction.commonParamMap());
         return receiptRequest;
     }
@@ -62,7 +62,7 @@ public class SqlServiceImpl implements SqlService {
 
     @Override
     public Request<ReceiptResponse> grpcCreateReturnReceipt(Transaction transaction, int... nodeIds) {
-        ReceiptRequest receiptRequest = new ReceiptRequest(methodName("deployContractReturnReceipt", transaction), providerManager, ReceiptResponse.class, nodeIds);
+        ReceiptRequest receiptRequest = new ReceiptRequest(methodName("deployContractReturnReceipt", transaction), providerManager, ReceiptResponse.class, transaction, nodeIds);
         Map param = transaction.commonParamMap();
         param.remove("to");
         receiptRequest.addParams(param);
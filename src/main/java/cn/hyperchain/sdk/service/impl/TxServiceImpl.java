@@ -623,7 +623,7 @@ public class TxServiceImpl implements TxService {
 
     @Override
     public Request<ReceiptResponse> grpcSendTxReturnReceipt(Transaction transaction, int... nodeIds) {
-        ReceiptRequest receiptRequest = new ReceiptRequest(TX_PREFIX + "sendTransactionReturnReceipt", providerManager, ReceiptResponse.class, nodeIds);
+        ReceiptRequest receiptRequest = new ReceiptRequest(TX_PREFIX + "sendTransactionReturnReceipt", providerManager, ReceiptResponse.class, transaction, nodeIds);
         receiptRequest.addParams(transaction.commonParamMap());
         return receiptRequest;
     }
@@ -1,6 +1,7 @@
 package cn.hyperchain.sdk.service.params;
 
 import cn.hyperchain.sdk.account.Account;
+import cn.hyperchain.sdk.common.utils.FileExtra;
 
 public class FileUploadParams {
 
@@ -64,6 +65,16 @@ public class FileUploadParams {
 
     private int[] pushNodes;
 
+    private FileExtra.HashAlgo hashAlgo = FileExtra.HashAlgo.MD5;
+
+    public FileExtra.HashAlgo getHashAlgo() {
+        return hashAlgo;
+    }
+
+    public void setHashAlgo(FileExtra.HashAlgo hashAlgo) {
+        this.hashAlgo = hashAlgo;
+    }
+
     /**
      * get a FilterParam builder.
      */
@@ -98,6 +109,11 @@ public class FileUploadParams {
             return this;
         }
 
+        public FileUploadParams.Builder hashAlgo(FileExtra.HashAlgo hashAlgo) {
+            params.setHashAlgo(hashAlgo);
+            return this;
+        }
+
         public FileUploadParams build() {
             return this.params;
         }
@@ -0,0 +1,157 @@
+package cn.hyperchain.sdk.transaction;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * NeedHashWriter writes the utf-8 bytes of a transaction's need hash string, the data its signature is made over,
+ * into a growable buffer, lower casing and hex formatting in place instead of concatenating strings.
+ * One writer per thread is reused, it gives back a buffer grown by a large payload after the transaction.
+ */
+final class NeedHashWriter {
+    private static final int INITIAL_SIZE = 512;
+    private static final int MAX_RETAINED_SIZE = 64 * 1024;
+    private static final byte[] HEX = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+    private static final ThreadLocal<NeedHashWriter> WRITERS = ThreadLocal.withInitial(NeedHashWriter::new);
+
+    private byte[] buf = new byte[INITIAL_SIZE];
+    private int len;
+
+    private NeedHashWriter() {
+    }
+
+    /**
+     * get the writer of the current thread, emptied.
+     *
+     * @return {@link NeedHashWriter}
+     */
+    static NeedHashWriter get() {
+        NeedHashWriter writer = WRITERS.get();
+        if (writer.buf.length > MAX_RETAINED_SIZE) {
+            writer.buf = new byte[INITIAL_SIZE];
+        }
+        writer.len = 0;
+        return writer;
+    }
+
+    /**
+     * append a string as utf-8, "null" for null like string concatenation.
+     *
+     * @param s string
+     * @return this
+     */
+    NeedHashWriter append(String s) {
+        if (s == null) {
+            s = "null";
+        }
+        int length = s.length();
+        ensure(length);
+        for (int i = 0; i < length; i++) {
+            char c = s.charAt(i);
+            if (c >= 0x80) {
+                len -= i;
+                return write(s.getBytes(StandardCharsets.UTF_8));
+            }
+            buf[len++] = (byte) c;
+        }
+        return this;
+    }
+
+    /**
+     * append a decimal int, as {@link Integer#toString(int)}.
+     *
+     * @param value int
+     * @return this
+     */
+    NeedHashWriter append(int value) {
+        return append(Integer.toString(value));
+    }
+
+    /**
+     * append the lower case of a string with a "0x" prefix if the lower case has none.
+     *
+     * @param s string, lower cased with the default locale as {@link String#toLowerCase()}
+     * @return this
+     */
+    NeedHashWriter appendPrefixedLowerCase(String s) {
+        int length = s.length();
+        ensure(length + 2);
+        int start = len;
+        if (length < 2 || s.charAt(0) != '0' || (s.charAt(1) != 'x' && s.charAt(1) != 'X')) {
+            buf[len++] = '0';
+            buf[len++] = 'x';
+        }
+        for (int i = 0; i < length; i++) {
+            char c = s.charAt(i);
+            // non ascii and 'I' lower case differently in some locales
+            if (c >= 0x80 || c == 'I') {
+                len = start;
+                return appendPrefixed(s.toLowerCase());
+            }
+            buf[len++] = (byte) (c >= 'A' && c <= 'Z' ? c + ('a' - 'A') : c);
+        }
+        return this;
+    }
+
+    /**
+     * append a string with a "0x" prefix if it has none.
+     *
+     * @param s string
+     * @return this
+     */
+    NeedHashWriter appendPrefixed(String s) {
+        if (!s.startsWith("0x")) {
+            append("0x");
+        }
+        return append(s);
+    }
+
+    /**
+     * append an int as {@link Integer#toHexString(int)}.
+     *
+     * @param value int
+     * @return this
+     */
+    NeedHashWriter appendHex(int value) {
+        return appendHex(value & 0xffffffffL);
+    }
+
+    /**
+     * append a long as {@link Long#toHexString(long)}.
+     *
+     * @param value long
+     * @return this
+     */
+    NeedHashWriter appendHex(long value) {
+        int digits = Math.max(1, (Long.SIZE - Long.numberOfLeadingZeros(value) + 3) / 4);
+        ensure(digits);
+        for (int i = len + digits - 1; i >= len; i--) {
+            buf[i] = HEX[(int) (value & 0xf)];
+            value >>>= 4;
+        }
+        len += digits;
+        return this;
+    }
+
+    /**
+     * copy out the written bytes.
+     *
+     * @return byte[]
+     */
+    byte[] toByteArray() {
+        return Arrays.copyOf(buf, len);
+    }
+
+    private NeedHashWriter write(byte[] bytes) {
+        ensure(bytes.length);
+        System.arraycopy(bytes, 0, buf, len, bytes.length);
+        len += bytes.length;
+        return this;
+    }
+
+    private void ensure(int n) {
+        if (buf.length - len < n) {
+            buf = Arrays.copyOf(buf, Math.max(buf.length * 2, len + n));
+        }
+    }
+}
@@ -14,7 +14,6 @@ import cn.hyperchain.sdk.common.utils.ByteUtil;
 import cn.hyperchain.sdk.common.utils.MethodNameUtil;
 import cn.hyperchain.sdk.common.utils.FVMAbi;
 import cn.hyperchain.sdk.common.utils.Utils;
-import cn.hyperchain.sdk.crypto.HashUtil;
 import cn.hyperchain.sdk.did.DIDCredential;
 import cn.hyperchain.sdk.did.DIDDocument;
 import cn.hyperchain.sdk.did.DIDPublicKey;
@@ -29,7 +28,7 @@ import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonParseException;
 import com.google.protobuf.ByteString;
-import org.bouncycastle.util.encoders.Hex;
+import com.google.protobuf.UnsafeByteOperations;
 
 import java.io.ByteArrayInputStream;
 import java.io.InputStream;
@@ -38,7 +37,10 @@ import java.nio.charset.Charset;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 public class Transaction {
     private Transaction() {
@@ -50,6 +52,7 @@ public class Transaction {
     public static final long DEFAULT_GAS_LIMIT_FLATO = 10000000;
     private static final int EXTRAID_STRING_MAX_LENGTH = 1024;
     private static final int EXTRAID_LIST_MAX_LENGTH = 30;
+    private static final int PARALLEL_HASH_THRESHOLD = 64;
 
     // maintain opcode const
     private static final int UPDATE = 1;
@@ -85,6 +88,8 @@ public class Transaction {
     private ArrayList<String> extraIdString;
     private String signature = "";
     private String needHashString;
+    // what sign signed, needHashString is decoded from it when asked for
+    private byte[] needHashBytes;
     private String contractName = "";
     private TxVersion txVersion = TxVersion.GLOBAL_TX_VERSION;
 
@@ -773,36 +778,51 @@ public class Transaction {
      * setNeedHashString.
      */
     public void setNeedHashString() {
+        this.needHashBytes = null;
+        this.needHashString = new String(needHashBytes(), Utils.DEFAULT_CHARSET);
+    }
+
+    private byte[] needHashBytes() {
+        NeedHashWriter writer = NeedHashWriter.get();
         // flato
         if (txVersion.isGreaterOrEqual(TxVersion.TxVersion20)) {
-            String payload = Utils.isBlank(this.payload) ? "0x0" : chPrefix(this.payload.toLowerCase());
-            this.needHashString = "from=" + chPrefix(from.toLowerCase())
-                    + "&to=" + chPrefix(to.toLowerCase())
-                    + "&value=" + chPrefix(Long.toHexString(this.value))
-                    + "&payload=" + payload
-                    + "&timestamp=0x" + Long.toHexString(this.timestamp)
-                    + "&nonce=0x" + Long.toHexString(this.nonce)
-                    + "&opcode=" + Integer.toHexString(this.opCode)
-                    + "&extra=" + this.extra
-                    + "&vmtype=" + this.vmType.getType()
-                    + "&version=" + this.txVersion.getVersion();
+            writer.append("from=").appendPrefixedLowerCase(from)
+                    .append("&to=").appendPrefixedLowerCase(to)
+                    .append("&value=0x").appendHex(this.value)
+                    .append("&payload=");
+            if (Utils.isBlank(this.payload)) {
+                writer.append("0x0");
+            } else {
+                writer.appendPrefixedLowerCase(this.payload);
+            }
+            writer.append("&timestamp=0x").appendHex(this.timestamp)
+                    .append("&nonce=0x").appendHex(this.nonce)
+                    .append("&opcode=").appendHex(this.opCode)
+                    .append("&extra=").append(this.extra)
+                    .append("&vmtype=").append(this.vmType.getType())
+                    .append("&version=").append(this.txVersion.getVersion());
             if (txVersion.isGreaterOrEqual(TxVersion.TxVersion21)) {
-                this.needHashString += "&extraid=" + this.buildExtraID();
+                writer.append("&extraid=").append(this.buildExtraID());
             }
             if (txVersion.isGreaterOrEqual(TxVersion.TxVersion22)) {
-                this.needHashString += "&cname=" + this.contractName;
+                writer.append("&cname=").append(this.contractName);
             }
         } else { // hyperchain
-            String value = Utils.isBlank(this.payload) ? Long.toHexString(this.value) : this.payload;
-            this.needHashString = "from=" + chPrefix(this.from.toLowerCase())
-                    + "&to=" + chPrefix(this.to.toLowerCase())
-                    + "&value=" + chPrefix(value)
-                    + "&timestamp=0x" + Long.toHexString(this.timestamp)
-                    + "&nonce=0x" + Long.toHexString(this.nonce)
-                    + "&opcode=" + this.opCode
-                    + "&extra=" + this.extra
-                    + "&vmtype=" + this.vmType.getType();
+            writer.append("from=").appendPrefixedLowerCase(this.from)
+                    .append("&to=").appendPrefixedLowerCase(this.to)
+                    .append("&value=");
+            if (Utils.isBlank(this.payload)) {
+                writer.append("0x").appendHex(this.value);
+            } else {
+                writer.appendPrefixed(this.payload);
+            }
+            writer.append("&timestamp=0x").appendHex(this.timestamp)
+                    .append("&nonce=0x").appendHex(this.nonce)
+                    .append("&opcode=").append(this.opCode)
+                    .append("&extra=").append(this.extra)
+                    .append("&vmtype=").append(this.vmType.getType());
         }
+        return writer.toByteArray();
     }
 
     /**
@@ -812,8 +832,9 @@ public class Transaction {
      */
     public void sign(Account account) {
         this.account = account;
-        this.setNeedHashString();
-        byte[] sourceData = this.needHashString.getBytes(Utils.DEFAULT_CHARSET);
+        byte[] sourceData = needHashBytes();
+        this.needHashBytes = sourceData;
+        this.needHashString = null;
         this.signature = ByteUtil.toHex(account.sign(sourceData));
     }
 
@@ -948,7 +969,15 @@ public class Transaction {
         this.signature = signature;
     }
 
+    /**
+     * get the string the signature is made over.
+     *
+     * @return need hash string
+     */
     public String getNeedHashString() {
+        if (needHashString == null && needHashBytes != null) {
+            needHashString = new String(needHashBytes, Utils.DEFAULT_CHARSET);
+        }
         return needHashString;
     }
 
@@ -1158,6 +1187,28 @@ public class Transaction {
      * @return transaction hash
      */
     public String getTransactionHash(long gasLimit) {
+        byte[] hashBytes = TransactionHashWriter.get().hash(from, to, transactionValue(gasLimit), timestamp, nonce, signature);
+        if (txVersion.isGreaterOrEqual(TxVersion.TxVersion25)) {
+            byte[] timestampBytes = ByteUtil.longToBytes(timestamp);
+            for (int i = 0; i < timestampBytes.length; i++) {
+                hashBytes[i] = timestampBytes[i];
+            }
+        }
+        return "0x" + ByteUtil.toHex(hashBytes);
+    }
+
+    /**
+     * get the hashes of transactions, large batches are hashed in parallel.
+     *
+     * @param transactions transactions
+     * @return transaction hashes in the order of transactions
+     */
+    public static List<String> hashAll(List<Transaction> transactions) {
+        Stream<Transaction> stream = transactions.size() < PARALLEL_HASH_THRESHOLD ? transactions.stream() : transactions.parallelStream();
+        return stream.map(Transaction::getTransactionHash).collect(Collectors.toList());
+    }
+
+    private byte[] transactionValue(long gasLimit) {
         byte[] valueBytes = null;
         if (txVersion.isGreaterOrEqual(TxVersion.TxVersion20)) {
             TransactionValueProto.TransactionValue.Builder input = TransactionValueProto.TransactionValue.newBuilder();
@@ -1166,7 +1217,7 @@ public class Transaction {
             input.setGasLimit(gasLimit);
             input.setAmount(this.value);
             if (!"".equals(payload)) {
-                input.setPayload(ByteString.copyFrom(ByteUtil.fromHex(payload)));
+                input.setPayload(UnsafeByteOperations.unsafeWrap(ByteUtil.fromHex(payload)));
             }
             input.setOpValue(opCode);
             input.setExtra(ByteString.copyFromUtf8(extra));
@@ -1206,7 +1257,7 @@ public class Transaction {
             input.setGasLimit(gasLimit);
             input.setAmount(this.value);
             if (!"".equals(payload)) {
-                input.setPayload(ByteString.copyFrom(ByteUtil.fromHex(payload)));
+                input.setPayload(UnsafeByteOperations.unsafeWrap(ByteUtil.fromHex(payload)));
             }
             input.setOpValue(opCode);
             input.setExtra(ByteString.copyFromUtf8(extra));
@@ -1231,25 +1282,7 @@ public class Transaction {
             }
             valueBytes = input.build().toByteArray();
         }
-        Object[] transactionHash = new Object[6];
-        transactionHash[0] = ByteUtil.hex2Base64(from);
-        if (!"0x0".equals(to)) {
-            transactionHash[1] = ByteUtil.hex2Base64(to);
-        }
-        transactionHash[2] = ByteUtil.base64(valueBytes);
-        transactionHash[3] = timestamp;
-        transactionHash[4] = nonce;
-        transactionHash[5] = ByteUtil.hex2Base64(signature);
-        String hashJson = gson.toJson(transactionHash);
-
-        byte[] hashBytes = HashUtil.sha3(hashJson.getBytes());
-        if (txVersion.isGreaterOrEqual(TxVersion.TxVersion25)) {
-            byte[] timestampBytes = ByteUtil.longToBytes(timestamp);
-            for (int i = 0; i < timestampBytes.length; i++) {
-                hashBytes[i] = timestampBytes[i];
-            }
-        }
-        return "0x" + Hex.toHexString(hashBytes);
+        return valueBytes;
     }
 
     /**
@@ -0,0 +1,142 @@
+package cn.hyperchain.sdk.transaction;
+
+import cn.hyperchain.sdk.common.utils.Base64Codec;
+import cn.hyperchain.sdk.common.utils.ByteUtil;
+import cn.hyperchain.sdk.common.utils.HexCodec;
+import cn.hyperchain.sdk.crypto.cryptohash.Keccak256;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * TransactionHashWriter streams the json a transaction hash is computed over,
+ * ["from","to","value",timestamp,nonce,"signature"] with base64 encoded byte fields and a null "0x0" to,
+ * straight into a Keccak-256 digest. These are the bytes Gson writes for the same Object[],
+ * without building the base64 strings or the json. One writer per thread is reused.
+ */
+final class TransactionHashWriter {
+    private static final int BASE64_CHUNK = 288;
+    private static final byte[] NULL = "null".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] MIN_LONG = Long.toString(Long.MIN_VALUE).getBytes(StandardCharsets.US_ASCII);
+    private static final ThreadLocal<TransactionHashWriter> WRITERS = ThreadLocal.withInitial(TransactionHashWriter::new);
+
+    private final Keccak256 digest = new Keccak256();
+    private final byte[] out = new byte[512];
+    private int len;
+    private final byte[] digits = new byte[20];
+    private byte[] scratch = new byte[256];
+
+    private TransactionHashWriter() {
+    }
+
+    static TransactionHashWriter get() {
+        return WRITERS.get();
+    }
+
+    /**
+     * hash the fields of a transaction.
+     *
+     * @param from      hex address
+     * @param to        hex address, "0x0" when the transaction has no receiver
+     * @param value     serialized TransactionValue
+     * @param timestamp timestamp
+     * @param nonce     nonce
+     * @param signature hex signature
+     * @return Keccak-256 hash
+     */
+    byte[] hash(String from, String to, byte[] value, long timestamp, long nonce, String signature) {
+        // a hash that failed half way may have left its first bytes in the digest
+        digest.reset();
+        len = 0;
+        write('[');
+        writeHexAsBase64(from);
+        write(',');
+        if ("0x0".equals(to)) {
+            write(NULL, NULL.length);
+        } else {
+            writeHexAsBase64(to);
+        }
+        write(',');
+        writeBase64(value, value.length);
+        write(',');
+        writeLong(timestamp);
+        write(',');
+        writeLong(nonce);
+        write(',');
+        writeHexAsBase64(signature);
+        write(']');
+        digest.update(out, 0, len);
+        return digest.digest();
+    }
+
+    private void write(int b) {
+        if (len == out.length) {
+            flush();
+        }
+        out[len++] = (byte) b;
+    }
+
+    private void write(byte[] bytes, int count) {
+        for (int i = 0; i < count; i++) {
+            write(bytes[i]);
+        }
+    }
+
+    private void flush() {
+        digest.update(out, 0, len);
+        len = 0;
+    }
+
+    private void writeLong(long value) {
+        if (value == Long.MIN_VALUE) {
+            write(MIN_LONG, MIN_LONG.length);
+            return;
+        }
+        if (value < 0) {
+            write('-');
+            value = -value;
+        }
+        int count = 0;
+        do {
+            digits[count++] = (byte) ('0' + value % 10);
+            value /= 10;
+        } while (value != 0);
+        while (count > 0) {
+            write(digits[--count]);
+        }
+    }
+
+    // the bytes of ByteUtil.fromHex, decoded into scratch, strings it would not decode this way take its own path
+    private void writeHexAsBase64(String hex) {
+        if (hex == null) {
+            writeBase64(scratch, 0);
+            return;
+        }
+        int start = hex.startsWith("0x") ? 2 : 0;
+        int size = HexCodec.decodedLength(hex.length() - start);
+        if (scratch.length < size) {
+            scratch = new byte[Math.max(size, scratch.length * 2)];
+        }
+        int count;
+        try {
+            count = HexCodec.decode(hex, start, hex.length() - start, scratch, 0);
+        } catch (IllegalArgumentException e) {
+            byte[] bytes = ByteUtil.fromHex(hex);
+            writeBase64(bytes, bytes.length);
+            return;
+        }
+        writeBase64(scratch, count);
+    }
+
+    private void writeBase64(byte[] data, int count) {
+        write('"');
+        // whole 3 byte groups, so only the last chunk is padded
+        for (int i = 0; i < count; i += BASE64_CHUNK) {
+            int n = Math.min(BASE64_CHUNK, count - i);
+            if (out.length - len < Base64Codec.encodedLength(n)) {
+                flush();
+            }
+            len += Base64Codec.encode(data, i, n, out, len);
+        }
+        write('"');
+    }
+}
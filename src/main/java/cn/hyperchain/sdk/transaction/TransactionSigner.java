@@ -0,0 +1,184 @@
+package cn.hyperchain.sdk.transaction;
+
+import cn.hyperchain.sdk.account.Account;
+import cn.hyperchain.sdk.common.utils.Async;
+import cn.hyperchain.sdk.request.BatchingTxSender;
+import cn.hyperchain.sdk.response.TxHashResponse;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * signs many transactions in parallel on a fork join pool.
+ * Hash engines and signers are kept per worker thread by {@link cn.hyperchain.sdk.crypto.HashUtil}
+ * and the key utils, so a worker signs without allocating them again.
+ */
+public class TransactionSigner {
+    private static final int DEFAULT_THRESHOLD = 16;
+
+    private ForkJoinPool pool;
+    private int threshold = DEFAULT_THRESHOLD;
+
+    private TransactionSigner() {
+    }
+
+    public static class Builder {
+        private TransactionSigner signer;
+        private int parallelism = Runtime.getRuntime().availableProcessors();
+
+        public Builder() {
+            signer = new TransactionSigner();
+        }
+
+        /**
+         * set the number of signing threads, ignored if a pool is given.
+         * @param parallelism thread count
+         * @return {@link Builder}
+         */
+        public Builder parallelism(int parallelism) {
+            if (parallelism <= 0) {
+                throw new IllegalArgumentException("parallelism must be positive");
+            }
+            this.parallelism = parallelism;
+            return this;
+        }
+
+        /**
+         * sign on an existing fork join pool.
+         * @param pool fork join pool
+         * @return {@link Builder}
+         */
+        public Builder pool(ForkJoinPool pool) {
+            signer.pool = pool;
+            return this;
+        }
+
+        /**
+         * set how many transactions one task signs before it stops splitting.
+         * @param threshold transactions per task
+         * @return {@link Builder}
+         */
+        public Builder threshold(int threshold) {
+            if (threshold <= 0) {
+                throw new IllegalArgumentException("threshold must be positive");
+            }
+            signer.threshold = threshold;
+            return this;
+        }
+
+        /**
+         * return transaction signer instance.
+         * @return {@link TransactionSigner}
+         */
+        public TransactionSigner build() {
+            if (signer.pool == null) {
+                signer.pool = new ForkJoinPool(parallelism);
+            }
+            return signer;
+        }
+    }
+
+    /**
+     * sign all transactions with the account, the calling thread waits until all are signed.
+     * @param transactions transactions to sign
+     * @param account sign account
+     * @return the signed transactions
+     */
+    public List<Transaction> signAll(List<Transaction> transactions, Account account) {
+        pool.invoke(new SignTask(transactions, account, null, null, 0, transactions.size()));
+        return transactions;
+    }
+
+    /**
+     * sign all transactions with the account without blocking the calling thread.
+     * @param transactions transactions to sign
+     * @param account sign account
+     * @return future of the signed transactions
+     */
+    public CompletableFuture<List<Transaction>> signAllAsync(List<Transaction> transactions, Account account) {
+        CompletableFuture<List<Transaction>> future = new CompletableFuture<>();
+        pool.execute(() -> {
+            try {
+                future.complete(signAll(transactions, account));
+            } catch (Throwable e) {
+                future.completeExceptionally(e);
+            }
+        });
+        return future;
+    }
+
+    /**
+     * sign all transactions and submit each one to the sender as soon as it is signed.
+     * Signing slows down when the sender has maxPending transactions in flight.
+     * @param transactions transactions to sign
+     * @param account sign account
+     * @param sender sender of the signed transactions
+     * @return future of every transaction's {@link TxHashResponse}, in the order of transactions
+     */
+    public List<CompletableFuture<TxHashResponse>> signAndSend(List<Transaction> transactions, Account account, BatchingTxSender sender) {
+        List<CompletableFuture<TxHashResponse>> futures = new ArrayList<>(transactions.size());
+        for (int i = 0; i < transactions.size(); i++) {
+            futures.add(new CompletableFuture<>());
+        }
+        pool.execute(new SignTask(transactions, account, sender, futures, 0, transactions.size()));
+        return futures;
+    }
+
+    /**
+     * shut down the signing threads.
+     */
+    public void shutdown() {
+        pool.shutdown();
+    }
+
+    private class SignTask extends RecursiveAction {
+        private final List<Transaction> transactions;
+        private final Account account;
+        private final BatchingTxSender sender;
+        private final List<CompletableFuture<TxHashResponse>> futures;
+        private final int from;
+        private final int to;
+
+        SignTask(List<Transaction> transactions, Account account, BatchingTxSender sender, List<CompletableFuture<TxHashResponse>> futures, int from, int to) {
+            this.transactions = transactions;
+            this.account = account;
+            this.sender = sender;
+            this.futures = futures;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > threshold) {
+                int mid = (from + to) >>> 1;
+                invokeAll(new SignTask(transactions, account, sender, futures, from, mid),
+                        new SignTask(transactions, account, sender, futures, mid, to));
+                return;
+            }
+            for (int i = from; i < to; i++) {
+                Transaction transaction = transactions.get(i);
+                if (sender == null) {
+                    transaction.sign(account);
+                    continue;
+                }
+                CompletableFuture<TxHashResponse> future = futures.get(i);
+                try {
+                    transaction.sign(account);
+                    sender.submit(transaction).whenComplete((response, e) -> {
+                        if (e != null) {
+                            future.completeExceptionally(Async.unwrap(e));
+                        } else {
+                            future.complete(response);
+                        }
+                    });
+                } catch (RuntimeException e) {
+                    future.completeExceptionally(e);
+                }
+            }
+        }
+    }
+}
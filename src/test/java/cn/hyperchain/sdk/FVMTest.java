@@ -222,6 +222,26 @@ public class FVMTest {
         Object result = abi.getMethods().get("test-1").output.get(0).decode(codecReader);
     }
 
+    @Test
+    public void testReadArrayOverflow() {
+        // the byte counts of these lengths overflow an int to 4 and 8
+        ScaleCodecReader codecReader = new ScaleCodecReader(new byte[8]);
+        try {
+            codecReader.readIntArray(0x40000001);
+            Assert.fail();
+        } catch (IndexOutOfBoundsException e) {
+            Assert.assertTrue(codecReader.hasNext());
+        }
+        try {
+            codecReader.readLongArray(0x20000001);
+            Assert.fail();
+        } catch (IndexOutOfBoundsException e) {
+            Assert.assertTrue(codecReader.hasNext());
+        }
+        // nothing was consumed
+        Assert.assertArrayEquals(new long[1], codecReader.readLongArray(1));
+    }
+
     @Test
     public void testFVMTypes() throws IOException, RequestException {
 //        InputStream inputStream = Thread.currentThread().getContextClassLoader().getResourceAsStream("fvm-contract/types/contract.json");
@@ -15,6 +15,11 @@ import cn.hyperchain.sdk.transaction.Transaction;
 import org.junit.Assert;
 import org.junit.Test;
 
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.List;
+
 public class AbiTest {
 
     @Test
@@ -73,4 +78,71 @@ public class AbiTest {
         Abi abi = Abi.fromJson(abiString);
         System.out.println(abi.toJson());
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testEncodeCompiled() {
+        String contractAbi = "[{\"type\":\"function\",\"name\":\"baz\",\"constant\":false,\"outputs\":[],"
+                + "\"inputs\":[{\"name\":\"x\",\"type\":\"uint32\"},{\"name\":\"y\",\"type\":\"bool\"}]},"
+                + "{\"type\":\"function\",\"name\":\"sam\",\"constant\":false,\"outputs\":[],"
+                + "\"inputs\":[{\"name\":\"a\",\"type\":\"bytes\"},{\"name\":\"b\",\"type\":\"bool\"},{\"name\":\"c\",\"type\":\"uint256[]\"}]}]";
+        Abi abi = Abi.fromJson(contractAbi);
+
+        ContractType.Function baz = abi.getFunction("baz(uint32,bool)");
+        Assert.assertEquals("cdcd77c0", ByteUtil.toHex(baz.encodeSignature()));
+        Assert.assertEquals("cdcd77c0"
+                + "0000000000000000000000000000000000000000000000000000000000000045"
+                + "0000000000000000000000000000000000000000000000000000000000000001",
+                ByteUtil.toHex(baz.encode(Arrays.asList(69, true))));
+
+        ContractType.Function sam = abi.getFunction("sam(bytes,bool,uint256[])");
+        List<Object> args = Arrays.asList("dave", true, new int[]{1, 2, 3});
+        String expected = "a5643bf2"
+                + "0000000000000000000000000000000000000000000000000000000000000060"
+                + "0000000000000000000000000000000000000000000000000000000000000001"
+                + "00000000000000000000000000000000000000000000000000000000000000a0"
+                + "0000000000000000000000000000000000000000000000000000000000000004"
+                + "6461766500000000000000000000000000000000000000000000000000000000"
+                + "0000000000000000000000000000000000000000000000000000000000000003"
+                + "0000000000000000000000000000000000000000000000000000000000000001"
+                + "0000000000000000000000000000000000000000000000000000000000000002"
+                + "0000000000000000000000000000000000000000000000000000000000000003";
+        Assert.assertEquals(expected, ByteUtil.toHex(sam.encode(args)));
+        Assert.assertEquals(expected.length() / 2, sam.encodedSize(args));
+
+        // a dirty heap buffer is written in place from its position
+        ByteBuffer buffer = ByteBuffer.allocate(sam.encodedSize(args) + 8);
+        Arrays.fill(buffer.array(), (byte) 0x7f);
+        buffer.position(8);
+        sam.encode(args, buffer);
+        Assert.assertEquals(buffer.capacity(), buffer.position());
+        Assert.assertEquals(expected, ByteUtil.toHex(Arrays.copyOfRange(buffer.array(), 8, buffer.capacity())));
+
+        ByteBuffer direct = ByteBuffer.allocateDirect(sam.encodedSize(args));
+        sam.encode(args, direct);
+        Assert.assertFalse(direct.hasRemaining());
+
+        List<?> decoded = sam.decode(ByteUtil.fromHex(expected));
+        Assert.assertEquals("dave", new String((byte[]) decoded.get(0)));
+        Assert.assertEquals(true, decoded.get(1));
+        Assert.assertArrayEquals(new Object[]{BigInteger.ONE, BigInteger.valueOf(2), BigInteger.valueOf(3)}, (Object[]) decoded.get(2));
+    }
+
+    @Test
+    public void testEventTopic() {
+        String contractAbi = "[{\"anonymous\":false,\"name\":\"Transfer\",\"type\":\"event\",\"inputs\":["
+                + "{\"indexed\":true,\"name\":\"from\",\"type\":\"address\"},"
+                + "{\"indexed\":true,\"name\":\"to\",\"type\":\"address\"},"
+                + "{\"indexed\":false,\"name\":\"value\",\"type\":\"uint256\"}]}]";
+        ContractType.Event event = Abi.fromJson(contractAbi).getEvent("Transfer(address,address,uint256)");
+        byte[] topic = event.getTopic();
+        Assert.assertEquals("ddf252ad1be2c89b69c2b068fc378daa952ba7f163c4a11628f55a4df523b3ef", ByteUtil.toHex(topic));
+
+        byte[] from = ByteUtil.fromHex("000000000000000000000000" + "11111111111111111111111111111111111111aa");
+        byte[] to = ByteUtil.fromHex("000000000000000000000000" + "22222222222222222222222222222222222222bb");
+        byte[] data = ByteUtil.fromHex("00000000000000000000000000000000000000000000000000000000000003e8");
+        List<?> decoded = event.decode(data, new byte[][]{topic, from, to});
+        Assert.assertEquals("11111111111111111111111111111111111111aa", ByteUtil.toHex((byte[]) decoded.get(0)));
+        Assert.assertEquals("22222222222222222222222222222222222222bb", ByteUtil.toHex((byte[]) decoded.get(1)));
+        Assert.assertEquals(BigInteger.valueOf(1000), decoded.get(2));
+    }
+}
@@ -0,0 +1,117 @@
+package cn.hyperchain.sdk.common.solidity;
+
+import cn.hyperchain.sdk.common.utils.ByteUtil;
+import cn.hyperchain.sdk.response.EventLog;
+import cn.hyperchain.sdk.response.ReceiptResponse;
+import com.google.gson.Gson;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+
+public class EventDecoderRegistryTest {
+    private static final String TOKEN_ABI = "[{\"anonymous\":false,\"name\":\"Transfer\",\"type\":\"event\",\"inputs\":["
+            + "{\"indexed\":true,\"name\":\"from\",\"type\":\"address\"},"
+            + "{\"indexed\":true,\"name\":\"to\",\"type\":\"address\"},"
+            + "{\"indexed\":false,\"name\":\"value\",\"type\":\"uint256\"}]}]";
+    private static final String NFT_ABI = "[{\"anonymous\":false,\"name\":\"Transfer\",\"type\":\"event\",\"inputs\":["
+            + "{\"indexed\":true,\"name\":\"from\",\"type\":\"address\"},"
+            + "{\"indexed\":true,\"name\":\"to\",\"type\":\"address\"},"
+            + "{\"indexed\":true,\"name\":\"tokenId\",\"type\":\"uint256\"}]}]";
+    private static final String RECORD_ABI = "[{\"anonymous\":false,\"name\":\"Record\",\"type\":\"event\",\"inputs\":["
+            + "{\"indexed\":false,\"name\":\"orderID\",\"type\":\"uint256\"},"
+            + "{\"indexed\":false,\"name\":\"info\",\"type\":\"string\"}]}]";
+    private static final String TRANSFER_TOPIC = "0xddf252ad1be2c89b69c2b068fc378daa952ba7f163c4a11628f55a4df523b3ef";
+    private static final String FROM = "0x00000000000000000000000011111111111111111111111111111111111111aa";
+    private static final String TO = "0x00000000000000000000000022222222222222222222222222222222222222bb";
+    private static final String VALUE = "0x00000000000000000000000000000000000000000000000000000000000003e8";
+
+    @Test
+    public void testDecodeByAddressAndTopic() {
+        Abi record = Abi.fromJson(RECORD_ABI);
+        String recordTopic = "0x" + ByteUtil.toHex(record.getEvent("Record(uint256,string)").getTopic());
+        EventDecoderRegistry registry = new EventDecoderRegistry()
+                .register("0xAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAA", record)
+                .register(Abi.fromJson(TOKEN_ABI));
+
+        String data = "0x"
+                + "0000000000000000000000000000000000000000000000000000000000000007"
+                + "0000000000000000000000000000000000000000000000000000000000000040"
+                + "0000000000000000000000000000000000000000000000000000000000000003"
+                + "6162630000000000000000000000000000000000000000000000000000000000";
+        EventDecoderRegistry.DecodedEvent decoded = registry.decode(log("0xaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaa", data, recordTopic));
+        Assert.assertEquals("Record", decoded.getName());
+        Assert.assertEquals(BigInteger.valueOf(7), decoded.getValues().get(0));
+        Assert.assertEquals("abc", decoded.getValues().get(1));
+
+        // any contract falls back to the events registered without an address
+        decoded = registry.decode(log("0xbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbb", VALUE, TRANSFER_TOPIC, FROM, TO));
+        Assert.assertEquals("Transfer", decoded.getName());
+        Assert.assertEquals(BigInteger.valueOf(1000), decoded.getValues().get(2));
+
+        // the record event of another contract is unknown
+        Assert.assertNull(registry.decode(log("0xbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbb", data, recordTopic)));
+        registry.unregister("aaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaa");
+        Assert.assertNull(registry.decode(log("0xaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaa", data, recordTopic)));
+    }
+
+    @Test
+    public void testDecodeAllInOrder() {
+        EventDecoderRegistry registry = new EventDecoderRegistry().register(Abi.fromJson(TOKEN_ABI));
+        Gson gson = new Gson();
+        List<ReceiptResponse> receipts = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            String value = String.format("0x%064x", i);
+            receipts.add(gson.fromJson("{\"code\":0,\"result\":{\"log\":["
+                    + logJson(value) + "," + logJson(value) + "]}}", ReceiptResponse.class));
+        }
+        receipts.add(gson.fromJson("{\"code\":0,\"result\":{}}", ReceiptResponse.class));
+
+        List<EventDecoderRegistry.DecodedEvent> decoded = registry.decodeAll(receipts);
+        Assert.assertEquals(400, decoded.size());
+        for (int i = 0; i < decoded.size(); i++) {
+            Assert.assertEquals(BigInteger.valueOf(i / 2), decoded.get(i).getValues().get(2));
+        }
+        Assert.assertEquals(2, registry.decode(receipts.get(0)).size());
+    }
+
+    @Test
+    public void testSameTopicOtherIndexes() {
+        // ERC20 and ERC721 Transfer share topic0, the token id is indexed by ERC721
+        EventDecoderRegistry registry = new EventDecoderRegistry().register(Abi.fromJson(TOKEN_ABI)).register(Abi.fromJson(NFT_ABI));
+        String address = "0xcccccccccccccccccccccccccccccccccccccccc";
+
+        EventDecoderRegistry.DecodedEvent token = registry.decode(log(address, VALUE, TRANSFER_TOPIC, FROM, TO));
+        Assert.assertEquals(3, token.getEvent().getTopicCount());
+        Assert.assertEquals(BigInteger.valueOf(1000), token.getValues().get(2));
+        EventDecoderRegistry.DecodedEvent nft = registry.decode(log(address, "0x", TRANSFER_TOPIC, FROM, TO, VALUE));
+        Assert.assertEquals(4, nft.getEvent().getTopicCount());
+        Assert.assertEquals(BigInteger.valueOf(1000), nft.getValues().get(2));
+
+        // no event has these topics, or the data fails to decode
+        Assert.assertNull(registry.decode(log(address, VALUE, TRANSFER_TOPIC, FROM)));
+        Assert.assertNull(registry.decode(log(address, "0xzz", TRANSFER_TOPIC, FROM, TO)));
+        // only the ERC20 event is known, a log of an ERC721 token is skipped
+        EventDecoderRegistry tokens = new EventDecoderRegistry().register(Abi.fromJson(TOKEN_ABI));
+        Gson gson = new Gson();
+        List<ReceiptResponse> receipts = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            receipts.add(gson.fromJson("{\"code\":0,\"result\":{\"log\":[" + logJson(VALUE) + ",{\"address\":\"" + address
+                    + "\",\"data\":\"0x\",\"topics\":[\"" + TRANSFER_TOPIC + "\",\"" + FROM + "\",\"" + TO + "\",\"" + VALUE + "\"]}]}}",
+                    ReceiptResponse.class));
+        }
+        Assert.assertEquals(100, tokens.decodeAll(receipts).size());
+        Assert.assertEquals(200, registry.decodeAll(receipts).size());
+    }
+
+    private static EventLog log(String address, String data, String... topics) {
+        return new EventLog(address, topics, data, 1, "", "", 0, 0);
+    }
+
+    private static String logJson(String value) {
+        return "{\"address\":\"0xcccccccccccccccccccccccccccccccccccccccc\",\"data\":\"" + value + "\",\"topics\":[\""
+                + TRANSFER_TOPIC + "\",\"" + FROM + "\",\"" + TO + "\"]}";
+    }
+}
@@ -1,9 +1,12 @@
 package cn.hyperchain.sdk.common.utils;
 
+import org.bouncycastle.util.encoders.Base64;
+import org.bouncycastle.util.encoders.Hex;
 import org.junit.Assert;
 import org.junit.Test;
 
 import java.math.BigInteger;
+import java.util.Random;
 
 public class ByteUtilTest {
 
@@ -12,4 +15,57 @@ public class ByteUtilTest {
         byte[] data = ByteUtil.biConvert32Bytes(BigInteger.valueOf(100));
         Assert.assertEquals("0000000000000000000000000000000000000000000000000000000000000064", ByteUtil.toHex(data));
     }
+
+    @Test
+    public void testHex() {
+        Random random = new Random(1);
+        for (int i = 0; i < 500; i++) {
+            byte[] data = new byte[random.nextInt(100)];
+            random.nextBytes(data);
+            String hex = Hex.toHexString(data);
+            Assert.assertEquals(hex, ByteUtil.toHex(data));
+            Assert.assertArrayEquals(data, ByteUtil.fromHex(hex));
+            Assert.assertArrayEquals(data, ByteUtil.fromHex("0x" + hex.toUpperCase()));
+            Assert.assertEquals(Base64.toBase64String(data), ByteUtil.base64(data));
+            Assert.assertEquals(Base64.toBase64String(data), ByteUtil.hex2Base64("0x" + hex));
+            if (hex.startsWith("0")) {
+                // an odd number of digits has a leading '0' added
+                Assert.assertArrayEquals(data, ByteUtil.fromHex(hex.substring(1)));
+                Assert.assertEquals(Base64.toBase64String(data), ByteUtil.hex2Base64(hex.substring(1)));
+            }
+        }
+        Assert.assertArrayEquals(new byte[0], ByteUtil.fromHex(null));
+        Assert.assertEquals("", ByteUtil.hex2Base64(null));
+        Assert.assertArrayEquals(new byte[]{0x12, 0x34}, ByteUtil.fromHex("0x12  34"));
+        Assert.assertEquals("EjQ=", ByteUtil.hex2Base64("12\r\n34"));
+        try {
+            ByteUtil.fromHex("0x12zz");
+            Assert.fail();
+        } catch (IllegalStateException e) {
+            // rejected by Hex as before
+        }
+    }
+
+    @Test
+    public void testCodecRange() {
+        byte[] data = {0x01, (byte) 0xab, (byte) 0xcd, (byte) 0xef, 0x7f};
+        Assert.assertEquals("abcdef", ByteUtil.toHex(data, 1, 3));
+
+        char[] chars = new char[8];
+        Assert.assertEquals(6, HexCodec.encode(data, 1, 3, chars, 1));
+        Assert.assertEquals("abcdef", new String(chars, 1, 6));
+        byte[] ascii = new byte[8];
+        Assert.assertEquals(4, Base64Codec.encode(data, 1, 2, ascii, 2));
+        Assert.assertEquals("q80=", new String(ascii, 2, 4));
+
+        byte[] out = new byte[4];
+        Assert.assertEquals(2, HexCodec.decode("id=abc", 3, 3, out, 1));
+        Assert.assertArrayEquals(new byte[]{0, 0x0a, (byte) 0xbc, 0}, out);
+        try {
+            HexCodec.decode("0x1g");
+            Assert.fail();
+        } catch (IllegalArgumentException e) {
+            Assert.assertEquals("invalid hex character 'g' at index 3", e.getMessage());
+        }
+    }
 }
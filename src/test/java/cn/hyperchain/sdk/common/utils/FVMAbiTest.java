@@ -1,9 +1,18 @@
 package cn.hyperchain.sdk.common.utils;
 
+import cn.hyperchain.sdk.fvm.MethodCodec;
+import cn.hyperchain.sdk.fvm.StructMember;
+import org.apache.commons.codec.binary.Hex;
+import org.junit.Assert;
 import org.junit.Test;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 
 import static org.junit.Assert.*;
 
@@ -16,4 +25,174 @@ public class FVMAbiTest {
         FVMAbi abi = FVMAbi.fromJson(abiStr);
 //        System.out.println(abi.getMethods().get(0).input.get(0).ty);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testEncode() throws IOException {
+        InputStream inputStream1 = Thread.currentThread().getContextClassLoader().getResourceAsStream("fvm-contract/set_hash/contract.json");
+        FVMAbi abi = FVMAbi.fromJson(FileUtil.readFile(inputStream1));
+        List<Object> args = Arrays.asList("key", "值");
+        byte[] encoded = abi.encode("set_hash", args);
+        Assert.assertEquals("207365745f686173680c6b65790ce580bc", Hex.encodeHexString(encoded));
+        Assert.assertEquals(encoded.length, abi.encodedSize("set_hash", args));
+
+        ByteBuffer direct = ByteBuffer.allocateDirect(64);
+        Assert.assertEquals(encoded.length, abi.encode("set_hash", args, direct));
+        byte[] written = new byte[encoded.length];
+        direct.flip();
+        direct.get(written);
+        Assert.assertArrayEquals(encoded, written);
+        Assert.assertEquals("值", abi.decode("0x0ce580bc", "get_hash"));
+    }
+
+    @Test
+    public void testEncodeTypes() throws IOException {
+        InputStream inputStream1 = Thread.currentThread().getContextClassLoader().getResourceAsStream("fvm-contract/types/contract.json");
+        FVMAbi abi = FVMAbi.fromJson(FileUtil.readFile(inputStream1));
+        List<Object> arg1 = new ArrayList<>();
+        arg1.add(2);
+        List<Object> arg2 = new ArrayList<>();
+        arg2.add(true);
+        List<Object> arg = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            arg.add(arg1);
+        }
+        arg.add(arg2);
+        for (int i = 0; i < 10; i++) {
+            arg.add(Arrays.asList(arg1));
+        }
+        arg.add(Arrays.asList(arg2));
+
+        // u8, u16, u32, u64, u128, i8, i16, i32, i64, i128 and bool, twice
+        String values = "02" + "0200" + "02000000" + "0200000000000000" + "02000000000000000000000000000000"
+                + "02" + "0200" + "02000000" + "0200000000000000" + "02000000000000000000000000000000" + "01";
+        byte[] encoded = abi.encode("make_types", Arrays.asList(arg));
+        Assert.assertEquals("286d616b655f7479706573" + values + values, Hex.encodeHexString(encoded));
+
+        Object[] decoded = (Object[]) abi.decode("0x" + values + values, "make_types");
+        Assert.assertEquals("[[2], [2], [2], [2], [2], [2], [2], [2], [2], [2], [true], "
+                + "[[2]], [[2]], [[2]], [[2]], [[2]], [[2]], [[2]], [[2]], [[2]], [[2]], [[true]]]", Arrays.deepToString(decoded));
+    }
+
+    @Test
+    public void testEncodePrimitiveArray() {
+        String abiStr = "{\"methods\":[{\"name\":\"put\",\"input\":[{\"type_id\":0},{\"type_id\":2},{\"type_id\":4}],\"output\":[{\"type_id\":0}]}],"
+                + "\"types\":[{\"id\":0,\"type\":\"vec\",\"fields\":[{\"type_id\":1}]},{\"id\":1,\"type\":\"primitive\",\"primitive\":\"i32\"},"
+                + "{\"id\":2,\"type\":\"vec\",\"fields\":[{\"type_id\":3}]},{\"id\":3,\"type\":\"primitive\",\"primitive\":\"u8\"},"
+                + "{\"id\":4,\"type\":\"array\",\"fields\":[{\"type_id\":5}],\"array_len\":2},{\"id\":5,\"type\":\"primitive\",\"primitive\":\"i64\"}]}";
+        FVMAbi abi = FVMAbi.fromJson(abiStr);
+        byte[] fromLists = abi.encode("put", Arrays.asList(Arrays.asList(1, -1, 70000), Arrays.asList(0, 255), Arrays.asList(5L, -5L)));
+        byte[] fromArrays = abi.encode("put", Arrays.asList(new int[]{1, -1, 70000}, new byte[]{0, (byte) 255}, new long[]{5, -5}));
+        Assert.assertEquals("0c707574" + "0c01000000ffffffff70110100" + "0800ff" + "0500000000000000fbffffffffffffff", Hex.encodeHexString(fromLists));
+        Assert.assertArrayEquals(fromLists, fromArrays);
+
+        ByteBuffer big = ByteBuffer.allocate(64);
+        abi.encode("put", Arrays.asList(new int[]{1, -1, 70000}, new byte[]{0, (byte) 255}, new long[]{5, -5}), big);
+        Assert.assertArrayEquals(fromLists, Arrays.copyOf(big.array(), big.position()));
+
+        Object[] decoded = (Object[]) abi.decode(ByteBuffer.wrap(fromLists, 4, 13), "put");
+        Assert.assertEquals("[1, -1, 70000]", Arrays.toString(decoded));
+    }
+
+    @Test
+    public void testCodec() {
+        String abiStr = "{\"methods\":[{\"name\":\"get\",\"input\":[{\"type_id\":0}],\"output\":[{\"type_id\":0}]}],"
+                + "\"types\":[{\"id\":0,\"type\":\"struct\",\"fields\":[{\"type_id\":1},{\"type_id\":2},{\"type_id\":3},{\"type_id\":5}]},"
+                + "{\"id\":1,\"type\":\"primitive\",\"primitive\":\"String\"},{\"id\":2,\"type\":\"primitive\",\"primitive\":\"u64\"},"
+                + "{\"id\":3,\"type\":\"vec\",\"fields\":[{\"type_id\":4}]},{\"id\":4,\"type\":\"primitive\",\"primitive\":\"i32\"},"
+                + "{\"id\":5,\"type\":\"struct\",\"fields\":[{\"type_id\":6},{\"type_id\":7}]},"
+                + "{\"id\":6,\"type\":\"primitive\",\"primitive\":\"bool\"},{\"id\":7,\"type\":\"primitive\",\"primitive\":\"i8\"}]}";
+        FVMAbi abi = FVMAbi.fromJson(abiStr);
+        MethodCodec codec = abi.getMethods().get("get").getCodec();
+        List<Object> student = Arrays.asList("tom", 18L, new int[]{90, 85}, Arrays.asList(true, -1));
+        List<Object> args = Arrays.<Object>asList(student);
+        byte[] encoded = abi.encode("get", args);
+        Assert.assertArrayEquals(encoded, codec.encode(args));
+        Assert.assertEquals(encoded.length, codec.encodedSize(args));
+        ByteBuffer out = ByteBuffer.allocateDirect(64);
+        Assert.assertEquals(encoded.length, codec.encodeInto(args, out));
+        Assert.assertEquals(encoded.length, out.position());
+
+        // skip the method name, outputs have the same types as the inputs
+        ByteBuffer result = ByteBuffer.wrap(encoded, 4, encoded.length - 4).slice();
+        Object[] values = codec.decode(result, Object[].class);
+        Assert.assertEquals("[tom, 18, [90, 85], [true, -1]]", Arrays.deepToString(values));
+
+        Student decoded = abi.decode(result, "get", Student.class);
+        Assert.assertEquals("tom", decoded.name);
+        Assert.assertEquals(18L, decoded.age);
+        Assert.assertEquals(Arrays.asList(90, 85), decoded.scores);
+        Assert.assertTrue(decoded.detail.passed);
+        Assert.assertEquals(-1, decoded.detail.level);
+        Assert.assertEquals(0, result.position());
+
+        Student hexDecoded = abi.decode("0x" + Hex.encodeHexString(result.array()).substring(8), "get", Student.class);
+        Assert.assertEquals("tom", hexDecoded.name);
+
+        byte[] tooBig = codec.encode(Arrays.<Object>asList(Arrays.asList("tom", new BigInteger("18446744073709551615"), new int[0], Arrays.asList(true, 1))));
+        try {
+            codec.decode(ByteBuffer.wrap(tooBig, 4, tooBig.length - 4), Student.class);
+            Assert.fail();
+        } catch (RuntimeException e) {
+            Assert.assertEquals("value 18446744073709551615 is out of range of Long", e.getMessage());
+        }
+    }
+
+    @Test
+    public void testEncodedSizeChecksArgs() {
+        String abiStr = "{\"methods\":[{\"name\":\"set\",\"input\":[{\"type_id\":0}],\"output\":[]}],"
+                + "\"types\":[{\"id\":0,\"type\":\"array\",\"fields\":[{\"type_id\":1}],\"array_len\":2},"
+                + "{\"id\":1,\"type\":\"struct\",\"fields\":[{\"type_id\":2},{\"type_id\":3}]},"
+                + "{\"id\":2,\"type\":\"primitive\",\"primitive\":\"bool\"},{\"id\":3,\"type\":\"primitive\",\"primitive\":\"i8\"}]}";
+        MethodCodec codec = FVMAbi.fromJson(abiStr).getMethods().get("set").getCodec();
+        List<Object> args = Arrays.<Object>asList(Arrays.asList(Arrays.asList(true, 1), Arrays.asList(false, -1)));
+        Assert.assertEquals(codec.encode(args).length, codec.encodedSize(args));
+        try {
+            codec.encodedSize(Arrays.<Object>asList(Arrays.asList(Arrays.asList(true, 1), Arrays.asList(false))));
+            Assert.fail("a fixed width argument was sized without checking its members");
+        } catch (RuntimeException e) {
+            Assert.assertEquals("args length not equal to the required member number in struct.", e.getMessage());
+        }
+    }
+
+    @Test
+    public void testDecodeUnannotated() {
+        String abiStr = "{\"methods\":[{\"name\":\"get\",\"input\":[],\"output\":[{\"type_id\":0}]}],"
+                + "\"types\":[{\"id\":0,\"type\":\"struct\",\"fields\":[{\"type_id\":1},{\"type_id\":2}]},"
+                + "{\"id\":1,\"type\":\"primitive\",\"primitive\":\"bool\"},{\"id\":2,\"type\":\"primitive\",\"primitive\":\"i8\"}]}";
+        MethodCodec codec = FVMAbi.fromJson(abiStr).getMethods().get("get").getCodec();
+        try {
+            codec.decode(ByteBuffer.wrap(new byte[]{1, 2}), Unannotated.class);
+            Assert.fail();
+        } catch (RuntimeException e) {
+            Assert.assertEquals(Unannotated.class.getName() + " has no field annotated with @StructMember", e.getMessage());
+        }
+    }
+
+    static class Person {
+        @StructMember(0)
+        String name;
+    }
+
+    // fields are placed by their member index, not the order they are declared in
+    static class Student extends Person {
+        @StructMember(3)
+        Detail detail;
+        @StructMember(2)
+        List<Integer> scores;
+        @StructMember(1)
+        long age;
+        transient int ignored;
+    }
+
+    static class Detail {
+        @StructMember(0)
+        boolean passed;
+        @StructMember(1)
+        byte level;
+    }
+
+    static class Unannotated {
+        boolean passed;
+        byte level;
+    }
+}
@@ -1,10 +1,16 @@
 package cn.hyperchain.sdk.crypto;
 
 import cn.hyperchain.sdk.common.utils.ByteUtil;
+import cn.hyperchain.sdk.crypto.cryptohash.Keccak256;
+import cn.hyperchain.sdk.crypto.cryptohash.Keccak512;
+import org.bouncycastle.crypto.digests.KeccakDigest;
 import org.junit.Test;
 
+import java.nio.ByteBuffer;
 import java.util.Arrays;
+import java.util.Random;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 
 public class HashUtilTest {
@@ -24,4 +30,54 @@ public class HashUtilTest {
 
         System.out.println(Arrays.toString(HashUtil.sha3("test".getBytes())));
     }
+
+    private static byte[] keccak(int bits, byte[] data) {
+        KeccakDigest digest = new KeccakDigest(bits);
+        digest.update(data, 0, data.length);
+        byte[] hash = new byte[digest.getDigestSize()];
+        digest.doFinal(hash, 0);
+        return hash;
+    }
+
+    @Test
+    public void testSameAsBouncyCastle() {
+        assertEquals("c5d2460186f7233c927e7db2dcc703c0e500b653ca82273b7bfad8045d85a470", ByteUtil.toHex(HashUtil.sha3(new byte[0])));
+        Random random = new Random(1);
+        Keccak256 keccak256 = new Keccak256();
+        Keccak512 keccak512 = new Keccak512();
+        // every length around the 136 and 72 byte blocks, then some longer ones
+        for (int length = 0; length < 1200; length += length < 300 ? 1 : 97) {
+            byte[] data = new byte[length];
+            random.nextBytes(data);
+            byte[] expected = keccak(256, data);
+            assertArrayEquals(expected, HashUtil.sha3(data));
+            assertArrayEquals(keccak(512, data), keccak512.digest(data));
+
+            // split at a random point, so whole blocks start at any buffer fill
+            int split = random.nextInt(length + 1);
+            keccak256.update(data, 0, split);
+            keccak256.update(data, split, length - split);
+            assertArrayEquals(expected, keccak256.digest());
+
+            ByteBuffer direct = ByteBuffer.allocateDirect(length + 3);
+            direct.position(3);
+            direct.put(data);
+            direct.position(3);
+            assertArrayEquals(expected, HashUtil.sha3(direct));
+            assertEquals(direct.limit(), direct.position());
+            ByteBuffer heap = ByteBuffer.wrap(new byte[length + 5], 2, length).slice();
+            heap.put(data).flip();
+            assertArrayEquals(expected, HashUtil.sha3(heap));
+        }
+    }
+
+    @Test
+    public void testSha3All() {
+        byte[][] data = {new byte[0], "test".getBytes(), new byte[500]};
+        byte[][] hashes = HashUtil.sha3All(data);
+        assertEquals(data.length, hashes.length);
+        for (int i = 0; i < data.length; i++) {
+            assertArrayEquals(HashUtil.sha3(data[i]), hashes[i]);
+        }
+    }
 }
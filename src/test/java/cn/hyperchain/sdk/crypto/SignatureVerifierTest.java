@@ -0,0 +1,82 @@
+package cn.hyperchain.sdk.crypto;
+
+import cn.hyperchain.sdk.account.Account;
+import cn.hyperchain.sdk.account.Algo;
+import cn.hyperchain.sdk.common.utils.ByteUtil;
+import cn.hyperchain.sdk.provider.ProviderManager;
+import cn.hyperchain.sdk.service.AccountService;
+import cn.hyperchain.sdk.service.ServiceManager;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+public class SignatureVerifierTest {
+    private static final AccountService accountService = ServiceManager.getAccountService(ProviderManager.emptyManager());
+    private static final Algo[] ALGOS = {Algo.ECRAW, Algo.SMRAW, Algo.ED25519RAW, Algo.ECRAWR1};
+
+    @Test
+    public void testVerifyAll() throws Exception {
+        SignatureVerifier verifier = new SignatureVerifier.Builder().parallelism(4).threshold(4).cacheSize(2).build();
+        try {
+            List<SignatureVerifier.Item> items = new ArrayList<>();
+            List<Boolean> expected = new ArrayList<>();
+            for (Algo algo : ALGOS) {
+                // three accounts per algorithm, one more than the cache keeps
+                for (int a = 0; a < 3; a++) {
+                    Account account = accountService.genAccount(algo);
+                    byte[] publicKey = ByteUtil.fromHex(account.getPublicKey());
+                    for (int i = 0; i < 10; i++) {
+                        byte[] data = ("data " + i).getBytes(StandardCharsets.UTF_8);
+                        byte[] signature = account.sign(data);
+                        boolean legal = i % 3 != 0;
+                        if (!legal) {
+                            data = ("other " + i).getBytes(StandardCharsets.UTF_8);
+                        }
+                        Assert.assertEquals(legal, SignerUtil.verifySign(data, signature, publicKey));
+                        items.add(new SignatureVerifier.Item(data, signature, publicKey));
+                        expected.add(legal);
+                    }
+                }
+            }
+            // a malformed signature fails alone
+            items.add(new SignatureVerifier.Item(new byte[1], new byte[]{0, 1}, new byte[65]));
+            expected.add(false);
+
+            for (boolean[] results : new boolean[][]{verifier.verifyAll(items), verifier.verifyAllAsync(items).get()}) {
+                Assert.assertEquals(expected.size(), results.length);
+                for (int i = 0; i < results.length; i++) {
+                    Assert.assertEquals(String.valueOf(i), expected.get(i), results[i]);
+                }
+            }
+            Assert.assertEquals(2 * ALGOS.length, verifier.cachedKeys());
+            verifier.clearCache();
+            Assert.assertEquals(0, verifier.cachedKeys());
+        } finally {
+            verifier.shutdown();
+        }
+    }
+
+    @Test
+    public void testVerify() {
+        SignatureVerifier verifier = new SignatureVerifier.Builder().parallelism(1).build();
+        try {
+            for (Algo algo : ALGOS) {
+                Account account = accountService.genAccount(algo);
+                String data = "hello";
+                String signature = ByteUtil.toHex(account.sign(data.getBytes(StandardCharsets.UTF_8)));
+                SignatureVerifier.Item item = new SignatureVerifier.Item(data, signature, account.getPublicKey());
+                Assert.assertTrue(algo.name(), verifier.verifyAll(Collections.singletonList(item))[0]);
+                byte[] publicKey = ByteUtil.fromHex(account.getPublicKey());
+                Assert.assertTrue(algo.name(), verifier.verify(data.getBytes(StandardCharsets.UTF_8), ByteUtil.fromHex(signature), publicKey));
+                Assert.assertFalse(algo.name(), verifier.verify("hello!".getBytes(StandardCharsets.UTF_8), ByteUtil.fromHex(signature), publicKey));
+            }
+            Assert.assertEquals(ALGOS.length, verifier.cachedKeys());
+        } finally {
+            verifier.shutdown();
+        }
+    }
+}
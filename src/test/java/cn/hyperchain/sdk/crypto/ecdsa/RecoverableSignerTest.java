@@ -0,0 +1,45 @@
+package cn.hyperchain.sdk.crypto.ecdsa;
+
+import org.bouncycastle.crypto.digests.SHA256Digest;
+import org.bouncycastle.crypto.params.ECPrivateKeyParameters;
+import org.bouncycastle.crypto.signers.ECDSASigner;
+import org.bouncycastle.crypto.signers.HMacDSAKCalculator;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.Random;
+
+public class RecoverableSignerTest {
+
+    @Test
+    public void testSameAsTrialRecovery() {
+        Random random = new Random(1);
+        ECDSASigner signer = new ECDSASigner(new HMacDSAKCalculator(new SHA256Digest()));
+        int[] recIds = new int[4];
+        for (int i = 0; i < 300; i++) {
+            ECKey key = new ECKey();
+            byte[] hash = new byte[32];
+            random.nextBytes(hash);
+            ECKey.ECDSASignature sig = key.sign(hash);
+
+            // the signature bouncy castle makes, and the recovery id found by trying every candidate key
+            BigInteger d = key.getPrivKey();
+            signer.init(true, new ECPrivateKeyParameters(d, ECKey.CURVE));
+            BigInteger[] components = signer.generateSignature(hash);
+            ECKey.ECDSASignature expected = new ECKey.ECDSASignature(components[0], components[1]).toCanonicalised();
+            Assert.assertEquals(expected.r, sig.r);
+            Assert.assertEquals(expected.s, sig.s);
+            int recId = -1;
+            for (int j = 0; j < 4 && recId == -1; j++) {
+                if (Arrays.equals(ECKey.recoverPubBytesFromSignature(j, sig, hash), key.getPubKey())) {
+                    recId = j;
+                }
+            }
+            Assert.assertEquals(recId + 27, sig.v);
+            recIds[recId]++;
+        }
+        Assert.assertTrue(recIds[0] > 0 && recIds[1] > 0);
+    }
+}
@@ -0,0 +1,62 @@
+package cn.hyperchain.sdk.crypto.sm;
+
+import cn.hyperchain.sdk.account.Account;
+import cn.hyperchain.sdk.account.Algo;
+import cn.hyperchain.sdk.account.SMAccount;
+import cn.hyperchain.sdk.account.Version;
+import cn.hyperchain.sdk.common.utils.ByteUtil;
+import cn.hyperchain.sdk.crypto.SecureRandomUtil;
+import cn.hyperchain.sdk.crypto.sm.sm2.SM2Util;
+import org.bouncycastle.crypto.AsymmetricCipherKeyPair;
+import org.bouncycastle.crypto.params.ECPrivateKeyParameters;
+import org.bouncycastle.crypto.params.ECPublicKeyParameters;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.security.SecureRandom;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+
+public class SM2Test {
+
+    @Test
+    public void testPreparedSign() throws Exception {
+        for (int i = 0; i < 20; i++) {
+            AsymmetricCipherKeyPair keyPair = SM2Util.generateKeyPair();
+            ECPrivateKeyParameters privateKey = (ECPrivateKeyParameters) keyPair.getPrivate();
+            ECPublicKeyParameters publicKey = (ECPublicKeyParameters) keyPair.getPublic();
+            Assert.assertEquals(publicKey.getQ(), SM2Util.getPublicPoint(privateKey));
+            byte[] data = ("hyperchain sm2 " + i).getBytes(StandardCharsets.UTF_8);
+            // SM2Signer derives Z itself while it verifies
+            byte[] signature = SM2Util.sign(privateKey, SM2Util.getZ(publicKey.getQ()), data);
+            Assert.assertTrue(SM2Util.verify(data, signature, publicKey));
+            Assert.assertTrue(SM2Util.verify(data, SM2Util.sign(keyPair, data), publicKey));
+            Assert.assertFalse(SM2Util.verify("other".getBytes(StandardCharsets.UTF_8), signature, publicKey));
+        }
+    }
+
+    @Test
+    public void testAccountWithoutPublicKeyParameters() {
+        AsymmetricCipherKeyPair keyPair = SM2Util.generateKeyPair();
+        byte[] privateKey = ((ECPrivateKeyParameters) keyPair.getPrivate()).getD().toByteArray();
+        String publicKey = ByteUtil.toHex(((ECPublicKeyParameters) keyPair.getPublic()).getQ().getEncoded(false));
+        // as PKIAccount creates them, with a key pair of the private key only
+        Account account = new SMAccount("0x0", publicKey, "", Version.V4, Algo.SMRAW, SM2Util.genFromPrivKey(privateKey));
+        byte[] data = "hyperchain".getBytes(StandardCharsets.UTF_8);
+        byte[] signature = account.sign(data);
+        Assert.assertTrue(new SMAccount("0x0", publicKey, "", Version.V4, Algo.SMRAW, keyPair).verify(data, signature));
+    }
+
+    @Test
+    public void testRandomPerThread() throws Exception {
+        SecureRandom random = SecureRandomUtil.getSecureRandom();
+        Assert.assertSame(random, SecureRandomUtil.getSecureRandom());
+        Assert.assertNotSame(random, CompletableFuture.supplyAsync(SecureRandomUtil::getSecureRandom).get());
+        byte[] a = new byte[32];
+        byte[] b = new byte[32];
+        random.nextBytes(a);
+        random.nextBytes(b);
+        Assert.assertFalse(Arrays.equals(a, b));
+    }
+}
@@ -1,10 +1,20 @@
 package cn.hyperchain.sdk.crypto.sm;
 
 import cn.hyperchain.sdk.common.utils.ByteUtil;
+import cn.hyperchain.sdk.common.utils.FileExtra;
+import cn.hyperchain.sdk.crypto.cryptohash.Digest;
+import cn.hyperchain.sdk.crypto.sm.sm3.SM3StreamDigest;
 import cn.hyperchain.sdk.crypto.sm.sm3.SM3Util;
 import org.junit.Assert;
 import org.junit.Test;
 
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.util.Random;
+
 public class SM3Test {
 
     private static String sourceData = "hyperchain";
@@ -14,4 +24,41 @@ public class SM3Test {
         byte[] hash = SM3Util.hash(sourceData.getBytes());
         Assert.assertEquals("96c8aaf27e596fc10922e13fc113af107717d862cc6ff4aab42161cd6a9250b6", ByteUtil.toHex(hash));
     }
+
+    @Test
+    public void testStream() throws Exception {
+        byte[] data = new byte[200 * 1024 + 13];
+        new Random(3).nextBytes(data);
+        byte[] expected = SM3Util.hash(data);
+
+        ByteBuffer direct = ByteBuffer.allocateDirect(data.length);
+        direct.put(data).flip();
+        Assert.assertArrayEquals(expected, SM3Util.hash(direct));
+        Assert.assertFalse(direct.hasRemaining());
+        Assert.assertArrayEquals(expected, SM3Util.hash(ByteBuffer.wrap(data)));
+        Assert.assertArrayEquals(expected, SM3Util.hash(new ByteArrayInputStream(data)));
+
+        SM3StreamDigest digest = new SM3StreamDigest();
+        digest.update(data, 0, 100);
+        Digest copy = digest.copy();
+        digest.update(ByteBuffer.wrap(data, 100, data.length - 100));
+        Assert.assertArrayEquals(expected, digest.digest());
+        copy.update(data, 100, data.length - 100);
+        Assert.assertArrayEquals(expected, copy.digest());
+
+        File file = File.createTempFile("sm3", ".dat");
+        try {
+            Files.write(file.toPath(), data);
+            Assert.assertArrayEquals(expected, SM3Util.hash(file.toPath()));
+            try (RandomAccessFile randomAccessFile = new RandomAccessFile(file, "r")) {
+                String hash = FileExtra.getFileSM3String(randomAccessFile);
+                Assert.assertEquals(ByteUtil.toHex(expected), hash);
+                Assert.assertEquals(0, randomAccessFile.getFilePointer());
+                Assert.assertEquals(FileExtra.HashAlgo.SM3, FileExtra.HashAlgo.of(hash));
+                Assert.assertEquals(FileExtra.HashAlgo.MD5, FileExtra.HashAlgo.of(FileExtra.getFileMD5String(randomAccessFile)));
+            }
+        } finally {
+            file.delete();
+        }
+    }
 }
@@ -2,10 +2,24 @@ package cn.hyperchain.sdk.crypto.sm;
 
 import cn.hyperchain.sdk.common.utils.ByteUtil;
 import cn.hyperchain.sdk.crypto.sm.sm4.SM4Util;
+import org.bouncycastle.crypto.engines.SM4Engine;
+import org.bouncycastle.crypto.modes.GCMBlockCipher;
+import org.bouncycastle.crypto.modes.SICBlockCipher;
+import org.bouncycastle.crypto.params.AEADParameters;
+import org.bouncycastle.crypto.params.KeyParameter;
+import org.bouncycastle.crypto.params.ParametersWithIV;
+import org.bouncycastle.jce.provider.BouncyCastleProvider;
 import org.junit.Assert;
 import org.junit.Test;
 
+import javax.crypto.Cipher;
+import javax.crypto.spec.IvParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.util.Arrays;
+import java.util.Random;
+
 public class SM4Test {
+    private static final int[] SIZES = {0, 15, 16, 1000, 1024 * 1024 + 7};
 
     @Test
     public void sm4Test() throws Exception {
@@ -19,4 +33,65 @@ public class SM4Test {
         System.out.println("明文: " + new String(dataDe));
         Assert.assertEquals(plainText, new String(dataDe));
     }
+
+    @Test
+    public void testCbcMatchesJce() throws Exception {
+        byte[] key = "11111@@@@@@@@@@@".getBytes();
+        for (int size : SIZES) {
+            byte[] data = random(size);
+            byte[] encrypted = SM4Util.encryptCbcPadding(data, "11111");
+            Cipher cipher = Cipher.getInstance(SM4Util.ALGORITHM_NAME_CBC_PADDING, BouncyCastleProvider.PROVIDER_NAME);
+            cipher.init(Cipher.DECRYPT_MODE, new SecretKeySpec(key, SM4Util.ALGORITHM_NAME), new IvParameterSpec(encrypted, 0, 16));
+            Assert.assertArrayEquals(data, cipher.doFinal(encrypted, 16, encrypted.length - 16));
+            Assert.assertArrayEquals(data, SM4Util.decryptCbcPadding(encrypted, "11111"));
+        }
+        Assert.assertEquals(0, SM4Util.decryptCbcPadding(new byte[17], "11111").length);
+    }
+
+    @Test
+    public void testCtr() {
+        byte[] key = random(16);
+        for (int size : SIZES) {
+            byte[] data = random(size);
+            byte[] encrypted = SM4Util.encryptCtr(data, key);
+            SICBlockCipher cipher = new SICBlockCipher(new SM4Engine());
+            cipher.init(true, new ParametersWithIV(new KeyParameter(key), Arrays.copyOf(encrypted, 16)));
+            byte[] expected = new byte[size];
+            cipher.processBytes(data, 0, size, expected, 0);
+            Assert.assertArrayEquals(expected, Arrays.copyOfRange(encrypted, 16, encrypted.length));
+            Assert.assertArrayEquals(data, SM4Util.decryptCtr(encrypted, key));
+        }
+    }
+
+    @Test
+    public void testGcm() throws Exception {
+        byte[] key = random(16);
+        for (byte[] aad : new byte[][]{null, random(20)}) {
+            for (int size : SIZES) {
+                byte[] data = random(size);
+                byte[] encrypted = SM4Util.encryptGcm(data, key, aad);
+                GCMBlockCipher cipher = new GCMBlockCipher(new SM4Engine());
+                cipher.init(true, new AEADParameters(new KeyParameter(key), 128, Arrays.copyOf(encrypted, 12), aad));
+                byte[] expected = new byte[cipher.getOutputSize(size)];
+                int len = cipher.processBytes(data, 0, size, expected, 0);
+                cipher.doFinal(expected, len);
+                Assert.assertArrayEquals(expected, Arrays.copyOfRange(encrypted, 12, encrypted.length));
+                Assert.assertArrayEquals(data, SM4Util.decryptGcm(encrypted, key, aad));
+
+                encrypted[encrypted.length - 1] ^= 1;
+                try {
+                    SM4Util.decryptGcm(encrypted, key, aad);
+                    Assert.fail("tampered cipher text decrypted");
+                } catch (RuntimeException e) {
+                    Assert.assertEquals("sm4 gcm tag mismatch", e.getMessage());
+                }
+            }
+        }
+    }
+
+    private static byte[] random(int size) {
+        byte[] data = new byte[size];
+        new Random(size).nextBytes(data);
+        return data;
+    }
 }
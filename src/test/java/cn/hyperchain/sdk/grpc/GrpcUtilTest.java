@@ -0,0 +1,56 @@
+package cn.hyperchain.sdk.grpc;
+
+import cn.hyperchain.sdk.account.Account;
+import cn.hyperchain.sdk.account.Algo;
+import cn.hyperchain.sdk.provider.ProviderManager;
+import cn.hyperchain.sdk.request.ReceiptRequest;
+import cn.hyperchain.sdk.request.Request;
+import cn.hyperchain.sdk.response.ReceiptResponse;
+import cn.hyperchain.sdk.service.ContractService;
+import cn.hyperchain.sdk.service.ServiceManager;
+import cn.hyperchain.sdk.service.TxService;
+import cn.hyperchain.sdk.transaction.Transaction;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class GrpcUtilTest {
+
+    @Test
+    public void testSendTxArgs() {
+        ProviderManager providerManager = ProviderManager.emptyManager();
+        Account account = ServiceManager.getAccountService(providerManager).genAccount(Algo.ECRAW);
+        String to = "0x794bf01ab3d37df2d1ea1aa4e6f4a0e988f4dea5";
+        Transaction transfer = new Transaction.Builder(account.getAddress()).extraIDLong(7L).extraIDString("id").transfer(to, 100).build();
+        Transaction deploy = new Transaction.EVMBuilder(account.getAddress()).deploy("0x6060604052").extra("extra").build();
+        Transaction invoke = new Transaction.EVMBuilder(account.getAddress()).transfer(to, 0).build();
+        invoke.setPayload("0xa9059cbb");
+        invoke.setContractName("cname");
+        Transaction simulate = new Transaction.Builder(account.getAddress()).simulate().transfer(to, 1).build();
+
+        TxService txService = ServiceManager.getTxService(providerManager);
+        ContractService contractService = ServiceManager.getContractService(providerManager);
+        List<Request> requests = new ArrayList<>();
+        for (Transaction transaction : new Transaction[]{transfer, deploy, invoke, simulate}) {
+            transaction.sign(account);
+            requests.add(txService.sendTx(transaction));
+            requests.add(txService.grpcSendTxReturnReceipt(transaction));
+        }
+        requests.add(contractService.deploy(deploy));
+        requests.add(contractService.grpcDeployReturnReceipt(deploy));
+        requests.add(contractService.invoke(invoke));
+        requests.add(contractService.maintain(invoke));
+
+        for (Request request : requests) {
+            Assert.assertNotNull(request.getTransaction());
+            // the same request without its transaction converts from the params map
+            ReceiptRequest params = new ReceiptRequest(request.getMethod(), providerManager, ReceiptResponse.class);
+            params.addParams(request.getListParams().get(0));
+            request.setNamespace("global");
+            params.setNamespace("global");
+            Assert.assertEquals(request.getMethod(), GrpcUtil.convertRequestToCommonReq(params), GrpcUtil.convertRequestToCommonReq(request));
+        }
+    }
+}
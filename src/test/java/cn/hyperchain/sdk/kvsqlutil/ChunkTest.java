@@ -0,0 +1,235 @@
+package cn.hyperchain.sdk.kvsqlutil;
+
+import cn.hyperchain.sdk.common.utils.ByteUtil;
+import cn.hyperchain.sdk.common.utils.Decoder;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * decodes a query result encoded here, no chain needed.
+ */
+public class ChunkTest {
+    private static final int ROWS = 1000;
+    private static final String[] STRINGS = {"alpha", "beta", "", "gamma", "alpha beta"};
+
+    private final boolean[] nulls = new boolean[ROWS];
+    private final long[] longs = new long[ROWS];
+    private final long[] uints = new long[ROWS];
+    private final double[] doubles = new double[ROWS];
+    private final int[] strings = new int[ROWS];
+
+    private static void writeInt(ByteArrayOutputStream out, long value, int size) {
+        for (int i = 0; i < size; i++) {
+            out.write((int) (value >>> (8 * i)));
+        }
+    }
+
+    private static void writeLenBytes(ByteArrayOutputStream out, byte[] bytes) {
+        if (bytes.length < 251) {
+            out.write(bytes.length);
+        } else {
+            out.write(253);
+            writeInt(out, bytes.length, 3);
+        }
+        out.write(bytes, 0, bytes.length);
+    }
+
+    private static void writeField(ByteArrayOutputStream out, String name, int type, int flag) {
+        for (int i = 0; i < 4; i++) {
+            writeLenBytes(out, name.getBytes(StandardCharsets.UTF_8));
+        }
+        writeInt(out, 33, 2);
+        writeInt(out, 20, 4);
+        writeInt(out, type, 1);
+        writeInt(out, flag, 2);
+        writeInt(out, 0, 1);
+    }
+
+    // a query of 5 columns over ROWS rows, filling the expected values
+    private byte[] query() {
+        Random random = new Random(1);
+        boolean[] noNulls = new boolean[ROWS];
+        ByteArrayOutputStream longData = new ByteArrayOutputStream();
+        ByteArrayOutputStream uintData = new ByteArrayOutputStream();
+        ByteArrayOutputStream doubleData = new ByteArrayOutputStream();
+        ByteArrayOutputStream stringData = new ByteArrayOutputStream();
+        ByteArrayOutputStream decimalData = new ByteArrayOutputStream();
+        int[] stringOffsets = new int[ROWS + 1];
+        int[] decimalOffsets = new int[ROWS + 1];
+        for (int i = 0; i < ROWS; i++) {
+            // a long run of nulls, then random ones
+            nulls[i] = i >= 100 && i < 300 || random.nextInt(4) == 0;
+            longs[i] = nulls[i] ? 0 : random.nextLong();
+            uints[i] = random.nextLong() & 0xffffffffL;
+            doubles[i] = random.nextDouble();
+            strings[i] = random.nextInt(STRINGS.length);
+            writeInt(longData, longs[i], 8);
+            writeInt(uintData, uints[i], 4);
+            writeInt(doubleData, Double.doubleToLongBits(doubles[i]), 8);
+            if (!nulls[i]) {
+                byte[] bytes = STRINGS[strings[i]].getBytes(StandardCharsets.UTF_8);
+                stringData.write(bytes, 0, bytes.length);
+            }
+            stringOffsets[i + 1] = stringData.size();
+            byte[] decimal = (i + "." + i).getBytes(StandardCharsets.US_ASCII);
+            decimalData.write(decimal, 0, decimal.length);
+            decimalOffsets[i + 1] = decimalData.size();
+        }
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.write(0);
+        writeInt(out, 5, 4);
+        writeField(out, "l", Column.FIELD_TYPE_LONGLONG, 0);
+        writeField(out, "u", Column.FIELD_TYPE_LONG, 32);
+        writeField(out, "d", Column.FIELD_TYPE_DOUBLE, 0);
+        writeField(out, "s", Column.FIELD_TYPE_VARCHAR, 0);
+        writeField(out, "m", Column.FIELD_TYPE_NEWDECIMAL, 0);
+        writeInt(out, ROWS, 4);
+        column(out, longData.toByteArray(), nulls, null);
+        column(out, uintData.toByteArray(), noNulls, null);
+        column(out, doubleData.toByteArray(), noNulls, null);
+        column(out, stringData.toByteArray(), nulls, stringOffsets);
+        column(out, decimalData.toByteArray(), noNulls, decimalOffsets);
+        return out.toByteArray();
+    }
+
+    @Test
+    public void testQuery() {
+        byte[] bytes = query();
+        Assert.assertTrue(bytes.length > 3 * 4096);
+
+        for (String hex : new String[]{ByteUtil.toHex(bytes), "0x" + ByteUtil.toHex(bytes)}) {
+            Chunk chunk = Decoder.decodeKVSQL(hex);
+            Assert.assertEquals(ROWS, chunk.getLength());
+            Assert.assertEquals("s", chunk.getFields()[3].getColumnName());
+
+            long[] longColumn = chunk.getLongColumn(0);
+            long[] uintColumn = chunk.getLongColumn(1);
+            double[] doubleColumn = chunk.getDoubleColumn(2);
+            DictionaryColumn stringColumn = chunk.getStringColumn(3);
+            double[] decimalColumn = chunk.getDoubleColumn(4);
+            Assert.assertEquals(ROWS, stringColumn.size());
+            Assert.assertTrue(stringColumn.getValues().length <= STRINGS.length);
+            int row = 0;
+            while (chunk.next()) {
+                Assert.assertEquals(longs[row], longColumn[row]);
+                Assert.assertEquals(nulls[row] ? null : BigInteger.valueOf(longs[row]), chunk.getLongLong(0));
+                Assert.assertEquals(nulls[row], chunk.wasNull());
+                Assert.assertEquals(uints[row], uintColumn[row]);
+                Assert.assertEquals(uints[row], chunk.getLong(1));
+                Assert.assertEquals(doubles[row], doubleColumn[row], 0);
+                Assert.assertEquals(doubles[row], chunk.getDouble(2), 0);
+                String string = nulls[row] ? null : STRINGS[strings[row]];
+                Assert.assertEquals(string, chunk.getString(3));
+                Assert.assertEquals(string, stringColumn.get(row));
+                Assert.assertEquals(new BigDecimal(row + "." + row), chunk.getDecimal(4));
+                Assert.assertEquals(Double.parseDouble(row + "." + row), decimalColumn[row], 0);
+                row++;
+            }
+            Assert.assertEquals(ROWS, row);
+
+            int last = -1;
+            int found = chunk.nextNonNullRow(3, 0);
+            for (int i = 0; i < ROWS; i++) {
+                if (!nulls[i]) {
+                    Assert.assertEquals(i, found);
+                    found = chunk.nextNonNullRow(3, i + 1);
+                    last = i;
+                }
+            }
+            Assert.assertEquals(-1, found);
+            Assert.assertTrue(last > 300);
+            Assert.assertTrue(chunk.nextNonNullRow(3, 100) >= 300);
+            Assert.assertEquals(5, chunk.nextNonNullRow(1, 5));
+        }
+    }
+
+    @Test
+    public void testConcurrentLoad() throws Exception {
+        String hex = ByteUtil.toHex(query());
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            for (int round = 0; round < 20; round++) {
+                // every thread loads the columns of a fresh chunk, sharing its blocks
+                Chunk chunk = Decoder.decodeKVSQL(hex);
+                CountDownLatch start = new CountDownLatch(1);
+                List<Future<?>> futures = new ArrayList<>();
+                for (int t = 0; t < threads; t++) {
+                    int column = t % 2 == 0 ? 3 : 0;
+                    futures.add(executor.submit(() -> {
+                        start.await();
+                        if (column == 3) {
+                            DictionaryColumn stringColumn = chunk.getStringColumn(3);
+                            for (int i = 0; i < ROWS; i++) {
+                                Assert.assertEquals(nulls[i] ? null : STRINGS[strings[i]], stringColumn.get(i));
+                            }
+                        } else {
+                            Assert.assertArrayEquals(longs, chunk.getLongColumn(0));
+                        }
+                        Assert.assertArrayEquals(uints, chunk.getLongColumn(1));
+                        return null;
+                    }));
+                }
+                start.countDown();
+                for (Future<?> future : futures) {
+                    future.get();
+                }
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testTypeMismatch() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.write(0);
+        writeInt(out, 1, 4);
+        writeField(out, "s", Column.FIELD_TYPE_VARCHAR, 0);
+        writeInt(out, 0, 4);
+        column(out, new byte[0], new boolean[0], new int[]{0});
+        Chunk chunk = Decoder.decodeKVSQL(ByteUtil.toHex(out.toByteArray()));
+        Assert.assertEquals(0, chunk.getStringColumn(0).size());
+        Assert.assertEquals(-1, chunk.nextNonNullRow(0, 0));
+        try {
+            chunk.getLongColumn(0);
+            Assert.fail();
+        } catch (RuntimeException e) {
+            Assert.assertTrue(e.getMessage().contains("not an integer type"));
+        }
+    }
+
+    private static void column(ByteArrayOutputStream out, byte[] data, boolean[] nulls, int[] offsets) {
+        writeLenBytes(out, data);
+        byte[] bitmap = new byte[(nulls.length + 7) / 8];
+        for (int i = 0; i < nulls.length; i++) {
+            if (!nulls[i]) {
+                bitmap[i / 8] |= 1 << (i & 7);
+            }
+        }
+        writeLenBytes(out, bitmap);
+        int count = offsets == null ? 0 : offsets.length;
+        if (count < 251) {
+            out.write(count);
+        } else {
+            out.write(253);
+            writeInt(out, count, 3);
+        }
+        for (int i = 0; i < count; i++) {
+            writeInt(out, offsets[i], 4);
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package cn.hyperchain.sdk.metrics;
+
+import cn.hyperchain.sdk.exception.AllNodesBadException;
+import cn.hyperchain.sdk.provider.DefaultHttpProvider;
+import cn.hyperchain.sdk.provider.ProviderManager;
+import cn.hyperchain.sdk.request.TxRequest;
+import cn.hyperchain.sdk.response.tx.TxVersionResponse;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * records the metrics of requests to a local fake node, no chain needed.
+ */
+public class SdkMetricsTest {
+    private HttpServer server;
+    private final AtomicInteger calls = new AtomicInteger();
+    private volatile int busyReplies;
+    private final Map<String, Long> meters = new ConcurrentHashMap<>();
+
+    private final MeterSdkMetrics metrics = new MeterSdkMetrics() {
+        @Override
+        protected void count(String name, long amount, String... tags) {
+            meters.merge(name + Arrays.toString(tags), amount, Long::sum);
+        }
+
+        @Override
+        protected void time(String name, long nanos, String... tags) {
+            meters.merge(name + Arrays.toString(tags), 1L, Long::sum);
+        }
+
+        @Override
+        protected void gauge(String name, long value, String... tags) {
+            meters.put(name + Arrays.toString(tags), value);
+        }
+    };
+
+    @Before
+    public void setUp() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", exchange -> {
+            ByteArrayOutputStream body = new ByteArrayOutputStream();
+            try (InputStream in = exchange.getRequestBody()) {
+                byte[] buf = new byte[1024];
+                for (int len; (len = in.read(buf)) != -1; ) {
+                    body.write(buf, 0, len);
+                }
+            }
+            String request = new String(body.toByteArray(), StandardCharsets.UTF_8);
+            String response;
+            if (request.contains("tx_getTransactionsVersion")) {
+                // keep the global TxVersion untouched
+                response = "{\"jsonrpc\":\"2.0\",\"id\":1,\"code\":-32000,\"message\":\"not supported\"}";
+            } else if (calls.incrementAndGet() <= busyReplies) {
+                response = "{\"jsonrpc\":\"2.0\",\"id\":1,\"code\":-32025,\"message\":\"dispatcher full\"}";
+            } else {
+                response = "{\"jsonrpc\":\"2.0\",\"id\":1,\"code\":0,\"message\":\"SUCCESS\",\"result\":\"ok\"}";
+            }
+            byte[] bytes = response.getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, bytes.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+        });
+        server.start();
+    }
+
+    @After
+    public void tearDown() {
+        server.stop(0);
+    }
+
+    private long meter(String name, String... tags) {
+        Long value = meters.get(name + Arrays.toString(tags));
+        return value == null ? 0 : value;
+    }
+
+    @Test
+    public void testRequestMetrics() throws Exception {
+        String url = "127.0.0.1:" + server.getAddress().getPort();
+        ProviderManager providerManager = new ProviderManager.Builder()
+                .providers(new DefaultHttpProvider.Builder().setUrl(url).build(), new DefaultHttpProvider.Builder().setUrl(url).build())
+                .metrics(metrics)
+                .build();
+        meters.clear();
+        busyReplies = calls.get() + 1;
+
+        new TxRequest("tx_getTransactionsCount", providerManager, TxVersionResponse.class).send();
+        new TxRequest("tx_getTransactionsCount", providerManager, TxVersionResponse.class).sendAsync().get();
+
+        Assert.assertEquals(3, meter(MeterSdkMetrics.REQUEST_DURATION, "provider", url, "method", "tx_getTransactionsCount", "outcome", "success"));
+        Assert.assertEquals(0, meter(MeterSdkMetrics.REQUEST_IN_FLIGHT, "provider", url));
+        Assert.assertEquals(1, meter(MeterSdkMetrics.REQUEST_RETRY, "method", "tx_getTransactionsCount", "code", "-32025"));
+        Assert.assertTrue(meter(MeterSdkMetrics.BYTES_SENT, "provider", url) > 0);
+        Assert.assertTrue(meter(MeterSdkMetrics.BYTES_RECEIVED, "provider", url) > 0);
+    }
+
+    @Test
+    public void testFailoverMetrics() throws Exception {
+        DefaultHttpProvider dead = new DefaultHttpProvider.Builder().setUrl("127.0.0.1:" + server.getAddress().getPort()).build();
+        ProviderManager providerManager = new ProviderManager.Builder().providers(dead).metrics(metrics).build();
+        String url;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            url = "127.0.0.1:" + socket.getLocalPort();
+        }
+        dead.setUrl(url);
+        meters.clear();
+        try {
+            new TxRequest("tx_getTransactionsCount", providerManager, TxVersionResponse.class).send();
+            Assert.fail();
+        } catch (AllNodesBadException e) {
+            Assert.assertEquals(1, meter(MeterSdkMetrics.REQUEST_FAILOVER, "provider", url, "method", "tx_getTransactionsCount"));
+            Assert.assertEquals(1, meter(MeterSdkMetrics.REQUEST_DURATION, "provider", url, "method", "tx_getTransactionsCount", "outcome", "failure"));
+            Assert.assertEquals(1, meter(MeterSdkMetrics.PROVIDER_STATUS, "provider", url, "from", "NORMAL", "to", "ABNORMAL"));
+        }
+    }
+}
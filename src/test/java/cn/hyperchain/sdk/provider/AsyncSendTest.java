@@ -0,0 +1,135 @@
+package cn.hyperchain.sdk.provider;
+
+import cn.hyperchain.sdk.common.utils.Async;
+import cn.hyperchain.sdk.exception.RequestException;
+import cn.hyperchain.sdk.request.TxRequest;
+import cn.hyperchain.sdk.response.tx.TxVersionResponse;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * sends requests to a local fake node, no chain needed.
+ */
+public class AsyncSendTest {
+    private HttpServer server;
+    private final AtomicInteger calls = new AtomicInteger();
+    private volatile int busyReplies;
+
+    @Before
+    public void setUp() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", exchange -> {
+            ByteArrayOutputStream body = new ByteArrayOutputStream();
+            try (InputStream in = exchange.getRequestBody()) {
+                byte[] buf = new byte[1024];
+                for (int len; (len = in.read(buf)) != -1; ) {
+                    body.write(buf, 0, len);
+                }
+            }
+            String request = new String(body.toByteArray(), StandardCharsets.UTF_8);
+            String response;
+            if (request.contains("tx_getTransactionsVersion")) {
+                // keep the global TxVersion untouched
+                response = "{\"jsonrpc\":\"2.0\",\"id\":1,\"code\":-32000,\"message\":\"not supported\"}";
+            } else if (calls.incrementAndGet() <= busyReplies) {
+                response = "{\"jsonrpc\":\"2.0\",\"id\":1,\"code\":-32025,\"message\":\"dispatcher full\"}";
+            } else {
+                response = "{\"jsonrpc\":\"2.0\",\"id\":1,\"code\":0,\"message\":\"SUCCESS\",\"result\":\"ok\"}";
+            }
+            byte[] bytes = response.getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, bytes.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+        });
+        server.start();
+    }
+
+    @After
+    public void tearDown() {
+        server.stop(0);
+    }
+
+    private String liveUrl() {
+        return "127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    private static String deadUrl() throws Exception {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return "127.0.0.1:" + socket.getLocalPort();
+        }
+    }
+
+    @Test
+    public void testSendAsync() throws Exception {
+        ProviderManager providerManager = ProviderManager.createManager(new DefaultHttpProvider.Builder().setUrl(liveUrl()).build());
+        CompletableFuture<TxVersionResponse> future = new TxRequest("tx_getTransactionsCount", providerManager, TxVersionResponse.class).sendAsync();
+        Assert.assertEquals("ok", future.get().getTxVersionResult());
+    }
+
+    @Test
+    public void testFailover() throws Exception {
+        DefaultHttpProvider dead = new DefaultHttpProvider.Builder().setUrl(liveUrl()).build();
+        ProviderManager providerManager = ProviderManager.createManager(dead, new DefaultHttpProvider.Builder().setUrl(liveUrl()).build());
+        dead.setUrl(deadUrl());
+        for (int i = 0; i < 4; i++) {
+            TxVersionResponse response = (TxVersionResponse) new TxRequest("tx_getTransactionsCount", providerManager, TxVersionResponse.class).sendAsync().get();
+            Assert.assertEquals("ok", response.getTxVersionResult());
+        }
+    }
+
+    @Test
+    public void testRetryOnDispatcherFull() throws Exception {
+        ProviderManager providerManager = ProviderManager.createManager(
+                new DefaultHttpProvider.Builder().setUrl(liveUrl()).build(),
+                new DefaultHttpProvider.Builder().setUrl(liveUrl()).build());
+        busyReplies = 1;
+        TxVersionResponse response = (TxVersionResponse) new TxRequest("tx_getTransactionsCount", providerManager, TxVersionResponse.class).sendAsync().get();
+        Assert.assertEquals("ok", response.getTxVersionResult());
+        Assert.assertEquals(2, calls.get());
+    }
+
+    @Test
+    public void testAllNodesBad() throws Exception {
+        ProviderManager providerManager = ProviderManager.createManager(new DefaultHttpProvider.Builder().setUrl(liveUrl()).build());
+        busyReplies = Integer.MAX_VALUE;
+        try {
+            new TxRequest("tx_getTransactionsCount", providerManager, TxVersionResponse.class).sendAsync().get();
+            Assert.fail();
+        } catch (ExecutionException e) {
+            Throwable cause = Async.unwrap(e);
+            Assert.assertTrue(cause instanceof RequestException);
+            Assert.assertEquals(-32025, ((RequestException) cause).getCode().intValue());
+        }
+    }
+
+    @Test
+    public void testDefaultPostAsync() throws Exception {
+        Assert.assertEquals("legacy", new LoadBalancerTest.LegacyProvider("legacy").postAsync(null).get());
+        HttpProvider failing = new LoadBalancerTest.LegacyProvider("failing") {
+            @Override
+            public Object post(cn.hyperchain.sdk.request.Request request) throws RequestException {
+                throw new RequestException(-1, "refused");
+            }
+        };
+        try {
+            failing.postAsync(null).get();
+            Assert.fail();
+        } catch (ExecutionException e) {
+            Assert.assertTrue(e.getCause() instanceof RequestException);
+        }
+    }
+}
@@ -0,0 +1,202 @@
+package cn.hyperchain.sdk.provider;
+
+import cn.hyperchain.sdk.account.Account;
+import cn.hyperchain.sdk.exception.AllNodesBadException;
+import cn.hyperchain.sdk.exception.RequestException;
+import cn.hyperchain.sdk.request.Request;
+import cn.hyperchain.sdk.request.TxRequest;
+import cn.hyperchain.sdk.response.tx.TxVersionResponse;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * ejects a node on network failure and probes it until it answers, against a local fake node.
+ */
+public class CircuitBreakerTest {
+    private HttpServer server;
+
+    @Before
+    public void setUp() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", exchange -> {
+            try (InputStream in = exchange.getRequestBody()) {
+                while (in.read() != -1) {
+                    continue;
+                }
+            }
+            // an error answer keeps the global TxVersion untouched and still proves the node is up
+            byte[] bytes = "{\"jsonrpc\":\"2.0\",\"id\":1,\"code\":-32000,\"message\":\"not supported\"}".getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, bytes.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+        });
+        server.start();
+    }
+
+    @After
+    public void tearDown() {
+        server.stop(0);
+    }
+
+    /**
+     * records the threads async requests are sent from.
+     */
+    static class RecordingProvider implements HttpProvider {
+        private final DefaultHttpProvider delegate;
+        private final List<String> threads = new CopyOnWriteArrayList<>();
+
+        RecordingProvider(DefaultHttpProvider delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public Object post(Request request) throws RequestException {
+            return delegate.post(request);
+        }
+
+        @Override
+        public CompletableFuture<Object> postAsync(Request request) {
+            threads.add(Thread.currentThread().getName());
+            return delegate.postAsync(request);
+        }
+
+        @Override
+        public PStatus getStatus() {
+            return delegate.getStatus();
+        }
+
+        @Override
+        public void setStatus(PStatus status) {
+            delegate.setStatus(status);
+        }
+
+        @Override
+        public String getUrl() {
+            return delegate.getUrl();
+        }
+
+        @Override
+        public Account getAccount() {
+            return delegate.getAccount();
+        }
+
+        @Override
+        public ProviderStats getStats() {
+            return delegate.getStats();
+        }
+    }
+
+    private static String deadUrl() throws Exception {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return "127.0.0.1:" + socket.getLocalPort();
+        }
+    }
+
+    @Test
+    public void testThresholdAndBackoff() {
+        CircuitBreaker circuitBreaker = new CircuitBreaker(3, 100, 1000);
+        Assert.assertFalse(circuitBreaker.onFailure());
+        circuitBreaker.onSuccess();
+        Assert.assertFalse(circuitBreaker.onFailure());
+        Assert.assertFalse(circuitBreaker.onFailure());
+        Assert.assertTrue(circuitBreaker.onFailure());
+        Assert.assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+        // only the first failure of an open breaker schedules a probe
+        Assert.assertFalse(circuitBreaker.onFailure());
+
+        long[] max = {100, 200, 400, 800, 1000, 1000};
+        for (long backoff : max) {
+            long delay = circuitBreaker.nextProbeDelay();
+            Assert.assertTrue(delay >= backoff / 2 && delay <= backoff);
+            circuitBreaker.onProbe();
+            Assert.assertEquals(CircuitBreaker.State.HALF_OPEN, circuitBreaker.getState());
+            circuitBreaker.onProbeResult(false);
+        }
+        circuitBreaker.onProbeResult(true);
+        Assert.assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+        long delay = circuitBreaker.nextProbeDelay();
+        Assert.assertTrue(delay >= 50 && delay <= 100);
+    }
+
+    @Test
+    public void testRecover() throws Exception {
+        String liveUrl = "127.0.0.1:" + server.getAddress().getPort();
+        DefaultHttpProvider provider = new DefaultHttpProvider.Builder().setUrl(liveUrl).build();
+        ProviderManager providerManager = new ProviderManager.Builder().providers(provider).circuitBreaker(1, 20, 50).build();
+        provider.setUrl(deadUrl());
+        try {
+            new TxRequest("tx_getTransactionsCount", providerManager, TxVersionResponse.class).send();
+            Assert.fail();
+        } catch (AllNodesBadException e) {
+            Assert.assertEquals(PStatus.ABNORMAL, provider.getStatus());
+            Assert.assertNotEquals(CircuitBreaker.State.CLOSED, providerManager.getCircuitBreaker(provider).getState());
+        }
+        // a few probes fail, then the node comes back
+        Thread.sleep(200);
+        Assert.assertEquals(PStatus.ABNORMAL, provider.getStatus());
+        provider.setUrl(liveUrl);
+        long deadline = System.currentTimeMillis() + 2000;
+        while (provider.getStatus() != PStatus.NORMAL && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        Assert.assertEquals(PStatus.NORMAL, provider.getStatus());
+        Assert.assertEquals(CircuitBreaker.State.CLOSED, providerManager.getCircuitBreaker(provider).getState());
+    }
+
+    @Test
+    public void testProbeOffTimer() throws Exception {
+        String liveUrl = "127.0.0.1:" + server.getAddress().getPort();
+        DefaultHttpProvider delegate = new DefaultHttpProvider.Builder().setUrl(liveUrl).build();
+        RecordingProvider provider = new RecordingProvider(delegate);
+        ProviderManager providerManager = new ProviderManager.Builder().providers(provider).circuitBreaker(1, 20, 50).build();
+        delegate.setUrl(deadUrl());
+        try {
+            new TxRequest("tx_getTransactionsCount", providerManager, TxVersionResponse.class).send();
+            Assert.fail();
+        } catch (AllNodesBadException e) {
+            Assert.assertEquals(PStatus.ABNORMAL, provider.getStatus());
+        }
+        Thread.sleep(200);
+        delegate.setUrl(liveUrl);
+        long deadline = System.currentTimeMillis() + 2000;
+        while (provider.getStatus() != PStatus.NORMAL && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        Assert.assertEquals(PStatus.NORMAL, provider.getStatus());
+        Assert.assertFalse(provider.threads.isEmpty());
+        Assert.assertFalse(provider.threads.toString(), provider.threads.contains("litesdk-timer"));
+    }
+
+    @Test
+    public void testStayInRotationBelowThreshold() throws Exception {
+        String liveUrl = "127.0.0.1:" + server.getAddress().getPort();
+        DefaultHttpProvider provider = new DefaultHttpProvider.Builder().setUrl(liveUrl).build();
+        ProviderManager providerManager = new ProviderManager.Builder().providers(provider).circuitBreaker(2, 20, 50).build();
+        provider.setUrl(deadUrl());
+        try {
+            new TxRequest("tx_getTransactionsCount", providerManager, TxVersionResponse.class).send();
+            Assert.fail();
+        } catch (AllNodesBadException e) {
+            Assert.assertEquals(PStatus.NORMAL, provider.getStatus());
+        }
+        try {
+            new TxRequest("tx_getTransactionsCount", providerManager, TxVersionResponse.class).send();
+            Assert.fail();
+        } catch (AllNodesBadException e) {
+            Assert.assertEquals(PStatus.ABNORMAL, provider.getStatus());
+        }
+    }
+}
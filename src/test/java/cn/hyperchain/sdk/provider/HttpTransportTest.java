@@ -0,0 +1,108 @@
+package cn.hyperchain.sdk.provider;
+
+import cn.hyperchain.sdk.request.TxRequest;
+import cn.hyperchain.sdk.response.tx.TxVersionResponse;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * shares one transport between providers, against a local fake node.
+ */
+public class HttpTransportTest {
+    private HttpServer server;
+    private volatile String lastEncoding;
+    private volatile String lastBody;
+
+    @Before
+    public void setUp() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", exchange -> {
+            lastEncoding = exchange.getRequestHeaders().getFirst("Content-Encoding");
+            InputStream in = exchange.getRequestBody();
+            if ("gzip".equals(lastEncoding)) {
+                in = new GZIPInputStream(in);
+            }
+            ByteArrayOutputStream body = new ByteArrayOutputStream();
+            byte[] buf = new byte[1024];
+            for (int len; (len = in.read(buf)) != -1; ) {
+                body.write(buf, 0, len);
+            }
+            in.close();
+            lastBody = new String(body.toByteArray(), StandardCharsets.UTF_8);
+            String response;
+            if (lastBody.contains("tx_getTransactionsVersion")) {
+                // keep the global TxVersion untouched
+                response = "{\"jsonrpc\":\"2.0\",\"id\":1,\"code\":-32000,\"message\":\"not supported\"}";
+            } else {
+                response = "{\"jsonrpc\":\"2.0\",\"id\":1,\"code\":0,\"message\":\"SUCCESS\",\"result\":\"ok\"}";
+            }
+            byte[] bytes = response.getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, bytes.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+        });
+        server.start();
+    }
+
+    @After
+    public void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    public void testShared() {
+        HttpTransport transport = new HttpTransport.Builder().connectionPool(10, 1000).maxRequests(32, 8).build();
+        DefaultHttpProvider a = new DefaultHttpProvider.Builder().transport(transport).setUrl("127.0.0.1:1").build();
+        DefaultHttpProvider b = new DefaultHttpProvider.Builder(5, 5, 5).transport(transport).setUrl("127.0.0.1:2").build();
+        FileMgrHttpProvider c = new FileMgrHttpProvider.Builder().transport(transport).setUrl("127.0.0.1:3").build();
+        for (DefaultHttpProvider provider : new DefaultHttpProvider[]{a, b, c}) {
+            Assert.assertSame(transport.getDispatcher(), provider.httpClient.dispatcher());
+        }
+        // every provider keeps idle connections to its own node
+        Assert.assertNotSame(a.httpClient.connectionPool(), b.httpClient.connectionPool());
+        Assert.assertEquals(8, a.httpClient.dispatcher().getMaxRequestsPerHost());
+        Assert.assertEquals(5000, b.httpClient.readTimeoutMillis());
+
+        DefaultHttpProvider d = new DefaultHttpProvider.Builder().setUrl("127.0.0.1:4").build();
+        DefaultHttpProvider e = new DefaultHttpProvider.Builder().setUrl("127.0.0.1:5").build();
+        Assert.assertSame(HttpTransport.getDefault().getDispatcher(), d.httpClient.dispatcher());
+        Assert.assertSame(d.httpClient.dispatcher(), e.httpClient.dispatcher());
+    }
+
+    @Test
+    public void testCustomBuilder() {
+        HttpTransport transport = new HttpTransport.Builder().build();
+        DefaultHttpProvider provider = new CustomBuilder().transport(transport).setUrl("127.0.0.1:1").build();
+        Assert.assertEquals(7000, provider.httpClient.readTimeoutMillis());
+        Assert.assertSame(transport.getDispatcher(), provider.httpClient.dispatcher());
+    }
+
+    private static class CustomBuilder extends DefaultHttpProvider.Builder {
+        CustomBuilder() {
+            builder.readTimeout(7, TimeUnit.SECONDS);
+        }
+    }
+
+    @Test
+    public void testGzipRequests() throws Exception {
+        HttpTransport transport = new HttpTransport.Builder().gzipRequests().build();
+        ProviderManager providerManager = ProviderManager.createManager(new DefaultHttpProvider.Builder()
+                .transport(transport).setUrl("127.0.0.1:" + server.getAddress().getPort()).build());
+        TxVersionResponse response = (TxVersionResponse) new TxRequest("tx_getTransactionsCount", providerManager, TxVersionResponse.class).send();
+        Assert.assertEquals("ok", response.getTxVersionResult());
+        Assert.assertEquals("gzip", lastEncoding);
+        Assert.assertTrue(lastBody.contains("tx_getTransactionsCount"));
+    }
+}
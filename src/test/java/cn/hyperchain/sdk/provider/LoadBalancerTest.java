@@ -0,0 +1,191 @@
+package cn.hyperchain.sdk.provider;
+
+import cn.hyperchain.sdk.account.Account;
+import cn.hyperchain.sdk.exception.RequestException;
+import cn.hyperchain.sdk.request.Request;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class LoadBalancerTest {
+
+    static class FakeProvider implements HttpProvider {
+        private final String url;
+        private final ProviderStats stats;
+
+        FakeProvider(String url) {
+            this(url, new ProviderStats());
+        }
+
+        FakeProvider(String url, ProviderStats stats) {
+            this.url = url;
+            this.stats = stats;
+        }
+
+        @Override
+        public Object post(Request request) {
+            return null;
+        }
+
+        @Override
+        public CompletableFuture<Object> postAsync(Request request) {
+            return CompletableFuture.completedFuture(null);
+        }
+
+        @Override
+        public PStatus getStatus() {
+            return PStatus.NORMAL;
+        }
+
+        @Override
+        public void setStatus(PStatus status) {
+        }
+
+        @Override
+        public String getUrl() {
+            return url;
+        }
+
+        @Override
+        public Account getAccount() {
+            return null;
+        }
+
+        @Override
+        public ProviderStats getStats() {
+            return stats;
+        }
+    }
+
+    /**
+     * a provider written against the interface before it had stats or async posting.
+     */
+    static class LegacyProvider implements HttpProvider {
+        private final String url;
+
+        LegacyProvider(String url) {
+            this.url = url;
+        }
+
+        @Override
+        public Object post(Request request) throws RequestException {
+            return url;
+        }
+
+        @Override
+        public PStatus getStatus() {
+            return PStatus.NORMAL;
+        }
+
+        @Override
+        public void setStatus(PStatus status) {
+        }
+
+        @Override
+        public String getUrl() {
+            return url;
+        }
+
+        @Override
+        public Account getAccount() {
+            return null;
+        }
+    }
+
+    private static void load(HttpProvider provider, long latencyNanos, int inFlight) {
+        ProviderStats stats = provider.getStats();
+        stats.onRequestEnd(stats.onRequestStart() - latencyNanos, true);
+        for (int i = 0; i < inFlight; i++) {
+            stats.onRequestStart();
+        }
+    }
+
+    @Test
+    public void testRoundRobin() {
+        List<HttpProvider> providers = Arrays.asList(new FakeProvider("a"), new FakeProvider("b"), new FakeProvider("c"));
+        LoadBalancer loadBalancer = new RoundRobinLoadBalancer();
+        Map<HttpProvider, Integer> count = new HashMap<>();
+        for (int i = 0; i < 300; i++) {
+            count.merge(loadBalancer.select(providers), 1, Integer::sum);
+        }
+        for (HttpProvider provider : providers) {
+            Assert.assertEquals(100, count.get(provider).intValue());
+        }
+    }
+
+    @Test
+    public void testLeastOutstanding() {
+        HttpProvider a = new FakeProvider("a");
+        HttpProvider b = new FakeProvider("b");
+        HttpProvider c = new FakeProvider("c");
+        load(a, 1000, 3);
+        load(b, 1000, 1);
+        load(c, 1000, 2);
+        LoadBalancer loadBalancer = new LeastOutstandingLoadBalancer();
+        for (int i = 0; i < 20; i++) {
+            Assert.assertSame(b, loadBalancer.select(Arrays.asList(a, b, c)));
+        }
+    }
+
+    @Test
+    public void testEwma() {
+        HttpProvider fast = new FakeProvider("fast");
+        HttpProvider slow = new FakeProvider("slow");
+        load(fast, 1_000_000L, 0);
+        load(slow, 500_000_000L, 0);
+        LoadBalancer loadBalancer = new EwmaLoadBalancer();
+        for (int i = 0; i < 20; i++) {
+            Assert.assertSame(fast, loadBalancer.select(Arrays.asList(fast, slow)));
+        }
+        Assert.assertSame(slow, loadBalancer.select(Arrays.asList(slow)));
+    }
+
+    @Test
+    public void testEwmaRecovers() {
+        AtomicLong now = new AtomicLong(TimeUnit.SECONDS.toNanos(1));
+        HttpProvider fast = new FakeProvider("fast", new ProviderStats(now::get));
+        HttpProvider slow = new FakeProvider("slow", new ProviderStats(now::get));
+        load(fast, 1_000_000L, 0);
+        load(slow, 500_000_000L, 0);
+        LoadBalancer loadBalancer = new EwmaLoadBalancer();
+        Assert.assertSame(fast, loadBalancer.select(Arrays.asList(fast, slow)));
+        // the fast node keeps answering in 1ms, the slow one is not asked again
+        for (int i = 0; i < 120; i++) {
+            now.addAndGet(TimeUnit.SECONDS.toNanos(1));
+            load(fast, 1_000_000L, 0);
+        }
+        Assert.assertSame(slow, loadBalancer.select(Arrays.asList(fast, slow)));
+        // a slow answer counts in full at once
+        load(slow, 500_000_000L, 0);
+        Assert.assertSame(fast, loadBalancer.select(Arrays.asList(fast, slow)));
+    }
+
+    @Test
+    public void testStats() {
+        ProviderStats stats = new ProviderStats();
+        long start = stats.onRequestStart();
+        Assert.assertEquals(1, stats.getInFlight());
+        stats.onRequestEnd(start, false);
+        Assert.assertEquals(0, stats.getInFlight());
+        Assert.assertEquals(1, stats.getTotal());
+        Assert.assertEquals(1, stats.getFailures());
+    }
+
+    @Test
+    public void testDefaultStats() {
+        HttpProvider first = new LegacyProvider("a");
+        HttpProvider second = new LegacyProvider("b");
+        Assert.assertSame(first.getStats(), first.getStats());
+        Assert.assertNotSame(first.getStats(), second.getStats());
+        load(first, 500_000_000L, 0);
+        load(second, 1_000_000L, 0);
+        Assert.assertSame(second, new EwmaLoadBalancer().select(Arrays.asList(first, second)));
+    }
+}
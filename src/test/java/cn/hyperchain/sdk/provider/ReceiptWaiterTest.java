@@ -0,0 +1,187 @@
+package cn.hyperchain.sdk.provider;
+
+import cn.hyperchain.sdk.common.utils.Async;
+import cn.hyperchain.sdk.exception.RequestException;
+import cn.hyperchain.sdk.exception.RequestExceptionCode;
+import cn.hyperchain.sdk.response.ReceiptResponse;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * waits for receipts from a local fake node, no chain needed.
+ */
+public class ReceiptWaiterTest {
+    private HttpServer server;
+    private final Set<String> mined = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger batchCalls = new AtomicInteger();
+    private final AtomicInteger receiptCalls = new AtomicInteger();
+
+    @Before
+    public void setUp() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", exchange -> {
+            JsonObject request = new JsonParser().parse(new InputStreamReader(exchange.getRequestBody(), StandardCharsets.UTF_8)).getAsJsonObject();
+            String method = request.get("method").getAsString();
+            String response;
+            if (method.equals("tx_getBatchReceipt")) {
+                batchCalls.incrementAndGet();
+                JsonArray hashes = request.getAsJsonArray("params").get(0).getAsJsonObject().getAsJsonArray("hashes");
+                JsonArray receipts = new JsonArray();
+                boolean missing = false;
+                boolean unknown = false;
+                String bad = null;
+                for (JsonElement hash : hashes) {
+                    if (hash.getAsString().startsWith("0xbad")) {
+                        bad = hash.getAsString();
+                    }
+                    unknown |= hash.getAsString().startsWith("0xunknown");
+                    if (!mined.contains(hash.getAsString())) {
+                        missing = true;
+                    }
+                    JsonObject receipt = new JsonObject();
+                    receipt.addProperty("txHash", hash.getAsString());
+                    receipt.addProperty("ret", "0x");
+                    receipts.add(receipt);
+                }
+                response = bad != null
+                        ? "{\"jsonrpc\":\"2.0\",\"id\":1,\"code\":-32602,\"message\":\"invalid params: " + bad + " is not a hash\"}"
+                        : unknown
+                        ? "{\"jsonrpc\":\"2.0\",\"id\":1,\"code\":-32602,\"message\":\"invalid params\"}"
+                        : missing
+                        ? "{\"jsonrpc\":\"2.0\",\"id\":1,\"code\":-32001,\"message\":\"not found\"}"
+                        : "{\"jsonrpc\":\"2.0\",\"id\":1,\"code\":0,\"message\":\"SUCCESS\",\"result\":" + receipts + "}";
+            } else if (method.equals("tx_getTransactionReceipt")) {
+                receiptCalls.incrementAndGet();
+                String hash = request.getAsJsonArray("params").get(0).getAsString();
+                response = hash.startsWith("0xunknown")
+                        ? "{\"jsonrpc\":\"2.0\",\"id\":1,\"code\":-32602,\"message\":\"invalid params\"}"
+                        : !mined.contains(hash)
+                        ? "{\"jsonrpc\":\"2.0\",\"id\":1,\"code\":-32001,\"message\":\"not found\"}"
+                        : "{\"jsonrpc\":\"2.0\",\"id\":1,\"code\":0,\"message\":\"SUCCESS\",\"result\":{\"txHash\":\"" + hash + "\",\"ret\":\"0x\"}}";
+            } else {
+                response = "{\"jsonrpc\":\"2.0\",\"id\":1,\"code\":-32000,\"message\":\"not supported\"}";
+            }
+            byte[] bytes = response.getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, bytes.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+        });
+        server.start();
+    }
+
+    @After
+    public void tearDown() {
+        server.stop(0);
+    }
+
+    private ProviderManager newManager() {
+        return ProviderManager.createManager(new DefaultHttpProvider.Builder().setUrl("127.0.0.1:" + server.getAddress().getPort()).build());
+    }
+
+    @Test
+    public void testBatch() throws Exception {
+        ReceiptWaiter waiter = new ReceiptWaiter(newManager(), 20, 100);
+        List<CompletableFuture<ReceiptResponse>> futures = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            mined.add("0x" + i);
+            futures.add(waiter.waitFor("0x" + i, 5000));
+        }
+        for (int i = 0; i < 200; i++) {
+            Assert.assertEquals("0x" + i, futures.get(i).get().getTxHash());
+        }
+        Assert.assertEquals(0, waiter.getPendingCount());
+        Assert.assertTrue(batchCalls.get() < 10);
+    }
+
+    @Test
+    public void testMissingReceipt() throws Exception {
+        ReceiptWaiter waiter = new ReceiptWaiter(newManager(), 20, 100);
+        List<CompletableFuture<ReceiptResponse>> futures = new ArrayList<>();
+        for (int i = 0; i < 16; i++) {
+            if (i != 5) {
+                mined.add("0x" + i);
+            }
+            futures.add(waiter.waitFor("0x" + i, 2000));
+        }
+        for (int i = 0; i < 16; i++) {
+            if (i != 5) {
+                Assert.assertEquals("0x" + i, futures.get(i).get().getTxHash());
+            }
+        }
+        try {
+            futures.get(5).get();
+            Assert.fail();
+        } catch (ExecutionException e) {
+            Throwable cause = Async.unwrap(e);
+            Assert.assertEquals(RequestExceptionCode.POLLING_TIME_OUT.getCode(), ((RequestException) cause).getCode());
+        }
+        Assert.assertEquals(0, waiter.getPendingCount());
+        // halving once per tick isolates the pending receipt with no more requests per tick than pending hashes,
+        // splitting down to it on every tick would take 31 requests a tick
+        Assert.assertTrue(String.valueOf(batchCalls.get()), batchCalls.get() <= 2 * 16 + 2000 / 20);
+    }
+
+    @Test
+    public void testBadHash() throws Exception {
+        ReceiptWaiter waiter = new ReceiptWaiter(newManager(), 20, 100);
+        List<CompletableFuture<ReceiptResponse>> futures = new ArrayList<>();
+        for (int i = 0; i < 16; i++) {
+            mined.add("0x" + i);
+            futures.add(waiter.waitFor("0x" + i, 5000));
+        }
+        CompletableFuture<ReceiptResponse> bad = waiter.waitFor("0xbad1", 5000);
+        for (int i = 0; i < 16; i++) {
+            Assert.assertEquals("0x" + i, futures.get(i).get().getTxHash());
+        }
+        try {
+            bad.get();
+            Assert.fail();
+        } catch (ExecutionException e) {
+            Assert.assertEquals(-32602, ((RequestException) Async.unwrap(e)).getCode().intValue());
+        }
+        Assert.assertEquals(2, batchCalls.get());
+    }
+
+    @Test
+    public void testErrorNamingNoHash() throws Exception {
+        ReceiptWaiter waiter = new ReceiptWaiter(newManager(), 20, 100);
+        List<CompletableFuture<ReceiptResponse>> futures = new ArrayList<>();
+        for (int i = 0; i < 15; i++) {
+            mined.add("0x" + i);
+            futures.add(waiter.waitFor("0x" + i, 5000));
+        }
+        CompletableFuture<ReceiptResponse> unknown = waiter.waitFor("0xunknown1", 5000);
+        // the error is not pinned on the batchmates, they are found by asking in halves
+        for (int i = 0; i < 15; i++) {
+            Assert.assertEquals("0x" + i, futures.get(i).get().getTxHash());
+        }
+        try {
+            unknown.get();
+            Assert.fail();
+        } catch (ExecutionException e) {
+            Assert.assertEquals(-32602, ((RequestException) Async.unwrap(e)).getCode().intValue());
+        }
+        Assert.assertEquals(1, receiptCalls.get());
+        Assert.assertTrue(String.valueOf(batchCalls.get()), batchCalls.get() < 2 * 16);
+    }
+}
@@ -0,0 +1,189 @@
+package cn.hyperchain.sdk.provider;
+
+import cn.hyperchain.sdk.common.utils.Async;
+import cn.hyperchain.sdk.exception.RequestException;
+import cn.hyperchain.sdk.exception.RequestExceptionCode;
+import cn.hyperchain.sdk.grpc.GrpcApiTransactionGrpc;
+import cn.hyperchain.sdk.grpc.Transaction.CommonReq;
+import cn.hyperchain.sdk.grpc.Transaction.CommonRes;
+import com.google.protobuf.ByteString;
+import io.grpc.Server;
+import io.grpc.ServerBuilder;
+import io.grpc.stub.StreamObserver;
+import org.bouncycastle.util.encoders.Hex;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * talks to a local grpc server, no chain needed.
+ */
+public class StreamManagerTest {
+    private static final int BATCH = 16;
+
+    private Server server;
+    private volatile boolean closeAfterBatch;
+    private volatile boolean withoutHash;
+    private volatile boolean immediate;
+
+    @Before
+    public void setUp() throws Exception {
+        server = ServerBuilder.forPort(0).addService(new GrpcApiTransactionGrpc.GrpcApiTransactionImplBase() {
+            @Override
+            public StreamObserver<CommonReq> sendTransaction(StreamObserver<CommonRes> responseObserver) {
+                return new StreamObserver<CommonReq>() {
+                    private final List<CommonReq> received = new ArrayList<>();
+
+                    @Override
+                    public void onNext(CommonReq commonReq) {
+                        if (immediate) {
+                            // "lost" is never answered, "other" is answered with the hash of another transaction
+                            String params = commonReq.getParams().toStringUtf8();
+                            if (!"lost".equals(params)) {
+                                byte[] hash = hash("other".equals(params) ? "0" : params);
+                                responseObserver.onNext(CommonRes.newBuilder().setResult(ByteString.copyFrom(hash)).build());
+                            }
+                            return;
+                        }
+                        // answer only once the whole batch is outstanding on the stream
+                        received.add(commonReq);
+                        if (received.size() < BATCH) {
+                            return;
+                        }
+                        if (closeAfterBatch) {
+                            responseObserver.onCompleted();
+                            return;
+                        }
+                        // out of order, each response names the transaction it answers
+                        for (int i = received.size() - 1; i >= 0; i--) {
+                            CommonReq req = received.get(i);
+                            ByteString result = withoutHash ? req.getParams() : ByteString.copyFrom(hash(req.getParams().toStringUtf8()));
+                            responseObserver.onNext(CommonRes.newBuilder().setResult(result).build());
+                        }
+                        received.clear();
+                    }
+
+                    @Override
+                    public void onError(Throwable throwable) {
+                    }
+
+                    @Override
+                    public void onCompleted() {
+                        responseObserver.onCompleted();
+                    }
+                };
+            }
+        }).build().start();
+    }
+
+    @After
+    public void tearDown() {
+        server.shutdownNow();
+    }
+
+    private StreamManager newStream() throws RequestException {
+        GrpcProvider provider = new GrpcProvider.Builder().setUrl("127.0.0.1:" + server.getPort()).build();
+        return new StreamManager("tx_sendTransaction", provider);
+    }
+
+    private static byte[] hash(String i) {
+        byte[] hash = new byte[32];
+        byte[] digits = i.getBytes();
+        System.arraycopy(digits, 0, hash, 32 - digits.length, digits.length);
+        return hash;
+    }
+
+    private static String txHash(Object i) {
+        return "0x" + Hex.toHexString(hash(String.valueOf(i)));
+    }
+
+    private static CommonReq request(Object i) {
+        return CommonReq.newBuilder().setParams(ByteString.copyFromUtf8(String.valueOf(i))).build();
+    }
+
+    @Test
+    public void testManyOutstanding() throws Exception {
+        StreamManager streamManager = newStream();
+        for (int round = 0; round < 3; round++) {
+            List<CompletableFuture<CommonRes>> futures = new ArrayList<>();
+            for (int i = 0; i < BATCH; i++) {
+                futures.add(streamManager.onNextAsync(request(round * BATCH + i), txHash(round * BATCH + i)));
+            }
+            for (int i = 0; i < BATCH; i++) {
+                Assert.assertArrayEquals(hash(String.valueOf(round * BATCH + i)), futures.get(i).get().getResult().toByteArray());
+            }
+            Assert.assertEquals(0, streamManager.getPendingCount());
+        }
+        Assert.assertTrue(streamManager.isNormal());
+    }
+
+    @Test
+    public void testUnmatchedFailsPending() throws Exception {
+        withoutHash = true;
+        StreamManager streamManager = newStream();
+        List<CompletableFuture<CommonRes>> futures = new ArrayList<>();
+        for (int i = 0; i < BATCH; i++) {
+            futures.add(streamManager.onNextAsync(request(i)));
+        }
+        for (CompletableFuture<CommonRes> future : futures) {
+            try {
+                future.get();
+                Assert.fail("a response was given to a request it may not answer");
+            } catch (ExecutionException e) {
+                Assert.assertEquals(RequestExceptionCode.GRPC_STREAM_FAILED.getCode(), ((RequestException) Async.unwrap(e)).getCode());
+            }
+        }
+        Assert.assertFalse(streamManager.isNormal());
+    }
+
+    @Test
+    public void testTimeoutFailsAlone() throws Exception {
+        immediate = true;
+        StreamManager streamManager = newStream();
+        streamManager.grpcProvider.setConnectTimeout(300);
+        CompletableFuture<CommonRes> lost = streamManager.onNextAsync(request("lost"), txHash("lost"));
+        // a response naming another transaction is not given to the only request outstanding
+        CompletableFuture<CommonRes> other = streamManager.onNextAsync(request("other"), txHash("other"));
+        for (CompletableFuture<CommonRes> future : Arrays.asList(lost, other)) {
+            try {
+                future.get();
+                Assert.fail();
+            } catch (ExecutionException e) {
+                Assert.assertTrue(Async.unwrap(e).getMessage().contains("time out"));
+            }
+        }
+        Assert.assertTrue(streamManager.isNormal());
+        Assert.assertEquals(0, streamManager.getPendingCount());
+        for (int i = 1; i <= 3; i++) {
+            Assert.assertArrayEquals(hash(String.valueOf(i)), streamManager.onNextAsync(request(i), txHash(i)).get().getResult().toByteArray());
+        }
+    }
+
+    @Test
+    public void testCloseFailsPending() throws Exception {
+        closeAfterBatch = true;
+        StreamManager streamManager = newStream();
+        List<CompletableFuture<CommonRes>> futures = new ArrayList<>();
+        for (int i = 0; i < BATCH; i++) {
+            futures.add(streamManager.onNextAsync(request(i)));
+        }
+        for (CompletableFuture<CommonRes> future : futures) {
+            try {
+                future.get();
+                Assert.fail();
+            } catch (ExecutionException e) {
+                Throwable cause = Async.unwrap(e);
+                Assert.assertEquals(RequestExceptionCode.GRPC_STREAM_FAILED.getCode(), ((RequestException) cause).getCode());
+            }
+        }
+        Assert.assertFalse(streamManager.isNormal());
+        Assert.assertTrue(streamManager.onNextAsync(request(0)).isCompletedExceptionally());
+    }
+}
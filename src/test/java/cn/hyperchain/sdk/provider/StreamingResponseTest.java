@@ -0,0 +1,176 @@
+package cn.hyperchain.sdk.provider;
+
+import cn.hyperchain.sdk.exception.RequestException;
+import cn.hyperchain.sdk.exception.RequestExceptionCode;
+import cn.hyperchain.sdk.metrics.SdkMetrics;
+import cn.hyperchain.sdk.request.BlockRequest;
+import cn.hyperchain.sdk.request.Request;
+import cn.hyperchain.sdk.request.SendBatchTxsRequest;
+import cn.hyperchain.sdk.request.TxRequest;
+import cn.hyperchain.sdk.response.TxHashesResponse;
+import cn.hyperchain.sdk.response.block.BlockResponse;
+import cn.hyperchain.sdk.response.tx.TxVersionResponse;
+import com.sun.net.httpserver.HttpServer;
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.core.config.Configurator;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * responses decoded while the body of a local fake node is read, no chain needed.
+ */
+public class StreamingResponseTest {
+    private static final String BLOCK = "{\"version\":\"1.0\",\"number\":\"0x%x\",\"hash\":\"0x%064x\",\"txcounts\":\"0x1\","
+            + "\"transactions\":[{\"hash\":\"0xab\",\"from\":\"0x1\",\"to\":\"0x2\"}]}";
+
+    private HttpServer server;
+    private volatile String reply;
+
+    @Before
+    public void setUp() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", exchange -> {
+            ByteArrayOutputStream body = new ByteArrayOutputStream();
+            try (InputStream in = exchange.getRequestBody()) {
+                for (int b; (b = in.read()) != -1; ) {
+                    body.write(b);
+                }
+            }
+            String response = reply;
+            if (new String(body.toByteArray(), StandardCharsets.UTF_8).contains("tx_getTransactionsVersion")) {
+                // keep the global TxVersion untouched
+                response = "{\"jsonrpc\":\"2.0\",\"id\":1,\"code\":-32000,\"message\":\"not supported\"}";
+            }
+            byte[] bytes = response.getBytes(StandardCharsets.UTF_8);
+            // a chunked response, its length is unknown until it is read
+            exchange.sendResponseHeaders(200, 0);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+        });
+        server.start();
+    }
+
+    @After
+    public void tearDown() {
+        server.stop(0);
+    }
+
+    private ProviderManager providerManager() {
+        return ProviderManager.createManager(new DefaultHttpProvider.Builder().setUrl("127.0.0.1:" + server.getAddress().getPort()).build());
+    }
+
+    private static String success(String result) {
+        return "{\"jsonrpc\":\"2.0\",\"id\":1,\"code\":0,\"message\":\"SUCCESS\",\"result\":" + result + "}";
+    }
+
+    @Test
+    public void testBlocks() throws Exception {
+        ProviderManager providerManager = providerManager();
+        StringBuilder blocks = new StringBuilder("[");
+        for (int i = 1; i <= 100; i++) {
+            blocks.append(i == 1 ? "" : ",").append(String.format(BLOCK, i, i));
+        }
+        reply = success(blocks.append("]").toString());
+        Request<BlockResponse> request = new BlockRequest("block_getBlocks", providerManager, BlockResponse.class);
+        List<BlockResponse.Block> result = request.send().getResult();
+        Assert.assertEquals(100, result.size());
+        Assert.assertEquals("0x64", result.get(99).getNumber());
+        Assert.assertEquals("0xab", result.get(0).getTransactions().get(0).getHash());
+
+        reply = success(String.format(BLOCK, 7, 7));
+        request = new BlockRequest("block_getBlockByNumber", providerManager, BlockResponse.class);
+        result = request.sendAsync().get().getResult();
+        Assert.assertEquals(1, result.size());
+        Assert.assertEquals(String.format("0x%064x", 7), result.get(0).getHash());
+    }
+
+    @Test
+    public void testBatch() throws Exception {
+        ArrayList<Request> requests = new ArrayList<>();
+        requests.add(new TxRequest("tx_a", null, TxVersionResponse.class));
+        requests.add(new TxRequest("tx_b", null, TxVersionResponse.class));
+        reply = "[" + success("\"0x01\"") + "," + success("\"0x02\"") + "]";
+        SendBatchTxsRequest request = new SendBatchTxsRequest(null, providerManager(), TxHashesResponse.class, requests);
+        TxHashesResponse response = (TxHashesResponse) request.send();
+        Assert.assertEquals(2, response.getResponses().size());
+        Assert.assertEquals("0x02", response.getResponses().get(1).getTxHash());
+    }
+
+    @Test
+    public void testBytesReceived() throws Exception {
+        AtomicLong received = new AtomicLong();
+        // multi-byte chars, a chunked body is counted in bytes, not chars
+        reply = "{\"jsonrpc\":\"2.0\",\"id\":1,\"code\":0,\"message\":\"成功\",\"result\":\"0x1\"}";
+        ProviderManager providerManager = new ProviderManager.Builder()
+                .providers(new DefaultHttpProvider.Builder().setUrl("127.0.0.1:" + server.getAddress().getPort()).build())
+                .metrics(new SdkMetrics() {
+                    @Override
+                    public void onBytesReceived(String provider, long bytes) {
+                        received.addAndGet(bytes);
+                    }
+                })
+                .build();
+
+        received.set(0);
+        new TxRequest("tx_getTransactionsCount", providerManager, TxVersionResponse.class).send();
+        Assert.assertEquals(reply.getBytes(StandardCharsets.UTF_8).length, received.get());
+
+        reply = "{\"jsonrpc\":\"2.0\",\"id\":1,\"code\":0,\"message\":\"成功\",\"result\":[" + String.format(BLOCK, 1, 1) + "]}";
+        received.set(0);
+        new BlockRequest("block_getBlocks", providerManager, BlockResponse.class).send();
+        Assert.assertEquals(reply.getBytes(StandardCharsets.UTF_8).length, received.get());
+    }
+
+    @Test
+    public void testMalformed() throws Exception {
+        DefaultHttpProvider provider = new DefaultHttpProvider.Builder().setUrl("127.0.0.1:" + server.getAddress().getPort()).build();
+        reply = "{\"jsonrpc\":\"2.0\",\"code\":0,\"result\":[";
+        Request<BlockResponse> request = new BlockRequest("block_getBlocks", null, BlockResponse.class);
+        try {
+            provider.postStreaming(request);
+            Assert.fail();
+        } catch (RequestException e) {
+            Assert.assertEquals(RequestExceptionCode.NETWORK_GETBODY_FAILED.getCode(), e.getCode());
+        }
+        try {
+            provider.postAsync(request).get();
+            Assert.fail();
+        } catch (ExecutionException e) {
+            Assert.assertEquals(RequestExceptionCode.NETWORK_GETBODY_FAILED.getCode(), ((RequestException) e.getCause()).getCode());
+        }
+    }
+
+    @Test
+    public void testDebugLogging() throws Exception {
+        DefaultHttpProvider provider = new DefaultHttpProvider.Builder().setUrl("127.0.0.1:" + server.getAddress().getPort()).build();
+        reply = success(String.format(BLOCK, 7, 7));
+        Request<BlockResponse> request = new BlockRequest("block_getBlockByNumber", null, BlockResponse.class);
+        Level level = LogManager.getLogger(DefaultHttpProvider.class).getLevel();
+        Configurator.setLevel(DefaultHttpProvider.class.getName(), Level.DEBUG);
+        try {
+            // the result does not depend on the log level
+            Assert.assertEquals(reply, provider.post(request));
+            BlockResponse response = (BlockResponse) provider.postStreaming(request);
+            Assert.assertEquals("0x7", response.getResult().get(0).getNumber());
+            Assert.assertTrue(provider.postAsync(request).get() instanceof BlockResponse);
+        } finally {
+            Configurator.setLevel(DefaultHttpProvider.class.getName(), level);
+        }
+        Assert.assertEquals(reply, provider.post(request));
+        Assert.assertTrue(provider.postStreaming(request) instanceof BlockResponse);
+    }
+}
@@ -0,0 +1,232 @@
+package cn.hyperchain.sdk.request;
+
+import cn.hyperchain.sdk.account.Account;
+import cn.hyperchain.sdk.account.Algo;
+import cn.hyperchain.sdk.exception.RequestException;
+import cn.hyperchain.sdk.exception.RequestExceptionCode;
+import cn.hyperchain.sdk.provider.DefaultHttpProvider;
+import cn.hyperchain.sdk.provider.ProviderManager;
+import cn.hyperchain.sdk.response.TxHashResponse;
+import cn.hyperchain.sdk.service.ServiceManager;
+import cn.hyperchain.sdk.transaction.Transaction;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * sends batches to a local fake node, no chain needed.
+ */
+public class BatchingTxSenderTest {
+    private HttpServer server;
+    private final AtomicInteger batches = new AtomicInteger();
+    private final AtomicInteger sent = new AtomicInteger();
+    private volatile int busyBatches;
+    private volatile int busyCode = -32025;
+    private volatile int dropResponses;
+    private volatile int extraResponses;
+
+    @Before
+    public void setUp() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", exchange -> {
+            JsonElement request = new JsonParser().parse(new InputStreamReader(exchange.getRequestBody(), StandardCharsets.UTF_8));
+            String response;
+            if (request.isJsonArray()) {
+                boolean busy = batches.incrementAndGet() <= busyBatches;
+                JsonArray responses = new JsonArray();
+                for (JsonElement tx : request.getAsJsonArray()) {
+                    JsonObject res = new JsonObject();
+                    res.addProperty("jsonrpc", "2.0");
+                    res.add("id", tx.getAsJsonObject().get("id"));
+                    if (busy) {
+                        res.addProperty("code", busyCode);
+                        res.addProperty("message", "busy");
+                    } else {
+                        sent.incrementAndGet();
+                        res.addProperty("code", 0);
+                        res.addProperty("message", "SUCCESS");
+                        res.addProperty("result", "0x" + tx.getAsJsonObject().getAsJsonArray("params").get(0).getAsJsonObject().get("nonce").getAsLong());
+                    }
+                    responses.add(res);
+                }
+                for (int i = 0; i < dropResponses && responses.size() > 0; i++) {
+                    responses.remove(responses.size() - 1);
+                }
+                for (int i = 0; i < extraResponses; i++) {
+                    responses.add(responses.get(0));
+                }
+                response = responses.toString();
+            } else {
+                response = "{\"jsonrpc\":\"2.0\",\"id\":1,\"code\":-32000,\"message\":\"not supported\"}";
+            }
+            byte[] bytes = response.getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, bytes.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+        });
+        server.start();
+    }
+
+    @After
+    public void tearDown() {
+        server.stop(0);
+    }
+
+    private BatchingTxSender.Builder newSender() {
+        ProviderManager providerManager = ProviderManager.createManager(new DefaultHttpProvider.Builder().setUrl("127.0.0.1:" + server.getAddress().getPort()).build());
+        return new BatchingTxSender.Builder(providerManager);
+    }
+
+    private static List<Transaction> transactions(int n) {
+        Account account = ServiceManager.getAccountService(ProviderManager.emptyManager()).genAccount(Algo.ECRAW);
+        List<Transaction> transactions = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            Transaction transaction = new Transaction.Builder(account.getAddress()).transfer("794BF01AB3D37DF2D1EA1AA4E6F4A0E988F4DEA5", 0).build();
+            transaction.sign(account);
+            transactions.add(transaction);
+        }
+        return transactions;
+    }
+
+    @Test
+    public void testBatching() throws Exception {
+        BatchingTxSender sender = newSender().maxBatchSize(10).linger(20).build();
+        List<Transaction> transactions = transactions(25);
+        List<CompletableFuture<TxHashResponse>> futures = new ArrayList<>();
+        for (Transaction transaction : transactions) {
+            futures.add(sender.submit(transaction));
+        }
+        for (int i = 0; i < futures.size(); i++) {
+            Assert.assertEquals("0x" + transactions.get(i).getNonce(), futures.get(i).get().getTxHash());
+        }
+        Assert.assertEquals(3, batches.get());
+        Assert.assertEquals(0, sender.getPendingCount());
+    }
+
+    @Test
+    public void testBackoff() throws Exception {
+        busyBatches = 2;
+        BatchingTxSender sender = newSender().maxBatchSize(5).linger(1).build();
+        List<CompletableFuture<TxHashResponse>> futures = new ArrayList<>();
+        for (Transaction transaction : transactions(5)) {
+            futures.add(sender.submit(transaction));
+        }
+        for (CompletableFuture<TxHashResponse> future : futures) {
+            Assert.assertEquals(0, future.get().getCode());
+        }
+        Assert.assertEquals(3, batches.get());
+        Assert.assertEquals(5, sent.get());
+    }
+
+    @Test
+    public void testGiveUp() throws Exception {
+        busyBatches = Integer.MAX_VALUE;
+        busyCode = -32026;
+        BatchingTxSender sender = newSender().maxBatchSize(2).retry(2, 10).build();
+        CompletableFuture<TxHashResponse> future = sender.submit(transactions(1).get(0));
+        try {
+            future.get();
+            Assert.fail();
+        } catch (ExecutionException e) {
+            Assert.assertEquals(-32026, ((RequestException) e.getCause()).getCode().intValue());
+        }
+        Assert.assertEquals(2, batches.get());
+    }
+
+    @Test
+    public void testSubmitFromForkJoinPool() throws Exception {
+        BatchingTxSender sender = newSender().maxBatchSize(10).maxPending(1).linger(60_000).build();
+        List<Transaction> transactions = transactions(2);
+        CompletableFuture<TxHashResponse> first = sender.submit(transactions.get(0));
+        ForkJoinPool pool = new ForkJoinPool(1);
+        try {
+            ForkJoinTask<CompletableFuture<TxHashResponse>> second = pool.submit(() -> sender.submit(transactions.get(1)));
+            // the only worker waits for a permit, the pool runs other tasks on a spare thread
+            Assert.assertTrue(pool.submit(() -> true).get(5, TimeUnit.SECONDS));
+            Assert.assertFalse(second.isDone());
+            sender.flush();
+            Assert.assertEquals(0, first.get().getCode());
+            CompletableFuture<TxHashResponse> submitted = second.get(5, TimeUnit.SECONDS);
+            sender.flush();
+            Assert.assertEquals(0, submitted.get().getCode());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testResponseSizeMismatch() throws Exception {
+        dropResponses = 1;
+        BatchingTxSender sender = newSender().maxBatchSize(3).linger(20).build();
+        List<CompletableFuture<TxHashResponse>> futures = new ArrayList<>();
+        for (Transaction transaction : transactions(3)) {
+            futures.add(sender.submit(transaction));
+        }
+        for (CompletableFuture<TxHashResponse> future : futures) {
+            try {
+                future.get();
+                Assert.fail("a transaction took the response of another");
+            } catch (ExecutionException e) {
+                Assert.assertEquals(RequestExceptionCode.NETWORK_GETBODY_FAILED.getCode(), ((RequestException) e.getCause()).getCode());
+            }
+        }
+    }
+
+    @Test
+    public void testMoreResponsesThanTransactions() throws Exception {
+        extraResponses = 2;
+        BatchingTxSender sender = newSender().maxBatchSize(3).linger(20).build();
+        List<CompletableFuture<TxHashResponse>> futures = new ArrayList<>();
+        for (Transaction transaction : transactions(3)) {
+            futures.add(sender.submit(transaction));
+        }
+        for (CompletableFuture<TxHashResponse> future : futures) {
+            try {
+                future.get();
+                Assert.fail("a batch answered with more responses than transactions completed");
+            } catch (ExecutionException e) {
+                Assert.assertEquals(RequestExceptionCode.NETWORK_GETBODY_FAILED.getCode(), ((RequestException) e.getCause()).getCode());
+            }
+        }
+    }
+
+    @Test
+    public void testBatchRejected() throws Exception {
+        busyBatches = Integer.MAX_VALUE;
+        busyCode = -32008;
+        dropResponses = 2;
+        BatchingTxSender sender = newSender().maxBatchSize(3).linger(20).build();
+        List<CompletableFuture<TxHashResponse>> futures = new ArrayList<>();
+        for (Transaction transaction : transactions(3)) {
+            futures.add(sender.submit(transaction));
+        }
+        for (CompletableFuture<TxHashResponse> future : futures) {
+            try {
+                future.get();
+                Assert.fail();
+            } catch (ExecutionException e) {
+                Assert.assertEquals(-32008, ((RequestException) e.getCause()).getCode().intValue());
+            }
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package cn.hyperchain.sdk.transaction;
+
+import cn.hyperchain.sdk.account.Account;
+import cn.hyperchain.sdk.account.Algo;
+import cn.hyperchain.sdk.common.utils.ByteUtil;
+import cn.hyperchain.sdk.provider.ProviderManager;
+import cn.hyperchain.sdk.service.AccountService;
+import cn.hyperchain.sdk.service.ServiceManager;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class TransactionSignerTest {
+    private static final AccountService accountService = ServiceManager.getAccountService(ProviderManager.emptyManager());
+
+    private static List<Transaction> transactions(Account account, int n) {
+        List<Transaction> transactions = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            transactions.add(new Transaction.Builder(account.getAddress()).transfer("794BF01AB3D37DF2D1EA1AA4E6F4A0E988F4DEA5", i).build());
+        }
+        return transactions;
+    }
+
+    @Test
+    public void testSignAll() throws Exception {
+        TransactionSigner signer = new TransactionSigner.Builder().parallelism(4).threshold(8).build();
+        try {
+            for (Algo algo : new Algo[]{Algo.ECRAW, Algo.ECRAWR1, Algo.SMRAW, Algo.ED25519RAW}) {
+                Account account = accountService.genAccount(algo);
+                List<Transaction> transactions = signer.signAllAsync(transactions(account, 100), account).get();
+                for (Transaction transaction : transactions) {
+                    Assert.assertNotNull(transaction.getSignature());
+                    Assert.assertTrue(algo.name(), account.verify(transaction.getNeedHashString().getBytes(), ByteUtil.fromHex(transaction.getSignature())));
+                }
+            }
+        } finally {
+            signer.shutdown();
+        }
+    }
+
+    @Test
+    public void testSameAsSequential() {
+        Account account = accountService.genAccount(Algo.ECRAW);
+        List<Transaction> parallel = transactions(account, 64);
+        TransactionSigner signer = new TransactionSigner.Builder().parallelism(4).threshold(4).build();
+        try {
+            signer.signAll(parallel, account);
+        } finally {
+            signer.shutdown();
+        }
+        for (Transaction transaction : parallel) {
+            String signature = transaction.getSignature();
+            transaction.sign(account);
+            Assert.assertEquals(transaction.getSignature(), signature);
+        }
+    }
+}
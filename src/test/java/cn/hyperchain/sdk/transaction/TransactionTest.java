@@ -2,12 +2,25 @@ package cn.hyperchain.sdk.transaction;
 
 import cn.hyperchain.contract.BaseContractInterface;
 import cn.hyperchain.contract.BaseInvoke;
+import cn.hyperchain.sdk.account.Account;
+import cn.hyperchain.sdk.account.Algo;
+import cn.hyperchain.sdk.common.utils.ByteUtil;
 import cn.hyperchain.sdk.common.utils.FileUtil;
+import cn.hyperchain.sdk.crypto.HashUtil;
+import cn.hyperchain.sdk.provider.ProviderManager;
+import cn.hyperchain.sdk.service.ServiceManager;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
 import org.junit.Assert;
 import org.junit.Test;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
 
 public class TransactionTest {
 
@@ -64,4 +77,135 @@ public class TransactionTest {
             Assert.assertEquals(txJson, Transaction.serialize(txD));
         }
     }
+
+    static Transaction hashTransaction(TxVersion txVersion) {
+        Transaction transaction = new Transaction.Builder("0x856e2b9a5fa82fd1b031d1ff6863864dbac7995d")
+                .extraIDLong(7L).extraIDString("id").transfer("0x794bf01ab3d37df2d1ea1aa4e6f4a0e988f4dea5", 100).build();
+        transaction.setTxVersion(txVersion);
+        transaction.setVmType(VMType.EVM);
+        transaction.setPayload("0x60606040523415600e57600080fd5b");
+        transaction.setExtra("extra");
+        transaction.setTimestamp(1600000000000000000L);
+        transaction.setNonce(4567890123456789L);
+        transaction.setSignature("0x00e4a1f0b2c3d4e5f60718293a4b5c6d7e8f90112233445566778899aabbccddeeff0011223344556677889900aabbccddeeff00112233445566778899aabbccdd01");
+        return transaction;
+    }
+
+    @Test
+    public void testTransactionHash() {
+        TxVersion[] versions = {TxVersion.TxVersion10, TxVersion.TxVersion20, TxVersion.TxVersion21, TxVersion.TxVersion22,
+                TxVersion.TxVersion25, TxVersion.TxVersion26, TxVersion.TxVersion30, TxVersion.TxVersion34};
+        // computed by hashing the Gson json of the fields
+        String[] expected = {
+                "0x4e28285a19f5c0c9215f46b11e7b17e95ddfb9b999e5bf582d7a15c0f6cba008",
+                "0x04d96cea28b3e16440cec03fc1cdc3217f89e2cb739b7ecbee2431a6f86e30c7",
+                "0x04d96cea28b3e16440cec03fc1cdc3217f89e2cb739b7ecbee2431a6f86e30c7",
+                "0x04d96cea28b3e16440cec03fc1cdc3217f89e2cb739b7ecbee2431a6f86e30c7",
+                "0x16345785d8a0000040cec03fc1cdc3217f89e2cb739b7ecbee2431a6f86e30c7",
+                "0x16345785d8a0000040cec03fc1cdc3217f89e2cb739b7ecbee2431a6f86e30c7",
+                "0x16345785d8a0000040cec03fc1cdc3217f89e2cb739b7ecbee2431a6f86e30c7",
+                "0x16345785d8a0000040cec03fc1cdc3217f89e2cb739b7ecbee2431a6f86e30c7"
+        };
+        List<Transaction> transactions = new ArrayList<>();
+        for (int i = 0; i < versions.length; i++) {
+            Transaction transaction = hashTransaction(versions[i]);
+            Assert.assertEquals(expected[i], transaction.getTransactionHash());
+            transactions.add(transaction);
+        }
+        Assert.assertEquals(Arrays.asList(expected), Transaction.hashAll(transactions));
+        for (int i = 0; i < 100; i++) {
+            transactions.add(hashTransaction(versions[i % versions.length]));
+        }
+        List<String> hashes = Transaction.hashAll(transactions);
+        for (int i = 0; i < transactions.size(); i++) {
+            Assert.assertEquals(expected[i % versions.length], hashes.get(i));
+        }
+    }
+
+    @Test
+    public void testNeedHashString() {
+        TxVersion[] versions = {TxVersion.TxVersion10, TxVersion.TxVersion20, TxVersion.TxVersion21, TxVersion.TxVersion22, TxVersion.TxVersion34};
+        String addresses = "from=0x856e2b9a5fa82fd1b031d1ff6863864dbac7995d&to=0x794bf01ab3d37df2d1ea1aa4e6f4a0e988f4dea5";
+        String times = "&timestamp=0x16345785d8a00000&nonce=0x103a78cc2e8115";
+        String flato = addresses + "&value=0x64&payload=0x60606040523415600e57600080fd5b" + times
+                + "&opcode=ffffffff&extra=中文&vmtype=EVM&version=";
+        String[] expected = {
+                addresses + "&value=0x60606040523415600e57600080fd5b" + times + "&opcode=-1&extra=中文&vmtype=EVM",
+                flato + "2.0",
+                flato + "2.1&extraid=[7,\"id\"]",
+                flato + "2.2&extraid=[7,\"id\"]&cname=cname",
+                flato + "3.4&extraid=[7,\"id\"]&cname=cname"
+        };
+        Account account = ServiceManager.getAccountService(ProviderManager.emptyManager()).genAccount(Algo.ECRAW);
+        for (int i = 0; i < versions.length; i++) {
+            Transaction transaction = hashTransaction(versions[i]);
+            transaction.setFrom("0x856E2B9A5fa82fd1b031d1ff6863864dbac7995d");
+            transaction.setExtra("中文");
+            transaction.setContractName("cname");
+            transaction.setOpCode(-1);
+            transaction.setNeedHashString();
+            Assert.assertEquals(expected[i], transaction.getNeedHashString());
+
+            transaction.sign(account);
+            Assert.assertEquals(expected[i], transaction.getNeedHashString());
+            Assert.assertTrue(account.verify(expected[i].getBytes(StandardCharsets.UTF_8), ByteUtil.fromHex(transaction.getSignature())));
+        }
+    }
+
+    @Test
+    public void testTransactionHashWriter() {
+        Gson gson = new GsonBuilder().disableHtmlEscaping().create();
+        Random random = new Random(1);
+        String[] hexes = {null, "", "0x", "0x0", "0xABCdef", "abc", "0x123", "0x12  345", "0x" + ByteUtil.toHex(new byte[300])};
+        for (int i = 0; i < 2000; i++) {
+            String from = i < hexes.length ? hexes[i] : randomHex(random);
+            String to = i % 7 == 0 ? "0x0" : (i < hexes.length ? hexes[hexes.length - 1 - i] : randomHex(random));
+            byte[] value = new byte[random.nextInt(200)];
+            random.nextBytes(value);
+            long timestamp = i == 1 ? Long.MIN_VALUE : random.nextLong();
+            long nonce = i == 2 ? 0 : random.nextLong() >>> random.nextInt(64);
+            String signature = randomHex(random);
+
+            Object[] fields = new Object[6];
+            fields[0] = ByteUtil.hex2Base64(from);
+            if (!"0x0".equals(to)) {
+                fields[1] = ByteUtil.hex2Base64(to);
+            }
+            fields[2] = ByteUtil.base64(value);
+            fields[3] = timestamp;
+            fields[4] = nonce;
+            fields[5] = ByteUtil.hex2Base64(signature);
+            byte[] expected = HashUtil.sha3(gson.toJson(fields).getBytes());
+            Assert.assertArrayEquals(expected, TransactionHashWriter.get().hash(from, to, value, timestamp, nonce, signature));
+        }
+    }
+
+    @Test
+    public void testTransactionHashWriterAfterFailure() {
+        byte[] value = new byte[1000];
+        new Random(2).nextBytes(value);
+        TransactionHashWriter writer = TransactionHashWriter.get();
+        byte[] expected = writer.hash("0x01", "0x02", value, 1, 2, "0xabcd");
+        try {
+            // the value is flushed into the digest before the signature fails
+            writer.hash("0x01", "0x02", value, 1, 2, "0xzz");
+            Assert.fail();
+        } catch (RuntimeException e) {
+            // invalid hex
+        }
+        Assert.assertArrayEquals(expected, writer.hash("0x01", "0x02", value, 1, 2, "0xabcd"));
+    }
+
+    private static String randomHex(Random random) {
+        byte[] bytes = new byte[random.nextInt(random.nextInt(10) == 0 ? 2000 : 80)];
+        random.nextBytes(bytes);
+        String hex = ByteUtil.toHex(bytes);
+        if (random.nextBoolean()) {
+            hex = hex.toUpperCase();
+        }
+        if (random.nextBoolean() && hex.length() > 0) {
+            hex = hex.substring(1);
+        }
+        return random.nextBoolean() ? "0x" + hex : hex;
+    }
 }